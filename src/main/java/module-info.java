@@ -2,6 +2,8 @@ module org.demo {
     requires javafx.controls;
     requires javafx.fxml;
     requires javafx.graphics;
+    requires java.sql;
+    requires com.h2database;
 
     opens org.demo to javafx.fxml;
     opens org.demo.Controllers to javafx.fxml;
@@ -10,4 +12,9 @@ module org.demo {
     exports org.demo;
     exports org.demo.Controllers;
     exports org.demo.Models;
+    exports org.demo.Repositories;
+    exports org.demo.Persistence;
+    exports org.demo.Services;
+    exports org.demo.Utils;
+    exports org.demo.Views;
 }
\ No newline at end of file
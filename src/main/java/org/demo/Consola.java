@@ -0,0 +1,112 @@
+package org.demo;
+
+import org.demo.Repositories.Repositorios;
+import org.demo.Repositories.VentasColumnares.FiltroVentas;
+import org.demo.Repositories.VentasColumnares.Resumen;
+import org.demo.Services.ExportadorVentas;
+import org.demo.Services.ImportadorCsv;
+import org.demo.Services.MotorReportes;
+import org.demo.Services.ResultadoImportacion;
+import org.demo.Utils.Dinero;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Punto de entrada sin interfaz gráfica, para procesos por lotes y servidores.
+ *
+ * <p>Usa los mismos repositorios y servicios que la aplicación de escritorio, pero no carga
+ * ninguna clase de JavaFX: solo las de {@code org.demo.Views} y {@code org.demo.Controllers}
+ * dependen del toolkit. Por eso puede ejecutarse desde el classpath sin JavaFX instalado:</p>
+ *
+ * <pre>java -cp target/classes:h2.jar org.demo.Consola reporte MES</pre>
+ *
+ * <p>Las propiedades {@code ventas.datos.dir} y {@code ventas.almacenamiento} eligen los datos
+ * igual que en la aplicación de escritorio.</p>
+ */
+public final class Consola {
+    private static final String USO = String.join(System.lineSeparator(),
+            "Uso: org.demo.Consola <comando> [argumentos]",
+            "  resumen                          totales de clientes, productos y ventas",
+            "  reporte <agrupación>             DIA, SEMANA, MES, CATEGORIA, CLIENTE o PRODUCTO",
+            "  importar-clientes <archivo.csv>  importa clientes; los rechazos van a <archivo>.rechazos.csv",
+            "  importar-productos <archivo.csv> importa productos; los rechazos van a <archivo>.rechazos.csv",
+            "  exportar <archivo.csv|.bin>      exporta todas las ventas");
+
+    private Consola() {}
+
+    public static void main(String[] argumentos) {
+        if (argumentos.length == 0) {
+            System.err.println(USO);
+            System.exit(2);
+        }
+        try {
+            ejecutar(argumentos);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USO);
+            System.exit(2);
+        } finally {
+            Repositorios.cerrar();
+        }
+    }
+
+    private static void ejecutar(String[] argumentos) {
+        switch (argumentos[0]) {
+            case "resumen" -> resumen();
+            case "reporte" -> reporte(argumento(argumentos));
+            case "importar-clientes" -> informar(Path.of(argumento(argumentos)),
+                    ImportadorCsv.importarClientes(Path.of(argumento(argumentos)), Repositorios.clientes()));
+            case "importar-productos" -> informar(Path.of(argumento(argumentos)),
+                    ImportadorCsv.importarProductos(Path.of(argumento(argumentos)), Repositorios.productos()));
+            case "exportar" -> exportar(Path.of(argumento(argumentos)));
+            default -> throw new IllegalArgumentException("Comando desconocido: " + argumentos[0]);
+        }
+    }
+
+    private static String argumento(String[] argumentos) {
+        if (argumentos.length < 2) {
+            throw new IllegalArgumentException("Falta el argumento de " + argumentos[0]);
+        }
+        return argumentos[1];
+    }
+
+    private static void resumen() {
+        System.out.printf("Clientes:  %,d%n", Repositorios.clientes().contarClientes());
+        System.out.printf("Productos: %,d%n", Repositorios.productos().contarProductos());
+        Resumen ventas = Repositorios.ventasColumnares().agregar(FiltroVentas.todas());
+        System.out.printf("Ventas:    %,d (%,d unidades, %s)%n", ventas.ventas(), ventas.unidades(),
+                Dinero.formatear(ventas.importe()));
+    }
+
+    private static void reporte(String agrupacion) {
+        MotorReportes.Agrupacion criterio;
+        try {
+            criterio = MotorReportes.Agrupacion.valueOf(agrupacion.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Agrupación desconocida: " + agrupacion);
+        }
+        for (MotorReportes.FilaReporte fila : MotorReportes.getInstancia().generar(criterio, FiltroVentas.todas())) {
+            Resumen resumen = fila.resumen();
+            System.out.printf("%-30s %,10d ventas %,10d unidades %18s%n", fila.grupo(), resumen.ventas(),
+                    resumen.unidades(), Dinero.formatear(resumen.importe()));
+        }
+    }
+
+    private static void informar(Path archivo, ResultadoImportacion resultado) {
+        System.out.printf("Aceptados: %,d%n", resultado.getAceptados());
+        if (!resultado.getRechazos().isEmpty()) {
+            Path reporte = archivo.resolveSibling(archivo.getFileName() + ".rechazos.csv");
+            resultado.escribirReporte(reporte);
+            System.out.printf("Rechazados: %,d (detalle en %s)%n", resultado.getRechazos().size(), reporte);
+        }
+    }
+
+    private static void exportar(Path archivo) {
+        ExportadorVentas.Progreso sinProgreso = (leidas, total) -> {};
+        long exportadas = archivo.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".bin")
+                ? ExportadorVentas.exportarBinario(Repositorios.ventas(), archivo, null, null, sinProgreso)
+                : ExportadorVentas.exportarCsv(Repositorios.ventas(), archivo, null, null, sinProgreso);
+        System.out.printf("Exportadas: %,d ventas a %s%n", exportadas, archivo);
+    }
+}
@@ -1,20 +1,36 @@
 package org.demo.Controllers;
 
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.FileChooser;
 import org.demo.Models.Cliente;
-import org.demo.Repositories.ClienteRepository;
+import org.demo.Services.BuscadorClientes;
+import org.demo.Services.ImportadorCsv;
+import org.demo.Services.ResultadoImportacion;
+import org.demo.Views.CeldasTabla;
+import org.demo.Views.ClienteRepositoryFX;
+import org.demo.Views.PaginacionTabla;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.regex.Pattern.matches;
-import static org.demo.Utils.AlertHelper.mostrarAlerta;
+import static org.demo.Views.AlertHelper.mostrarAlerta;
 
 /**
  * Controlador encargado de gestionar las operaciones CRUD de los clientes.
  * Administra la interfaz de usuario para registrar, actualizar, eliminar y visualizar clientes.
  */
 
-public class ClientesController {
+public class ClientesController implements ControladorVista {
+    private static final int MAXIMO_RESULTADOS = 500;
 
     @FXML private TextField txtNombre;
     @FXML private TextField txtDocumento;
@@ -23,6 +39,7 @@ public class ClientesController {
     @FXML private TextField txtCorreo;
 
     @FXML private TableView<Cliente> tblClientes;
+    @FXML private Button btnImportar;
 
     @FXML private TableColumn<Cliente, String> colNombre;
     @FXML private TableColumn<Cliente, String> colDocumento;
@@ -30,24 +47,41 @@ public class ClientesController {
     @FXML private TableColumn<Cliente, String> colDireccion;
     @FXML private TableColumn<Cliente, String> colCorreo;
 
-    private ClienteRepository clienteRepository;
+    @FXML private TextField txtBuscar;
+    @FXML private Label lblResultados;
+
+    private ClienteRepositoryFX clienteRepository;
     private DashboardController dashboardController;
+    private final ExecutorService hiloBusqueda = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "busqueda-clientes");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+    // Cambia con cada tecla, para descartar las búsquedas que quedaron atrás
+    private final AtomicInteger ultimaBusqueda = new AtomicInteger();
 
     /**
-     * Inicializa la tabla y los listeners de selección de cliente.
-     * Se ejecuta automáticamente al cargar la vista FXML.
+     * Inicializa la tabla, la búsqueda y los listeners de selección de cliente.
+     * Se ejecuta en el hilo de JavaFX la primera vez que se muestra la vista.
      */
-    @FXML
-    public void initialize(){
-        clienteRepository = ClienteRepository.getInstancia();
+    @Override
+    public void iniciar(){
+        clienteRepository = ClienteRepositoryFX.getInstancia();
 
-        colNombre.setCellValueFactory(new PropertyValueFactory<>("nombre"));
-        colDocumento.setCellValueFactory(new PropertyValueFactory<>("documento"));
-        colTelefono.setCellValueFactory(new PropertyValueFactory<>("telefono"));
-        colDireccion.setCellValueFactory(new PropertyValueFactory<>("direccion"));
-        colCorreo.setCellValueFactory(new PropertyValueFactory<>("correo"));
+        CeldasTabla.valor(colNombre, Cliente::getNombre);
+        CeldasTabla.valor(colDocumento, Cliente::getDocumento);
+        CeldasTabla.valor(colTelefono, Cliente::getTelefono);
+        CeldasTabla.valor(colDireccion, Cliente::getDireccion);
+        CeldasTabla.valor(colCorreo, Cliente::getCorreo);
 
+        txtBuscar.textProperty().addListener((observable, anterior, actual) -> cargarClientes());
         cargarClientes();
+        PaginacionTabla.enlazar(tblClientes, () -> {
+            // Los resultados de una búsqueda ya están completos
+            if (txtBuscar.getText().strip().length() < 2) {
+                clienteRepository.cargarSiguientePagina();
+            }
+        });
 
         tblClientes.getSelectionModel().selectedItemProperty().addListener((obs, clienteAnterior, clienteSeleccionado) -> {
             if (clienteSeleccionado != null) {
@@ -140,13 +174,15 @@ public class ClientesController {
             return;
         }
 
-        clienteSeleccionado.setNombre(txtNombre.getText());
-        clienteSeleccionado.setDocumento(txtDocumento.getText());
-        clienteSeleccionado.setTelefono(txtTelefono.getText());
-        clienteSeleccionado.setDireccion(txtDireccion.getText());
-        clienteSeleccionado.setCorreo(txtCorreo.getText());
-
-        clienteRepository.actualizarCliente(clienteSeleccionado);
+        // Los datos nuevos van en una copia: el repositorio los aplica solo si el documento y el correo no son de otro cliente
+        Cliente datos = new Cliente(clienteSeleccionado.getId(), txtNombre.getText(), txtDocumento.getText(),
+                txtTelefono.getText(), txtDireccion.getText(), txtCorreo.getText());
+        try {
+            clienteRepository.actualizarCliente(datos);
+        } catch (RuntimeException e) {
+            mostrarAlerta(e.getMessage());
+            return;
+        }
         cargarClientes();
         tblClientes.refresh();
 
@@ -178,10 +214,94 @@ public class ClientesController {
     }
 
     /**
-     * Carga la lista de clientes en la tabla desde el repositorio.
+     * Carga la lista de clientes en la tabla desde el repositorio o, si hay texto en la búsqueda,
+     * los clientes que más se le parecen. La búsqueda corre en segundo plano y, si mientras tanto
+     * se sigue escribiendo, solo se muestra la del texto más reciente.
      */
     private void cargarClientes(){
-        tblClientes.setItems(clienteRepository.getClientes());
+        String consulta = txtBuscar.getText();
+        int numero = ultimaBusqueda.incrementAndGet();
+        // Con menos de dos caracteres todavía no hay nada que buscar
+        if (consulta.strip().length() < 2) {
+            tblClientes.setItems(clienteRepository.getClientes());
+            lblResultados.setText("");
+            return;
+        }
+        lblResultados.setText("Buscando...");
+        hiloBusqueda.execute(() -> {
+            if (numero != ultimaBusqueda.get()) {
+                return;
+            }
+            List<Cliente> encontrados = null;
+            try {
+                encontrados = BuscadorClientes.getInstancia().buscar(consulta, MAXIMO_RESULTADOS);
+            } finally {
+                List<Cliente> resultado = encontrados;
+                Platform.runLater(() -> mostrarBusqueda(numero, resultado));
+            }
+        });
+    }
+
+    private void mostrarBusqueda(int numero, List<Cliente> encontrados){
+        if (numero != ultimaBusqueda.get()) {
+            return;
+        }
+        if (encontrados == null) {
+            lblResultados.setText("");
+            mostrarAlerta("No se ha podido buscar el cliente");
+            return;
+        }
+        tblClientes.setItems(FXCollections.observableArrayList(encontrados));
+        lblResultados.setText(encontrados.size() == MAXIMO_RESULTADOS
+                ? "Los " + MAXIMO_RESULTADOS + " clientes más parecidos"
+                : encontrados.size() + " clientes");
+    }
+
+    /**
+     * Importa clientes desde un archivo CSV elegido por el usuario.
+     * La importación corre en segundo plano; al terminar se muestra un resumen y, si hubo filas
+     * rechazadas, se escribe un reporte junto al archivo original.
+     */
+    @FXML
+    private void onImportarCsv(){
+        FileChooser selector = new FileChooser();
+        selector.setTitle("Importar clientes");
+        selector.getExtensionFilters().add(new FileChooser.ExtensionFilter("Archivos CSV", "*.csv"));
+        File archivo = selector.showOpenDialog(tblClientes.getScene().getWindow());
+        if(archivo == null){
+            return;
+        }
+        Path reporte = archivo.toPath().resolveSibling(archivo.getName() + ".rechazos.csv");
+
+        Task<ResultadoImportacion> importacion = new Task<>() {
+            @Override
+            protected ResultadoImportacion call() {
+                ResultadoImportacion resultado = ImportadorCsv.importarClientes(archivo.toPath(), clienteRepository);
+                if(!resultado.getRechazos().isEmpty()){
+                    resultado.escribirReporte(reporte);
+                }
+                return resultado;
+            }
+        };
+        importacion.setOnSucceeded(evento -> {
+            btnImportar.setDisable(false);
+            ResultadoImportacion resultado = importacion.getValue();
+            String mensaje = "Clientes importados: " + resultado.getAceptados()
+                    + "\nFilas rechazadas: " + resultado.getRechazos().size();
+            if(!resultado.getRechazos().isEmpty()){
+                mensaje += "\nReporte de rechazos: " + reporte;
+            }
+            mostrarAlerta("Importación finalizada", mensaje, Alert.AlertType.INFORMATION);
+        });
+        importacion.setOnFailed(evento -> {
+            btnImportar.setDisable(false);
+            mostrarAlerta("No se ha podido importar el archivo: " + importacion.getException().getMessage());
+        });
+
+        btnImportar.setDisable(true);
+        Thread hilo = new Thread(importacion, "importacion-clientes");
+        hilo.setDaemon(true);
+        hilo.start();
     }
 
     /**
@@ -233,6 +353,7 @@ public class ClientesController {
      * Establece una referencia al controlador principal del panel de administración.
      * @param dashboardController instancia del controlador principal.
      */
+    @Override
     public void setDashboardController(DashboardController dashboardController){
         this.dashboardController = dashboardController;
     }
@@ -0,0 +1,25 @@
+package org.demo.Controllers;
+
+/**
+ * Controlador de una vista que se muestra en el área central del dashboard.
+ *
+ * <p>{@link RegistroVistas} lee el FXML de la vista en un hilo aparte y, la primera vez que se
+ * muestra, le entrega el dashboard e inicializa el controlador en el hilo de JavaFX. Por eso
+ * estos controladores se inicializan en {@link #iniciar()} y no en {@code initialize()}, que el
+ * {@code FXMLLoader} invocaría en el hilo de la lectura.</p>
+ */
+interface ControladorVista {
+
+    /**
+     * Establece una referencia al controlador principal del panel de administración.
+     *
+     * @param dashboardController instancia del controlador principal.
+     */
+    void setDashboardController(DashboardController dashboardController);
+
+    /**
+     * Configura la vista y la enlaza con los repositorios. Se invoca una sola vez,
+     * en el hilo de JavaFX, después de {@link #setDashboardController}.
+     */
+    void iniciar();
+}
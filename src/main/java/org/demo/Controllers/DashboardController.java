@@ -1,25 +1,46 @@
 package org.demo.Controllers;
 
-import javafx.beans.binding.Bindings;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.StackPane;
-import org.demo.Repositories.ClienteRepository;
-import org.demo.Repositories.ProductoRepository;
-import org.demo.Repositories.VentaRepository;
-
-import java.io.IOException;
+import org.demo.Services.AgregadosVentas;
+import org.demo.Services.AlertasStock;
+import org.demo.Services.BocetosVentas;
+import org.demo.Services.Ranking;
+import org.demo.Services.VentasPorPeriodo;
+import org.demo.Utils.Dinero;
+import org.demo.Views.ClienteRepositoryFX;
+import org.demo.Views.ProductoRepositoryFX;
+import org.demo.Views.VentaRepositoryFX;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Controlador principal del panel de administración.
- * Gestiona la carga dinámica de vistas secundarias (clientes, productos y ventas)
- * dentro del área central del dashboard y muestra los conteos actualizados
- * de entidades registradas.
+ * Gestiona la navegación entre las vistas secundarias (clientes, productos y ventas),
+ * precargadas y reutilizadas por {@link RegistroVistas}, dentro del área central del dashboard,
+ * y muestra los conteos actualizados de entidades registradas, los totales de ventas
+ * (también los de hoy, la última semana y el mes, y los clientes distintos estimados del último mes),
+ * los productos y clientes con más ingresos y los productos con stock bajo.
  */
 public class DashboardController {
+    private static final String VISTA_CLIENTES = "/org/demo/Clientes.fxml";
+    private static final String VISTA_PRODUCTOS = "/org/demo/Productos.fxml";
+    private static final String VISTA_VENTAS = "/org/demo/Ventas.fxml";
 
     @FXML private StackPane contenedorCentro;
     @FXML private AnchorPane vistaInicio;
@@ -27,60 +48,166 @@ public class DashboardController {
     @FXML private Label lblClientes;
     @FXML private Label lblProductos;
     @FXML private Label lblVentas;
+    @FXML private Label lblIngresos;
+    @FXML private Label lblUnidades;
+    @FXML private Label lblCategorias;
+    @FXML private Label lblPeriodos;
+    @FXML private ListView<String> lstTopProductos;
+    @FXML private ListView<String> lstTopClientes;
+    @FXML private ListView<String> lstStockBajo;
+
+    private RegistroVistas registroVistas;
+
+    // Evita encolar más de una actualización de los totales mientras la anterior no se ha mostrado
+    private final AtomicBoolean actualizacionPendiente = new AtomicBoolean();
+
+    // Alertas recibidas en los hilos de venta, pendientes de aplicar en el hilo de JavaFX
+    private final Queue<AlertasStock.Alerta> alertasPendientes = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean alertasProgramadas = new AtomicBoolean();
+    // Productos con stock bajo mostrados; solo se usa en el hilo de JavaFX
+    private final Map<Long, AlertasStock.Alerta> stockBajo = new HashMap<>();
 
     /**
      * Inicializa el dashboard.
      * Establece enlaces automáticos entre las etiquetas de conteo y
-     * las listas observables de los repositorios correspondientes.
+     * los totales de los repositorios correspondientes, muestra los totales de ventas
+     * y empieza a precargar las vistas de clientes, productos y ventas.
      */
     @FXML
     public void initialize(){
+        registroVistas = new RegistroVistas(this);
+        registroVistas.precargar(VISTA_CLIENTES, VISTA_PRODUCTOS, VISTA_VENTAS);
+
         lblClientes.textProperty().bind(
-                Bindings.size(ClienteRepository.getInstancia().getClientes()).asString()
+                ClienteRepositoryFX.getInstancia().totalClientesProperty().asString()
         );
         lblProductos.textProperty().bind(
-                Bindings.size(ProductoRepository.getInstancia().getProductos()).asString()
+                ProductoRepositoryFX.getInstancia().totalProductosProperty().asString()
         );
         lblVentas.textProperty().bind(
-                Bindings.size(VentaRepository.getInstancia().getVentas()).asString()
+                VentaRepositoryFX.getInstancia().totalVentasProperty().asString()
         );
+
+        AgregadosVentas.getInstancia().agregarOyente(this::programarActualizacionTotales);
+        VentasPorPeriodo.getInstancia().agregarOyente(this::programarActualizacionTotales);
+        actualizarTotales();
+
+        for (AlertasStock.Alerta alerta : AlertasStock.getInstancia().suscribir(this::programarAlerta)) {
+            stockBajo.put(alerta.idProducto(), alerta);
+        }
+        mostrarStockBajo();
     }
 
     /**
-     * Carga dinámicamente una vista en el contenedor central del dashboard.
-     * Reemplaza el contenido actual y ajusta los anclajes para adaptar la vista al área disponible.
-     *
-     * @param fxmlRuta ruta del archivo FXML que se desea cargar.
+     * Encola una alerta de stock y programa su aplicación en el hilo de JavaFX.
+     * Las alertas que llegan mientras hay una aplicación pendiente se muestran con ella.
      */
-    private void cargarVistaEnCentro(String fxmlRuta) {
-        try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlRuta));
-            Parent vista = loader.load();
-
-            Object controller = loader.getController();
+    private void programarAlerta(AlertasStock.Alerta alerta) {
+        alertasPendientes.add(alerta);
+        if (alertasProgramadas.compareAndSet(false, true)) {
+            Platform.runLater(() -> {
+                alertasProgramadas.set(false);
+                AlertasStock.Alerta pendiente;
+                while ((pendiente = alertasPendientes.poll()) != null) {
+                    if (pendiente.tipo() == AlertasStock.Alerta.Tipo.RESUELTA) {
+                        stockBajo.remove(pendiente.idProducto());
+                    } else {
+                        stockBajo.put(pendiente.idProducto(), pendiente);
+                    }
+                }
+                mostrarStockBajo();
+            });
+        }
+    }
 
-            try {
-                controller.getClass()
-                        .getMethod("setDashboardController", DashboardController.class)
-                        .invoke(controller, this);
-            }  catch (Exception ignored) {}
+    /**
+     * Muestra los productos con stock bajo, primero los de menor cantidad.
+     */
+    private void mostrarStockBajo() {
+        List<AlertasStock.Alerta> alertas = new ArrayList<>(stockBajo.values());
+        alertas.sort(Comparator.comparingInt(AlertasStock.Alerta::cantidad)
+                .thenComparing(AlertasStock.Alerta::nombre));
+        List<String> filas = new ArrayList<>(alertas.size());
+        for (AlertasStock.Alerta alerta : alertas) {
+            filas.add(alerta.nombre() + ": " + alerta.cantidad() + " u. (mínimo " + alerta.nivel() + ")");
+        }
+        lstStockBajo.getItems().setAll(filas);
+    }
 
+    /**
+     * Programa la actualización de los totales de ventas en el hilo de JavaFX.
+     * Las ventas registradas mientras hay una actualización pendiente se muestran con ella.
+     */
+    private void programarActualizacionTotales() {
+        if (actualizacionPendiente.compareAndSet(false, true)) {
+            Platform.runLater(() -> {
+                actualizacionPendiente.set(false);
+                actualizarTotales();
+            });
+        }
+    }
 
-            // Limpiar el StackPane y agregar la nueva vista
-            contenedorCentro.getChildren().clear();
-            contenedorCentro.getChildren().add(vista);
+    /**
+     * Muestra los totales de ventas y los rankings leyendo los agregados, sin recorrer las ventas.
+     */
+    private void actualizarTotales() {
+        AgregadosVentas agregados = AgregadosVentas.getInstancia();
+        lblIngresos.setText(Dinero.formatear(agregados.getGlobal().getIngresos()));
+        lblUnidades.setText(String.valueOf(agregados.getGlobal().getUnidades()));
+
+        StringBuilder categorias = new StringBuilder();
+        for (Map.Entry<String, AgregadosVentas.Acumulado> categoria : new TreeMap<>(agregados.getCategorias()).entrySet()) {
+            categorias.append(categoria.getKey())
+                    .append(": ")
+                    .append(Dinero.formatear(categoria.getValue().getIngresos()))
+                    .append(" (").append(categoria.getValue().getUnidades()).append(" u.)\n");
+        }
+        lblCategorias.setText(categorias.toString().strip());
+
+        lstTopProductos.getItems().setAll(describir(agregados.getTopProductos()));
+        lstTopClientes.getItems().setAll(describir(agregados.getTopClientes()));
+
+        // Hoy, la última semana y el mes se leen de los periodos sellados, sin recorrer las ventas
+        VentasPorPeriodo periodos = VentasPorPeriodo.getInstancia();
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDate hoy = ahora.toLocalDate();
+        lblPeriodos.setText(describir("Hoy", periodos.total(VentasPorPeriodo.Nivel.DIA, hoy.atStartOfDay(), ahora))
+                + "\n" + describir("Últimos 7 días",
+                        periodos.total(VentasPorPeriodo.Nivel.DIA, hoy.minusDays(6).atStartOfDay(), ahora))
+                + "\n" + describir("Este mes", periodos.total(VentasPorPeriodo.Nivel.MES, ahora, ahora))
+                + "\nClientes distintos (30 días): ~"
+                + BocetosVentas.getInstancia().clientesDistintosEntre(hoy.minusDays(29), hoy));
+    }
 
-            // Ajustar anclajes si es AnchorPane
-            if (vista != null) {
-                AnchorPane.setTopAnchor(vista, 0.0);
-                AnchorPane.setBottomAnchor(vista, 0.0);
-                AnchorPane.setLeftAnchor(vista, 0.0);
-                AnchorPane.setRightAnchor(vista, 0.0);
-            }
+    private static String describir(String nombre, VentasPorPeriodo.Periodo periodo) {
+        return nombre + ": " + Dinero.formatear(periodo.importe()) + " (" + periodo.ventas() + " ventas)";
+    }
 
-        } catch (IOException e) {
-            throw new RuntimeException("Error al cargar la vista: " + e.getMessage(), e);
+    private static List<String> describir(List<Ranking.Posicion> posiciones) {
+        List<String> filas = new ArrayList<>(posiciones.size());
+        for (int i = 0; i < posiciones.size(); i++) {
+            Ranking.Posicion posicion = posiciones.get(i);
+            filas.add((i + 1) + ". " + posicion.nombre() + " - " + Dinero.formatear(posicion.valor()));
         }
+        return filas;
+    }
+
+    /**
+     * Muestra una vista en el contenedor central del dashboard.
+     * Reemplaza el contenido actual y ajusta los anclajes para adaptar la vista al área disponible.
+     * Las vistas se leen una sola vez y se reutilizan en las siguientes visitas.
+     *
+     * @param fxmlRuta ruta del archivo FXML que se desea mostrar.
+     */
+    private void cargarVistaEnCentro(String fxmlRuta) {
+        Parent vista = registroVistas.mostrar(fxmlRuta);
+
+        contenedorCentro.getChildren().setAll(vista);
+
+        AnchorPane.setTopAnchor(vista, 0.0);
+        AnchorPane.setBottomAnchor(vista, 0.0);
+        AnchorPane.setLeftAnchor(vista, 0.0);
+        AnchorPane.setRightAnchor(vista, 0.0);
     }
 
     /**
@@ -100,7 +227,7 @@ public class DashboardController {
      */
     @FXML
     private void onVerClientes(){
-        cargarVistaEnCentro("/org/demo/Clientes.fxml");
+        cargarVistaEnCentro(VISTA_CLIENTES);
     }
 
     /**
@@ -108,13 +235,13 @@ public class DashboardController {
      */
     @FXML
     private void onVerProductos(){
-        cargarVistaEnCentro("/org/demo/Productos.fxml");
+        cargarVistaEnCentro(VISTA_PRODUCTOS);
     }
 
     /**
      * Carga la vista de gestión de ventas en el panel central.
      */
     @FXML private void onVerVentas(){
-        cargarVistaEnCentro("/org/demo/Ventas.fxml");
+        cargarVistaEnCentro(VISTA_VENTAS);
     }
 }
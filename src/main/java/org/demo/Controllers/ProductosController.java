@@ -1,19 +1,41 @@
 package org.demo.Controllers;
 
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.FileChooser;
 import org.demo.Models.Producto;
-import org.demo.Repositories.ProductoRepository;
-
-import static org.demo.Utils.AlertHelper.mostrarAlerta;
+import org.demo.Services.FacetasProductos.Conteos;
+import org.demo.Services.FacetasProductos.Filtro;
+import org.demo.Services.FacetasProductos.NivelStock;
+import org.demo.Services.FacetasProductos.RangoPrecio;
+import org.demo.Services.FacetasProductos;
+import org.demo.Services.ImportadorCsv;
+import org.demo.Services.ResultadoImportacion;
+import org.demo.Utils.Dinero;
+import org.demo.Views.CeldasTabla;
+import org.demo.Views.PaginacionTabla;
+import org.demo.Views.ProductoRepositoryFX;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static org.demo.Views.AlertHelper.mostrarAlerta;
 
 /**
  * Controlador encargado de gestionar la vista de productos.
  * Permite registrar, actualizar, eliminar y mostrar productos en una tabla.
- * Utiliza la clase ProductoRepository para realizar operaciones de persistencia.
+ * Utiliza la clase ProductoRepositoryFX para realizar operaciones de persistencia.
  */
-public class ProductosController {
+public class ProductosController implements ControladorVista {
 
     @FXML private TextField txtNombre;
     @FXML private TextField txtPrecio;
@@ -21,39 +43,66 @@ public class ProductosController {
     @FXML private TextField txtCategoria;
 
     @FXML private TableView<Producto> tblProductos;
+    @FXML private Button btnImportar;
 
     @FXML private TableColumn<Producto,String> colNombre;
     @FXML private TableColumn<Producto,String> colPrecio;
     @FXML private TableColumn<Producto,String> colCantidad;
     @FXML private TableColumn<Producto,String> colCategoria;
-    @FXML private TableColumn<Producto,Integer> colId;
+    @FXML private TableColumn<Producto,Long> colId;
+
+    @FXML private ComboBox<Faceta<String>> cmbFiltroCategoria;
+    @FXML private ComboBox<Faceta<RangoPrecio>> cmbFiltroPrecio;
+    @FXML private ComboBox<Faceta<NivelStock>> cmbFiltroStock;
+    @FXML private Label lblResultados;
 
-    private ProductoRepository productoRepository;
+    private ProductoRepositoryFX productoRepository;
+    private FacetasProductos facetas;
     private DashboardController dashboardController;
+    private final AtomicBoolean facetasProgramadas = new AtomicBoolean();
+    // Evita que reconstruir las opciones de los filtros se tome como un cambio de filtro
+    private boolean actualizandoFacetas;
+    // Cantidad mostrada en el formulario al seleccionar el producto; al actualizar se aplica la diferencia
+    private int cantidadMostrada;
 
 
     /**
      * Inicializa la vista de productos.
-     * Configura las columnas de la tabla, carga los productos existentes
-     * y establece el listener para manejar la selección de productos.
+     * Configura las columnas de la tabla, carga los productos existentes, prepara los filtros
+     * por categoría, precio y stock y establece el listener para manejar la selección de productos.
+     * Se ejecuta en el hilo de JavaFX la primera vez que se muestra la vista.
      */
-    @FXML
-    public void initialize(){
-        productoRepository = ProductoRepository.getInstancia();
-
-        colNombre.setCellValueFactory(new PropertyValueFactory<>("nombre"));
-        colPrecio.setCellValueFactory(new PropertyValueFactory<>("precio"));
-        colCantidad.setCellValueFactory(new PropertyValueFactory<>("cantidad"));
-        colCategoria.setCellValueFactory(new PropertyValueFactory<>("categoria"));
-        colId.setCellValueFactory(new PropertyValueFactory<>("id"));
+    @Override
+    public void iniciar(){
+        productoRepository = ProductoRepositoryFX.getInstancia();
+        facetas = FacetasProductos.getInstancia();
+
+        CeldasTabla.valor(colNombre, Producto::getNombre);
+        CeldasTabla.formatoNumero(colPrecio, Producto::getPrecio, Dinero::formatear);
+        CeldasTabla.formatoNumero(colCantidad, Producto::getCantidad, Long::toString);
+        CeldasTabla.valor(colCategoria, Producto::getCategoria);
+        CeldasTabla.numero(colId, Producto::getId);
+
+        cmbFiltroCategoria.valueProperty().addListener((observable, anterior, actual) -> aplicarFiltros());
+        cmbFiltroPrecio.valueProperty().addListener((observable, anterior, actual) -> aplicarFiltros());
+        cmbFiltroStock.valueProperty().addListener((observable, anterior, actual) -> aplicarFiltros());
+        facetas.agregarOyente(this::programarActualizacionFacetas);
 
         cargarProductos();
+        actualizarFacetas();
+        PaginacionTabla.enlazar(tblProductos, () -> {
+            // Con filtros la tabla ya tiene todos los productos que los cumplen
+            if (filtro().equals(Filtro.todos())) {
+                productoRepository.cargarSiguientePagina();
+            }
+        });
 
         tblProductos.getSelectionModel().selectedItemProperty().addListener((obs, productoAnterior, productoSeleccionado) -> {
             if(productoSeleccionado != null){
                 txtNombre.setText(productoSeleccionado.getNombre());
-                txtPrecio.setText(String.valueOf(productoSeleccionado.getPrecio()));
-                txtCantidad.setText(String.valueOf(productoSeleccionado.getCantidad()));
+                txtPrecio.setText(Dinero.aTexto(productoSeleccionado.getPrecio()));
+                cantidadMostrada = productoSeleccionado.getCantidad();
+                txtCantidad.setText(String.valueOf(cantidadMostrada));
                 txtCategoria.setText(String.valueOf(productoSeleccionado.getCategoria()));
             }else{
                 limpiarCampos();
@@ -78,7 +127,7 @@ public class ProductosController {
             }
 
             String nombre = txtNombre.getText();
-            double precio = Double.parseDouble(txtPrecio.getText());
+            long precio = Dinero.desdeTexto(txtPrecio.getText());
             int cantidad = Integer.parseInt(txtCantidad.getText());
 
             if(precio <= 0 || cantidad <=0){
@@ -89,7 +138,7 @@ public class ProductosController {
             Producto producto = new Producto(nombre, precio, cantidad, categoria);
             productoRepository.guardarProducto(producto);
             mostrarAlerta("Éxito", "Producto: " + producto.getNombre()
-                    + " $" + producto.getPrecio() + " Registrado Éxitosamente", Alert.AlertType.INFORMATION);
+                    + " " + Dinero.formatear(producto.getPrecio()) + " Registrado Éxitosamente", Alert.AlertType.INFORMATION);
             limpiarCampos();
             cargarProductos();
         } catch (Exception e) {
@@ -114,7 +163,7 @@ public class ProductosController {
         confirmacion.setTitle("Confirmar Eliminación");
         confirmacion.setHeaderText("¿Está seguro que desea eliminar este producto?");
         confirmacion.setContentText("Producto: " + productoSeleccionado.getNombre() + " - Cantidad" + productoSeleccionado.getCantidad()
-        + " -Precio: $ " + productoSeleccionado.getPrecio());
+        + " -Precio: " + Dinero.formatear(productoSeleccionado.getPrecio()));
 
         confirmacion.showAndWait().ifPresent(respuesta ->{
             if(respuesta == ButtonType.OK){
@@ -138,12 +187,26 @@ public class ProductosController {
             return;
         }
 
-        productoSeleccionado.setNombre(txtNombre.getText());
-        productoSeleccionado.setPrecio(Double.parseDouble(txtPrecio.getText()));
-        productoSeleccionado.setCantidad(Integer.parseInt(txtCantidad.getText()));
-        productoSeleccionado.setCategoria(txtCategoria.getText());
+        // Los datos nuevos van en una copia: el repositorio los aplica solo si el nombre no es de otro producto
+        Producto datos = new Producto(productoSeleccionado.getId(), txtNombre.getText(),
+                Dinero.desdeTexto(txtPrecio.getText()), productoSeleccionado.getCantidad(), txtCategoria.getText());
+        try {
+            productoRepository.actualizarProducto(datos);
+        } catch (RuntimeException e) {
+            mostrarAlerta(e.getMessage());
+            return;
+        }
+
+        // El stock se ajusta por la diferencia con lo mostrado, sin pisar las ventas hechas mientras tanto
+        int cantidad = Integer.parseInt(txtCantidad.getText());
+        try {
+            productoRepository.ajustarStock(productoSeleccionado, cantidad - cantidadMostrada);
+        } catch (IllegalArgumentException e) {
+            mostrarAlerta(e.getMessage());
+            return;
+        }
+        cantidadMostrada = cantidad;
 
-        productoRepository.actualizarProducto(productoSeleccionado);
         cargarProductos();
         tblProductos.refresh();
 
@@ -168,11 +231,109 @@ public class ProductosController {
         return productoRepository.existeProductoConNombre(nombre);
     }
 
+    /**
+     * Maneja la acción del botón "Quitar filtros".
+     * Vuelve a mostrar todo el catálogo.
+     */
+    @FXML
+    private void onQuitarFiltros(){
+        actualizandoFacetas = true;
+        try {
+            cmbFiltroCategoria.setValue(null);
+            cmbFiltroPrecio.setValue(null);
+            cmbFiltroStock.setValue(null);
+        } finally {
+            actualizandoFacetas = false;
+        }
+        aplicarFiltros();
+    }
+
     /**
      * Carga los productos desde el repositorio y los muestra en la tabla.
+     * Sin filtros se muestra la lista del repositorio; con filtros, los productos que los cumplen
+     * según los índices de facetas.
      */
     private void cargarProductos(){
-        tblProductos.setItems(productoRepository.getProductos());
+        Filtro filtro = filtro();
+        if (filtro.equals(Filtro.todos())) {
+            tblProductos.setItems(productoRepository.getProductos());
+        } else {
+            tblProductos.setItems(FXCollections.observableArrayList(facetas.buscar(filtro)));
+        }
+    }
+
+    private void aplicarFiltros(){
+        if (actualizandoFacetas) {
+            return;
+        }
+        cargarProductos();
+        actualizarFacetas();
+    }
+
+    /**
+     * Programa la actualización de los conteos en el hilo de JavaFX.
+     * Los cambios de stock que llegan mientras hay una actualización pendiente se muestran con ella.
+     */
+    private void programarActualizacionFacetas() {
+        if (facetasProgramadas.compareAndSet(false, true)) {
+            Platform.runLater(() -> {
+                facetasProgramadas.set(false);
+                // Los productos que entraron o salieron del filtro por una venta también se reflejan en la tabla
+                if (!filtro().equals(Filtro.todos())) {
+                    cargarProductos();
+                }
+                actualizarFacetas();
+            });
+        }
+    }
+
+    /**
+     * Muestra en las opciones de cada filtro cuántos productos quedarían al elegirla,
+     * conservando las opciones elegidas.
+     */
+    private void actualizarFacetas(){
+        Conteos conteos = facetas.contar(filtro());
+        actualizandoFacetas = true;
+        try {
+            opciones(cmbFiltroCategoria, "Todas las categorías", conteos.categorias(),
+                    categoria -> categoria.isEmpty() ? "Sin categoría" : categoria);
+            opciones(cmbFiltroPrecio, "Todos los precios", conteos.precios(), RangoPrecio::getDescripcion);
+            opciones(cmbFiltroStock, "Todo el stock", conteos.niveles(), NivelStock::getDescripcion);
+        } finally {
+            actualizandoFacetas = false;
+        }
+        lblResultados.setText(conteos.total() + " productos");
+    }
+
+    private static <T> void opciones(ComboBox<Faceta<T>> combo, String todas, Map<T, Integer> conteos,
+                                     Function<T, String> descripcion){
+        T elegido = combo.getValue() == null ? null : combo.getValue().valor();
+        List<Faceta<T>> opciones = new ArrayList<>();
+        opciones.add(new Faceta<>(null, todas));
+        Faceta<T> seleccion = null;
+        for (Map.Entry<T, Integer> conteo : conteos.entrySet()) {
+            Faceta<T> opcion = new Faceta<>(conteo.getKey(),
+                    descripcion.apply(conteo.getKey()) + " (" + conteo.getValue() + ")");
+            opciones.add(opcion);
+            if (Objects.equals(conteo.getKey(), elegido)) {
+                seleccion = opcion;
+            }
+        }
+        // Una categoría elegida que se quedó sin productos se conserva hasta que se cambie el filtro
+        if (elegido != null && seleccion == null) {
+            seleccion = new Faceta<>(elegido, descripcion.apply(elegido) + " (0)");
+            opciones.add(seleccion);
+        }
+        combo.getItems().setAll(opciones);
+        combo.setValue(elegido == null ? null : seleccion);
+    }
+
+    private Filtro filtro(){
+        return new Filtro(valor(cmbFiltroCategoria), valor(cmbFiltroPrecio), valor(cmbFiltroStock));
+    }
+
+    private static <T> T valor(ComboBox<Faceta<T>> combo){
+        return combo.getValue() == null ? null : combo.getValue().valor();
     }
 
     /**
@@ -203,6 +364,53 @@ public class ProductosController {
       return true;
     }
 
+    /**
+     * Importa productos desde un archivo CSV elegido por el usuario.
+     * La importación corre en segundo plano; al terminar se muestra un resumen y, si hubo filas
+     * rechazadas, se escribe un reporte junto al archivo original.
+     */
+    @FXML
+    private void onImportarCsv(){
+        FileChooser selector = new FileChooser();
+        selector.setTitle("Importar productos");
+        selector.getExtensionFilters().add(new FileChooser.ExtensionFilter("Archivos CSV", "*.csv"));
+        File archivo = selector.showOpenDialog(tblProductos.getScene().getWindow());
+        if(archivo == null){
+            return;
+        }
+        Path reporte = archivo.toPath().resolveSibling(archivo.getName() + ".rechazos.csv");
+
+        Task<ResultadoImportacion> importacion = new Task<>() {
+            @Override
+            protected ResultadoImportacion call() {
+                ResultadoImportacion resultado = ImportadorCsv.importarProductos(archivo.toPath(), productoRepository);
+                if(!resultado.getRechazos().isEmpty()){
+                    resultado.escribirReporte(reporte);
+                }
+                return resultado;
+            }
+        };
+        importacion.setOnSucceeded(evento -> {
+            btnImportar.setDisable(false);
+            ResultadoImportacion resultado = importacion.getValue();
+            String mensaje = "Productos importados: " + resultado.getAceptados()
+                    + "\nFilas rechazadas: " + resultado.getRechazos().size();
+            if(!resultado.getRechazos().isEmpty()){
+                mensaje += "\nReporte de rechazos: " + reporte;
+            }
+            mostrarAlerta("Importación finalizada", mensaje, Alert.AlertType.INFORMATION);
+        });
+        importacion.setOnFailed(evento -> {
+            btnImportar.setDisable(false);
+            mostrarAlerta("No se ha podido importar el archivo: " + importacion.getException().getMessage());
+        });
+
+        btnImportar.setDisable(true);
+        Thread hilo = new Thread(importacion, "importacion-productos");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
     /**
      * Limpia todos los campos del formulario.
      */
@@ -217,7 +425,18 @@ public class ProductosController {
      * Establece la referencia al controlador principal del dashboard.
      * @param dashboardController controlador principal
      */
+    @Override
     public void setDashboardController(DashboardController dashboardController){
         this.dashboardController = dashboardController;
     }
+
+    /**
+     * Opción de un filtro: el valor de la faceta, o {@code null} para no filtrar, y el texto con su conteo.
+     */
+    private record Faceta<T>(T valor, String texto) {
+        @Override
+        public String toString() {
+            return texto;
+        }
+    }
 }
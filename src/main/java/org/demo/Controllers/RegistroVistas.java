@@ -0,0 +1,171 @@
+package org.demo.Controllers;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Vistas del área central del dashboard, leídas una sola vez y reutilizadas al navegar.
+ *
+ * <p>{@link #precargar} lee los FXML en un hilo aparte al iniciar la aplicación: el análisis del
+ * FXML y la creación de los nodos, que es lo que tarda, no ocupa el hilo de JavaFX. La primera
+ * vez que se muestra una vista su {@link ControladorVista} se inicializa en el hilo de JavaFX;
+ * desde entonces mostrarla solo reemplaza el nodo del centro. Si se pide una vista que aún se
+ * está leyendo se espera solo lo que falta, y una vista no precargada se lee en el momento.</p>
+ *
+ * <p>Cada vista registra cuánto tardó su lectura, su inicialización y la espera de la primera
+ * vez que se mostró ({@link #getMetricas()}), y las reporta en el registro de la aplicación
+ * al mostrarse por primera vez.</p>
+ *
+ * <p>El registro se usa solamente desde el hilo de JavaFX.</p>
+ */
+final class RegistroVistas {
+    private static final System.Logger REGISTRO = System.getLogger(RegistroVistas.class.getName());
+
+    private final DashboardController dashboard;
+    private final ExecutorService hiloLectura;
+    private final Map<String, CompletableFuture<Vista>> vistas;
+
+    RegistroVistas(DashboardController dashboard) {
+        this.dashboard = dashboard;
+        this.hiloLectura = Executors.newSingleThreadExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "precarga-vistas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.vistas = new LinkedHashMap<>();
+    }
+
+    /**
+     * Empieza a leer las vistas en segundo plano, en el orden recibido.
+     *
+     * @param rutas rutas de los archivos FXML.
+     */
+    void precargar(String... rutas) {
+        for (String ruta : rutas) {
+            vistas.computeIfAbsent(ruta, r -> CompletableFuture.supplyAsync(() -> leer(r, true), hiloLectura));
+        }
+    }
+
+    /**
+     * Retorna la vista lista para mostrarse, inicializando su controlador la primera vez.
+     *
+     * @param ruta ruta del archivo FXML.
+     * @return nodo raíz de la vista.
+     * @throws RuntimeException si la vista no se pudo leer; el siguiente intento la vuelve a leer.
+     */
+    Parent mostrar(String ruta) {
+        // Una vista no precargada se lee en este mismo hilo
+        CompletableFuture<Vista> lectura = vistas.computeIfAbsent(ruta,
+                r -> CompletableFuture.supplyAsync(() -> leer(r, false), Runnable::run));
+        Vista vista;
+        long inicio = System.nanoTime();
+        try {
+            vista = lectura.join();
+        } catch (CompletionException e) {
+            vistas.remove(ruta);
+            Throwable causa = e.getCause() instanceof UncheckedIOException io ? io.getCause() : e.getCause();
+            throw new RuntimeException("Error al cargar la vista: " + causa.getMessage(), causa);
+        }
+        if (!vista.iniciada) {
+            vista.nanosEspera = System.nanoTime() - inicio;
+            long inicioControlador = System.nanoTime();
+            try {
+                vista.controlador.setDashboardController(dashboard);
+                vista.controlador.iniciar();
+            } catch (RuntimeException e) {
+                vistas.remove(ruta);
+                throw e;
+            }
+            vista.nanosInicio = System.nanoTime() - inicioControlador;
+            vista.iniciada = true;
+            MetricaVista metrica = vista.metrica();
+            REGISTRO.log(System.Logger.Level.INFO, "Vista {0}: lectura {1} ms{2}, inicio {3} ms, espera {4} ms",
+                    ruta, metrica.milisLectura(), metrica.precargada() ? " (precargada)" : "",
+                    metrica.milisInicio(), metrica.milisEspera());
+        }
+        vista.visitas++;
+        return vista.raiz;
+    }
+
+    /**
+     * @return métricas de las vistas que ya se mostraron, en el orden en que se pidieron.
+     */
+    List<MetricaVista> getMetricas() {
+        List<MetricaVista> metricas = new ArrayList<>();
+        for (CompletableFuture<Vista> lectura : vistas.values()) {
+            Vista vista = lectura.getNow(null);
+            if (vista != null && vista.iniciada) {
+                metricas.add(vista.metrica());
+            }
+        }
+        return metricas;
+    }
+
+    private static Vista leer(String ruta, boolean precargada) {
+        long inicio = System.nanoTime();
+        FXMLLoader loader = new FXMLLoader(RegistroVistas.class.getResource(ruta));
+        Parent raiz;
+        try {
+            raiz = loader.load();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!(loader.getController() instanceof ControladorVista controlador)) {
+            throw new IllegalStateException("El controlador de " + ruta + " no implementa ControladorVista");
+        }
+        return new Vista(ruta, raiz, controlador, System.nanoTime() - inicio, precargada);
+    }
+
+    /**
+     * Vista leída con su controlador. Los datos mutables se usan solo en el hilo de JavaFX.
+     */
+    private static final class Vista {
+        final String ruta;
+        final Parent raiz;
+        final ControladorVista controlador;
+        final long nanosLectura;
+        final boolean precargada;
+        boolean iniciada;
+        long nanosInicio;
+        long nanosEspera;
+        int visitas;
+
+        Vista(String ruta, Parent raiz, ControladorVista controlador, long nanosLectura, boolean precargada) {
+            this.ruta = ruta;
+            this.raiz = raiz;
+            this.controlador = controlador;
+            this.nanosLectura = nanosLectura;
+            this.precargada = precargada;
+        }
+
+        MetricaVista metrica() {
+            return new MetricaVista(ruta, nanosLectura / 1_000_000, nanosInicio / 1_000_000,
+                    nanosEspera / 1_000_000, precargada, visitas);
+        }
+    }
+
+    /**
+     * Tiempos de carga de una vista.
+     *
+     * @param ruta         ruta del archivo FXML.
+     * @param milisLectura tiempo de lectura del FXML y creación de sus nodos.
+     * @param milisInicio  tiempo de inicialización del controlador en el hilo de JavaFX.
+     * @param milisEspera  tiempo que el hilo de JavaFX esperó la lectura al mostrarla por primera vez.
+     * @param precargada   si la lectura se hizo en segundo plano.
+     * @param visitas      veces que se ha mostrado.
+     */
+    record MetricaVista(String ruta, long milisLectura, long milisInicio, long milisEspera,
+                        boolean precargada, int visitas) {
+    }
+}
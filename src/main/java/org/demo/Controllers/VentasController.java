@@ -1,26 +1,47 @@
 package org.demo.Controllers;
 
-import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.binding.Bindings;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.FileChooser;
+import javafx.util.StringConverter;
 import org.demo.Models.Cliente;
 import org.demo.Models.Producto;
 import org.demo.Models.Venta;
-import org.demo.Repositories.ClienteRepository;
-import org.demo.Repositories.ProductoRepository;
-import org.demo.Repositories.VentaRepository;
+import org.demo.Repositories.VentasColumnares.FiltroVentas;
+import org.demo.Repositories.VentasColumnares.Orden;
+import org.demo.Repositories.VentasColumnares;
+import org.demo.Services.BuscadorClientes;
+import org.demo.Services.CacheConsultas;
+import org.demo.Services.ExportadorVentas;
+import org.demo.Services.MotorReportes.Agrupacion;
+import org.demo.Services.MotorReportes.FilaReporte;
+import org.demo.Utils.Dinero;
+import org.demo.Views.CeldasTabla;
+import org.demo.Views.ClienteRepositoryFX;
+import org.demo.Views.ComboBusqueda;
+import org.demo.Views.ProductoRepositoryFX;
+import org.demo.Views.VentaRepositoryFX;
+import org.demo.Views.VentasVirtuales;
 
+import java.io.File;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
 
-import static org.demo.Utils.AlertHelper.mostrarAlerta;
+import static org.demo.Views.AlertHelper.mostrarAlerta;
 
 /**
  * Controlador encargado de gestionar el proceso de registro y visualización de ventas.
  * Administra las interacciones entre clientes, productos y las operaciones sobre la tabla de ventas.
  */
-public class VentasController {
+public class VentasController implements ControladorVista {
+    // Opciones que se muestran en los combos de clientes y productos por cada búsqueda
+    private static final int MAXIMO_OPCIONES = 50;
 
     @FXML private TextField txtFecha;
     @FXML private ComboBox<Cliente> cmbClientes;
@@ -31,42 +52,81 @@ public class VentasController {
 
     @FXML private TableView<Venta> tblVentas;
 
-    @FXML private TableColumn<Venta, Integer> colId;
+    @FXML private TableColumn<Venta, Long> colId;
     @FXML private TableColumn<Venta, String> colFecha;
     @FXML private TableColumn<Venta, String> colCliente;
     @FXML private TableColumn<Venta, String> colProducto;
-    @FXML private TableColumn<Venta, Double> colPrecio;
+    @FXML private TableColumn<Venta, String> colPrecio;
     @FXML private TableColumn<Venta, Integer> colCantidad;
-    @FXML private TableColumn<Venta, Double> colTotal;
+    @FXML private TableColumn<Venta, String> colTotal;
 
-    private VentaRepository ventaRepository;
+    @FXML private ComboBox<Cliente> cmbFiltroCliente;
+    @FXML private ComboBox<Producto> cmbFiltroProducto;
+    @FXML private DatePicker dpDesde;
+    @FXML private DatePicker dpHasta;
+    @FXML private Label lblResultados;
+    @FXML private ComboBox<Agrupacion> cmbAgrupacion;
+    @FXML private Button btnReporte;
+
+    @FXML private Button btnGuardar;
+    @FXML private Button btnExportar;
+    @FXML private ProgressBar barExportacion;
+
+    private VentaRepositoryFX ventaRepository;
+    private VentasVirtuales ventasVirtuales;
+    private Map<TableColumn<Venta, ?>, Orden> ordenPorColumna;
     private DashboardController dashboardController;
 
     /**
      * Inicializa los datos de la vista de ventas.
      * Configura las columnas de la tabla, carga los datos y establece los listeners.
+     * Se ejecuta en el hilo de JavaFX la primera vez que se muestra la vista.
      */
-    @FXML
-    public void initialize(){
-        ventaRepository = VentaRepository.getInstancia();
+    @Override
+    public void iniciar(){
+        ventaRepository = VentaRepositoryFX.getInstancia();
+        ventasVirtuales = ventaRepository.getVentasVirtuales();
 
-        colId.setCellValueFactory(new PropertyValueFactory<>("id"));
-        colFecha.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getFechaFormateada()));
-        colCliente.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getCliente().getNombre()));
-        colProducto.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getProducto().getNombre()));
-        colPrecio.setCellValueFactory(new PropertyValueFactory<>("precioUnitario"));
-        colCantidad.setCellValueFactory(new PropertyValueFactory<>("cantidad"));
-        colTotal.setCellValueFactory(new PropertyValueFactory<>("total"));
+        CeldasTabla.numero(colId, Venta::getId);
+        CeldasTabla.formato(colFecha, Venta::getFecha, Venta.FORMATO_FECHA::format);
+        CeldasTabla.valor(colCliente, venta -> venta.getCliente().getNombre());
+        CeldasTabla.valor(colProducto, venta -> venta.getProducto().getNombre());
+        CeldasTabla.formatoNumero(colPrecio, Venta::getPrecioUnitario, Dinero::formatear);
+        CeldasTabla.entero(colCantidad, Venta::getCantidad);
+        CeldasTabla.formatoNumero(colTotal, Venta::getTotal, Dinero::formatear);
 
         cargarVentas();
 
-        txtFecha.setText(LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
-       cmbClientes.setItems(ClienteRepository.getInstancia().getClientes());
-       cmbProductos.setItems(ProductoRepository.getInstancia().getProductos());
+        enlazarClientes(cmbFiltroCliente);
+        enlazarProductos(cmbFiltroProducto);
+        cmbFiltroCliente.valueProperty().addListener((observable, anterior, actual) -> consultarVentas());
+        cmbFiltroProducto.valueProperty().addListener((observable, anterior, actual) -> consultarVentas());
+        dpDesde.valueProperty().addListener((observable, anterior, actual) -> consultarVentas());
+        dpHasta.valueProperty().addListener((observable, anterior, actual) -> consultarVentas());
+        cmbAgrupacion.getItems().setAll(Agrupacion.values());
+        cmbAgrupacion.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(Agrupacion agrupacion) {
+                return agrupacion == null ? "" : "Por " + describir(agrupacion);
+            }
 
-       cmbProductos.getSelectionModel().selectedItemProperty().addListener((observable, productoAnterior, productoSeleccionado) -> {
+            @Override
+            public Agrupacion fromString(String texto) {
+                return null;
+            }
+        });
+        cmbAgrupacion.setValue(Agrupacion.DIA);
+        lblResultados.textProperty().bind(Bindings.createStringBinding(
+                () -> ventasVirtuales.consultandoProperty().get() ? "Consultando..." : ventasVirtuales.size() + " ventas",
+                ventasVirtuales, ventasVirtuales.consultandoProperty()));
+
+        txtFecha.setText(LocalDateTime.now().format(Venta.FORMATO_FECHA));
+       enlazarClientes(cmbClientes);
+       enlazarProductos(cmbProductos);
+
+       cmbProductos.valueProperty().addListener((observable, productoAnterior, productoSeleccionado) -> {
            if(productoSeleccionado !=null){
-               txtPrecio.setText(String.valueOf(productoSeleccionado.getPrecio()));
+               txtPrecio.setText(Dinero.aTexto(productoSeleccionado.getPrecio()));
                actualizarTotal();
            }else{
                txtPrecio.clear();
@@ -79,43 +139,71 @@ public class VentasController {
 
     /**
      * Registra una nueva venta en el repositorio si los datos son válidos.
-     * Verifica disponibilidad del producto y consistencia de los campos.
+     * El stock del producto solo se descuenta si la venta se guarda; si falta stock o la venta
+     * no se puede guardar se informa cuál de los dos problemas ocurrió. El guardado espera la
+     * escritura en disco, por lo que corre en segundo plano con el botón deshabilitado.
      */
     @FXML
     private void onGuardarVenta(){
         if(!validarCampos()){
             return;
         }
+        Producto productoSeleccionado =cmbProductos.getValue();
+        Cliente clienteSeleccionado =cmbClientes.getValue();
+
+        if(clienteSeleccionado == null ||  productoSeleccionado == null){
+            mostrarAlerta("Por favor rellene todos los campos");
+            return;
+        }
+
+        int cantidad;
         try{
-            Producto productoSeleccionado =cmbProductos.getSelectionModel().getSelectedItem();
-            Cliente clienteSeleccionado =cmbClientes.getSelectionModel().getSelectedItem();
+            cantidad = Integer.parseInt(txtCantidad.getText());
+        }catch(NumberFormatException e){
+            mostrarAlerta("Por favor ingrese una cantidad valida");
+            return;
+        }
 
-            if(clienteSeleccionado == null ||  productoSeleccionado == null){
-                mostrarAlerta("Por favor rellene todos los campos");
-                return;
-            }
+        txtPrecio.setText(Dinero.aTexto(productoSeleccionado.getPrecio()));
 
-            int cantidad;
-            try{
-                cantidad = Integer.parseInt(txtCantidad.getText());
-            }catch(NumberFormatException e){
-                mostrarAlerta("Por favor ingrese una cantidad valida");
+        // El valor es el error al guardar el nuevo stock, o null si todo se guardó
+        Task<String> guardado = new Task<>() {
+            @Override
+            protected String call() {
+                ventaRepository.registrarVenta(clienteSeleccionado, productoSeleccionado, cantidad);
+                try{
+                    ProductoRepositoryFX.getInstancia().actualizarProducto(productoSeleccionado);
+                }catch(RuntimeException e){
+                    return e.getMessage();
+                }
+                return null;
+            }
+        };
+        guardado.setOnSucceeded(evento -> {
+            btnGuardar.setDisable(false);
+            if(guardado.getValue() != null){
+                mostrarAlerta("La venta se registró, pero no se pudo guardar el nuevo stock del producto: "
+                        + guardado.getValue());
                 return;
             }
-
-            txtPrecio.setText(String.valueOf(productoSeleccionado.getPrecio()));
-
-            Venta venta = new Venta(clienteSeleccionado,productoSeleccionado, cantidad);
-            ventaRepository.guardarVenta(venta);
-            ProductoRepository.getInstancia().actualizarProducto(productoSeleccionado);
-
             mostrarAlerta("Éxito", "Producto Actualizado Éxitosamente", Alert.AlertType.INFORMATION  );
-            System.out.println(ventaRepository.getVentas());
             limpiarCampos();
+        });
+        guardado.setOnFailed(evento -> {
+            btnGuardar.setDisable(false);
+            Throwable error = guardado.getException();
+            if(error instanceof IllegalArgumentException){
+                // Cantidad no positiva o stock insuficiente: no se reservó nada
+                mostrarAlerta(error.getMessage());
+                return;
+            }
+            mostrarAlerta("No se ha podido guardar la venta; el stock del producto no se modificó.\n" + error.getMessage());
+        });
 
-        }catch(Exception e){
-            mostrarAlerta("La cantidad del producto seleccionado es insuficiente " );
-        }
+        btnGuardar.setDisable(true);
+        Thread hilo = new Thread(guardado, "guardado-venta");
+        hilo.setDaemon(true);
+        hilo.start();
     }
 
     /**
@@ -128,10 +216,205 @@ public class VentasController {
     }
 
     /**
-     * Carga todas las ventas registradas en la tabla.
+     * Exporta todas las ventas a un archivo CSV o binario por columnas, según la extensión elegida.
+     * La exportación corre en segundo plano y su avance se muestra en la barra de progreso.
+     */
+    @FXML
+    private void onExportar(){
+        FileChooser selector = new FileChooser();
+        selector.setTitle("Exportar ventas");
+        FileChooser.ExtensionFilter csv = new FileChooser.ExtensionFilter("Archivos CSV", "*.csv");
+        selector.getExtensionFilters().addAll(csv,
+                new FileChooser.ExtensionFilter("Binario por columnas", "*.vcol"));
+        selector.setInitialFileName("ventas.csv");
+        File archivo = selector.showSaveDialog(tblVentas.getScene().getWindow());
+        if(archivo == null){
+            return;
+        }
+        Path destino = archivo.toPath();
+        boolean comoCsv = archivo.getName().toLowerCase().endsWith(".csv")
+                || (!archivo.getName().toLowerCase().endsWith(".vcol") && selector.getSelectedExtensionFilter() == csv);
+
+        Task<Long> exportacion = new Task<>() {
+            @Override
+            protected Long call() {
+                ExportadorVentas.Progreso progreso = this::updateProgress;
+                return comoCsv
+                        ? ExportadorVentas.exportarCsv(ventaRepository, destino, null, null, progreso)
+                        : ExportadorVentas.exportarBinario(ventaRepository, destino, null, null, progreso);
+            }
+        };
+        barExportacion.progressProperty().bind(exportacion.progressProperty());
+        exportacion.setOnSucceeded(evento -> {
+            terminarExportacion();
+            mostrarAlerta("Exportación finalizada", "Ventas exportadas: " + exportacion.getValue()
+                    + "\nArchivo: " + destino, Alert.AlertType.INFORMATION);
+        });
+        exportacion.setOnFailed(evento -> {
+            terminarExportacion();
+            mostrarAlerta("No se han podido exportar las ventas: " + exportacion.getException().getMessage());
+        });
+
+        btnExportar.setDisable(true);
+        barExportacion.setVisible(true);
+        Thread hilo = new Thread(exportacion, "exportacion-ventas");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Genera en segundo plano un reporte de las ventas que cumplen los filtros de la tabla,
+     * agrupadas según el criterio elegido, y lo muestra en una ventana. Los reportes pasan por
+     * la caché de consultas: repetir uno sin ventas nuevas que cumplan su filtro no recorre el historial.
+     */
+    @FXML
+    private void onGenerarReporte(){
+        Agrupacion agrupacion = cmbAgrupacion.getValue() == null ? Agrupacion.DIA : cmbAgrupacion.getValue();
+        FiltroVentas filtro = filtroVentas();
+        Task<List<FilaReporte>> reporte = new Task<>() {
+            @Override
+            protected List<FilaReporte> call() {
+                return CacheConsultas.getInstancia().reporte(agrupacion, filtro);
+            }
+        };
+        reporte.setOnSucceeded(evento -> {
+            btnReporte.setDisable(false);
+            mostrarReporte(agrupacion, reporte.getValue());
+        });
+        reporte.setOnFailed(evento -> {
+            btnReporte.setDisable(false);
+            mostrarAlerta("No se ha podido generar el reporte: " + reporte.getException().getMessage());
+        });
+
+        btnReporte.setDisable(true);
+        Thread hilo = new Thread(reporte, "reporte-ventas");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Muestra las filas de un reporte en una tabla dentro de un diálogo.
+     */
+    private void mostrarReporte(Agrupacion agrupacion, List<FilaReporte> filas){
+        TableView<FilaReporte> tabla = new TableView<>();
+        TableColumn<FilaReporte, String> colGrupo = new TableColumn<>("Grupo");
+        TableColumn<FilaReporte, Long> colVentas = new TableColumn<>("Ventas");
+        TableColumn<FilaReporte, Long> colUnidades = new TableColumn<>("Unidades");
+        TableColumn<FilaReporte, String> colImporte = new TableColumn<>("Importe");
+        TableColumn<FilaReporte, String> colPromedio = new TableColumn<>("Promedio");
+        TableColumn<FilaReporte, String> colMinimo = new TableColumn<>("Mínimo");
+        TableColumn<FilaReporte, String> colMaximo = new TableColumn<>("Máximo");
+        CeldasTabla.valor(colGrupo, FilaReporte::grupo);
+        CeldasTabla.numero(colVentas, fila -> fila.resumen().ventas());
+        CeldasTabla.numero(colUnidades, fila -> fila.resumen().unidades());
+        CeldasTabla.formatoNumero(colImporte, fila -> fila.resumen().importe(), Dinero::formatear);
+        CeldasTabla.formatoNumero(colPromedio, fila -> fila.resumen().promedio(), Dinero::formatear);
+        CeldasTabla.formatoNumero(colMinimo, fila -> fila.resumen().minimo(), Dinero::formatear);
+        CeldasTabla.formatoNumero(colMaximo, fila -> fila.resumen().maximo(), Dinero::formatear);
+        tabla.getColumns().setAll(List.of(colGrupo, colVentas, colUnidades, colImporte, colPromedio, colMinimo, colMaximo));
+        tabla.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        tabla.getItems().setAll(filas);
+        tabla.setPrefSize(820, 420);
+
+        Dialog<Void> dialogo = new Dialog<>();
+        dialogo.setTitle("Reporte de ventas");
+        CacheConsultas.Estadisticas cache = CacheConsultas.getInstancia().getEstadisticas();
+        dialogo.setHeaderText("Ventas por " + describir(agrupacion) + ": " + filas.size() + " grupos\n"
+                + String.format("Caché de consultas: %d aciertos, %d fallos (%.0f %%), %d resultados guardados",
+                        cache.aciertos(), cache.fallos(), cache.tasaAciertos() * 100, cache.entradas()));
+        dialogo.getDialogPane().setContent(tabla);
+        dialogo.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
+        dialogo.initOwner(tblVentas.getScene().getWindow());
+        dialogo.show();
+    }
+
+    private static String describir(Agrupacion agrupacion){
+        return switch (agrupacion) {
+            case DIA -> "día";
+            case SEMANA -> "semana";
+            case MES -> "mes";
+            case CATEGORIA -> "categoría";
+            case CLIENTE -> "cliente";
+            case PRODUCTO -> "producto";
+        };
+    }
+
+    /**
+     * Maneja la acción del botón "Quitar filtros".
+     * Vuelve a mostrar todas las ventas, conservando el orden de la tabla.
+     */
+    @FXML
+    private void onQuitarFiltros(){
+        cmbFiltroCliente.setValue(null);
+        cmbFiltroProducto.setValue(null);
+        dpDesde.setValue(null);
+        dpHasta.setValue(null);
+    }
+
+    /**
+     * Llena el combo con los clientes que coinciden con lo escrito, usando el buscador de clientes.
+     * Sin texto suficiente para buscar se muestran los primeros clientes registrados. El documento
+     * acompaña al nombre para distinguir clientes homónimos.
+     */
+    private void enlazarClientes(ComboBox<Cliente> combo){
+        ClienteRepositoryFX clientes = ClienteRepositoryFX.getInstancia();
+        ComboBusqueda.enlazar(combo, consulta -> consulta.length() < 2
+                ? clientes.listarClientesDesde(0, MAXIMO_OPCIONES)
+                : BuscadorClientes.getInstancia().buscar(consulta, MAXIMO_OPCIONES),
+                cliente -> cliente.getNombre() + " - " + cliente.getDocumento());
+    }
+
+    /**
+     * Llena el combo con los productos cuyo nombre contiene lo escrito.
+     */
+    private void enlazarProductos(ComboBox<Producto> combo){
+        ProductoRepositoryFX productos = ProductoRepositoryFX.getInstancia();
+        ComboBusqueda.enlazar(combo, consulta -> productos.buscarProductosPorNombre(consulta, MAXIMO_OPCIONES),
+                Producto::getNombre);
+    }
+
+    private void terminarExportacion(){
+        btnExportar.setDisable(false);
+        barExportacion.progressProperty().unbind();
+        barExportacion.setVisible(false);
+    }
+
+    /**
+     * Carga las ventas registradas en la tabla con una lista virtual que solo reconstruye las
+     * filas visibles. Ordenar por una columna no ordena la lista en la tabla: se pide el orden
+     * al almacén de ventas junto con el filtro.
      */
     private void cargarVentas(){
-        tblVentas.setItems(ventaRepository.getVentas());
+        ordenPorColumna = Map.of(colId, Orden.ID, colFecha, Orden.FECHA, colCliente, Orden.CLIENTE,
+                colProducto, Orden.PRODUCTO, colPrecio, Orden.PRECIO, colCantidad, Orden.CANTIDAD, colTotal, Orden.TOTAL);
+        tblVentas.setItems(ventasVirtuales);
+        // Al fijar la política la tabla la aplica una vez, lo que deja la lista sin filtro ni orden
+        tblVentas.setSortPolicy(tabla -> {
+            consultarVentas();
+            return true;
+        });
+    }
+
+    /**
+     * Aplica a la lista de ventas los filtros elegidos y el orden de la primera columna ordenada.
+     */
+    private void consultarVentas(){
+        TableColumn<Venta, ?> columna = tblVentas.getSortOrder().isEmpty() ? null : tblVentas.getSortOrder().get(0);
+        Orden orden = columna == null ? null : ordenPorColumna.get(columna);
+        boolean descendente = columna != null && columna.getSortType() == TableColumn.SortType.DESCENDING;
+        ventasVirtuales.consultar(filtroVentas(), orden, descendente);
+    }
+
+    private FiltroVentas filtroVentas(){
+        Cliente cliente = cmbFiltroCliente.getValue();
+        Producto producto = cmbFiltroProducto.getValue();
+        LocalDate desde = dpDesde.getValue();
+        LocalDate hasta = dpHasta.getValue();
+        return new FiltroVentas(
+                desde == null ? Long.MIN_VALUE : VentasColumnares.marcaTiempo(desde.atStartOfDay()),
+                hasta == null ? Long.MAX_VALUE : VentasColumnares.marcaTiempo(hasta.atTime(LocalTime.MAX)),
+                cliente == null ? FiltroVentas.CUALQUIERA : cliente.getId(),
+                producto == null ? FiltroVentas.CUALQUIERA : producto.getId());
     }
 
 
@@ -151,13 +434,13 @@ public class VentasController {
      * Actualiza el campo de total en tiempo real.
      */
     private void actualizarTotal(){
-        Producto productoSeleccionado = cmbProductos.getSelectionModel().getSelectedItem();
+        Producto productoSeleccionado = cmbProductos.getValue();
         if(productoSeleccionado == null){
             txtTotal.clear();
             return;
         }
 
-        double precio = productoSeleccionado.getPrecio();
+        long precio = productoSeleccionado.getPrecio();
         int cantidad;
 
         try{
@@ -171,8 +454,8 @@ public class VentasController {
             txtTotal.setText("");
             return;
         }
-        double total = precio*cantidad;
-        txtTotal.setText(String.valueOf(total));
+        long total = Dinero.multiplicar(precio, cantidad);
+        txtTotal.setText(Dinero.aTexto(total));
     }
 
     /**
@@ -200,11 +483,11 @@ public class VentasController {
             txtTotal.requestFocus();
             return false;
         }
-        if(cmbClientes.getSelectionModel().getSelectedItem() == null){
+        if(cmbClientes.getValue() == null){
             mostrarAlerta("Seleccione un cliente");
             return false;
         }
-        if(cmbProductos.getSelectionModel().getSelectedItem() == null){
+        if(cmbProductos.getValue() == null){
             mostrarAlerta("Seleccione un producto");
             return false;
         }
@@ -215,6 +498,7 @@ public class VentasController {
      * Establece una referencia al controlador principal del panel de administración.
      * @param dashboardController instancia del controlador principal.
      */
+    @Override
     public void setDashboardController(DashboardController dashboardController){
         this.dashboardController = dashboardController;
     }
@@ -4,6 +4,7 @@ import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import org.demo.Repositories.Repositorios;
 
 import java.io.IOException;
 
@@ -17,4 +18,9 @@ public class Launcher extends Application {
         stage.setScene(scene);
         stage.show();
     }
+
+    @Override
+    public void stop() {
+        Repositorios.cerrar();
+    }
 }
@@ -1,8 +1,9 @@
 package org.demo.Models;
 
+import org.demo.Utils.GeneradoresId;
+
 public class Cliente {
-    private static int contador = 1;
-    private int id;
+    private long id;
     private String nombre;
     private String documento;
     private String telefono;
@@ -10,7 +11,14 @@ public class Cliente {
     private String correo;
 
     public Cliente(String nombre, String documento, String telefono, String direccion, String correo) {
-        this.id = contador++;
+        this(GeneradoresId.clientes().siguienteId(), nombre, documento, telefono, direccion, correo);
+    }
+
+    /**
+     * Reconstruye un cliente ya persistido conservando su id, sin consumir uno del generador.
+     */
+    public Cliente(long id, String nombre, String documento, String telefono, String direccion, String correo) {
+        this.id = id;
         this.documento = documento;
         this.direccion = direccion;
         this.telefono = telefono;
@@ -60,11 +68,11 @@ public class Cliente {
         this.correo = correo;
     }
 
-    public int getId() {
+    public long getId() {
         return id;
     }
 
-    public void setId(int id) {
+    public void setId(long id) {
         this.id = id;
     }
 
@@ -1,35 +1,74 @@
 package org.demo.Models;
 
+import org.demo.Utils.Dinero;
+import org.demo.Utils.GeneradoresId;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class Producto {
-    private static int contador = 1;
-    private int id;
-    private double precio;
+    private long id;
+    // Precio en centavos
+    private long precio;
     private String nombre;
-    private int cantidad;
+    private final AtomicInteger cantidad;
     private String categoria;
 
-    public Producto(String nombre, double precio, int cantidad, String categoria) {
-        this.id = contador++;
+    public Producto(String nombre, long precio, int cantidad, String categoria) {
+        this(GeneradoresId.productos().siguienteId(), nombre, precio, cantidad, categoria);
+    }
+
+    /**
+     * Reconstruye un producto ya persistido conservando su id, sin consumir uno del generador.
+     */
+    public Producto(long id, String nombre, long precio, int cantidad, String categoria) {
+        this.id = id;
         this.precio = precio;
         this.nombre = nombre;
-        this.cantidad = cantidad;
+        this.cantidad = new AtomicInteger(cantidad);
         this.categoria = categoria;
     }
 
-    public double getPrecio() {
+    /**
+     * @return precio unitario en centavos.
+     */
+    public long getPrecio() {
         return precio;
     }
 
-    public void setPrecio(double precio) {
+    public void setPrecio(long precio) {
         this.precio = precio;
     }
 
     public int getCantidad() {
-        return cantidad;
+        return cantidad.get();
+    }
+
+    /**
+     * Descuenta unidades del stock de forma atómica.
+     * Nunca deja la cantidad en negativo: si no hay suficientes unidades no modifica nada.
+     *
+     * @param unidades unidades a descontar.
+     * @return {@code true} si se descontaron, {@code false} si el stock era insuficiente.
+     */
+    public boolean descontarCantidad(int unidades) {
+        int actual;
+        do {
+            actual = cantidad.get();
+            if (actual < unidades) {
+                return false;
+            }
+        } while (!cantidad.compareAndSet(actual, actual - unidades));
+        return true;
     }
 
-    public void setCantidad(int cantidad) {
-        this.cantidad = cantidad;
+    /**
+     * Devuelve unidades al stock de forma atómica. El stock no tiene un setter absoluto: los
+     * cambios pasan por {@code InventarioService} como diferencias, para no pisar reservas en curso.
+     *
+     * @param unidades unidades a devolver.
+     */
+    public void agregarCantidad(int unidades) {
+        cantidad.addAndGet(unidades);
     }
 
     public String getNombre() {
@@ -40,11 +79,11 @@ public class Producto {
         this.nombre = nombre;
     }
 
-    public int getId() {
+    public long getId() {
         return id;
     }
 
-    public void setId(int id) {
+    public void setId(long id) {
         this.id = id;
     }
 
@@ -60,9 +99,9 @@ public class Producto {
     public String toString() {
         return "Producto: " +
                 " id: " + id +
-                ", precio: " + precio +
+                ", precio: " + Dinero.aTexto(precio) +
                 ", nombre: " + nombre +
-                ", cantidad: " + cantidad +
+                ", cantidad: " + cantidad.get() +
                 ", categoria: " + categoria +  '\n';
     }
 }
@@ -1,41 +1,71 @@
 package org.demo.Models;
 
+import org.demo.Services.ReservaStock;
+import org.demo.Utils.Dinero;
+import org.demo.Utils.GeneradoresId;
+
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Representa una venta realizada en el sistema.
- * Contiene la información del cliente, producto, cantidad, precio y total,
+ * Contiene la información del cliente, producto, cantidad, precio y total (en centavos),
  * además de generar automáticamente un identificador único y registrar la fecha de la transacción.
  */
 public class Venta {
-    private String id;
+    /** Formato de las fechas de venta en la interfaz, compartido para no crearlo en cada uso. */
+    public static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private long id;
     private Cliente cliente;
     private Producto producto;
-    private double precioUnitario;
+    private long precioUnitario;
     private LocalDateTime fecha;
     private int cantidad;
-    private double total;
+    private long total;
 
     /**
-     * Crea una nueva venta asociando un cliente y un producto.
-     * Calcula el total de la venta, genera un identificador único y descuenta la cantidad vendida del producto.
+     * Crea una nueva venta de las unidades de una reserva de stock pendiente.
+     * Calcula el total y genera un identificador único, pero no cierra la reserva: quien registra
+     * la venta la confirma después de guardarla, o la libera si no se pudo guardar
+     * (ver {@code VentaRepository#registrarVenta}).
      *
-     * @param cliente  cliente que realiza la compra.
-     * @param producto producto vendido.
-     * @param cantidad cantidad de unidades vendidas.
+     * @param cliente cliente que realiza la compra.
+     * @param reserva reserva pendiente del producto y las unidades vendidas.
+     * @throws IllegalArgumentException si la reserva ya fue confirmada o liberada.
      */
-    public Venta(Cliente cliente, Producto producto, int cantidad) {
+    public Venta(Cliente cliente, ReservaStock reserva) {
+        if (reserva.getEstado() != ReservaStock.Estado.PENDIENTE) {
+            throw new IllegalArgumentException("La reserva de stock de la venta ya fue cerrada");
+        }
         this.cliente = cliente;
+        this.producto = reserva.getProducto();
         this.precioUnitario = producto.getPrecio();
-        this.cantidad = cantidad;
-        this.producto = producto;
+        this.cantidad = reserva.getUnidades();
         this.total = calcularTotal();
         this.fecha = LocalDateTime.now();
-        this.id = generarIdVenta();
+        this.id = GeneradoresId.ventas().siguienteId();
+    }
 
-        producto.setCantidad(producto.getCantidad() - cantidad);
+    /**
+     * Reconstruye una venta ya registrada, por ejemplo al restaurarla desde disco.
+     * No genera un nuevo identificador ni modifica el stock del producto.
+     *
+     * @param id             identificador original de la venta.
+     * @param cliente        cliente que realizó la compra.
+     * @param producto       producto vendido.
+     * @param cantidad       cantidad de unidades vendidas.
+     * @param precioUnitario precio unitario en centavos al momento de la venta.
+     * @param fecha          fecha de la venta.
+     */
+    public Venta(long id, Cliente cliente, Producto producto, int cantidad, long precioUnitario, LocalDateTime fecha) {
+        this.id = id;
+        this.cliente = cliente;
+        this.producto = producto;
+        this.cantidad = cantidad;
+        this.precioUnitario = precioUnitario;
+        this.total = calcularTotal();
+        this.fecha = fecha;
     }
 
     public Cliente getCliente() {
@@ -54,11 +84,14 @@ public class Venta {
         this.producto = producto;
     }
 
-    public double getTotal() {
+    /**
+     * @return total de la venta en centavos.
+     */
+    public long getTotal() {
         return total;
     }
 
-    public void setTotal(double total) {
+    public void setTotal(long total) {
         this.total = total;
     }
 
@@ -78,47 +111,37 @@ public class Venta {
         this.cantidad = cantidad;
     }
 
-    public String getId() {
+    public long getId() {
         return id;
     }
 
-    public void setId(String id) {
+    public void setId(long id) {
         this.id = id;
     }
 
-    public double getPrecioUnitario() {
+    /**
+     * @return precio unitario en centavos.
+     */
+    public long getPrecioUnitario() {
         return precioUnitario;
     }
 
-    public void setPrecioUnitario(double precioUnitario) {
+    public void setPrecioUnitario(long precioUnitario) {
         this.precioUnitario = precioUnitario;
     }
 
     public String getFechaFormateada(){
-        return this.fecha.format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"));
+        return this.fecha.format(FORMATO_FECHA);
     }
 
     /**
-     * Calcula el total de la venta multiplicando el precio unitario por la cantidad.
-     * Lanza una excepción si no hay stock suficiente del producto.
+     * Calcula el total de la venta multiplicando el precio unitario por la cantidad, en centavos.
+     * La disponibilidad de stock ya fue garantizada por la reserva de la venta.
      *
      * @return total calculado.
-     * @throws IllegalArgumentException si la cantidad solicitada excede el stock disponible.
-     */
-    private double calcularTotal(){
-        if(this.cantidad > producto.getCantidad()){
-            throw new IllegalArgumentException("No hay cantidad suficiente del producto: " + producto.getNombre());
-        }
-        return precioUnitario * this.cantidad;
-    }
-
-    /**
-     * Genera un identificador único para la venta combinando la marca de tiempo actual y un número aleatorio.
-     *
-     * @return identificador único con el formato "VENTA-{timestamp}-{número}".
      */
-    private static String generarIdVenta(){
-        return "VENTA-" + System.currentTimeMillis() + "-" + ThreadLocalRandom.current().nextInt(1000, 9999);
+    private long calcularTotal(){
+        return Dinero.multiplicar(precioUnitario, this.cantidad);
     }
 
     @Override
@@ -127,9 +150,9 @@ public class Venta {
                 "id: " + id + '\'' +
                 ", cliente: " + cliente.getNombre() +
                 ", producto: " + producto +
-                ", precioUnitario: " + precioUnitario +
+                ", precioUnitario: " + Dinero.aTexto(precioUnitario) +
                 ", fecha: " + getFechaFormateada() +
                 ", cantidad: " + cantidad +
-                ", total: " + total + '\n';
+                ", total: " + Dinero.aTexto(total) + '\n';
     }
 }
@@ -0,0 +1,263 @@
+package org.demo.Persistence;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Base de datos H2 embebida, en un archivo local y dentro del mismo proceso (sin servidor).
+ *
+ * <p>Las conexiones se reutilizan desde un grupo pequeño. Cada conexión guarda en caché sus
+ * sentencias preparadas por texto SQL, de modo que cada consulta se compila una sola vez
+ * por conexión.</p>
+ */
+public class BaseDatos implements AutoCloseable {
+    private static final int MAX_CONEXIONES = 4;
+    private static final int VALORES_POR_CONSULTA = 500;
+
+    private final String url;
+    private final BlockingQueue<Conexion> disponibles;
+    private final List<Conexion> abiertas;
+
+    private BaseDatos(String url) {
+        this.url = url;
+        this.disponibles = new LinkedBlockingQueue<>();
+        this.abiertas = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Abre (o crea) la base de datos en la ruta indicada.
+     *
+     * @param archivo ruta del archivo, sin la extensión que agrega H2.
+     * @return base de datos lista para usarse.
+     */
+    public static BaseDatos abrir(Path archivo) {
+        BaseDatos baseDatos = new BaseDatos("jdbc:h2:file:" + archivo.toAbsolutePath() + ";DB_CLOSE_ON_EXIT=FALSE");
+        // Verifica la conexión al abrir para fallar temprano si el archivo no es válido
+        baseDatos.ejecutar(conexion -> null);
+        return baseDatos;
+    }
+
+    /**
+     * Ejecuta una operación con una conexión del grupo en modo de confirmación automática.
+     *
+     * @param operacion operación a ejecutar.
+     * @return resultado de la operación.
+     */
+    public <R> R ejecutar(OperacionSql<R> operacion) {
+        Conexion conexion = tomar();
+        try {
+            return operacion.ejecutar(conexion);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error en la base de datos: " + e.getMessage(), e);
+        } finally {
+            disponibles.add(conexion);
+        }
+    }
+
+    /**
+     * Ejecuta una operación dentro de una transacción: se confirma si termina bien
+     * y se revierte si lanza una excepción.
+     *
+     * @param operacion operación a ejecutar.
+     * @return resultado de la operación.
+     */
+    public <R> R enTransaccion(OperacionSql<R> operacion) {
+        return ejecutar(conexion -> {
+            Connection jdbc = conexion.jdbc();
+            jdbc.setAutoCommit(false);
+            try {
+                R resultado = operacion.ejecutar(conexion);
+                jdbc.commit();
+                return resultado;
+            } catch (SQLException | RuntimeException e) {
+                jdbc.rollback();
+                throw e;
+            } finally {
+                jdbc.setAutoCommit(true);
+            }
+        });
+    }
+
+    /**
+     * Ejecuta sentencias de definición de datos (tablas e índices).
+     *
+     * @param sentencias sentencias DDL a ejecutar en orden.
+     */
+    public void definir(String... sentencias) {
+        ejecutar(conexion -> {
+            try (Statement statement = conexion.jdbc().createStatement()) {
+                for (String sentencia : sentencias) {
+                    statement.execute(sentencia);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Convierte una columna de dinero guardada como {@code DOUBLE} en pesos a {@code BIGINT}
+     * en centavos. No hace nada si la columna ya es entera, por lo que puede llamarse cada vez
+     * que se abre la base de datos.
+     *
+     * @param tabla   nombre de la tabla.
+     * @param columna nombre de la columna.
+     */
+    public void convertirACentavos(String tabla, String columna) {
+        enTransaccion(conexion -> {
+            PreparedStatement tipo = conexion.sentencia("SELECT DATA_TYPE FROM INFORMATION_SCHEMA.COLUMNS "
+                    + "WHERE TABLE_NAME = ? AND COLUMN_NAME = ?", tabla.toUpperCase(Locale.ROOT), columna.toUpperCase(Locale.ROOT));
+            try (ResultSet resultado = tipo.executeQuery()) {
+                if (!resultado.next() || !resultado.getString(1).startsWith("DOUBLE")) {
+                    return null;
+                }
+            }
+            try (Statement statement = conexion.jdbc().createStatement()) {
+                statement.execute("UPDATE " + tabla + " SET " + columna + " = ROUND(" + columna + " * 100)");
+                statement.execute("ALTER TABLE " + tabla + " ALTER COLUMN " + columna + " SET DATA TYPE BIGINT");
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Cierra todas las conexiones abiertas.
+     */
+    @Override
+    public void close() {
+        for (Conexion conexion : abiertas) {
+            try {
+                conexion.jdbc().close();
+            } catch (SQLException ignorada) {
+                // Se cierra el resto de conexiones de todas formas
+            }
+        }
+        abiertas.clear();
+        disponibles.clear();
+    }
+
+    private Conexion tomar() {
+        Conexion conexion = disponibles.poll();
+        if (conexion != null) {
+            return conexion;
+        }
+        synchronized (abiertas) {
+            if (abiertas.size() < MAX_CONEXIONES) {
+                try {
+                    conexion = new Conexion(DriverManager.getConnection(url, "sa", ""));
+                } catch (SQLException e) {
+                    throw new RuntimeException("No se pudo abrir la base de datos: " + url, e);
+                }
+                abiertas.add(conexion);
+                return conexion;
+            }
+        }
+        try {
+            return disponibles.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Se interrumpió la espera de una conexión", e);
+        }
+    }
+
+    /**
+     * Conexión JDBC con su caché de sentencias preparadas.
+     * Solo la usa un hilo a la vez, mientras la tiene prestada del grupo.
+     */
+    public static class Conexion {
+        private final Connection jdbc;
+        private final Map<String, PreparedStatement> sentencias;
+
+        private Conexion(Connection jdbc) {
+            this.jdbc = jdbc;
+            this.sentencias = new HashMap<>();
+        }
+
+        public Connection jdbc() {
+            return jdbc;
+        }
+
+        /**
+         * Retorna la sentencia preparada para el SQL indicado, creándola la primera vez,
+         * con los parámetros ya asignados en orden.
+         *
+         * @param sql        texto de la sentencia.
+         * @param parametros valores de los parámetros {@code ?}; pueden omitirse para asignarlos después.
+         * @return sentencia preparada.
+         */
+        public PreparedStatement sentencia(String sql, Object... parametros) throws SQLException {
+            PreparedStatement sentencia = sentencias.get(sql);
+            if (sentencia == null) {
+                sentencia = jdbc.prepareStatement(sql);
+                sentencias.put(sql, sentencia);
+            } else {
+                sentencia.clearParameters();
+            }
+            for (int i = 0; i < parametros.length; i++) {
+                sentencia.setObject(i + 1, parametros[i]);
+            }
+            return sentencia;
+        }
+
+        /**
+         * Retorna cuáles de los valores aparecen en una columna, con consultas {@code IN (...)} de
+         * {@value #VALORES_POR_CONSULTA} valores en lugar de una consulta por valor. Todas las
+         * consultas tienen la misma cantidad de parámetros (la última repite su último valor), de
+         * modo que comparten una sola sentencia preparada. La columna debería tener un índice.
+         *
+         * @param tabla   tabla a consultar.
+         * @param columna columna donde se buscan los valores.
+         * @param valores valores a buscar.
+         * @return valores encontrados, tal como están guardados.
+         */
+        public Set<String> buscarExistentes(String tabla, String columna, Collection<String> valores)
+                throws SQLException {
+            Set<String> existentes = new HashSet<>();
+            List<String> buscados = new ArrayList<>(new LinkedHashSet<>(valores));
+            if (buscados.isEmpty()) {
+                return existentes;
+            }
+            PreparedStatement sentencia = sentencia("SELECT " + columna + " FROM " + tabla + " WHERE " + columna
+                    + " IN (" + String.join(", ", Collections.nCopies(VALORES_POR_CONSULTA, "?")) + ")");
+            for (int inicio = 0; inicio < buscados.size(); inicio += VALORES_POR_CONSULTA) {
+                int fin = Math.min(inicio + VALORES_POR_CONSULTA, buscados.size());
+                for (int i = 0; i < VALORES_POR_CONSULTA; i++) {
+                    sentencia.setString(i + 1, buscados.get(Math.min(inicio + i, fin - 1)));
+                }
+                try (ResultSet resultado = sentencia.executeQuery()) {
+                    while (resultado.next()) {
+                        existentes.add(resultado.getString(1));
+                    }
+                }
+            }
+            return existentes;
+        }
+    }
+
+    /**
+     * Operación que se ejecuta con una conexión prestada.
+     *
+     * @param <R> tipo del resultado.
+     */
+    @FunctionalInterface
+    public interface OperacionSql<R> {
+        R ejecutar(Conexion conexion) throws SQLException;
+    }
+}
@@ -0,0 +1,329 @@
+package org.demo.Persistence;
+
+import org.demo.Models.Cliente;
+import org.demo.Models.Producto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.ToIntFunction;
+import java.util.zip.CRC32;
+
+/**
+ * Bitácora de los cambios de un catálogo (clientes o productos) desde el último snapshot.
+ *
+ * <p>Cada cambio se agrega al final como {@code [longitud:int][crc32:int][operación:byte][datos]}
+ * y se sincroniza en disco antes de aplicarse en memoria, de modo que un cliente o producto
+ * registrado no se pierde aunque la aplicación termine antes del siguiente snapshot. Los datos
+ * de un registro guardado usan el mismo formato que el snapshot; una eliminación guarda solo el id.</p>
+ *
+ * <p>Al escribir un snapshot, el repositorio anota la posición de la bitácora bajo su candado de
+ * escritura y, una vez que el snapshot está en disco, descarta lo anterior a esa posición con
+ * {@link #descartarHasta(long)}. Reproducir registros ya incluidos en el snapshot no cambia el
+ * resultado, porque cada registro guarda el estado completo de un elemento.</p>
+ *
+ * @param <T> tipo de los elementos del catálogo.
+ */
+public final class BitacoraCatalogo<T> implements AutoCloseable {
+    private static final int TAMANO_CABECERA = 8;
+    private static final byte GUARDAR = 1;
+    private static final byte ELIMINAR = 2;
+
+    private static final System.Logger REGISTRO = System.getLogger(BitacoraCatalogo.class.getName());
+
+    private final Path archivo;
+    private final Formato<T> formato;
+    private FileChannel canal;
+
+    private BitacoraCatalogo(Path archivo, Formato<T> formato) throws IOException {
+        this.archivo = archivo;
+        this.formato = formato;
+        this.canal = abrirCanal(archivo);
+    }
+
+    /**
+     * Abre (o crea) la bitácora de clientes y reproduce los cambios que tenga.
+     *
+     * @param archivo     ruta de la bitácora.
+     * @param reproductor recibe, en orden, cada cambio registrado.
+     * @return bitácora lista para registrar cambios.
+     */
+    public static BitacoraCatalogo<Cliente> abrirClientes(Path archivo, Reproductor<Cliente> reproductor) {
+        return abrir(archivo, new Formato<>() {
+            @Override
+            public void escribir(DataOutputStream salida, Cliente cliente) throws IOException {
+                SnapshotCatalogo.escribirCliente(salida, cliente);
+            }
+
+            @Override
+            public Cliente leer(ByteBuffer datos) {
+                return SnapshotCatalogo.leerCliente(datos);
+            }
+        }, reproductor);
+    }
+
+    /**
+     * Abre (o crea) la bitácora de productos y reproduce los cambios que tenga. Como en el
+     * snapshot, de cada producto se guardan sus entradas de stock, sin descontar las ventas.
+     *
+     * @param archivo     ruta de la bitácora.
+     * @param entradas    unidades que entraron de cada producto, leídas al registrar un cambio.
+     * @param reproductor recibe, en orden, cada cambio registrado; la cantidad de los productos
+     *                    reproducidos son sus entradas.
+     * @return bitácora lista para registrar cambios.
+     */
+    public static BitacoraCatalogo<Producto> abrirProductos(Path archivo, ToIntFunction<Producto> entradas,
+                                                            Reproductor<Producto> reproductor) {
+        return abrir(archivo, new Formato<>() {
+            @Override
+            public void escribir(DataOutputStream salida, Producto producto) throws IOException {
+                SnapshotCatalogo.escribirProducto(salida, producto, entradas.applyAsInt(producto));
+            }
+
+            @Override
+            public Producto leer(ByteBuffer datos) {
+                return SnapshotCatalogo.leerProducto(datos, SnapshotCatalogo.VERSION);
+            }
+        }, reproductor);
+    }
+
+    private static <T> BitacoraCatalogo<T> abrir(Path archivo, Formato<T> formato, Reproductor<T> reproductor) {
+        try {
+            BitacoraCatalogo<T> bitacora = new BitacoraCatalogo<>(archivo, formato);
+            bitacora.reproducir(reproductor);
+            return bitacora;
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo abrir la bitácora del catálogo: " + archivo, e);
+        }
+    }
+
+    /**
+     * Registra el estado actual de uno o varios elementos nuevos o modificados, con un solo fsync.
+     *
+     * @param elementos elementos a registrar.
+     */
+    public synchronized void guardar(List<T> elementos) {
+        try {
+            ByteArrayOutputStream lote = new ByteArrayOutputStream();
+            for (T elemento : elementos) {
+                escribirRegistro(lote, GUARDAR, salida -> formato.escribir(salida, elemento));
+            }
+            agregar(lote);
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo escribir la bitácora del catálogo: " + archivo, e);
+        }
+    }
+
+    /**
+     * Registra la eliminación de un elemento.
+     *
+     * @param id identificador del elemento eliminado.
+     */
+    public synchronized void eliminar(long id) {
+        try {
+            ByteArrayOutputStream lote = new ByteArrayOutputStream();
+            escribirRegistro(lote, ELIMINAR, salida -> salida.writeLong(id));
+            agregar(lote);
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo escribir la bitácora del catálogo: " + archivo, e);
+        }
+    }
+
+    /**
+     * Retorna la posición actual del final de la bitácora. Todo lo registrado hasta ahora está antes de ella.
+     *
+     * @return posición en bytes.
+     */
+    public synchronized long posicion() {
+        try {
+            return canal.position();
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo leer la bitácora del catálogo: " + archivo, e);
+        }
+    }
+
+    /**
+     * Descarta los registros anteriores a una posición, ya incluidos en un snapshot escrito.
+     * Los registrados después se conservan: se copian a un archivo nuevo que reemplaza al actual
+     * con un movimiento atómico.
+     *
+     * @param posicion posición retornada por {@link #posicion()} al tomar la copia del snapshot.
+     */
+    public synchronized void descartarHasta(long posicion) {
+        if (posicion <= 0) {
+            return;
+        }
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        try {
+            long tamano = canal.size();
+            try (FileChannel nuevo = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                long copiado = 0;
+                while (posicion + copiado < tamano) {
+                    copiado += canal.transferTo(posicion + copiado, tamano - posicion - copiado, nuevo);
+                }
+                nuevo.force(true);
+            }
+            canal.close();
+            try {
+                Files.move(temporal, archivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                // Si el reemplazo falla se sigue con el archivo completo, que también es válido
+                canal = abrirCanal(archivo);
+                canal.position(canal.size());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo compactar la bitácora del catálogo: " + archivo, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            canal.close();
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo cerrar la bitácora del catálogo: " + archivo, e);
+        }
+    }
+
+    private static FileChannel abrirCanal(Path archivo) throws IOException {
+        return FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Agrega al lote un registro con su cabecera: la longitud y el CRC de la operación y sus datos.
+     */
+    private static void escribirRegistro(ByteArrayOutputStream lote, byte operacion, Datos datos) throws IOException {
+        ByteArrayOutputStream registro = new ByteArrayOutputStream();
+        DataOutputStream salida = new DataOutputStream(registro);
+        salida.writeByte(operacion);
+        datos.escribir(salida);
+        salida.flush();
+        byte[] contenido = registro.toByteArray();
+
+        CRC32 crc = new CRC32();
+        crc.update(contenido);
+        DataOutputStream cabecera = new DataOutputStream(lote);
+        cabecera.writeInt(contenido.length);
+        cabecera.writeInt((int) crc.getValue());
+        cabecera.flush();
+        lote.write(contenido);
+    }
+
+    /**
+     * Escribe los registros al final y los sincroniza en disco. Si falla, la bitácora vuelve
+     * a terminar en el último registro completo.
+     */
+    private void agregar(ByteArrayOutputStream bytes) throws IOException {
+        long inicio = canal.position();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        try {
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            canal.force(false);
+        } catch (IOException e) {
+            canal.truncate(inicio);
+            canal.position(inicio);
+            throw e;
+        }
+    }
+
+    private void reproducir(Reproductor<T> reproductor) throws IOException {
+        long tamano = canal.size();
+        long posicion = 0;
+        ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA);
+        CRC32 crc = new CRC32();
+
+        while (posicion + TAMANO_CABECERA <= tamano) {
+            cabecera.clear();
+            leerCompleto(cabecera, posicion);
+            cabecera.flip();
+            int longitud = cabecera.getInt();
+            int checksum = cabecera.getInt();
+            if (longitud <= 0 || posicion + TAMANO_CABECERA + longitud > tamano) {
+                break;
+            }
+            ByteBuffer datos = ByteBuffer.allocate(longitud);
+            leerCompleto(datos, posicion + TAMANO_CABECERA);
+            datos.flip();
+            crc.reset();
+            crc.update(datos.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            try {
+                byte operacion = datos.get();
+                if (operacion == GUARDAR) {
+                    reproductor.guardado(formato.leer(datos));
+                } else if (operacion == ELIMINAR) {
+                    reproductor.eliminado(datos.getLong());
+                } else {
+                    break;
+                }
+            } catch (BufferUnderflowException | IllegalStateException e) {
+                REGISTRO.log(System.Logger.Level.WARNING, "Registro ilegible en la bitácora del catálogo: " + archivo, e);
+                break;
+            }
+            posicion += TAMANO_CABECERA + longitud;
+        }
+
+        // Descarta un registro final incompleto para que los nuevos queden alineados
+        if (posicion < tamano) {
+            REGISTRO.log(System.Logger.Level.WARNING, "Se descartan {0} bytes al final de la bitácora {1}",
+                    tamano - posicion, archivo);
+            canal.truncate(posicion);
+        }
+        canal.position(posicion);
+    }
+
+    private void leerCompleto(ByteBuffer destino, long posicion) throws IOException {
+        while (destino.hasRemaining()) {
+            int leidos = canal.read(destino, posicion);
+            if (leidos < 0) {
+                throw new IOException("Fin de archivo inesperado en la bitácora del catálogo");
+            }
+            posicion += leidos;
+        }
+    }
+
+    /**
+     * Recibe los cambios de la bitácora al abrirla.
+     *
+     * @param <T> tipo de los elementos del catálogo.
+     */
+    public interface Reproductor<T> {
+        /**
+         * Un elemento nuevo o modificado, con su estado completo.
+         *
+         * @param elemento elemento guardado.
+         */
+        void guardado(T elemento);
+
+        /**
+         * Un elemento eliminado.
+         *
+         * @param id identificador del elemento.
+         */
+        void eliminado(long id);
+    }
+
+    @FunctionalInterface
+    private interface Datos {
+        void escribir(DataOutputStream salida) throws IOException;
+    }
+
+    private interface Formato<T> {
+        void escribir(DataOutputStream salida, T elemento) throws IOException;
+
+        T leer(ByteBuffer datos);
+    }
+}
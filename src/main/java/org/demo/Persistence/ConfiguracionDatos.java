@@ -0,0 +1,57 @@
+package org.demo.Persistence;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Ubicación de los archivos de datos de la aplicación y tipo de almacenamiento.
+ * El directorio puede cambiarse con la propiedad del sistema {@code ventas.datos.dir};
+ * por defecto se usa {@code ~/.taller5-ventas}.
+ *
+ * <p>Con {@code -Dventas.almacenamiento=h2} los repositorios usan la base de datos embebida
+ * en lugar de mantener todos los datos en memoria.</p>
+ */
+public final class ConfiguracionDatos {
+    public static final String PROPIEDAD_DIRECTORIO = "ventas.datos.dir";
+    public static final String PROPIEDAD_ALMACENAMIENTO = "ventas.almacenamiento";
+
+    private ConfiguracionDatos() {}
+
+    /**
+     * Retorna el directorio de datos, creándolo si no existe.
+     *
+     * @return ruta del directorio de datos.
+     */
+    public static Path directorio() {
+        String configurado = System.getProperty(PROPIEDAD_DIRECTORIO);
+        Path directorio = configurado != null
+                ? Path.of(configurado)
+                : Path.of(System.getProperty("user.home"), ".taller5-ventas");
+        try {
+            Files.createDirectories(directorio);
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo crear el directorio de datos: " + directorio, e);
+        }
+        return directorio;
+    }
+
+    /**
+     * Retorna la ruta de un archivo dentro del directorio de datos.
+     *
+     * @param nombre nombre del archivo.
+     * @return ruta completa del archivo.
+     */
+    public static Path archivo(String nombre) {
+        return directorio().resolve(nombre);
+    }
+
+    /**
+     * Indica si los repositorios deben usar la base de datos embebida.
+     *
+     * @return {@code true} si la propiedad {@code ventas.almacenamiento} vale {@code h2}.
+     */
+    public static boolean usarBaseDatos() {
+        return "h2".equalsIgnoreCase(System.getProperty(PROPIEDAD_ALMACENAMIENTO, "memoria"));
+    }
+}
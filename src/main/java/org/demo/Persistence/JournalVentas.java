@@ -0,0 +1,369 @@
+package org.demo.Persistence;
+
+import org.demo.Utils.Dinero;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Bitácora de solo escritura al final (append-only) para las ventas.
+ *
+ * <p>Cada registro se guarda en formato binario como
+ * {@code [longitud:int][crc32:int][datos]}. Las escrituras concurrentes se encolan y un único
+ * hilo escritor las agrupa en lotes: todo el lote se escribe con el {@link FileChannel} y se
+ * confirma con un solo {@code force}, de modo que un fsync cubre muchas ventas.</p>
+ *
+ * <p>Encolar y cerrar se coordinan con un candado de lectura y escritura: una vez cerrada no
+ * se acepta ningún registro, los encolados antes del cierre se escriben, y los que el hilo
+ * escritor no alcance a escribir fallan en lugar de dejar esperando a quien los agregó.</p>
+ *
+ * <p>Al abrir la bitácora se puede reproducir su contenido; si el último registro quedó
+ * incompleto o corrupto (por ejemplo tras un corte de energía), se descarta y el archivo
+ * se trunca en el último registro válido.</p>
+ */
+public class JournalVentas implements AutoCloseable {
+    /** Nombre del archivo de la bitácora dentro del directorio de datos. */
+    public static final String ARCHIVO = "ventas.journal";
+
+    private static final int TAMANO_CABECERA = 8;
+    private static final int MAX_LOTE = 4096;
+    // Byte final de los registros con el precio en centavos; los anteriores guardaban un double en pesos
+    private static final byte FORMATO_CENTAVOS = 2;
+
+    private final Path archivo;
+    private final FileChannel canal;
+    private final BlockingQueue<EscrituraPendiente> pendientes;
+    private final Thread escritor;
+    // Se cierra con el candado de escritura tomado; se encola con el de lectura
+    private final ReadWriteLock cierre;
+    private volatile boolean abierto;
+
+    private JournalVentas(Path archivo) throws IOException {
+        this.archivo = archivo;
+        this.canal = FileChannel.open(archivo,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.pendientes = new LinkedBlockingQueue<>();
+        this.cierre = new ReentrantReadWriteLock();
+        this.abierto = true;
+        this.escritor = new Thread(this::procesarEscrituras, "journal-ventas");
+        this.escritor.setDaemon(true);
+    }
+
+    /**
+     * Abre (o crea) la bitácora en la ruta indicada.
+     *
+     * @param archivo ruta del archivo de la bitácora.
+     * @param reproductor recibe, en orden, cada venta registrada previamente.
+     * @return bitácora lista para recibir nuevas ventas.
+     */
+    public static JournalVentas abrir(Path archivo, Consumer<RegistroVenta> reproductor) {
+        try {
+            JournalVentas journal = new JournalVentas(archivo);
+            journal.reproducir(reproductor);
+            journal.escritor.start();
+            return journal;
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo abrir la bitácora de ventas: " + archivo, e);
+        }
+    }
+
+    /**
+     * Lee las ventas de una bitácora sin abrirla para escribir ni modificarla, por ejemplo para
+     * recalcular el stock al cargar el catálogo. Se detiene en el primer registro incompleto o corrupto.
+     *
+     * @param archivo ruta del archivo de la bitácora.
+     * @param lector  recibe, en orden, cada venta registrada.
+     */
+    public static void leer(Path archivo, Consumer<RegistroVenta> lector) {
+        if (!Files.exists(archivo)) {
+            return;
+        }
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            recorrer(canal, lector);
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo leer la bitácora de ventas: " + archivo, e);
+        }
+    }
+
+    /**
+     * Encola una venta para ser escrita en el siguiente lote.
+     * El resultado se completa cuando la venta ya está sincronizada en disco.
+     *
+     * @param registro venta a registrar.
+     * @return futuro que se completa tras el fsync del lote que contiene la venta, o con error si
+     *         la bitácora se cerró sin llegar a escribirla.
+     * @throws IllegalStateException si la bitácora está cerrada.
+     */
+    public CompletableFuture<Void> agregar(RegistroVenta registro) {
+        EscrituraPendiente pendiente = new EscrituraPendiente(codificar(registro), new CompletableFuture<>());
+        cierre.readLock().lock();
+        try {
+            if (!abierto) {
+                throw new IllegalStateException("La bitácora de ventas está cerrada");
+            }
+            pendientes.add(pendiente);
+        } finally {
+            cierre.readLock().unlock();
+        }
+        return pendiente.resultado();
+    }
+
+    /**
+     * Escribe la venta y espera a que quede sincronizada en disco.
+     *
+     * @param registro venta a registrar.
+     */
+    public void agregarYEsperar(RegistroVenta registro) {
+        try {
+            agregar(registro).join();
+        } catch (RuntimeException e) {
+            throw new RuntimeException("No se pudo registrar la venta en la bitácora", e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    /**
+     * Deja de aceptar registros, espera a que el hilo escritor vacíe la cola y cierra el archivo.
+     * Los registros que no se alcanzaron a escribir fallan.
+     */
+    @Override
+    public void close() {
+        dejarDeAceptar();
+        try {
+            escritor.join(TimeUnit.SECONDS.toMillis(5));
+            canal.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo cerrar la bitácora de ventas: " + archivo, e);
+        } finally {
+            fallarPendientes();
+        }
+    }
+
+    private void procesarEscrituras() {
+        List<EscrituraPendiente> lote = new ArrayList<>();
+        try {
+            while (abierto || !pendientes.isEmpty()) {
+                EscrituraPendiente primera = pendientes.poll(100, TimeUnit.MILLISECONDS);
+                if (primera == null) {
+                    continue;
+                }
+                lote.add(primera);
+                pendientes.drainTo(lote, MAX_LOTE - 1);
+                escribirLote(lote);
+                lote.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Si el hilo termina antes de tiempo nadie más escribiría: se cierra la entrada y se avisa a los que esperan
+            dejarDeAceptar();
+            for (EscrituraPendiente pendiente : lote) {
+                pendiente.resultado().completeExceptionally(
+                        new IllegalStateException("La bitácora de ventas se cerró antes de escribir la venta"));
+            }
+            fallarPendientes();
+        }
+    }
+
+    private void dejarDeAceptar() {
+        cierre.writeLock().lock();
+        try {
+            abierto = false;
+        } finally {
+            cierre.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Completa con error los registros que siguen en la cola. Solo se llama cuando ya no se aceptan registros.
+     */
+    private void fallarPendientes() {
+        List<EscrituraPendiente> restantes = new ArrayList<>();
+        pendientes.drainTo(restantes);
+        for (EscrituraPendiente pendiente : restantes) {
+            pendiente.resultado().completeExceptionally(
+                    new IllegalStateException("La bitácora de ventas se cerró antes de escribir la venta"));
+        }
+    }
+
+    private void escribirLote(List<EscrituraPendiente> lote) {
+        long inicioLote = -1;
+        try {
+            inicioLote = canal.position();
+            ByteBuffer[] buffers = new ByteBuffer[lote.size()];
+            for (int i = 0; i < lote.size(); i++) {
+                buffers[i] = lote.get(i).datos();
+            }
+            long restante = 0;
+            for (ByteBuffer buffer : buffers) {
+                restante += buffer.remaining();
+            }
+            while (restante > 0) {
+                restante -= canal.write(buffers);
+            }
+            canal.force(false);
+            for (EscrituraPendiente pendiente : lote) {
+                pendiente.resultado().complete(null);
+            }
+        } catch (IOException | RuntimeException e) {
+            descartarDesde(inicioLote);
+            for (EscrituraPendiente pendiente : lote) {
+                pendiente.resultado().completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Elimina lo escrito parcialmente por un lote fallido, para que la bitácora siga siendo legible.
+     */
+    private void descartarDesde(long posicion) {
+        if (posicion < 0) {
+            return;
+        }
+        try {
+            canal.truncate(posicion);
+            canal.position(posicion);
+        } catch (IOException ignorada) {
+            // El registro incompleto se descartará al reproducir la bitácora
+        }
+    }
+
+    private void reproducir(Consumer<RegistroVenta> reproductor) throws IOException {
+        long posicion = recorrer(canal, reproductor);
+        long tamano = canal.size();
+
+        // Descarta un registro final incompleto para que las nuevas escrituras queden alineadas
+        if (posicion < tamano) {
+            canal.truncate(posicion);
+        }
+        canal.position(posicion);
+    }
+
+    /**
+     * Entrega cada registro válido y retorna la posición donde termina el último.
+     */
+    private static long recorrer(FileChannel canal, Consumer<RegistroVenta> reproductor) throws IOException {
+        long tamano = canal.size();
+        long posicion = 0;
+        ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA);
+        CRC32 crc = new CRC32();
+
+        while (posicion + TAMANO_CABECERA <= tamano) {
+            cabecera.clear();
+            leerCompleto(canal, cabecera, posicion);
+            cabecera.flip();
+            int longitud = cabecera.getInt();
+            int checksum = cabecera.getInt();
+            if (longitud <= 0 || posicion + TAMANO_CABECERA + longitud > tamano) {
+                break;
+            }
+            ByteBuffer datos = ByteBuffer.allocate(longitud);
+            leerCompleto(canal, datos, posicion + TAMANO_CABECERA);
+            datos.flip();
+            crc.reset();
+            crc.update(datos.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            reproductor.accept(decodificar(datos));
+            posicion += TAMANO_CABECERA + longitud;
+        }
+        return posicion;
+    }
+
+    private static void leerCompleto(FileChannel canal, ByteBuffer destino, long posicion) throws IOException {
+        while (destino.hasRemaining()) {
+            int leidos = canal.read(destino, posicion);
+            if (leidos < 0) {
+                throw new IOException("Fin de archivo inesperado en la bitácora de ventas");
+            }
+            posicion += leidos;
+        }
+    }
+
+    static ByteBuffer codificar(RegistroVenta registro) {
+        byte[] nombreCliente = bytes(registro.nombreCliente());
+        byte[] nombreProducto = bytes(registro.nombreProducto());
+        byte[] categoria = bytes(registro.categoriaProducto());
+
+        int longitud = Long.BYTES * 5 + Integer.BYTES + Short.BYTES * 3
+                + nombreCliente.length + nombreProducto.length + categoria.length + Byte.BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANO_CABECERA + longitud);
+        buffer.putInt(longitud);
+        buffer.putInt(0);
+        buffer.putLong(registro.id());
+        buffer.putLong(registro.fecha().toInstant(ZoneOffset.UTC).toEpochMilli());
+        buffer.putLong(registro.idCliente());
+        buffer.putLong(registro.idProducto());
+        buffer.putInt(registro.cantidad());
+        buffer.putLong(registro.precioUnitario());
+        escribirTexto(buffer, nombreCliente);
+        escribirTexto(buffer, nombreProducto);
+        escribirTexto(buffer, categoria);
+        buffer.put(FORMATO_CENTAVOS);
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), TAMANO_CABECERA, longitud);
+        buffer.putInt(Integer.BYTES, (int) crc.getValue());
+        buffer.flip();
+        return buffer;
+    }
+
+    static RegistroVenta decodificar(ByteBuffer datos) {
+        long id = datos.getLong();
+        LocalDateTime fecha = LocalDateTime.ofInstant(Instant.ofEpochMilli(datos.getLong()), ZoneOffset.UTC);
+        long idCliente = datos.getLong();
+        long idProducto = datos.getLong();
+        int cantidad = datos.getInt();
+        long precio = datos.getLong();
+        String nombreCliente = leerTexto(datos);
+        String nombreProducto = leerTexto(datos);
+        String categoria = leerTexto(datos);
+        // Los registros escritos antes de guardar centavos no tienen el byte de formato
+        long precioUnitario = datos.hasRemaining() && datos.get() == FORMATO_CENTAVOS
+                ? precio
+                : Dinero.desdeDouble(Double.longBitsToDouble(precio));
+        return new RegistroVenta(id, fecha, idCliente, nombreCliente, idProducto, nombreProducto,
+                categoria, cantidad, precioUnitario);
+    }
+
+    private static byte[] bytes(String texto) {
+        byte[] bytes = (texto == null ? "" : texto).getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Texto demasiado largo para la bitácora de ventas");
+        }
+        return bytes;
+    }
+
+    private static void escribirTexto(ByteBuffer buffer, byte[] texto) {
+        buffer.putShort((short) texto.length);
+        buffer.put(texto);
+    }
+
+    private static String leerTexto(ByteBuffer datos) {
+        byte[] texto = new byte[datos.getShort()];
+        datos.get(texto);
+        return new String(texto, StandardCharsets.UTF_8);
+    }
+
+    private record EscrituraPendiente(ByteBuffer datos, CompletableFuture<Void> resultado) {}
+}
@@ -0,0 +1,52 @@
+package org.demo.Persistence;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hilo de fondo compartido por los repositorios para reescribir sus snapshots
+ * y completar trabajos diferidos (como la construcción de índices) sin bloquear la interfaz.
+ */
+public final class ProgramadorSnapshots {
+    public static final long INTERVALO_SEGUNDOS = 30;
+
+    private static final System.Logger REGISTRO = System.getLogger(ProgramadorSnapshots.class.getName());
+
+    private static final ScheduledExecutorService EJECUTOR = Executors.newSingleThreadScheduledExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "snapshots-catalogo");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private ProgramadorSnapshots() {}
+
+    /**
+     * Ejecuta una tarea periódicamente cada {@value #INTERVALO_SEGUNDOS} segundos.
+     *
+     * @param tarea tarea a ejecutar.
+     */
+    public static void programar(Runnable tarea) {
+        EJECUTOR.scheduleWithFixedDelay(protegida(tarea), INTERVALO_SEGUNDOS, INTERVALO_SEGUNDOS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Ejecuta una tarea una sola vez en el hilo de fondo.
+     *
+     * @param tarea tarea a ejecutar.
+     */
+    public static void ejecutar(Runnable tarea) {
+        EJECUTOR.execute(protegida(tarea));
+    }
+
+    // Una excepción no debe cancelar las ejecuciones periódicas siguientes
+    private static Runnable protegida(Runnable tarea) {
+        return () -> {
+            try {
+                tarea.run();
+            } catch (RuntimeException e) {
+                REGISTRO.log(System.Logger.Level.ERROR, "Error en tarea de fondo", e);
+            }
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package org.demo.Persistence;
+
+import org.demo.Models.Venta;
+
+import java.time.LocalDateTime;
+
+/**
+ * Representación plana de una venta tal como se almacena en disco.
+ * Guarda los identificadores de cliente y producto junto con sus datos básicos,
+ * para poder reconstruir la venta aunque alguno de ellos ya no esté registrado.
+ * El precio unitario está en centavos.
+ */
+public record RegistroVenta(long id,
+                            LocalDateTime fecha,
+                            long idCliente,
+                            String nombreCliente,
+                            long idProducto,
+                            String nombreProducto,
+                            String categoriaProducto,
+                            int cantidad,
+                            long precioUnitario) {
+
+    /**
+     * Crea el registro correspondiente a una venta.
+     *
+     * @param venta venta a representar.
+     * @return registro con los datos de la venta.
+     */
+    public static RegistroVenta desde(Venta venta) {
+        return new RegistroVenta(
+                venta.getId(),
+                venta.getFecha(),
+                venta.getCliente().getId(),
+                venta.getCliente().getNombre(),
+                venta.getProducto().getId(),
+                venta.getProducto().getNombre(),
+                venta.getProducto().getCategoria(),
+                venta.getCantidad(),
+                venta.getPrecioUnitario());
+    }
+}
@@ -0,0 +1,293 @@
+package org.demo.Persistence;
+
+import org.demo.Models.Cliente;
+import org.demo.Models.Producto;
+import org.demo.Utils.Dinero;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Formato binario versionado para guardar el catálogo completo de clientes o productos.
+ *
+ * <p>Estructura del archivo: {@code [magia:int][versión:short][tipo:byte][cantidad:int]}
+ * seguido de los registros. Los textos se guardan como {@code [longitud:short][bytes UTF-8]}.
+ * La lectura se hace sobre un {@link MappedByteBuffer}, sin copias intermedias en el heap.</p>
+ *
+ * <p>La escritura se hace en un archivo temporal que luego reemplaza al anterior con un
+ * movimiento atómico, por lo que un lector nunca ve un snapshot a medio escribir. El snapshot
+ * reemplazado se conserva como copia {@code .anterior}; si el vigente está truncado o dañado,
+ * la lectura lo registra, lo aparta y recurre a esa copia o, en último caso, a los datos de ejemplo.</p>
+ *
+ * <p>Desde la versión 3 el stock de cada producto se guarda sin descontar las ventas (las unidades
+ * que entraron: stock inicial más ajustes). Las ventas están en la bitácora de ventas y se descuentan
+ * al cargar, de modo que una venta confirmada después del snapshot no se pierde ni se descuenta dos
+ * veces. Las versiones anteriores guardaban el stock ya descontado.</p>
+ */
+public final class SnapshotCatalogo {
+    private static final int MAGIA = 0x56534E50; // "VSNP"
+    static final short VERSION = 3;
+    // La versión 2 guardaba el stock con las ventas ya descontadas
+    private static final short VERSION_STOCK_DESCONTADO = 2;
+    // La versión 1 guardaba el precio de los productos como double en pesos
+    private static final short VERSION_PRECIO_DOUBLE = 1;
+    private static final int TAMANO_CABECERA = Integer.BYTES + Short.BYTES + Byte.BYTES + Integer.BYTES;
+
+    private static final byte TIPO_CLIENTES = 1;
+    private static final byte TIPO_PRODUCTOS = 2;
+
+    // Tamaño mínimo de un registro (todos los textos vacíos), usado para validar la cantidad
+    private static final int MINIMO_CLIENTE = Long.BYTES + 5 * Short.BYTES;
+    private static final int MINIMO_PRODUCTO = Long.BYTES + Long.BYTES + Integer.BYTES + 2 * Short.BYTES;
+
+    private static final System.Logger REGISTRO = System.getLogger(SnapshotCatalogo.class.getName());
+
+    private SnapshotCatalogo() {}
+
+    /**
+     * Lee los clientes de un snapshot.
+     *
+     * @param archivo ruta del snapshot.
+     * @return clientes guardados, o {@code null} si no hay un snapshot legible.
+     */
+    public static List<Cliente> leerClientes(Path archivo) {
+        Lectura<Cliente> lectura = leer(archivo, TIPO_CLIENTES, MINIMO_CLIENTE, (buffer, version) -> leerCliente(buffer));
+        return lectura == null ? null : lectura.registros();
+    }
+
+    /**
+     * Lee los productos de un snapshot.
+     *
+     * @param archivo ruta del snapshot.
+     * @return productos guardados, o {@code null} si no hay un snapshot legible.
+     */
+    public static ProductosLeidos leerProductos(Path archivo) {
+        Lectura<Producto> lectura = leer(archivo, TIPO_PRODUCTOS, MINIMO_PRODUCTO, SnapshotCatalogo::leerProducto);
+        return lectura == null ? null : new ProductosLeidos(lectura.registros(), lectura.version() < VERSION);
+    }
+
+    /**
+     * Escribe un snapshot de clientes reemplazando atómicamente el anterior.
+     *
+     * @param archivo  ruta del snapshot.
+     * @param clientes clientes a guardar.
+     */
+    public static void escribirClientes(Path archivo, List<Cliente> clientes) {
+        escribir(archivo, TIPO_CLIENTES, clientes.size(), salida -> {
+            for (Cliente cliente : clientes) {
+                escribirCliente(salida, cliente);
+            }
+        });
+    }
+
+    /**
+     * Escribe un snapshot de productos reemplazando atómicamente el anterior.
+     *
+     * @param archivo   ruta del snapshot.
+     * @param productos productos a guardar.
+     * @param entradas  unidades que entraron de cada producto, sin descontar las ventas.
+     */
+    public static void escribirProductos(Path archivo, List<Producto> productos, ToIntFunction<Producto> entradas) {
+        escribir(archivo, TIPO_PRODUCTOS, productos.size(), salida -> {
+            for (Producto producto : productos) {
+                escribirProducto(salida, producto, entradas.applyAsInt(producto));
+            }
+        });
+    }
+
+    static void escribirCliente(DataOutputStream salida, Cliente cliente) throws IOException {
+        salida.writeLong(cliente.getId());
+        escribirTexto(salida, cliente.getNombre());
+        escribirTexto(salida, cliente.getDocumento());
+        escribirTexto(salida, cliente.getTelefono());
+        escribirTexto(salida, cliente.getDireccion());
+        escribirTexto(salida, cliente.getCorreo());
+    }
+
+    static Cliente leerCliente(ByteBuffer buffer) {
+        return new Cliente(
+                buffer.getLong(),
+                leerTexto(buffer),
+                leerTexto(buffer),
+                leerTexto(buffer),
+                leerTexto(buffer),
+                leerTexto(buffer));
+    }
+
+    static void escribirProducto(DataOutputStream salida, Producto producto, int entradas) throws IOException {
+        salida.writeLong(producto.getId());
+        salida.writeLong(producto.getPrecio());
+        salida.writeInt(entradas);
+        escribirTexto(salida, producto.getNombre());
+        escribirTexto(salida, producto.getCategoria());
+    }
+
+    /**
+     * Lee un producto cuya cantidad es la guardada: las entradas desde la versión 3, el stock antes.
+     */
+    static Producto leerProducto(ByteBuffer buffer, short version) {
+        long id = buffer.getLong();
+        long precio = version == VERSION_PRECIO_DOUBLE
+                ? Dinero.desdeDouble(buffer.getDouble())
+                : buffer.getLong();
+        int stock = buffer.getInt();
+        String nombre = leerTexto(buffer);
+        String categoria = leerTexto(buffer);
+        return new Producto(id, nombre, precio, stock, categoria);
+    }
+
+    /**
+     * Lee el snapshot o, si está dañado o falta, la copia anterior. Un archivo dañado se aparta
+     * con la extensión {@code .corrupto} para que la siguiente escritura no lo pise.
+     */
+    private static <T> Lectura<T> leer(Path archivo, byte tipo, int minimoRegistro, LecturaRegistro<T> registro) {
+        for (Path candidato : List.of(archivo, anterior(archivo))) {
+            if (!Files.exists(candidato)) {
+                continue;
+            }
+            try {
+                Lectura<T> registros = decodificar(candidato, tipo, minimoRegistro, registro);
+                if (!candidato.equals(archivo)) {
+                    REGISTRO.log(System.Logger.Level.WARNING, "Se recuperó el catálogo desde la copia anterior: {0}",
+                            candidato);
+                }
+                return registros;
+            } catch (IOException | RuntimeException e) {
+                REGISTRO.log(System.Logger.Level.ERROR, "Snapshot dañado, se descarta: " + candidato, e);
+                apartar(candidato);
+            }
+        }
+        return null;
+    }
+
+    private static <T> Lectura<T> decodificar(Path archivo, byte tipoEsperado, int minimoRegistro,
+                                           LecturaRegistro<T> registro) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            if (canal.size() < TAMANO_CABECERA) {
+                throw new IOException("Archivo demasiado corto");
+            }
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            if (buffer.getInt() != MAGIA) {
+                throw new IOException("No es un snapshot de catálogo");
+            }
+            short version = buffer.getShort();
+            if (version != VERSION && version != VERSION_STOCK_DESCONTADO && version != VERSION_PRECIO_DOUBLE) {
+                throw new IOException("Versión de snapshot no soportada: " + version);
+            }
+            if (buffer.get() != tipoEsperado) {
+                throw new IOException("El snapshot no corresponde al catálogo esperado");
+            }
+            int cantidad = buffer.getInt();
+            // Se valida antes de reservar la lista para que una cantidad corrupta no agote la memoria
+            if (cantidad < 0 || (long) cantidad * minimoRegistro > buffer.remaining()) {
+                throw new IOException("Cantidad de registros inválida: " + cantidad);
+            }
+            List<T> registros = new ArrayList<>(cantidad);
+            try {
+                for (int i = 0; i < cantidad; i++) {
+                    registros.add(registro.leer(buffer, version));
+                }
+            } catch (BufferUnderflowException e) {
+                throw new IOException("Snapshot truncado en el registro " + registros.size(), e);
+            }
+            if (buffer.hasRemaining()) {
+                throw new IOException("Datos sobrantes al final del snapshot");
+            }
+            return new Lectura<>(registros, version);
+        }
+    }
+
+    private static Path anterior(Path archivo) {
+        return archivo.resolveSibling(archivo.getFileName() + ".anterior");
+    }
+
+    private static void apartar(Path archivo) {
+        Path corrupto = archivo.resolveSibling(archivo.getFileName() + ".corrupto");
+        try {
+            Files.move(archivo, corrupto, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            REGISTRO.log(System.Logger.Level.WARNING, "No se pudo apartar el snapshot dañado: " + archivo, e);
+        }
+    }
+
+    private static void escribir(Path archivo, byte tipo, int cantidad, EscrituraRegistros registros) {
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        try {
+            try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                OutputStream flujo = Channels.newOutputStream(canal);
+                DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(flujo, 1 << 16));
+                salida.writeInt(MAGIA);
+                salida.writeShort(VERSION);
+                salida.writeByte(tipo);
+                salida.writeInt(cantidad);
+                registros.escribir(salida);
+                salida.flush();
+                canal.force(true);
+            }
+            // El snapshot vigente pasa a ser la copia anterior, que se usa si el nuevo no se puede leer
+            if (Files.exists(archivo)) {
+                Files.move(archivo, anterior(archivo), StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(temporal, archivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo escribir el snapshot: " + archivo, e);
+        }
+    }
+
+    private static void escribirTexto(DataOutputStream salida, String texto) throws IOException {
+        byte[] bytes = (texto == null ? "" : texto).getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IOException("Texto demasiado largo para el snapshot");
+        }
+        salida.writeShort(bytes.length);
+        salida.write(bytes);
+    }
+
+    private static String leerTexto(ByteBuffer buffer) {
+        short longitud = buffer.getShort();
+        if (longitud < 0) {
+            throw new IllegalStateException("Longitud de texto inválida: " + longitud);
+        }
+        byte[] bytes = new byte[longitud];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Productos leídos de un snapshot.
+     *
+     * @param productos        productos guardados.
+     * @param stockDescontado  {@code true} si el snapshot es anterior a la versión 3 y la cantidad de
+     *                         cada producto ya tiene descontadas las ventas; si no, son sus entradas.
+     */
+    public record ProductosLeidos(List<Producto> productos, boolean stockDescontado) {}
+
+    private record Lectura<T>(List<T> registros, short version) {}
+
+    @FunctionalInterface
+    private interface LecturaRegistro<T> {
+        T leer(ByteBuffer buffer, short version);
+    }
+
+    @FunctionalInterface
+    private interface EscrituraRegistros {
+        void escribir(DataOutputStream salida) throws IOException;
+    }
+}
@@ -1,51 +1,34 @@
 package org.demo.Repositories;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import org.demo.Models.Cliente;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
- * Repositorio encargado de gestionar los datos de los clientes registrados en el sistema.
- * Implementa el patrón Singleton para mantener una única instancia compartida
- * y utiliza una lista observable para permitir la sincronización con la interfaz gráfica.
+ * Operaciones sobre los clientes registrados en el sistema.
+ * No depende de JavaFX, por lo que puede usarse desde la interfaz gráfica o en modo sin interfaz.
  */
-public class ClienteRepository {
-    private static ClienteRepository instancia;
-    private final ObservableList<Cliente> clientes;
+public interface ClienteRepository {
 
     /**
-     * Constructor privado.
-     * Inicializa la lista de clientes y carga datos de ejemplo.
-     */
-    private ClienteRepository() {
-        clientes = FXCollections.observableArrayList();
-        cargarDatosEjemplo();
-    }
-
-    /**
-     * Devuelve la instancia única del repositorio.
-     * Si no existe, se crea una nueva.
+     * Retorna una copia de los clientes registrados, en orden de registro.
      *
-     * @return instancia única de {@code ClienteRepository}.
+     * @return lista de clientes.
      */
-    public static ClienteRepository getInstancia(){
-        if(instancia == null){
-            instancia = new ClienteRepository();
-        }
-        return instancia;
-    }
+    List<Cliente> listarClientes();
 
     /**
-     * Retorna la lista observable de clientes.
-     * Puede ser utilizada para enlazar datos con componentes de la interfaz gráfica.
+     * Retorna una página de clientes ordenados por id, empezando después del id indicado.
+     * Permite recorrer el repositorio por partes sin cargarlo completo en memoria.
      *
-     * @return lista observable de clientes.
+     * @param idAnterior último id de la página anterior ({@code Long.MIN_VALUE} para la primera página).
+     * @param limite     cantidad máxima de clientes a retornar.
+     * @return clientes con id mayor que {@code idAnterior}, como máximo {@code limite}.
      */
-    public ObservableList<Cliente> getClientes() {
-        return clientes;
-    }
+    List<Cliente> listarClientesDesde(long idAnterior, int limite);
 
     /**
      * Guarda un nuevo cliente en el repositorio.
@@ -53,40 +36,33 @@ public class ClienteRepository {
      *
      * @param cliente cliente a registrar.
      */
-    public void guardarCliente(Cliente cliente){
-        if(existeClienteConDocumento(cliente.getDocumento()) || existeClienteConCorreo(cliente.getCorreo())){
-            throw new RuntimeException("Este cliente ya se encuentra registrado");
-        }
-        clientes.add(cliente);
-    }
+    void guardarCliente(Cliente cliente);
+
+    /**
+     * Guarda varios clientes en una sola operación, emitiendo una única notificación de cambio.
+     * Los clientes cuyo documento o correo ya estén registrados (o repetidos dentro del mismo lote)
+     * no se guardan.
+     *
+     * @param clientes clientes a registrar.
+     * @return clientes que no se guardaron por estar duplicados.
+     */
+    List<Cliente> guardarClientes(List<Cliente> clientes);
 
     /**
      * Elimina un cliente existente identificado por su correo electrónico.
      *
      * @param cliente cliente a eliminar.
      */
-    public void eliminarCliente(Cliente cliente){
-        clientes.removeIf(c -> c.getCorreo().equalsIgnoreCase(cliente.getCorreo()));
-    }
+    void eliminarCliente(Cliente cliente);
 
     /**
      * Actualiza los datos de un cliente existente basándose en su ID.
      * Si el cliente existe, sus datos son reemplazados por los nuevos valores.
+     * Lanza una excepción, sin cambiar nada, si el documento o correo nuevos son de otro cliente.
      *
      * @param cliente cliente con la información actualizada.
      */
-    public void actualizarCliente(Cliente cliente){
-        Optional<Cliente> clienteExistenteOpt = buscarClientePorId(cliente.getId());
-        if(clienteExistenteOpt.isPresent()){
-            Cliente existente =  clienteExistenteOpt.get();
-
-            existente.setDocumento(cliente.getDocumento());
-            existente.setCorreo(cliente.getCorreo());
-            existente.setNombre(cliente.getNombre());
-            existente.setTelefono(cliente.getTelefono());
-            existente.setDireccion(cliente.getDireccion());
-        }
-    }
+    void actualizarCliente(Cliente cliente);
 
     /**
      * Verifica si existe un cliente registrado con un documento determinado.
@@ -94,10 +70,7 @@ public class ClienteRepository {
      * @param documento documento a verificar.
      * @return {@code true} si el cliente ya existe, {@code false} en caso contrario.
      */
-    public boolean existeClienteConDocumento(String documento){
-        return clientes.stream().
-                anyMatch(c -> c.getDocumento().equalsIgnoreCase(documento.trim()));
-    }
+    boolean existeClienteConDocumento(String documento);
 
     /**
      * Verifica si existe un cliente registrado con un correo determinado.
@@ -105,10 +78,7 @@ public class ClienteRepository {
      * @param correo correo a verificar.
      * @return {@code true} si el cliente ya existe, {@code false} en caso contrario.
      */
-    public boolean existeClienteConCorreo(String correo){
-        return clientes.stream().
-                anyMatch(c -> c.getCorreo().equalsIgnoreCase(correo.trim()));
-    }
+    boolean existeClienteConCorreo(String correo);
 
     /**
      * Verifica si existe un cliente registrado con un teléfono determinado.
@@ -116,10 +86,19 @@ public class ClienteRepository {
      * @param telefono número de teléfono a verificar.
      * @return {@code true} si el cliente ya existe, {@code false} en caso contrario.
      */
-    public boolean existeClienteConTelefono(String telefono){
-        return clientes.stream().
-                anyMatch(c -> c.getTelefono().equalsIgnoreCase(telefono.trim()));
-    }
+    boolean existeClienteConTelefono(String telefono);
+
+    /**
+     * Retorna cuáles de los valores indicados ya están registrados como documento, correo o
+     * teléfono de algún cliente. Es la versión por lotes de {@link #existeClienteConDocumento},
+     * {@link #existeClienteConCorreo} y {@link #existeClienteConTelefono}: revisa muchos valores
+     * con pocas consultas.
+     *
+     * @param clave   dato del cliente que se compara.
+     * @param valores valores a revisar.
+     * @return valores registrados, normalizados (sin espacios laterales y en minúsculas).
+     */
+    Set<String> buscarRegistrados(ClaveCliente clave, Collection<String> valores);
 
     /**
      * Busca un cliente por su identificador único.
@@ -127,32 +106,40 @@ public class ClienteRepository {
      * @param id identificador del cliente.
      * @return un {@code Optional<Cliente>} con el cliente si se encuentra.
      */
-    public Optional<Cliente> buscarClientePorId(int id) {
-        return clientes.stream()
-                .filter(c -> c.getId() == id)
-                .findFirst();
-    }
+    Optional<Cliente> buscarClientePorId(long id);
 
     /**
      * Retorna el número total de clientes registrados.
      *
      * @return cantidad de clientes en el repositorio.
      */
-    public int contarClientes(){
-        return clientes.size();
-    }
+    int contarClientes();
+
+    /**
+     * Registra un oyente de cambios y retorna, de forma atómica con el registro,
+     * los clientes existentes en ese momento.
+     *
+     * @param oyente oyente a registrar.
+     * @return clientes registrados antes de la suscripción.
+     */
+    List<Cliente> suscribir(OyenteRepositorio<Cliente> oyente);
 
     /**
-     * Carga datos de ejemplo al iniciar el repositorio.
-     * Los datos son utilizados únicamente con fines demostrativos.
+     * Registra un oyente de cambios y retorna, de forma atómica con el registro,
+     * cuántos clientes hay en ese momento. Pensado para quien carga los clientes por páginas.
+     *
+     * @param oyente oyente a registrar.
+     * @return cantidad de clientes registrados antes de la suscripción.
      */
-    private void cargarDatosEjemplo(){
-        Cliente c1 = new Cliente("Simón Bolívar", "1092313", "3142141", "Armenia", "simon@gmail.com");
-        Cliente c2 = new Cliente("Armando Casas", "10924213", "3144541", "Armenia", "casas@gmail.com");
-        Cliente c3 = new Cliente("Chino Moreno", "42142132", "31241241", "Armenia", "chino@gmail.com");
+    int contarYSuscribir(OyenteRepositorio<Cliente> oyente);
 
-        guardarCliente(c1);
-        guardarCliente(c2);
-        guardarCliente(c3);
-    }
+    /**
+     * Libera los recursos del repositorio y persiste los cambios pendientes.
+     */
+    void cerrar();
+
+    /**
+     * Datos que identifican a un cliente y no pueden repetirse (el teléfono solo se revisa al importar).
+     */
+    enum ClaveCliente { DOCUMENTO, CORREO, TELEFONO }
 }
@@ -0,0 +1,381 @@
+package org.demo.Repositories;
+
+import org.demo.Models.Cliente;
+import org.demo.Persistence.BitacoraCatalogo;
+import org.demo.Persistence.ConfiguracionDatos;
+import org.demo.Persistence.ProgramadorSnapshots;
+import org.demo.Persistence.SnapshotCatalogo;
+import org.demo.Utils.GeneradoresId;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Implementación en memoria y segura para hilos de {@link ClienteRepository}.
+ *
+ * <p>Los clientes se guardan en un mapa ordenado por id (que crece con el tiempo, por lo que
+ * conserva el orden de registro) y en índices secundarios con claves normalizadas.
+ * Las consultas no toman candados; las escrituras se serializan entre sí para mantener
+ * todos los índices consistentes.</p>
+ *
+ * <p>Los clientes se guardan en un snapshot binario que se reescribe en segundo plano;
+ * los índices secundarios se construyen de forma diferida tras cargarlo. Cada cambio se escribe
+ * antes en una {@link BitacoraCatalogo} que se reproduce sobre el snapshot al iniciar, de modo que
+ * un cliente registrado justo antes de una venta sigue existiendo si la aplicación termina antes
+ * del siguiente snapshot.</p>
+ */
+public class ClienteRepositoryMemoria implements ClienteRepository {
+    private final NavigableMap<Long, Cliente> clientesPorId;
+
+    // Índices secundarios con claves normalizadas (sin espacios y en minúsculas)
+    private final Map<String, Cliente> clientesPorDocumento;
+    private final Map<String, Cliente> clientesPorCorreo;
+    private final Map<String, Cliente> clientesPorTelefono;
+    // Claves con las que se indexó cada cliente, para poder retirarlas aunque el objeto ya haya sido modificado
+    private final Map<Long, ClavesCliente> clavesIndexadas;
+
+    private final List<OyenteRepositorio<Cliente>> oyentes;
+    private final Object escritura;
+    private final Path archivoSnapshot;
+    private final BitacoraCatalogo<Cliente> bitacora;
+    private volatile boolean indicesConstruidos;
+    private volatile boolean modificado;
+
+    /**
+     * Crea el repositorio a partir del snapshot y la bitácora de cambios, o con datos de ejemplo si no hay ninguno.
+     * Los índices se construyen en segundo plano y el snapshot se reescribe periódicamente.
+     */
+    public ClienteRepositoryMemoria() {
+        clientesPorId = new ConcurrentSkipListMap<>();
+        clientesPorDocumento = new ConcurrentHashMap<>();
+        clientesPorCorreo = new ConcurrentHashMap<>();
+        clientesPorTelefono = new ConcurrentHashMap<>();
+        clavesIndexadas = new ConcurrentHashMap<>();
+        oyentes = new CopyOnWriteArrayList<>();
+        escritura = new Object();
+        archivoSnapshot = ConfiguracionDatos.archivo("clientes.snapshot");
+
+        List<Cliente> guardados = SnapshotCatalogo.leerClientes(archivoSnapshot);
+        if (guardados != null) {
+            guardados.forEach(this::restaurar);
+        }
+        bitacora = BitacoraCatalogo.abrirClientes(ConfiguracionDatos.archivo("clientes.bitacora"),
+                new BitacoraCatalogo.Reproductor<>() {
+                    @Override
+                    public void guardado(Cliente cliente) {
+                        restaurar(cliente);
+                    }
+
+                    @Override
+                    public void eliminado(long id) {
+                        clientesPorId.remove(id);
+                    }
+                });
+        // Se reescribe el snapshot para compactar la bitácora
+        modificado = bitacora.posicion() > 0;
+
+        if (guardados == null && clientesPorId.isEmpty()) {
+            cargarDatosEjemplo();
+        }
+
+        ProgramadorSnapshots.ejecutar(this::asegurarIndices);
+        ProgramadorSnapshots.programar(this::guardarSnapshotSiModificado);
+    }
+
+    @Override
+    public List<Cliente> listarClientes() {
+        return new ArrayList<>(clientesPorId.values());
+    }
+
+    @Override
+    public List<Cliente> listarClientesDesde(long idAnterior, int limite) {
+        return Paginas.primeros(clientesPorId.tailMap(idAnterior, false).values(), limite);
+    }
+
+    @Override
+    public void guardarCliente(Cliente cliente) {
+        asegurarIndices();
+        synchronized (escritura) {
+            if (existeClienteConDocumento(cliente.getDocumento()) || existeClienteConCorreo(cliente.getCorreo())) {
+                throw new RuntimeException("Este cliente ya se encuentra registrado");
+            }
+            List<Cliente> agregados = List.of(cliente);
+            bitacora.guardar(agregados);
+            clientesPorId.put(cliente.getId(), cliente);
+            indexar(cliente);
+            modificado = true;
+            oyentes.forEach(o -> o.alAgregar(agregados));
+        }
+    }
+
+    @Override
+    public List<Cliente> guardarClientes(List<Cliente> clientes) {
+        asegurarIndices();
+        List<Cliente> agregados = new ArrayList<>(clientes.size());
+        List<Cliente> duplicados = new ArrayList<>();
+        synchronized (escritura) {
+            Set<String> documentosLote = new HashSet<>();
+            Set<String> correosLote = new HashSet<>();
+            for (Cliente cliente : clientes) {
+                if (existeClienteConDocumento(cliente.getDocumento()) || existeClienteConCorreo(cliente.getCorreo())
+                        || !documentosLote.add(normalizar(cliente.getDocumento()))
+                        || !correosLote.add(normalizar(cliente.getCorreo()))) {
+                    duplicados.add(cliente);
+                    continue;
+                }
+                agregados.add(cliente);
+            }
+            if (!agregados.isEmpty()) {
+                bitacora.guardar(agregados);
+                for (Cliente cliente : agregados) {
+                    clientesPorId.put(cliente.getId(), cliente);
+                    indexar(cliente);
+                }
+                modificado = true;
+                List<Cliente> notificados = Collections.unmodifiableList(agregados);
+                oyentes.forEach(o -> o.alAgregar(notificados));
+            }
+        }
+        return duplicados;
+    }
+
+    @Override
+    public void eliminarCliente(Cliente cliente) {
+        asegurarIndices();
+        synchronized (escritura) {
+            Cliente existente = clientesPorCorreo.get(normalizar(cliente.getCorreo()));
+            if (existente == null) {
+                return;
+            }
+            bitacora.eliminar(existente.getId());
+            desindexar(existente);
+            clientesPorId.remove(existente.getId());
+            modificado = true;
+            oyentes.forEach(o -> o.alEliminar(existente));
+        }
+    }
+
+    @Override
+    public void actualizarCliente(Cliente cliente) {
+        asegurarIndices();
+        synchronized (escritura) {
+            Cliente existente = clientesPorId.get(cliente.getId());
+            if (existente == null) {
+                return;
+            }
+            if (deOtroCliente(clientesPorDocumento, cliente.getDocumento(), existente)
+                    || deOtroCliente(clientesPorCorreo, cliente.getCorreo(), existente)) {
+                throw new RuntimeException("Este cliente ya se encuentra registrado");
+            }
+            existente.setDocumento(cliente.getDocumento());
+            existente.setCorreo(cliente.getCorreo());
+            existente.setNombre(cliente.getNombre());
+            existente.setTelefono(cliente.getTelefono());
+            existente.setDireccion(cliente.getDireccion());
+            bitacora.guardar(List.of(existente));
+
+            desindexar(existente);
+            indexar(existente);
+            modificado = true;
+            oyentes.forEach(o -> o.alActualizar(existente));
+        }
+    }
+
+    @Override
+    public boolean existeClienteConDocumento(String documento) {
+        asegurarIndices();
+        return clientesPorDocumento.containsKey(normalizar(documento));
+    }
+
+    @Override
+    public boolean existeClienteConCorreo(String correo) {
+        asegurarIndices();
+        return clientesPorCorreo.containsKey(normalizar(correo));
+    }
+
+    @Override
+    public boolean existeClienteConTelefono(String telefono) {
+        asegurarIndices();
+        return clientesPorTelefono.containsKey(normalizar(telefono));
+    }
+
+    @Override
+    public Set<String> buscarRegistrados(ClaveCliente clave, Collection<String> valores) {
+        asegurarIndices();
+        Map<String, Cliente> indice = switch (clave) {
+            case DOCUMENTO -> clientesPorDocumento;
+            case CORREO -> clientesPorCorreo;
+            case TELEFONO -> clientesPorTelefono;
+        };
+        Set<String> registrados = new HashSet<>();
+        for (String valor : valores) {
+            String normalizado = normalizar(valor);
+            if (indice.containsKey(normalizado)) {
+                registrados.add(normalizado);
+            }
+        }
+        return registrados;
+    }
+
+    @Override
+    public Optional<Cliente> buscarClientePorId(long id) {
+        return Optional.ofNullable(clientesPorId.get(id));
+    }
+
+    @Override
+    public int contarClientes() {
+        return clientesPorId.size();
+    }
+
+    @Override
+    public List<Cliente> suscribir(OyenteRepositorio<Cliente> oyente) {
+        synchronized (escritura) {
+            oyentes.add(oyente);
+            return listarClientes();
+        }
+    }
+
+    @Override
+    public int contarYSuscribir(OyenteRepositorio<Cliente> oyente) {
+        synchronized (escritura) {
+            oyentes.add(oyente);
+            return contarClientes();
+        }
+    }
+
+    @Override
+    public void cerrar() {
+        guardarSnapshotSiModificado();
+        bitacora.close();
+    }
+
+    /**
+     * Escribe el snapshot de clientes si hubo cambios desde la última escritura y descarta de la
+     * bitácora lo que ya quedó en él. La copia y la posición de la bitácora se toman bajo el candado
+     * de escritura; el archivo se escribe fuera de él.
+     */
+    private void guardarSnapshotSiModificado() {
+        List<Cliente> copia;
+        long hasta;
+        synchronized (escritura) {
+            if (!modificado) {
+                return;
+            }
+            copia = listarClientes();
+            hasta = bitacora.posicion();
+            modificado = false;
+        }
+        try {
+            SnapshotCatalogo.escribirClientes(archivoSnapshot, copia);
+        } catch (RuntimeException e) {
+            modificado = true;
+            throw e;
+        }
+        bitacora.descartarHasta(hasta);
+    }
+
+    /**
+     * Agrega un cliente leído del snapshot o de la bitácora.
+     */
+    private void restaurar(Cliente cliente) {
+        clientesPorId.put(cliente.getId(), cliente);
+        GeneradoresId.clientes().asegurarMayorQue(cliente.getId());
+    }
+
+    /**
+     * Construye los índices secundarios la primera vez que se necesitan.
+     */
+    private void asegurarIndices() {
+        if (indicesConstruidos) {
+            return;
+        }
+        synchronized (escritura) {
+            if (indicesConstruidos) {
+                return;
+            }
+            for (Cliente cliente : clientesPorId.values()) {
+                indexar(cliente);
+            }
+            indicesConstruidos = true;
+        }
+    }
+
+    /**
+     * Registra el cliente en todos los índices secundarios.
+     *
+     * @param cliente cliente a indexar.
+     */
+    private void indexar(Cliente cliente) {
+        ClavesCliente claves = new ClavesCliente(
+                normalizar(cliente.getDocumento()),
+                normalizar(cliente.getCorreo()),
+                normalizar(cliente.getTelefono()));
+
+        clientesPorDocumento.put(claves.documento(), cliente);
+        clientesPorCorreo.put(claves.correo(), cliente);
+        clientesPorTelefono.put(claves.telefono(), cliente);
+        clavesIndexadas.put(cliente.getId(), claves);
+    }
+
+    /**
+     * Retira el cliente de los índices usando las claves con las que fue indexado.
+     * Solo se eliminan las entradas que todavía apuntan a este cliente.
+     *
+     * @param cliente cliente a retirar de los índices.
+     */
+    private void desindexar(Cliente cliente) {
+        ClavesCliente claves = clavesIndexadas.remove(cliente.getId());
+        if (claves == null) {
+            return;
+        }
+        clientesPorDocumento.remove(claves.documento(), cliente);
+        clientesPorCorreo.remove(claves.correo(), cliente);
+        clientesPorTelefono.remove(claves.telefono(), cliente);
+    }
+
+    /**
+     * Normaliza un valor para usarlo como clave de índice: sin espacios laterales y en minúsculas.
+     *
+     * @param valor valor a normalizar.
+     * @return clave normalizada, o cadena vacía si el valor es {@code null}.
+     */
+    private static boolean deOtroCliente(Map<String, Cliente> indice, String valor, Cliente cliente) {
+        Cliente registrado = indice.get(normalizar(valor));
+        return registrado != null && registrado != cliente;
+    }
+
+    private static String normalizar(String valor) {
+        return valor == null ? "" : valor.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Claves normalizadas con las que un cliente quedó registrado en los índices.
+     */
+    private record ClavesCliente(String documento, String correo, String telefono) {}
+
+    /**
+     * Carga datos de ejemplo al iniciar el repositorio.
+     * Los datos son utilizados únicamente con fines demostrativos.
+     */
+    private void cargarDatosEjemplo() {
+        Cliente c1 = new Cliente("Simón Bolívar", "1092313", "3142141", "Armenia", "simon@gmail.com");
+        Cliente c2 = new Cliente("Armando Casas", "10924213", "3144541", "Armenia", "casas@gmail.com");
+        Cliente c3 = new Cliente("Chino Moreno", "42142132", "31241241", "Armenia", "chino@gmail.com");
+
+        guardarCliente(c1);
+        guardarCliente(c2);
+        guardarCliente(c3);
+    }
+}
@@ -0,0 +1,311 @@
+package org.demo.Repositories;
+
+import org.demo.Models.Cliente;
+import org.demo.Persistence.BaseDatos;
+import org.demo.Utils.GeneradoresId;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Implementación de {@link ClienteRepository} sobre la base de datos embebida.
+ *
+ * <p>Los clientes no se mantienen en memoria: cada consulta va a la base de datos, que tiene
+ * índices únicos sobre el documento y el correo normalizados (sin espacios y en minúsculas)
+ * y un índice sobre el teléfono. Las escrituras se serializan entre sí para que los oyentes
+ * reciban las notificaciones en el mismo orden en que se aplicaron.</p>
+ */
+public class ClienteRepositorySql implements ClienteRepository {
+    private static final int TAMANO_LOTE = 1000;
+    private static final String COLUMNAS = "id, nombre, documento, telefono, direccion, correo";
+    private static final String INSERTAR = "INSERT INTO clientes (" + COLUMNAS
+            + ", documento_clave, correo_clave, telefono_clave) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final BaseDatos baseDatos;
+    private final List<OyenteRepositorio<Cliente>> oyentes;
+    private final Object escritura;
+
+    /**
+     * Crea el repositorio, creando la tabla y sus índices si no existen.
+     * Si la tabla está vacía se cargan datos de ejemplo.
+     *
+     * @param baseDatos base de datos donde se guardan los clientes.
+     */
+    public ClienteRepositorySql(BaseDatos baseDatos) {
+        this.baseDatos = baseDatos;
+        this.oyentes = new CopyOnWriteArrayList<>();
+        this.escritura = new Object();
+
+        baseDatos.definir(
+                "CREATE TABLE IF NOT EXISTS clientes (id BIGINT PRIMARY KEY, nombre VARCHAR(255), "
+                        + "documento VARCHAR(64), telefono VARCHAR(64), direccion VARCHAR(255), correo VARCHAR(255), "
+                        + "documento_clave VARCHAR(64) NOT NULL, correo_clave VARCHAR(255) NOT NULL, "
+                        + "telefono_clave VARCHAR(64) NOT NULL)",
+                "CREATE UNIQUE INDEX IF NOT EXISTS idx_clientes_documento ON clientes (documento_clave)",
+                "CREATE UNIQUE INDEX IF NOT EXISTS idx_clientes_correo ON clientes (correo_clave)",
+                "CREATE INDEX IF NOT EXISTS idx_clientes_telefono ON clientes (telefono_clave)");
+
+        GeneradoresId.clientes().asegurarMayorQue(consultarNumero("SELECT COALESCE(MAX(id), 0) FROM clientes"));
+        if (contarClientes() == 0) {
+            cargarDatosEjemplo();
+        }
+    }
+
+    @Override
+    public List<Cliente> listarClientes() {
+        return consultar("SELECT " + COLUMNAS + " FROM clientes ORDER BY id");
+    }
+
+    @Override
+    public List<Cliente> listarClientesDesde(long idAnterior, int limite) {
+        return consultar("SELECT " + COLUMNAS + " FROM clientes WHERE id > ? ORDER BY id LIMIT ?", idAnterior, limite);
+    }
+
+    @Override
+    public void guardarCliente(Cliente cliente) {
+        synchronized (escritura) {
+            try {
+                baseDatos.ejecutar(conexion -> {
+                    PreparedStatement sentencia = conexion.sentencia(INSERTAR);
+                    asignar(sentencia, cliente);
+                    return sentencia.executeUpdate();
+                });
+            } catch (RuntimeException e) {
+                if (e.getCause() instanceof SQLIntegrityConstraintViolationException) {
+                    throw new RuntimeException("Este cliente ya se encuentra registrado");
+                }
+                throw e;
+            }
+            List<Cliente> agregados = List.of(cliente);
+            oyentes.forEach(o -> o.alAgregar(agregados));
+        }
+    }
+
+    @Override
+    public List<Cliente> guardarClientes(List<Cliente> clientes) {
+        List<Cliente> agregados = new ArrayList<>(clientes.size());
+        List<Cliente> duplicados = new ArrayList<>();
+        synchronized (escritura) {
+            baseDatos.enTransaccion(conexion -> {
+                // Las claves ya registradas se consultan por lotes, una consulta por índice (un OR
+                // haría un recorrido completo); las del propio lote se agregan a medida que se aceptan
+                List<String> documentosLote = new ArrayList<>(clientes.size());
+                List<String> correosLote = new ArrayList<>(clientes.size());
+                for (Cliente cliente : clientes) {
+                    documentosLote.add(normalizar(cliente.getDocumento()));
+                    correosLote.add(normalizar(cliente.getCorreo()));
+                }
+                Set<String> documentos = conexion.buscarExistentes("clientes", "documento_clave", documentosLote);
+                Set<String> correos = conexion.buscarExistentes("clientes", "correo_clave", correosLote);
+                PreparedStatement insertar = conexion.sentencia(INSERTAR);
+                for (int i = 0; i < clientes.size(); i++) {
+                    Cliente cliente = clientes.get(i);
+                    if (documentos.contains(documentosLote.get(i)) || correos.contains(correosLote.get(i))) {
+                        duplicados.add(cliente);
+                        continue;
+                    }
+                    documentos.add(documentosLote.get(i));
+                    correos.add(correosLote.get(i));
+                    asignar(insertar, cliente);
+                    insertar.addBatch();
+                    agregados.add(cliente);
+                    if (agregados.size() % TAMANO_LOTE == 0) {
+                        insertar.executeBatch();
+                    }
+                }
+                insertar.executeBatch();
+                return null;
+            });
+            if (!agregados.isEmpty()) {
+                List<Cliente> notificados = Collections.unmodifiableList(agregados);
+                oyentes.forEach(o -> o.alAgregar(notificados));
+            }
+        }
+        return duplicados;
+    }
+
+    @Override
+    public void eliminarCliente(Cliente cliente) {
+        synchronized (escritura) {
+            Optional<Cliente> existente = consultar("SELECT " + COLUMNAS + " FROM clientes WHERE correo_clave = ?",
+                    normalizar(cliente.getCorreo())).stream().findFirst();
+            if (existente.isEmpty()) {
+                return;
+            }
+            actualizar("DELETE FROM clientes WHERE id = ?", existente.get().getId());
+            oyentes.forEach(o -> o.alEliminar(existente.get()));
+        }
+    }
+
+    @Override
+    public void actualizarCliente(Cliente cliente) {
+        synchronized (escritura) {
+            int actualizados;
+            try {
+                actualizados = actualizar("UPDATE clientes SET nombre = ?, documento = ?, telefono = ?, "
+                                + "direccion = ?, correo = ?, documento_clave = ?, correo_clave = ?, telefono_clave = ? "
+                                + "WHERE id = ?",
+                        cliente.getNombre(), cliente.getDocumento(), cliente.getTelefono(), cliente.getDireccion(),
+                        cliente.getCorreo(), normalizar(cliente.getDocumento()), normalizar(cliente.getCorreo()),
+                        normalizar(cliente.getTelefono()), cliente.getId());
+            } catch (RuntimeException e) {
+                if (e.getCause() instanceof SQLIntegrityConstraintViolationException) {
+                    throw new RuntimeException("Este cliente ya se encuentra registrado");
+                }
+                throw e;
+            }
+            if (actualizados > 0) {
+                oyentes.forEach(o -> o.alActualizar(cliente));
+            }
+        }
+    }
+
+    @Override
+    public boolean existeClienteConDocumento(String documento) {
+        return consultarNumero("SELECT COUNT(*) FROM clientes WHERE documento_clave = ?", normalizar(documento)) > 0;
+    }
+
+    @Override
+    public boolean existeClienteConCorreo(String correo) {
+        return consultarNumero("SELECT COUNT(*) FROM clientes WHERE correo_clave = ?", normalizar(correo)) > 0;
+    }
+
+    @Override
+    public boolean existeClienteConTelefono(String telefono) {
+        return consultarNumero("SELECT COUNT(*) FROM clientes WHERE telefono_clave = ?", normalizar(telefono)) > 0;
+    }
+
+    @Override
+    public Set<String> buscarRegistrados(ClaveCliente clave, Collection<String> valores) {
+        String columna = switch (clave) {
+            case DOCUMENTO -> "documento_clave";
+            case CORREO -> "correo_clave";
+            case TELEFONO -> "telefono_clave";
+        };
+        List<String> normalizados = new ArrayList<>(valores.size());
+        for (String valor : valores) {
+            normalizados.add(normalizar(valor));
+        }
+        return baseDatos.ejecutar(conexion -> conexion.buscarExistentes("clientes", columna, normalizados));
+    }
+
+    @Override
+    public Optional<Cliente> buscarClientePorId(long id) {
+        return consultar("SELECT " + COLUMNAS + " FROM clientes WHERE id = ?", id).stream().findFirst();
+    }
+
+    @Override
+    public int contarClientes() {
+        return (int) consultarNumero("SELECT COUNT(*) FROM clientes");
+    }
+
+    @Override
+    public List<Cliente> suscribir(OyenteRepositorio<Cliente> oyente) {
+        synchronized (escritura) {
+            oyentes.add(oyente);
+            return listarClientes();
+        }
+    }
+
+    @Override
+    public int contarYSuscribir(OyenteRepositorio<Cliente> oyente) {
+        synchronized (escritura) {
+            oyentes.add(oyente);
+            return contarClientes();
+        }
+    }
+
+    @Override
+    public void cerrar() {
+        // Las escrituras se confirman al ejecutarse; la conexión la cierra quien creó la base de datos
+    }
+
+    private List<Cliente> consultar(String sql, Object... parametros) {
+        return baseDatos.ejecutar(conexion -> {
+            PreparedStatement sentencia = conexion.sentencia(sql, parametros);
+            List<Cliente> clientes = new ArrayList<>();
+            try (ResultSet resultado = sentencia.executeQuery()) {
+                while (resultado.next()) {
+                    clientes.add(leer(resultado));
+                }
+            }
+            return clientes;
+        });
+    }
+
+    private long consultarNumero(String sql, Object... parametros) {
+        return baseDatos.ejecutar(conexion -> {
+            PreparedStatement sentencia = conexion.sentencia(sql, parametros);
+            try (ResultSet resultado = sentencia.executeQuery()) {
+                resultado.next();
+                return resultado.getLong(1);
+            }
+        });
+    }
+
+    private int actualizar(String sql, Object... parametros) {
+        return baseDatos.ejecutar(conexion -> {
+            PreparedStatement sentencia = conexion.sentencia(sql, parametros);
+            return sentencia.executeUpdate();
+        });
+    }
+
+    private static void asignar(PreparedStatement sentencia, Cliente cliente) throws SQLException {
+        sentencia.setLong(1, cliente.getId());
+        sentencia.setString(2, cliente.getNombre());
+        sentencia.setString(3, cliente.getDocumento());
+        sentencia.setString(4, cliente.getTelefono());
+        sentencia.setString(5, cliente.getDireccion());
+        sentencia.setString(6, cliente.getCorreo());
+        sentencia.setString(7, normalizar(cliente.getDocumento()));
+        sentencia.setString(8, normalizar(cliente.getCorreo()));
+        sentencia.setString(9, normalizar(cliente.getTelefono()));
+    }
+
+    /**
+     * Construye un cliente a partir de la fila actual, leyendo las columnas de {@link #COLUMNAS}
+     * a partir de la posición indicada.
+     */
+    static Cliente leer(ResultSet resultado, int inicio) throws SQLException {
+        Cliente cliente = new Cliente();
+        cliente.setId(resultado.getLong(inicio));
+        cliente.setNombre(resultado.getString(inicio + 1));
+        cliente.setDocumento(resultado.getString(inicio + 2));
+        cliente.setTelefono(resultado.getString(inicio + 3));
+        cliente.setDireccion(resultado.getString(inicio + 4));
+        cliente.setCorreo(resultado.getString(inicio + 5));
+        return cliente;
+    }
+
+    private static Cliente leer(ResultSet resultado) throws SQLException {
+        return leer(resultado, 1);
+    }
+
+    private static String normalizar(String valor) {
+        return valor == null ? "" : valor.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Carga datos de ejemplo al crear la base de datos.
+     * Los datos son utilizados únicamente con fines demostrativos.
+     */
+    private void cargarDatosEjemplo() {
+        Cliente c1 = new Cliente("Simón Bolívar", "1092313", "3142141", "Armenia", "simon@gmail.com");
+        Cliente c2 = new Cliente("Armando Casas", "10924213", "3144541", "Armenia", "casas@gmail.com");
+        Cliente c3 = new Cliente("Chino Moreno", "42142132", "31241241", "Armenia", "chino@gmail.com");
+
+        guardarCliente(c1);
+        guardarCliente(c2);
+        guardarCliente(c3);
+    }
+}
@@ -0,0 +1,33 @@
+package org.demo.Repositories;
+
+import java.util.List;
+
+/**
+ * Recibe las notificaciones de cambios de un repositorio.
+ * Las notificaciones llegan en el hilo que realizó el cambio, que puede no ser el hilo de JavaFX.
+ *
+ * @param <T> tipo de entidad administrada por el repositorio.
+ */
+public interface OyenteRepositorio<T> {
+
+    /**
+     * Se invoca cuando se agregan una o varias entidades en una misma operación.
+     *
+     * @param agregados entidades agregadas.
+     */
+    default void alAgregar(List<T> agregados) {}
+
+    /**
+     * Se invoca cuando se elimina una entidad.
+     *
+     * @param eliminado entidad eliminada.
+     */
+    default void alEliminar(T eliminado) {}
+
+    /**
+     * Se invoca cuando se actualizan los datos de una entidad.
+     *
+     * @param actualizado entidad con sus datos actuales.
+     */
+    default void alActualizar(T actualizado) {}
+}
@@ -0,0 +1,30 @@
+package org.demo.Repositories;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utilidades para construir páginas de resultados en los repositorios.
+ */
+final class Paginas {
+
+    private Paginas() {}
+
+    /**
+     * Copia los primeros elementos de una colección ordenada, sin recorrer el resto.
+     *
+     * @param elementos elementos en el orden de la página.
+     * @param limite    cantidad máxima de elementos a copiar.
+     * @return lista con, como máximo, {@code limite} elementos.
+     */
+    static <T> List<T> primeros(Iterable<T> elementos, int limite) {
+        List<T> pagina = new ArrayList<>(Math.min(limite, 1024));
+        for (T elemento : elementos) {
+            if (pagina.size() >= limite) {
+                break;
+            }
+            pagina.add(elemento);
+        }
+        return pagina;
+    }
+}
@@ -1,53 +1,34 @@
 package org.demo.Repositories;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import org.demo.Models.Producto;
+import org.demo.Services.InventarioService;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
-
+import java.util.Set;
 
 /**
- * Repositorio encargado de gestionar los productos registrados en el sistema.
- * Implementa un patrón Singleton para garantizar una única instancia compartida
- * y utiliza una lista observable para permitir la sincronización con la interfaz gráfica.
+ * Operaciones sobre los productos registrados en el sistema.
+ * No depende de JavaFX, por lo que puede usarse desde la interfaz gráfica o en modo sin interfaz.
  */
-public class ProductoRepository {
-    private static ProductoRepository instancia;
-    private final ObservableList<Producto> productos;
-
-
-    /**
-     * Constructor privado.
-     * Inicializa la lista de productos y carga datos de ejemplo.
-     */
-    private ProductoRepository(){
-        productos = FXCollections.observableArrayList();
-        cargarDatosEjemplo();
-    }
+public interface ProductoRepository {
 
     /**
-     * Devuelve la instancia única del repositorio.
-     * Si no existe, se crea una nueva.
+     * Retorna una copia de los productos registrados, en orden de registro.
      *
-     * @return instancia única de {@code ProductoRepository}.
+     * @return lista de productos.
      */
-    public static ProductoRepository getInstancia(){
-        if(instancia == null){
-            instancia = new ProductoRepository();
-        }
-        return instancia;
-    }
+    List<Producto> listarProductos();
 
     /**
-     * Retorna la lista observable de productos.
-     * Esta lista puede ser usada para enlazar datos con componentes gráficos.
+     * Retorna una página de productos ordenados por id, empezando después del id indicado.
      *
-     * @return lista observable de productos.
+     * @param idAnterior último id de la página anterior ({@code Long.MIN_VALUE} para la primera página).
+     * @param limite     cantidad máxima de productos a retornar.
+     * @return productos con id mayor que {@code idAnterior}, como máximo {@code limite}.
      */
-    public ObservableList<Producto> getProductos(){
-        return productos;
-    }
+    List<Producto> listarProductosDesde(long idAnterior, int limite);
 
     /**
      * Guarda un nuevo producto en el repositorio.
@@ -55,39 +36,43 @@ public class ProductoRepository {
      *
      * @param producto producto a registrar.
      */
-    public void guardarProducto(Producto producto){
-        if(existeProductoConNombre(producto.getNombre())){
-            throw new RuntimeException("Producto ya existe");
-        }
-        productos.add(producto);
-    }
+    void guardarProducto(Producto producto);
+
+    /**
+     * Guarda varios productos en una sola operación, emitiendo una única notificación de cambio.
+     * Los productos cuyo nombre ya esté registrado (o repetido dentro del mismo lote) no se guardan.
+     *
+     * @param productos productos a registrar.
+     * @return productos que no se guardaron por estar duplicados.
+     */
+    List<Producto> guardarProductos(List<Producto> productos);
 
     /**
      * Elimina un producto existente según su nombre.
      *
      * @param producto producto a eliminar.
      */
-    public void eliminarProducto(Producto producto){
-        productos.removeIf(p -> p.getNombre().equals(producto.getNombre()));
-    }
+    void eliminarProducto(Producto producto);
 
     /**
      * Actualiza los datos de un producto existente basado en su ID.
      * Si el producto existe, se reemplazan sus valores por los del objeto recibido.
+     * Lanza una excepción, sin cambiar nada, si el nombre nuevo ya es de otro producto.
      *
      * @param producto producto con los datos actualizados.
      */
-    public void actualizarProducto(Producto producto){
-        Optional<Producto> productoExistenteOpt = buscarProductoPorId(producto.getId());
-        if(productoExistenteOpt.isPresent()){
-            Producto productoExistente = productoExistenteOpt.get();
-
-            productoExistente.setNombre(producto.getNombre());
-            productoExistente.setPrecio(producto.getPrecio());
-            productoExistente.setCategoria(producto.getCategoria());
+    void actualizarProducto(Producto producto);
 
-        }
-    }
+    /**
+     * Ajusta el stock de un producto sumándole una diferencia, como al reabastecerlo o corregir
+     * un conteo, y lo persiste. El cambio se aplica con {@link InventarioService#ajustar}, por lo
+     * que no pisa las ventas que se registren al mismo tiempo.
+     *
+     * @param producto   producto a ajustar.
+     * @param diferencia unidades a sumar; negativa para descontar.
+     * @throws IllegalArgumentException si la diferencia dejaría el stock en negativo.
+     */
+    void ajustarStock(Producto producto, int diferencia);
 
     /**
      * Verifica si existe un producto con un nombre determinado.
@@ -95,10 +80,16 @@ public class ProductoRepository {
      * @param nombre nombre del producto a verificar.
      * @return {@code true} si el producto ya existe, {@code false} en caso contrario.
      */
-    public boolean existeProductoConNombre(String nombre){
-        return productos.stream()
-                .anyMatch(producto -> producto.getNombre().equals(nombre));
-    }
+    boolean existeProductoConNombre(String nombre);
+
+    /**
+     * Retorna cuáles de los nombres indicados ya son de algún producto. Es la versión por lotes
+     * de {@link #existeProductoConNombre}: revisa muchos nombres con pocas consultas.
+     *
+     * @param nombres nombres a revisar.
+     * @return nombres registrados.
+     */
+    Set<String> buscarNombresRegistrados(Collection<String> nombres);
 
     /**
      * Busca un producto por su identificador único.
@@ -106,23 +97,52 @@ public class ProductoRepository {
      * @param id identificador del producto.
      * @return un {@code Optional<Producto>} que contiene el producto si se encuentra.
      */
-    private Optional<Producto> buscarProductoPorId(int id){
-        return productos.stream()
-                .filter(producto -> producto.getId() == id).
-                findFirst();
-    }
+    Optional<Producto> buscarProductoPorId(long id);
 
     /**
-     * Carga productos de ejemplo al iniciar el repositorio.
-     * Los datos son utilizados con fines demostrativos.
+     * Busca un producto por su nombre exacto.
+     *
+     * @param nombre nombre del producto.
+     * @return un {@code Optional<Producto>} que contiene el producto si se encuentra.
      */
-    private void cargarDatosEjemplo(){
-        Producto p1 = new Producto("Coca Cola", 2000, 3, "Bebida");
-        Producto p2 = new Producto("Detódito", 4500, 5, "Mecato");
-        Producto p3 = new Producto("Chocorramo", 3000, 4, "Mecato");
+    Optional<Producto> buscarProductoPorNombre(String nombre);
 
-        guardarProducto(p1);
-        guardarProducto(p2);
-        guardarProducto(p3);
-    }
+    /**
+     * Busca los productos cuyo nombre contiene un texto, sin distinguir mayúsculas ni minúsculas.
+     *
+     * @param texto  texto a buscar dentro del nombre.
+     * @param limite cantidad máxima de productos a retornar.
+     * @return hasta {@code limite} productos, ordenados por id.
+     */
+    List<Producto> buscarProductosPorNombre(String texto, int limite);
+
+    /**
+     * Retorna el número total de productos registrados.
+     *
+     * @return cantidad de productos en el repositorio.
+     */
+    int contarProductos();
+
+    /**
+     * Registra un oyente de cambios y retorna, de forma atómica con el registro,
+     * los productos existentes en ese momento.
+     *
+     * @param oyente oyente a registrar.
+     * @return productos registrados antes de la suscripción.
+     */
+    List<Producto> suscribir(OyenteRepositorio<Producto> oyente);
+
+    /**
+     * Registra un oyente de cambios y retorna, de forma atómica con el registro,
+     * cuántos productos hay en ese momento. Pensado para quien carga los productos por páginas.
+     *
+     * @param oyente oyente a registrar.
+     * @return cantidad de productos registrados antes de la suscripción.
+     */
+    int contarYSuscribir(OyenteRepositorio<Producto> oyente);
+
+    /**
+     * Libera los recursos del repositorio y persiste los cambios pendientes.
+     */
+    void cerrar();
 }
@@ -0,0 +1,415 @@
+package org.demo.Repositories;
+
+import org.demo.Models.Producto;
+import org.demo.Persistence.BitacoraCatalogo;
+import org.demo.Persistence.ConfiguracionDatos;
+import org.demo.Persistence.JournalVentas;
+import org.demo.Persistence.ProgramadorSnapshots;
+import org.demo.Persistence.SnapshotCatalogo;
+import org.demo.Services.InventarioService;
+import org.demo.Utils.Dinero;
+import org.demo.Utils.GeneradoresId;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Implementación en memoria y segura para hilos de {@link ProductoRepository}.
+ *
+ * <p>Los productos se guardan en un mapa ordenado por id (clave primaria) y en un índice
+ * por nombre (clave natural). Las consultas no toman candados; las escrituras se serializan
+ * entre sí para mantener ambos índices consistentes.</p>
+ *
+ * <p>Los productos se guardan en un snapshot binario que se reescribe en segundo plano;
+ * el índice por nombre se construye de forma diferida tras cargarlo. Cada cambio se escribe antes
+ * en una {@link BitacoraCatalogo}, que se reproduce sobre el snapshot al iniciar, por lo que un
+ * producto creado, editado o reabastecido no se pierde si la aplicación termina entre dos snapshots.</p>
+ *
+ * <p>Del stock se persisten las entradas (stock inicial más ajustes), que las ventas no modifican.
+ * Al cargar se descuentan las unidades vendidas según la bitácora de ventas, que se sincroniza con
+ * cada venta; así el stock restaurado coincide con las ventas confirmadas aunque el snapshot se haya
+ * escrito mientras otras ventas estaban en curso.</p>
+ */
+public class ProductoRepositoryMemoria implements ProductoRepository {
+    private static final System.Logger REGISTRO = System.getLogger(ProductoRepositoryMemoria.class.getName());
+
+    private final NavigableMap<Long, Producto> productosPorId;
+    private final Map<String, Producto> productosPorNombre;
+    // Nombre con el que se indexó cada producto, ya que el controlador lo modifica antes de actualizar
+    private final Map<Long, String> nombresIndexados;
+    // Unidades que entraron de cada producto, sin descontar las ventas; es lo que se persiste
+    private final Map<Long, Integer> entradas;
+
+    private final List<OyenteRepositorio<Producto>> oyentes;
+    private final Object escritura;
+    private final Path archivoSnapshot;
+    private final BitacoraCatalogo<Producto> bitacora;
+    private volatile boolean indicesConstruidos;
+    private volatile boolean modificado;
+
+    /**
+     * Crea el repositorio a partir del snapshot y la bitácora de cambios, o con datos de ejemplo si
+     * no hay ninguno. El índice por nombre se construye en segundo plano y el snapshot se reescribe
+     * periódicamente.
+     */
+    public ProductoRepositoryMemoria() {
+        productosPorId = new ConcurrentSkipListMap<>();
+        productosPorNombre = new ConcurrentHashMap<>();
+        nombresIndexados = new ConcurrentHashMap<>();
+        entradas = new ConcurrentHashMap<>();
+        oyentes = new CopyOnWriteArrayList<>();
+        escritura = new Object();
+        archivoSnapshot = ConfiguracionDatos.archivo("productos.snapshot");
+
+        SnapshotCatalogo.ProductosLeidos guardados = SnapshotCatalogo.leerProductos(archivoSnapshot);
+        // Productos leídos de un snapshot anterior a la versión 3, cuya cantidad ya tiene descontadas las ventas
+        Set<Long> conStockDescontado = new HashSet<>();
+        if (guardados != null) {
+            for (Producto producto : guardados.productos()) {
+                restaurar(producto);
+                if (guardados.stockDescontado()) {
+                    conStockDescontado.add(producto.getId());
+                }
+            }
+        }
+        bitacora = BitacoraCatalogo.abrirProductos(ConfiguracionDatos.archivo("productos.bitacora"),
+                producto -> entradas.getOrDefault(producto.getId(), 0), new BitacoraCatalogo.Reproductor<>() {
+                    @Override
+                    public void guardado(Producto producto) {
+                        restaurar(producto);
+                        conStockDescontado.remove(producto.getId());
+                    }
+
+                    @Override
+                    public void eliminado(long id) {
+                        productosPorId.remove(id);
+                        entradas.remove(id);
+                        conStockDescontado.remove(id);
+                    }
+                });
+        descontarVentas(conStockDescontado);
+        // Se reescribe el snapshot para compactar la bitácora o pasar al formato con entradas
+        modificado = bitacora.posicion() > 0 || !conStockDescontado.isEmpty();
+
+        if (guardados == null && productosPorId.isEmpty()) {
+            cargarDatosEjemplo();
+        }
+
+        ProgramadorSnapshots.ejecutar(this::asegurarIndices);
+        ProgramadorSnapshots.programar(this::guardarSnapshotSiModificado);
+    }
+
+    @Override
+    public List<Producto> listarProductos() {
+        return new ArrayList<>(productosPorId.values());
+    }
+
+    @Override
+    public List<Producto> listarProductosDesde(long idAnterior, int limite) {
+        return Paginas.primeros(productosPorId.tailMap(idAnterior, false).values(), limite);
+    }
+
+    @Override
+    public void guardarProducto(Producto producto) {
+        asegurarIndices();
+        synchronized (escritura) {
+            if (existeProductoConNombre(producto.getNombre())) {
+                throw new RuntimeException("Producto ya existe");
+            }
+            List<Producto> agregados = List.of(producto);
+            registrarNuevos(agregados);
+            productosPorId.put(producto.getId(), producto);
+            indexar(producto);
+            modificado = true;
+            oyentes.forEach(o -> o.alAgregar(agregados));
+        }
+    }
+
+    @Override
+    public List<Producto> guardarProductos(List<Producto> productos) {
+        asegurarIndices();
+        List<Producto> agregados = new ArrayList<>(productos.size());
+        List<Producto> duplicados = new ArrayList<>();
+        synchronized (escritura) {
+            Set<String> nombresLote = new HashSet<>();
+            for (Producto producto : productos) {
+                if (existeProductoConNombre(producto.getNombre()) || !nombresLote.add(producto.getNombre())) {
+                    duplicados.add(producto);
+                    continue;
+                }
+                agregados.add(producto);
+            }
+            if (!agregados.isEmpty()) {
+                registrarNuevos(agregados);
+                for (Producto producto : agregados) {
+                    productosPorId.put(producto.getId(), producto);
+                    indexar(producto);
+                }
+                modificado = true;
+                List<Producto> notificados = Collections.unmodifiableList(agregados);
+                oyentes.forEach(o -> o.alAgregar(notificados));
+            }
+        }
+        return duplicados;
+    }
+
+    @Override
+    public void eliminarProducto(Producto producto) {
+        asegurarIndices();
+        synchronized (escritura) {
+            Producto existente = productosPorNombre.get(producto.getNombre());
+            if (existente == null) {
+                return;
+            }
+            bitacora.eliminar(existente.getId());
+            productosPorNombre.remove(nombresIndexados.remove(existente.getId()), existente);
+            productosPorId.remove(existente.getId());
+            entradas.remove(existente.getId());
+            modificado = true;
+            oyentes.forEach(o -> o.alEliminar(existente));
+        }
+    }
+
+    @Override
+    public void actualizarProducto(Producto producto) {
+        asegurarIndices();
+        synchronized (escritura) {
+            Producto existente = productosPorId.get(producto.getId());
+            if (existente != null) {
+                Producto conNombre = productosPorNombre.get(producto.getNombre());
+                if (conNombre != null && conNombre != existente) {
+                    throw new RuntimeException("Producto ya existe");
+                }
+                existente.setNombre(producto.getNombre());
+                existente.setPrecio(producto.getPrecio());
+                existente.setCategoria(producto.getCategoria());
+                bitacora.guardar(List.of(existente));
+                modificado = true;
+
+                String nombreAnterior = nombresIndexados.put(existente.getId(), existente.getNombre());
+                if (nombreAnterior != null && !nombreAnterior.equals(existente.getNombre())) {
+                    productosPorNombre.remove(nombreAnterior, existente);
+                }
+                productosPorNombre.put(existente.getNombre(), existente);
+                oyentes.forEach(o -> o.alActualizar(existente));
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Las entradas del producto se actualizan y se registran en la bitácora; si la bitácora no se
+     * puede escribir, el ajuste ya hecho en memoria se persiste en el próximo snapshot.
+     */
+    @Override
+    public void ajustarStock(Producto producto, int diferencia) {
+        synchronized (escritura) {
+            InventarioService.getInstancia().ajustar(producto, diferencia);
+            if (productosPorId.get(producto.getId()) != producto) {
+                return;
+            }
+            entradas.merge(producto.getId(), diferencia, Integer::sum);
+            modificado = true;
+            bitacora.guardar(List.of(producto));
+        }
+    }
+
+    @Override
+    public boolean existeProductoConNombre(String nombre) {
+        asegurarIndices();
+        return productosPorNombre.containsKey(nombre);
+    }
+
+    @Override
+    public Set<String> buscarNombresRegistrados(Collection<String> nombres) {
+        asegurarIndices();
+        Set<String> registrados = new HashSet<>();
+        for (String nombre : nombres) {
+            if (productosPorNombre.containsKey(nombre)) {
+                registrados.add(nombre);
+            }
+        }
+        return registrados;
+    }
+
+    @Override
+    public Optional<Producto> buscarProductoPorId(long id) {
+        return Optional.ofNullable(productosPorId.get(id));
+    }
+
+    @Override
+    public Optional<Producto> buscarProductoPorNombre(String nombre) {
+        asegurarIndices();
+        return Optional.ofNullable(productosPorNombre.get(nombre));
+    }
+
+    @Override
+    public List<Producto> buscarProductosPorNombre(String texto, int limite) {
+        String buscado = texto.toLowerCase(Locale.ROOT);
+        List<Producto> encontrados = new ArrayList<>();
+        for (Producto producto : productosPorId.values()) {
+            if (encontrados.size() == limite) {
+                break;
+            }
+            if (producto.getNombre().toLowerCase(Locale.ROOT).contains(buscado)) {
+                encontrados.add(producto);
+            }
+        }
+        return encontrados;
+    }
+
+    @Override
+    public int contarProductos() {
+        return productosPorId.size();
+    }
+
+    @Override
+    public List<Producto> suscribir(OyenteRepositorio<Producto> oyente) {
+        synchronized (escritura) {
+            oyentes.add(oyente);
+            return listarProductos();
+        }
+    }
+
+    @Override
+    public int contarYSuscribir(OyenteRepositorio<Producto> oyente) {
+        synchronized (escritura) {
+            oyentes.add(oyente);
+            return contarProductos();
+        }
+    }
+
+    @Override
+    public void cerrar() {
+        guardarSnapshotSiModificado();
+        bitacora.close();
+    }
+
+    /**
+     * Escribe el snapshot de productos si hubo cambios desde la última escritura y descarta de la
+     * bitácora lo que ya quedó en él. La copia y la posición de la bitácora se toman bajo el candado
+     * de escritura; el archivo se escribe fuera de él.
+     */
+    private void guardarSnapshotSiModificado() {
+        List<Producto> copia;
+        Map<Long, Integer> entradasCopia;
+        long hasta;
+        synchronized (escritura) {
+            if (!modificado) {
+                return;
+            }
+            copia = listarProductos();
+            entradasCopia = new HashMap<>(entradas);
+            hasta = bitacora.posicion();
+            modificado = false;
+        }
+        try {
+            SnapshotCatalogo.escribirProductos(archivoSnapshot, copia,
+                    producto -> entradasCopia.getOrDefault(producto.getId(), 0));
+        } catch (RuntimeException e) {
+            modificado = true;
+            throw e;
+        }
+        bitacora.descartarHasta(hasta);
+    }
+
+    /**
+     * Registra en la bitácora productos nuevos, con su cantidad inicial como entradas, antes de
+     * agregarlos en memoria. Si la bitácora falla no queda nada registrado.
+     */
+    private void registrarNuevos(List<Producto> nuevos) {
+        for (Producto producto : nuevos) {
+            entradas.put(producto.getId(), producto.getCantidad());
+        }
+        try {
+            bitacora.guardar(nuevos);
+        } catch (RuntimeException e) {
+            nuevos.forEach(producto -> entradas.remove(producto.getId()));
+            throw e;
+        }
+    }
+
+    /**
+     * Agrega un producto leído del snapshot o de la bitácora, cuya cantidad son sus entradas.
+     */
+    private void restaurar(Producto producto) {
+        productosPorId.put(producto.getId(), producto);
+        entradas.put(producto.getId(), producto.getCantidad());
+        GeneradoresId.productos().asegurarMayorQue(producto.getId());
+    }
+
+    /**
+     * Descuenta del stock las unidades vendidas según la bitácora de ventas. Los productos leídos
+     * de un snapshot anterior ya las tienen descontadas: a ellos se les suman a las entradas, con
+     * lo que conservan el stock que tenían.
+     */
+    private void descontarVentas(Set<Long> conStockDescontado) {
+        Map<Long, Long> vendidas = new HashMap<>();
+        JournalVentas.leer(ConfiguracionDatos.archivo(JournalVentas.ARCHIVO),
+                registro -> vendidas.merge(registro.idProducto(), (long) registro.cantidad(), Long::sum));
+        vendidas.forEach((id, unidades) -> {
+            Producto producto = productosPorId.get(id);
+            if (producto == null) {
+                return;
+            }
+            int vendidasProducto = (int) Math.min(unidades, Integer.MAX_VALUE);
+            if (conStockDescontado.contains(id)) {
+                entradas.merge(id, vendidasProducto, Integer::sum);
+            } else if (!producto.descontarCantidad(vendidasProducto)) {
+                REGISTRO.log(System.Logger.Level.WARNING,
+                        "Las ventas del producto {0} superan sus entradas; su stock queda en cero", id);
+                producto.descontarCantidad(producto.getCantidad());
+            }
+        });
+    }
+
+    /**
+     * Construye el índice por nombre la primera vez que se necesita.
+     */
+    private void asegurarIndices() {
+        if (indicesConstruidos) {
+            return;
+        }
+        synchronized (escritura) {
+            if (indicesConstruidos) {
+                return;
+            }
+            for (Producto producto : productosPorId.values()) {
+                indexar(producto);
+            }
+            indicesConstruidos = true;
+        }
+    }
+
+    private void indexar(Producto producto) {
+        productosPorNombre.put(producto.getNombre(), producto);
+        nombresIndexados.put(producto.getId(), producto.getNombre());
+    }
+
+    /**
+     * Carga productos de ejemplo al iniciar el repositorio.
+     * Los datos son utilizados con fines demostrativos.
+     */
+    private void cargarDatosEjemplo() {
+        Producto p1 = new Producto("Coca Cola", Dinero.pesos(2000), 3, "Bebida");
+        Producto p2 = new Producto("Detódito", Dinero.pesos(4500), 5, "Mecato");
+        Producto p3 = new Producto("Chocorramo", Dinero.pesos(3000), 4, "Mecato");
+
+        guardarProducto(p1);
+        guardarProducto(p2);
+        guardarProducto(p3);
+    }
+}
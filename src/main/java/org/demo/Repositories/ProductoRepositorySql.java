@@ -0,0 +1,379 @@
+package org.demo.Repositories;
+
+import org.demo.Models.Producto;
+import org.demo.Persistence.BaseDatos;
+import org.demo.Services.InventarioService;
+import org.demo.Utils.Dinero;
+import org.demo.Utils.GeneradoresId;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Implementación de {@link ProductoRepository} sobre la base de datos embebida.
+ *
+ * <p>El precio se guarda en centavos. La tabla tiene un índice único por nombre. Cada producto leído se conserva en un mapa
+ * de identidad por id, de modo que toda la aplicación comparte la misma instancia: el stock
+ * se descuenta sobre ese objeto y se guarda en la base de datos al registrar la venta o al
+ * actualizar el producto.</p>
+ *
+ * <p>El mapa guarda referencias débiles: un producto sigue cargado mientras alguien lo use (una
+ * venta, una reserva o la tabla de la vista), y cuando nadie lo usa el recolector lo libera y su
+ * entrada se quita. Así recorrer todo el historial de ventas no deja cargado todo el catálogo.
+ * Liberarlo no pierde stock, porque cada cambio de stock se guarda en la base de datos antes de
+ * soltar el objeto.</p>
+ */
+public class ProductoRepositorySql implements ProductoRepository {
+    private static final String COLUMNAS = "id, nombre, precio, cantidad, categoria";
+
+    private final BaseDatos baseDatos;
+    private final Map<Long, ReferenciaProducto> cargados;
+    private final ReferenceQueue<Producto> liberados;
+    private final List<OyenteRepositorio<Producto>> oyentes;
+    private final Object escritura;
+
+    /**
+     * Crea el repositorio, creando la tabla y sus índices si no existen.
+     * Si la tabla está vacía se cargan datos de ejemplo.
+     *
+     * @param baseDatos base de datos donde se guardan los productos.
+     */
+    public ProductoRepositorySql(BaseDatos baseDatos) {
+        this.baseDatos = baseDatos;
+        this.cargados = new ConcurrentHashMap<>();
+        this.liberados = new ReferenceQueue<>();
+        this.oyentes = new CopyOnWriteArrayList<>();
+        this.escritura = new Object();
+
+        baseDatos.definir(
+                "CREATE TABLE IF NOT EXISTS productos (id BIGINT PRIMARY KEY, nombre VARCHAR(255) NOT NULL, "
+                        + "precio BIGINT NOT NULL, cantidad INT NOT NULL, categoria VARCHAR(255))",
+                "CREATE UNIQUE INDEX IF NOT EXISTS idx_productos_nombre ON productos (nombre)",
+                "CREATE INDEX IF NOT EXISTS idx_productos_categoria ON productos (categoria)");
+        baseDatos.convertirACentavos("productos", "precio");
+
+        GeneradoresId.productos().asegurarMayorQue(consultarNumero("SELECT COALESCE(MAX(id), 0) FROM productos"));
+        if (contarProductos() == 0) {
+            cargarDatosEjemplo();
+        }
+    }
+
+    @Override
+    public List<Producto> listarProductos() {
+        return consultar("SELECT " + COLUMNAS + " FROM productos ORDER BY id");
+    }
+
+    @Override
+    public List<Producto> listarProductosDesde(long idAnterior, int limite) {
+        return consultar("SELECT " + COLUMNAS + " FROM productos WHERE id > ? ORDER BY id LIMIT ?", idAnterior, limite);
+    }
+
+    @Override
+    public void guardarProducto(Producto producto) {
+        synchronized (escritura) {
+            try {
+                baseDatos.ejecutar(conexion -> {
+                    PreparedStatement sentencia = conexion.sentencia(
+                            "INSERT INTO productos (" + COLUMNAS + ") VALUES (?, ?, ?, ?, ?)");
+                    asignar(sentencia, producto);
+                    return sentencia.executeUpdate();
+                });
+            } catch (RuntimeException e) {
+                if (e.getCause() instanceof SQLIntegrityConstraintViolationException) {
+                    throw new RuntimeException("Producto ya existe");
+                }
+                throw e;
+            }
+            recordar(producto);
+            List<Producto> agregados = List.of(producto);
+            oyentes.forEach(o -> o.alAgregar(agregados));
+        }
+    }
+
+    @Override
+    public List<Producto> guardarProductos(List<Producto> productos) {
+        List<Producto> agregados = new ArrayList<>(productos.size());
+        List<Producto> duplicados = new ArrayList<>();
+        synchronized (escritura) {
+            baseDatos.enTransaccion(conexion -> {
+                // Los nombres ya registrados se consultan por lotes; los del propio lote se agregan al aceptarlos
+                List<String> nombresLote = new ArrayList<>(productos.size());
+                for (Producto producto : productos) {
+                    nombresLote.add(producto.getNombre());
+                }
+                Set<String> nombres = conexion.buscarExistentes("productos", "nombre", nombresLote);
+                PreparedStatement insertar = conexion.sentencia(
+                        "INSERT INTO productos (" + COLUMNAS + ") VALUES (?, ?, ?, ?, ?)");
+                for (Producto producto : productos) {
+                    if (!nombres.add(producto.getNombre())) {
+                        duplicados.add(producto);
+                        continue;
+                    }
+                    asignar(insertar, producto);
+                    insertar.addBatch();
+                    agregados.add(producto);
+                }
+                insertar.executeBatch();
+                return null;
+            });
+            if (!agregados.isEmpty()) {
+                agregados.forEach(this::recordar);
+                List<Producto> notificados = Collections.unmodifiableList(agregados);
+                oyentes.forEach(o -> o.alAgregar(notificados));
+            }
+        }
+        return duplicados;
+    }
+
+    @Override
+    public void eliminarProducto(Producto producto) {
+        synchronized (escritura) {
+            Optional<Producto> existente = buscarProductoPorNombre(producto.getNombre());
+            if (existente.isEmpty()) {
+                return;
+            }
+            actualizar("DELETE FROM productos WHERE id = ?", existente.get().getId());
+            cargados.remove(existente.get().getId());
+            oyentes.forEach(o -> o.alEliminar(existente.get()));
+        }
+    }
+
+    @Override
+    public void actualizarProducto(Producto producto) {
+        synchronized (escritura) {
+            Producto existente = buscarProductoPorId(producto.getId()).orElse(null);
+            if (existente == null) {
+                return;
+            }
+            // La instancia compartida solo cambia si la base de datos aceptó el nombre nuevo
+            try {
+                actualizar("UPDATE productos SET nombre = ?, precio = ?, cantidad = ?, categoria = ? WHERE id = ?",
+                        producto.getNombre(), producto.getPrecio(), existente.getCantidad(),
+                        producto.getCategoria(), existente.getId());
+            } catch (RuntimeException e) {
+                if (e.getCause() instanceof SQLIntegrityConstraintViolationException) {
+                    throw new RuntimeException("Producto ya existe");
+                }
+                throw e;
+            }
+            existente.setNombre(producto.getNombre());
+            existente.setPrecio(producto.getPrecio());
+            existente.setCategoria(producto.getCategoria());
+            oyentes.forEach(o -> o.alActualizar(existente));
+        }
+    }
+
+    @Override
+    public void ajustarStock(Producto producto, int diferencia) {
+        synchronized (escritura) {
+            InventarioService.getInstancia().ajustar(producto, diferencia);
+            actualizar("UPDATE productos SET cantidad = ? WHERE id = ?", producto.getCantidad(), producto.getId());
+        }
+    }
+
+    /**
+     * Guarda el stock actual de los productos indicados, usando una conexión ya prestada.
+     * Se usa al registrar ventas, dentro de la misma transacción que las inserta.
+     *
+     * @param conexion  conexión de la transacción en curso.
+     * @param productos productos cuyo stock se guarda.
+     */
+    void guardarStock(BaseDatos.Conexion conexion, Iterable<Producto> productos) throws SQLException {
+        PreparedStatement sentencia = conexion.sentencia("UPDATE productos SET cantidad = ? WHERE id = ?");
+        for (Producto producto : productos) {
+            sentencia.setInt(1, producto.getCantidad());
+            sentencia.setLong(2, producto.getId());
+            sentencia.addBatch();
+        }
+        sentencia.executeBatch();
+    }
+
+    @Override
+    public boolean existeProductoConNombre(String nombre) {
+        return consultarNumero("SELECT COUNT(*) FROM productos WHERE nombre = ?", nombre) > 0;
+    }
+
+    @Override
+    public Set<String> buscarNombresRegistrados(Collection<String> nombres) {
+        return baseDatos.ejecutar(conexion -> conexion.buscarExistentes("productos", "nombre", nombres));
+    }
+
+    @Override
+    public Optional<Producto> buscarProductoPorId(long id) {
+        Producto cargado = cargado(id);
+        if (cargado != null) {
+            return Optional.of(cargado);
+        }
+        return consultar("SELECT " + COLUMNAS + " FROM productos WHERE id = ?", id).stream().findFirst();
+    }
+
+    @Override
+    public Optional<Producto> buscarProductoPorNombre(String nombre) {
+        return consultar("SELECT " + COLUMNAS + " FROM productos WHERE nombre = ?", nombre).stream().findFirst();
+    }
+
+    @Override
+    public List<Producto> buscarProductosPorNombre(String texto, int limite) {
+        String patron = "%" + texto.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return consultar("SELECT " + COLUMNAS + " FROM productos WHERE LOWER(nombre) LIKE ? ESCAPE '\\' "
+                + "ORDER BY id LIMIT ?", patron, limite);
+    }
+
+    @Override
+    public int contarProductos() {
+        return (int) consultarNumero("SELECT COUNT(*) FROM productos");
+    }
+
+    @Override
+    public List<Producto> suscribir(OyenteRepositorio<Producto> oyente) {
+        synchronized (escritura) {
+            oyentes.add(oyente);
+            return listarProductos();
+        }
+    }
+
+    @Override
+    public int contarYSuscribir(OyenteRepositorio<Producto> oyente) {
+        synchronized (escritura) {
+            oyentes.add(oyente);
+            return contarProductos();
+        }
+    }
+
+    @Override
+    public void cerrar() {
+        // El stock se guarda con cada venta y cada actualización; no queda nada pendiente
+    }
+
+    private List<Producto> consultar(String sql, Object... parametros) {
+        return baseDatos.ejecutar(conexion -> {
+            PreparedStatement sentencia = conexion.sentencia(sql, parametros);
+            List<Producto> productos = new ArrayList<>();
+            try (ResultSet resultado = sentencia.executeQuery()) {
+                while (resultado.next()) {
+                    productos.add(leer(resultado));
+                }
+            }
+            return productos;
+        });
+    }
+
+    private long consultarNumero(String sql, Object... parametros) {
+        return baseDatos.ejecutar(conexion -> {
+            PreparedStatement sentencia = conexion.sentencia(sql, parametros);
+            try (ResultSet resultado = sentencia.executeQuery()) {
+                resultado.next();
+                return resultado.getLong(1);
+            }
+        });
+    }
+
+    private int actualizar(String sql, Object... parametros) {
+        return baseDatos.ejecutar(conexion -> {
+            PreparedStatement sentencia = conexion.sentencia(sql, parametros);
+            return sentencia.executeUpdate();
+        });
+    }
+
+    private static void asignar(PreparedStatement sentencia, Producto producto) throws SQLException {
+        sentencia.setLong(1, producto.getId());
+        sentencia.setString(2, producto.getNombre());
+        sentencia.setLong(3, producto.getPrecio());
+        sentencia.setInt(4, producto.getCantidad());
+        sentencia.setString(5, producto.getCategoria());
+    }
+
+    private Producto leer(ResultSet resultado) throws SQLException {
+        return compartido(resultado.getLong(1), resultado.getString(2), resultado.getLong(3),
+                resultado.getInt(4), resultado.getString(5));
+    }
+
+    /**
+     * Retorna la instancia compartida de un producto leído de la base de datos,
+     * creándola con los datos de la fila si aún no se ha cargado.
+     */
+    Producto compartido(long id, String nombre, long precio, int cantidad, String categoria) {
+        Producto cargado = cargado(id);
+        if (cargado != null) {
+            return cargado;
+        }
+        Producto[] compartido = new Producto[1];
+        cargados.compute(id, (clave, referencia) -> {
+            Producto anterior = referencia != null ? referencia.get() : null;
+            if (anterior != null) {
+                compartido[0] = anterior;
+                return referencia;
+            }
+            compartido[0] = new Producto(id, nombre, precio, cantidad, categoria);
+            return new ReferenciaProducto(compartido[0], liberados);
+        });
+        return compartido[0];
+    }
+
+    /**
+     * Retorna el producto cargado con el id indicado, o {@code null} si no está cargado o ya se liberó.
+     */
+    private Producto cargado(long id) {
+        quitarLiberados();
+        ReferenciaProducto referencia = cargados.get(id);
+        return referencia != null ? referencia.get() : null;
+    }
+
+    private void recordar(Producto producto) {
+        quitarLiberados();
+        cargados.put(producto.getId(), new ReferenciaProducto(producto, liberados));
+    }
+
+    /**
+     * Quita del mapa las entradas de los productos que el recolector ya liberó. Solo se quita la
+     * entrada si sigue siendo la misma referencia, por si el producto se volvió a cargar.
+     */
+    private void quitarLiberados() {
+        Reference<? extends Producto> liberado;
+        while ((liberado = liberados.poll()) != null) {
+            cargados.remove(((ReferenciaProducto) liberado).id, liberado);
+        }
+    }
+
+    /**
+     * Referencia débil a un producto cargado, con su id para quitar la entrada cuando se libere.
+     */
+    private static final class ReferenciaProducto extends WeakReference<Producto> {
+        private final long id;
+
+        ReferenciaProducto(Producto producto, ReferenceQueue<Producto> liberados) {
+            super(producto, liberados);
+            this.id = producto.getId();
+        }
+    }
+
+    /**
+     * Carga productos de ejemplo al crear la base de datos.
+     * Los datos son utilizados con fines demostrativos.
+     */
+    private void cargarDatosEjemplo() {
+        Producto p1 = new Producto("Coca Cola", Dinero.pesos(2000), 3, "Bebida");
+        Producto p2 = new Producto("Detódito", Dinero.pesos(4500), 5, "Mecato");
+        Producto p3 = new Producto("Chocorramo", Dinero.pesos(3000), 4, "Mecato");
+
+        guardarProducto(p1);
+        guardarProducto(p2);
+        guardarProducto(p3);
+    }
+}
@@ -0,0 +1,83 @@
+package org.demo.Repositories;
+
+import org.demo.Persistence.BaseDatos;
+import org.demo.Persistence.ConfiguracionDatos;
+
+/**
+ * Punto de acceso a las implementaciones de los repositorios usadas por la aplicación.
+ * Cada repositorio se crea la primera vez que se solicita, de forma segura entre hilos
+ * (idiom del contenedor estático). No depende de JavaFX.
+ *
+ * <p>Por defecto los datos se mantienen en memoria; con {@link ConfiguracionDatos#usarBaseDatos()}
+ * se usan las implementaciones sobre la base de datos embebida.</p>
+ */
+public final class Repositorios {
+
+    private Repositorios() {}
+
+    private static class BaseDatosCompartida {
+        static final BaseDatos INSTANCIA = BaseDatos.abrir(ConfiguracionDatos.archivo("ventas-h2"));
+    }
+
+    private static class Clientes {
+        static final ClienteRepository INSTANCIA = ConfiguracionDatos.usarBaseDatos()
+                ? new ClienteRepositorySql(BaseDatosCompartida.INSTANCIA)
+                : new ClienteRepositoryMemoria();
+    }
+
+    private static class Productos {
+        static final ProductoRepository INSTANCIA = ConfiguracionDatos.usarBaseDatos()
+                ? new ProductoRepositorySql(BaseDatosCompartida.INSTANCIA)
+                : new ProductoRepositoryMemoria();
+    }
+
+    private static class Ventas {
+        static final VentaRepository INSTANCIA = ConfiguracionDatos.usarBaseDatos()
+                ? crearVentasSql()
+                : new VentaRepositoryMemoria(clientes(), productos());
+
+        private static VentaRepository crearVentasSql() {
+            // Las consultas de ventas se cruzan con las tablas de clientes y productos, que crean sus repositorios
+            clientes();
+            return new VentaRepositorySql(BaseDatosCompartida.INSTANCIA, (ProductoRepositorySql) productos());
+        }
+    }
+
+    private static class Columnas {
+        static final VentasColumnares INSTANCIA = VentasColumnares.crear(ventas(), clientes(), productos());
+    }
+
+    public static ClienteRepository clientes() {
+        return Clientes.INSTANCIA;
+    }
+
+    public static ProductoRepository productos() {
+        return Productos.INSTANCIA;
+    }
+
+    public static VentaRepository ventas() {
+        return Ventas.INSTANCIA;
+    }
+
+    /**
+     * Retorna el historial de ventas por columnas, suscrito al repositorio de ventas.
+     * Se llena la primera vez que se solicita.
+     *
+     * @return almacén columnar de ventas.
+     */
+    public static VentasColumnares ventasColumnares() {
+        return Columnas.INSTANCIA;
+    }
+
+    /**
+     * Cierra todos los repositorios, persistiendo los cambios pendientes.
+     */
+    public static void cerrar() {
+        ventas().cerrar();
+        productos().cerrar();
+        clientes().cerrar();
+        if (ConfiguracionDatos.usarBaseDatos()) {
+            BaseDatosCompartida.INSTANCIA.close();
+        }
+    }
+}
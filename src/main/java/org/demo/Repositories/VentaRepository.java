@@ -1,50 +1,124 @@
 package org.demo.Repositories;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-
 import org.demo.Models.Cliente;
 import org.demo.Models.Producto;
 import org.demo.Models.Venta;
+import org.demo.Services.InventarioService;
+import org.demo.Services.ReservaStock;
 
-public class VentaRepository {
-    private static VentaRepository instancia;
-    private final ObservableList<Venta> ventas;
+import java.time.LocalDateTime;
+import java.util.List;
 
-    private VentaRepository(){
-        ventas = FXCollections.observableArrayList();
-        cargarDatosEjemplo();
-    }
+/**
+ * Operaciones sobre las ventas registradas en el sistema.
+ * No depende de JavaFX, por lo que puede usarse desde la interfaz gráfica o en modo sin interfaz.
+ */
+public interface VentaRepository {
+
+    /**
+     * Retorna una copia de las ventas registradas, ordenadas por fecha.
+     *
+     * @return lista de ventas.
+     */
+    List<Venta> listarVentas();
+
+    /**
+     * Retorna una página de ventas ordenadas por id (que crece con la fecha de registro),
+     * empezando después del id indicado.
+     *
+     * @param idAnterior último id de la página anterior ({@code Long.MIN_VALUE} para la primera página).
+     * @param limite     cantidad máxima de ventas a retornar.
+     * @return ventas con id mayor que {@code idAnterior}, como máximo {@code limite}.
+     */
+    List<Venta> listarVentasDesde(long idAnterior, int limite);
 
-    public static VentaRepository getInstancia(){
-        if(instancia == null){
-            instancia = new VentaRepository();
+    /**
+     * Guarda una venta y la registra en los índices por cliente, producto y fecha.
+     *
+     * @param venta venta a registrar.
+     */
+    void guardarVenta(Venta venta);
+
+    /**
+     * Registra la venta de unidades de un producto: reserva el stock, guarda la venta y solo
+     * entonces confirma la reserva. Si la venta no se puede guardar la reserva se libera, de modo
+     * que el stock nunca queda descontado sin una venta registrada.
+     *
+     * @param cliente  cliente que realiza la compra.
+     * @param producto producto vendido.
+     * @param cantidad unidades vendidas.
+     * @return venta registrada.
+     * @throws IllegalArgumentException si la cantidad no es positiva o no hay stock suficiente;
+     *                                  no se guarda nada.
+     * @throws IllegalStateException    si la venta no se pudo guardar; el stock queda como estaba.
+     */
+    default Venta registrarVenta(Cliente cliente, Producto producto, int cantidad) {
+        ReservaStock reserva = InventarioService.getInstancia().reservar(producto, cantidad);
+        Venta venta;
+        try {
+            venta = new Venta(cliente, reserva);
+            guardarVenta(venta);
+        } catch (RuntimeException e) {
+            reserva.liberar();
+            throw new IllegalStateException("No se pudo guardar la venta: " + e.getMessage(), e);
         }
-        return instancia;
+        reserva.confirmar();
+        return venta;
     }
 
-    public ObservableList<Venta> getVentas() {
-        return ventas;
-    }
+    /**
+     * Retorna las ventas realizadas por un cliente.
+     *
+     * @param idCliente identificador del cliente.
+     * @return lista de ventas del cliente, vacía si no tiene compras.
+     */
+    List<Venta> buscarVentasPorCliente(long idCliente);
 
-    public void guardarVenta(Venta venta){
-        ventas.add(venta);
-    }
+    /**
+     * Retorna las ventas en las que se vendió un producto.
+     *
+     * @param idProducto identificador del producto.
+     * @return lista de ventas del producto, vacía si no se ha vendido.
+     */
+    List<Venta> buscarVentasPorProducto(long idProducto);
 
-    private void cargarDatosEjemplo(){
-        Cliente c1 = new Cliente("Julian Casablancas", "2131231", "312312", "Armenia", "julian@gmail");
-        Cliente c2 = new Cliente("Jhonatan Davis", "213532", "31253212", "Armenia", "jonathan@gmail");
+    /**
+     * Retorna las ventas realizadas entre dos fechas, ordenadas cronológicamente.
+     *
+     * @param desde fecha inicial (incluida).
+     * @param hasta fecha final (incluida).
+     * @return lista de ventas dentro del rango.
+     */
+    List<Venta> buscarVentasEntre(LocalDateTime desde, LocalDateTime hasta);
 
-        Producto p1 = new Producto("Botella Agua", 1500, 3, "Bebida");
-        Producto p2 = new Producto("Leche", 2000, 2, "Lácteo");
+    /**
+     * Retorna el número total de ventas registradas.
+     *
+     * @return cantidad de ventas.
+     */
+    long contarVentas();
 
-        ProductoRepository.getInstancia().guardarProducto(p1);
-        ProductoRepository.getInstancia().guardarProducto(p2);
+    /**
+     * Registra un oyente de cambios y le entrega, de forma atómica con el registro, las ventas
+     * existentes en ese momento. Se entregan ordenadas por fecha, en páginas sucesivas a
+     * {@link OyenteRepositorio#alAgregar(List)}, antes de cualquier notificación de ventas nuevas;
+     * así el historial nunca se copia completo en una sola lista.
+     *
+     * @param oyente oyente a registrar.
+     */
+    void suscribir(OyenteRepositorio<Venta> oyente);
 
-        Venta v1 = new Venta(c1, p1, 2);
-        Venta v2 = new Venta(c2, p2, 1);
+    /**
+     * Registra un oyente de cambios y retorna, de forma atómica con el registro,
+     * cuántas ventas hay en ese momento. Pensado para quien carga las ventas por páginas.
+     *
+     * @param oyente oyente a registrar.
+     * @return cantidad de ventas registradas antes de la suscripción.
+     */
+    long contarYSuscribir(OyenteRepositorio<Venta> oyente);
 
-        guardarVenta(v1);
-        guardarVenta(v2);
-    }
+    /**
+     * Libera los recursos del repositorio y persiste los cambios pendientes.
+     */
+    void cerrar();
 }
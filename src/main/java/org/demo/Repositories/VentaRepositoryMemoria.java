@@ -0,0 +1,235 @@
+package org.demo.Repositories;
+
+import org.demo.Models.Cliente;
+import org.demo.Models.Producto;
+import org.demo.Models.Venta;
+import org.demo.Persistence.ConfiguracionDatos;
+import org.demo.Persistence.JournalVentas;
+import org.demo.Persistence.RegistroVenta;
+import org.demo.Utils.Dinero;
+import org.demo.Utils.GeneradoresId;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Implementación en memoria y segura para hilos de {@link VentaRepository}.
+ *
+ * <p>Mantiene índices por cliente, por producto y por fecha para que las consultas no tengan
+ * que recorrer todo el historial. Varias ventas pueden guardarse en paralelo: cada una se escribe
+ * primero en la bitácora (que agrupa los fsync de escrituras concurrentes) y luego se indexa
+ * en estructuras concurrentes.</p>
+ */
+public class VentaRepositoryMemoria implements VentaRepository {
+    private static final int PAGINA_SUSCRIPCION = 2048;
+
+    private final Map<Long, Queue<Venta>> ventasPorCliente;
+    private final Map<Long, Queue<Venta>> ventasPorProducto;
+    private final NavigableMap<LocalDateTime, Queue<Venta>> ventasPorFecha;
+    private final NavigableMap<Long, Venta> ventasPorId;
+    private final LongAdder totalVentas;
+
+    private final List<OyenteRepositorio<Venta>> oyentes;
+    // Las ventas se guardan con el candado compartido; la suscripción toma el exclusivo
+    // para que el listado inicial y las notificaciones posteriores no se solapen
+    private final ReadWriteLock suscripcion;
+
+    private final ClienteRepository clienteRepository;
+    private final ProductoRepository productoRepository;
+    private final JournalVentas journal;
+
+    /**
+     * Crea el repositorio reproduciendo la bitácora de ventas.
+     * Si la bitácora está vacía se cargan ventas de ejemplo.
+     *
+     * @param clienteRepository  repositorio usado para enlazar las ventas restauradas con sus clientes.
+     * @param productoRepository repositorio usado para enlazar las ventas restauradas con sus productos.
+     */
+    public VentaRepositoryMemoria(ClienteRepository clienteRepository, ProductoRepository productoRepository) {
+        this.clienteRepository = clienteRepository;
+        this.productoRepository = productoRepository;
+        ventasPorCliente = new ConcurrentHashMap<>();
+        ventasPorProducto = new ConcurrentHashMap<>();
+        ventasPorFecha = new ConcurrentSkipListMap<>();
+        ventasPorId = new ConcurrentSkipListMap<>();
+        totalVentas = new LongAdder();
+        oyentes = new CopyOnWriteArrayList<>();
+        suscripcion = new ReentrantReadWriteLock();
+
+        journal = JournalVentas.abrir(ConfiguracionDatos.archivo(JournalVentas.ARCHIVO), new RestauradorVentas());
+
+        if (totalVentas.sum() == 0) {
+            cargarDatosEjemplo();
+        }
+    }
+
+    @Override
+    public List<Venta> listarVentas() {
+        return aplanar(ventasPorFecha.values());
+    }
+
+    @Override
+    public List<Venta> listarVentasDesde(long idAnterior, int limite) {
+        return Paginas.primeros(ventasPorId.tailMap(idAnterior, false).values(), limite);
+    }
+
+    /**
+     * {@inheritDoc}
+     * La venta se escribe primero en la bitácora y solo se agrega en memoria cuando ya es durable.
+     */
+    @Override
+    public void guardarVenta(Venta venta) {
+        journal.agregarYEsperar(RegistroVenta.desde(venta));
+
+        suscripcion.readLock().lock();
+        try {
+            indexar(venta);
+            List<Venta> agregadas = List.of(venta);
+            oyentes.forEach(o -> o.alAgregar(agregadas));
+        } finally {
+            suscripcion.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Venta> buscarVentasPorCliente(long idCliente) {
+        return copiar(ventasPorCliente.get(idCliente));
+    }
+
+    @Override
+    public List<Venta> buscarVentasPorProducto(long idProducto) {
+        return copiar(ventasPorProducto.get(idProducto));
+    }
+
+    @Override
+    public List<Venta> buscarVentasEntre(LocalDateTime desde, LocalDateTime hasta) {
+        if (desde.isAfter(hasta)) {
+            return Collections.emptyList();
+        }
+        return aplanar(ventasPorFecha.subMap(desde, true, hasta, true).values());
+    }
+
+    @Override
+    public long contarVentas() {
+        return totalVentas.sum();
+    }
+
+    @Override
+    public void suscribir(OyenteRepositorio<Venta> oyente) {
+        suscripcion.writeLock().lock();
+        try {
+            List<Venta> pagina = new ArrayList<>(PAGINA_SUSCRIPCION);
+            for (Queue<Venta> grupo : ventasPorFecha.values()) {
+                for (Venta venta : grupo) {
+                    pagina.add(venta);
+                    if (pagina.size() == PAGINA_SUSCRIPCION) {
+                        oyente.alAgregar(Collections.unmodifiableList(pagina));
+                        pagina = new ArrayList<>(PAGINA_SUSCRIPCION);
+                    }
+                }
+            }
+            if (!pagina.isEmpty()) {
+                oyente.alAgregar(Collections.unmodifiableList(pagina));
+            }
+            oyentes.add(oyente);
+        } finally {
+            suscripcion.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public long contarYSuscribir(OyenteRepositorio<Venta> oyente) {
+        suscripcion.writeLock().lock();
+        try {
+            oyentes.add(oyente);
+            return contarVentas();
+        } finally {
+            suscripcion.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void cerrar() {
+        journal.close();
+    }
+
+    private void indexar(Venta venta) {
+        ventasPorCliente.computeIfAbsent(venta.getCliente().getId(), k -> new ConcurrentLinkedQueue<>()).add(venta);
+        ventasPorProducto.computeIfAbsent(venta.getProducto().getId(), k -> new ConcurrentLinkedQueue<>()).add(venta);
+        ventasPorFecha.computeIfAbsent(venta.getFecha(), k -> new ConcurrentLinkedQueue<>()).add(venta);
+        ventasPorId.put(venta.getId(), venta);
+        totalVentas.increment();
+    }
+
+    private static List<Venta> copiar(Queue<Venta> ventas) {
+        return ventas == null ? Collections.emptyList() : new ArrayList<>(ventas);
+    }
+
+    private static List<Venta> aplanar(Collection<Queue<Venta>> grupos) {
+        List<Venta> resultado = new ArrayList<>();
+        for (Queue<Venta> grupo : grupos) {
+            resultado.addAll(grupo);
+        }
+        return resultado;
+    }
+
+    /**
+     * Reconstruye las ventas leídas de la bitácora, enlazándolas con los clientes y productos
+     * registrados. Si alguno ya no existe se crea una copia con los datos guardados en la venta.
+     */
+    private class RestauradorVentas implements Consumer<RegistroVenta> {
+        private final Map<Long, Cliente> clientes = new HashMap<>();
+        private final Map<Long, Producto> productos = new HashMap<>();
+
+        @Override
+        public void accept(RegistroVenta registro) {
+            Cliente cliente = clientes.computeIfAbsent(registro.idCliente(), id ->
+                    clienteRepository.buscarClientePorId(id).orElseGet(() -> {
+                        Cliente copia = new Cliente();
+                        copia.setId(id);
+                        copia.setNombre(registro.nombreCliente());
+                        return copia;
+                    }));
+            Producto producto = productos.computeIfAbsent(registro.idProducto(), id ->
+                    productoRepository.buscarProductoPorId(id).orElseGet(() -> new Producto(id,
+                            registro.nombreProducto(), registro.precioUnitario(), 0, registro.categoriaProducto())));
+
+            indexar(new Venta(registro.id(), cliente, producto, registro.cantidad(),
+                    registro.precioUnitario(), registro.fecha()));
+            GeneradoresId.ventas().asegurarMayorQue(registro.id());
+        }
+    }
+
+    private void cargarDatosEjemplo() {
+        // Si el catálogo ya fue restaurado, los productos de ejemplo existen y pueden no tener stock
+        if (productoRepository.existeProductoConNombre("Botella Agua")) {
+            return;
+        }
+        Cliente c1 = new Cliente("Julian Casablancas", "2131231", "312312", "Armenia", "julian@gmail");
+        Cliente c2 = new Cliente("Jhonatan Davis", "213532", "31253212", "Armenia", "jonathan@gmail");
+
+        Producto p1 = new Producto("Botella Agua", Dinero.pesos(1500), 3, "Bebida");
+        Producto p2 = new Producto("Leche", Dinero.pesos(2000), 2, "Lácteo");
+
+        productoRepository.guardarProducto(p1);
+        productoRepository.guardarProducto(p2);
+
+        registrarVenta(c1, p1, 2);
+        registrarVenta(c2, p2, 1);
+    }
+}
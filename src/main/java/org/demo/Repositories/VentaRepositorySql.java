@@ -0,0 +1,401 @@
+package org.demo.Repositories;
+
+import org.demo.Models.Cliente;
+import org.demo.Models.Producto;
+import org.demo.Models.Venta;
+import org.demo.Persistence.BaseDatos;
+import org.demo.Utils.Dinero;
+import org.demo.Utils.GeneradoresId;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Implementación de {@link VentaRepository} sobre la base de datos embebida.
+ *
+ * <p>Las ventas concurrentes se encolan y un único hilo escritor las inserta por lotes
+ * ({@code addBatch}) en una sola transacción, junto con el stock actualizado de los productos
+ * vendidos. Cada llamada a {@link #guardarVenta} espera a que su lote quede confirmado.</p>
+ *
+ * <p>Encolar y cerrar se coordinan con un candado de lectura y escritura, como en la bitácora de
+ * ventas: una vez cerrado no se acepta ninguna venta, y las que el hilo escritor no alcance a
+ * guardar fallan en lugar de dejar esperando para siempre a quien las registró.</p>
+ *
+ * <p>La tabla tiene índices por fecha, cliente y producto. Los datos del cliente y del producto
+ * se leen con un {@code JOIN} en la misma consulta; los productos se resuelven con el mapa de
+ * identidad del repositorio de productos para compartir la misma instancia (y el mismo stock).</p>
+ */
+public class VentaRepositorySql implements VentaRepository {
+    private static final int MAX_LOTE = 1024;
+    private static final int PAGINA_SUSCRIPCION = 2048;
+    private static final System.Logger REGISTRO = System.getLogger(VentaRepositorySql.class.getName());
+    private static final String CONSULTA = "SELECT v.id, v.fecha, v.cantidad, v.precio_unitario, "
+            + "v.id_producto, v.nombre_producto, v.categoria_producto, v.id_cliente, v.nombre_cliente, "
+            + "c.id, c.nombre, c.documento, c.telefono, c.direccion, c.correo, "
+            + "p.id, p.nombre, p.precio, p.cantidad, p.categoria "
+            + "FROM ventas v LEFT JOIN clientes c ON c.id = v.id_cliente "
+            + "LEFT JOIN productos p ON p.id = v.id_producto ";
+
+    private final BaseDatos baseDatos;
+    private final ProductoRepositorySql productoRepository;
+    private final LongAdder totalVentas;
+    private final List<OyenteRepositorio<Venta>> oyentes;
+    // Las ventas se guardan con el candado compartido; la suscripción toma el exclusivo
+    // para que el conteo inicial y las notificaciones posteriores no se solapen
+    private final ReadWriteLock suscripcion;
+
+    private final BlockingQueue<VentaPendiente> pendientes;
+    private final Thread escritor;
+    // Se cierra con el candado de escritura tomado; se encola con el de lectura
+    private final ReadWriteLock cierre;
+    private volatile boolean abierto;
+
+    /**
+     * Crea el repositorio, creando la tabla y sus índices si no existen.
+     * Si la tabla está vacía se cargan ventas de ejemplo.
+     *
+     * @param baseDatos          base de datos donde se guardan las ventas.
+     * @param productoRepository repositorio de productos de la misma base de datos.
+     */
+    public VentaRepositorySql(BaseDatos baseDatos, ProductoRepositorySql productoRepository) {
+        this.baseDatos = baseDatos;
+        this.productoRepository = productoRepository;
+        this.totalVentas = new LongAdder();
+        this.oyentes = new CopyOnWriteArrayList<>();
+        this.suscripcion = new ReentrantReadWriteLock();
+        this.pendientes = new LinkedBlockingQueue<>();
+        this.cierre = new ReentrantReadWriteLock();
+
+        baseDatos.definir(
+                "CREATE TABLE IF NOT EXISTS ventas (id BIGINT PRIMARY KEY, fecha TIMESTAMP NOT NULL, "
+                        + "id_cliente BIGINT NOT NULL, nombre_cliente VARCHAR(255), id_producto BIGINT NOT NULL, "
+                        + "nombre_producto VARCHAR(255), categoria_producto VARCHAR(255), cantidad INT NOT NULL, "
+                        + "precio_unitario BIGINT NOT NULL)",
+                "CREATE INDEX IF NOT EXISTS idx_ventas_fecha ON ventas (fecha)",
+                "CREATE INDEX IF NOT EXISTS idx_ventas_cliente ON ventas (id_cliente)",
+                "CREATE INDEX IF NOT EXISTS idx_ventas_producto ON ventas (id_producto)");
+        baseDatos.convertirACentavos("ventas", "precio_unitario");
+
+        GeneradoresId.ventas().asegurarMayorQue(consultarNumero("SELECT COALESCE(MAX(id), 0) FROM ventas"));
+        totalVentas.add(consultarNumero("SELECT COUNT(*) FROM ventas"));
+
+        abierto = true;
+        escritor = new Thread(this::procesarEscrituras, "ventas-sql");
+        escritor.setDaemon(true);
+        escritor.start();
+
+        if (totalVentas.sum() == 0) {
+            cargarDatosEjemplo();
+        }
+    }
+
+    @Override
+    public List<Venta> listarVentas() {
+        return consultar(CONSULTA + "ORDER BY v.fecha, v.id");
+    }
+
+    @Override
+    public List<Venta> listarVentasDesde(long idAnterior, int limite) {
+        return consultar(CONSULTA + "WHERE v.id > ? ORDER BY v.id LIMIT ?", idAnterior, limite);
+    }
+
+    /**
+     * {@inheritDoc}
+     * La venta se encola para el siguiente lote y retorna cuando el lote ya está confirmado. Los
+     * oyentes reciben el lote completo en una sola notificación, desde el hilo escritor.
+     */
+    @Override
+    public void guardarVenta(Venta venta) {
+        VentaPendiente pendiente = new VentaPendiente(venta, new CompletableFuture<>());
+        cierre.readLock().lock();
+        try {
+            if (!abierto) {
+                throw new IllegalStateException("El repositorio de ventas está cerrado");
+            }
+            pendientes.add(pendiente);
+        } finally {
+            cierre.readLock().unlock();
+        }
+        try {
+            pendiente.resultado().join();
+        } catch (RuntimeException e) {
+            throw new RuntimeException("No se pudo registrar la venta", e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    @Override
+    public List<Venta> buscarVentasPorCliente(long idCliente) {
+        return consultar(CONSULTA + "WHERE v.id_cliente = ? ORDER BY v.fecha", idCliente);
+    }
+
+    @Override
+    public List<Venta> buscarVentasPorProducto(long idProducto) {
+        return consultar(CONSULTA + "WHERE v.id_producto = ? ORDER BY v.fecha", idProducto);
+    }
+
+    @Override
+    public List<Venta> buscarVentasEntre(LocalDateTime desde, LocalDateTime hasta) {
+        if (desde.isAfter(hasta)) {
+            return Collections.emptyList();
+        }
+        return consultar(CONSULTA + "WHERE v.fecha BETWEEN ? AND ? ORDER BY v.fecha", desde, hasta);
+    }
+
+    @Override
+    public long contarVentas() {
+        return totalVentas.sum();
+    }
+
+    @Override
+    public void suscribir(OyenteRepositorio<Venta> oyente) {
+        suscripcion.writeLock().lock();
+        try {
+            // Paginación por clave (fecha, id): cada página usa el índice por fecha desde la última
+            // venta entregada, sin recorrer las anteriores como haría un OFFSET
+            List<Venta> pagina = consultar(CONSULTA + "ORDER BY v.fecha, v.id LIMIT ?", PAGINA_SUSCRIPCION);
+            while (!pagina.isEmpty()) {
+                oyente.alAgregar(Collections.unmodifiableList(pagina));
+                if (pagina.size() < PAGINA_SUSCRIPCION) {
+                    break;
+                }
+                Venta ultima = pagina.get(pagina.size() - 1);
+                pagina = consultar(CONSULTA + "WHERE v.fecha > ? OR (v.fecha = ? AND v.id > ?) "
+                                + "ORDER BY v.fecha, v.id LIMIT ?",
+                        ultima.getFecha(), ultima.getFecha(), ultima.getId(), PAGINA_SUSCRIPCION);
+            }
+            oyentes.add(oyente);
+        } finally {
+            suscripcion.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public long contarYSuscribir(OyenteRepositorio<Venta> oyente) {
+        suscripcion.writeLock().lock();
+        try {
+            oyentes.add(oyente);
+            return contarVentas();
+        } finally {
+            suscripcion.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Deja de aceptar ventas y detiene el hilo escritor tras guardar las que quedaban en cola.
+     * Las que no se alcanzaron a guardar fallan.
+     */
+    @Override
+    public void cerrar() {
+        dejarDeAceptar();
+        try {
+            escritor.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            fallarPendientes();
+        }
+    }
+
+    private void procesarEscrituras() {
+        List<VentaPendiente> lote = new ArrayList<>();
+        try {
+            while (abierto || !pendientes.isEmpty()) {
+                VentaPendiente primera = pendientes.poll(100, TimeUnit.MILLISECONDS);
+                if (primera == null) {
+                    continue;
+                }
+                lote.add(primera);
+                pendientes.drainTo(lote, MAX_LOTE - 1);
+                escribirLote(lote);
+                lote.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Si el hilo termina antes de tiempo nadie más escribiría: se cierra la entrada y se avisa a los que esperan
+            dejarDeAceptar();
+            for (VentaPendiente pendiente : lote) {
+                pendiente.resultado().completeExceptionally(
+                        new IllegalStateException("El repositorio de ventas se cerró antes de guardar la venta"));
+            }
+            fallarPendientes();
+        }
+    }
+
+    private void dejarDeAceptar() {
+        cierre.writeLock().lock();
+        try {
+            abierto = false;
+        } finally {
+            cierre.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Completa con error las ventas que siguen en la cola. Solo se llama cuando ya no se aceptan ventas.
+     */
+    private void fallarPendientes() {
+        List<VentaPendiente> restantes = new ArrayList<>();
+        pendientes.drainTo(restantes);
+        for (VentaPendiente pendiente : restantes) {
+            pendiente.resultado().completeExceptionally(
+                    new IllegalStateException("El repositorio de ventas se cerró antes de guardar la venta"));
+        }
+    }
+
+    /**
+     * Inserta un lote en una transacción y lo notifica. Ambos pasos se hacen con el candado
+     * compartido de la suscripción, de modo que un oyente nuevo o bien ve el lote en su listado
+     * inicial o bien lo recibe como notificación, nunca las dos cosas.
+     */
+    private void escribirLote(List<VentaPendiente> lote) {
+        suscripcion.readLock().lock();
+        try {
+            try {
+                baseDatos.enTransaccion(conexion -> {
+                    PreparedStatement insertar = conexion.sentencia("INSERT INTO ventas (id, fecha, id_cliente, "
+                            + "nombre_cliente, id_producto, nombre_producto, categoria_producto, cantidad, precio_unitario) "
+                            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+                    Map<Producto, Boolean> vendidos = new IdentityHashMap<>();
+                    for (VentaPendiente pendiente : lote) {
+                        Venta venta = pendiente.venta();
+                        insertar.setLong(1, venta.getId());
+                        insertar.setObject(2, venta.getFecha());
+                        insertar.setLong(3, venta.getCliente().getId());
+                        insertar.setString(4, venta.getCliente().getNombre());
+                        insertar.setLong(5, venta.getProducto().getId());
+                        insertar.setString(6, venta.getProducto().getNombre());
+                        insertar.setString(7, venta.getProducto().getCategoria());
+                        insertar.setInt(8, venta.getCantidad());
+                        insertar.setLong(9, venta.getPrecioUnitario());
+                        insertar.addBatch();
+                        vendidos.put(venta.getProducto(), Boolean.TRUE);
+                    }
+                    insertar.executeBatch();
+                    productoRepository.guardarStock(conexion, vendidos.keySet());
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                for (VentaPendiente pendiente : lote) {
+                    pendiente.resultado().completeExceptionally(e);
+                }
+                return;
+            }
+            totalVentas.add(lote.size());
+            List<Venta> agregadas = new ArrayList<>(lote.size());
+            for (VentaPendiente pendiente : lote) {
+                agregadas.add(pendiente.venta());
+            }
+            List<Venta> notificadas = Collections.unmodifiableList(agregadas);
+            for (OyenteRepositorio<Venta> oyente : oyentes) {
+                try {
+                    oyente.alAgregar(notificadas);
+                } catch (RuntimeException e) {
+                    // El lote ya está confirmado: un oyente que falla no debe afectar a los demás ni a quien vendió
+                    REGISTRO.log(System.Logger.Level.WARNING, "Un oyente de ventas falló al recibir un lote", e);
+                }
+            }
+        } finally {
+            suscripcion.readLock().unlock();
+        }
+        for (VentaPendiente pendiente : lote) {
+            pendiente.resultado().complete(null);
+        }
+    }
+
+    private List<Venta> consultar(String sql, Object... parametros) {
+        return baseDatos.ejecutar(conexion -> {
+            PreparedStatement sentencia = conexion.sentencia(sql, parametros);
+            List<Venta> ventas = new ArrayList<>();
+            Map<Long, Cliente> clientes = new HashMap<>();
+            Map<Long, Producto> productos = new HashMap<>();
+            try (ResultSet resultado = sentencia.executeQuery()) {
+                while (resultado.next()) {
+                    ventas.add(leer(resultado, clientes, productos));
+                }
+            }
+            return ventas;
+        });
+    }
+
+    private long consultarNumero(String sql) {
+        return baseDatos.ejecutar(conexion -> {
+            try (ResultSet resultado = conexion.sentencia(sql).executeQuery()) {
+                resultado.next();
+                return resultado.getLong(1);
+            }
+        });
+    }
+
+    /**
+     * Construye la venta de la fila actual. Si el cliente o el producto ya no existen,
+     * se crea una copia con los datos guardados en la venta.
+     */
+    private Venta leer(ResultSet resultado, Map<Long, Cliente> clientes, Map<Long, Producto> productos)
+            throws SQLException {
+        long idCliente = resultado.getLong(8);
+        Cliente cliente = clientes.get(idCliente);
+        if (cliente == null) {
+            if (resultado.getObject(10) != null) {
+                cliente = ClienteRepositorySql.leer(resultado, 10);
+            } else {
+                cliente = new Cliente();
+                cliente.setId(idCliente);
+                cliente.setNombre(resultado.getString(9));
+            }
+            clientes.put(idCliente, cliente);
+        }
+
+        long idProducto = resultado.getLong(5);
+        Producto producto = productos.get(idProducto);
+        if (producto == null) {
+            if (resultado.getObject(16) != null) {
+                producto = productoRepository.compartido(idProducto, resultado.getString(17),
+                        resultado.getLong(18), resultado.getInt(19), resultado.getString(20));
+            } else {
+                producto = new Producto(idProducto, resultado.getString(6), resultado.getLong(4), 0,
+                        resultado.getString(7));
+            }
+            productos.put(idProducto, producto);
+        }
+
+        return new Venta(resultado.getLong(1), cliente, producto, resultado.getInt(3),
+                resultado.getLong(4), resultado.getObject(2, LocalDateTime.class));
+    }
+
+    private void cargarDatosEjemplo() {
+        // Si el catálogo ya existía, los productos de ejemplo pueden estar registrados y sin stock
+        if (productoRepository.existeProductoConNombre("Botella Agua")) {
+            return;
+        }
+        Cliente c1 = new Cliente("Julian Casablancas", "2131231", "312312", "Armenia", "julian@gmail");
+        Cliente c2 = new Cliente("Jhonatan Davis", "213532", "31253212", "Armenia", "jonathan@gmail");
+
+        Producto p1 = new Producto("Botella Agua", Dinero.pesos(1500), 3, "Bebida");
+        Producto p2 = new Producto("Leche", Dinero.pesos(2000), 2, "Lácteo");
+
+        productoRepository.guardarProducto(p1);
+        productoRepository.guardarProducto(p2);
+
+        registrarVenta(c1, p1, 2);
+        registrarVenta(c2, p2, 1);
+    }
+
+    private record VentaPendiente(Venta venta, CompletableFuture<Void> resultado) {}
+}
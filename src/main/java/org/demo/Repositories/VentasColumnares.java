@@ -0,0 +1,749 @@
+package org.demo.Repositories;
+
+import org.demo.Models.Cliente;
+import org.demo.Models.Producto;
+import org.demo.Models.Venta;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * Historial de ventas guardado por columnas en arreglos primitivos, para consultas analíticas.
+ *
+ * <p>Cada venta ocupa una fila con su id, fecha, id de cliente, id de producto, cantidad e
+ * importe en centavos (44 bytes, sin objetos por fila). Las filas se guardan en segmentos de
+ * tamaño fijo que no se copian al crecer, y cada segmento recuerda su fecha mínima y máxima
+ * para saltarlo completo cuando queda fuera del rango consultado. Los recorridos avanzan en
+ * orden por arreglos contiguos, por lo que están limitados por el ancho de banda de memoria.</p>
+ *
+ * <p>Se mantiene junto al {@link VentaRepository}, suscrito a sus ventas nuevas. Las ventas
+ * como objetos solo se reconstruyen al mostrarlas, con {@link #materializar(int)}.</p>
+ *
+ * <p>Las filas se agregan bajo un candado; las consultas no toman candados y ven todas las
+ * filas publicadas antes de empezar.</p>
+ */
+public final class VentasColumnares implements OyenteRepositorio<Venta> {
+    static final int BITS_SEGMENTO = 16;
+    static final int TAMANO_SEGMENTO = 1 << BITS_SEGMENTO;
+    // Tareas de fork/join por hilo del grupo: suficientes para equilibrar la carga sin
+    // multiplicar las tablas que hay que combinar cuando hay muchos grupos
+    static final int TAREAS_POR_HILO = 4;
+    static final long MILIS_POR_DIA = 86_400_000L;
+    static final int BITS_RADIX = 11;
+
+    private final ClienteRepository clienteRepository;
+    private final ProductoRepository productoRepository;
+    private final Object escritura;
+    // Se publica un segmento nuevo antes de aumentar el número de filas que lo usa
+    private volatile Segmento[] segmentos;
+    private volatile int filas;
+
+    private VentasColumnares(ClienteRepository clienteRepository, ProductoRepository productoRepository) {
+        this.clienteRepository = clienteRepository;
+        this.productoRepository = productoRepository;
+        this.escritura = new Object();
+        this.segmentos = new Segmento[0];
+    }
+
+    /**
+     * Crea el almacén copiando las ventas existentes y suscribiéndose a las nuevas
+     * de forma atómica con la entrega, por páginas, de las existentes.
+     *
+     * @param ventaRepository    repositorio de ventas a reflejar.
+     * @param clienteRepository  repositorio usado para reconstruir los clientes de las ventas.
+     * @param productoRepository repositorio usado para reconstruir los productos de las ventas.
+     * @return almacén suscrito al repositorio de ventas.
+     */
+    static VentasColumnares crear(VentaRepository ventaRepository, ClienteRepository clienteRepository,
+                                  ProductoRepository productoRepository) {
+        VentasColumnares columnas = new VentasColumnares(clienteRepository, productoRepository);
+        ventaRepository.suscribir(columnas);
+        return columnas;
+    }
+
+    @Override
+    public void alAgregar(List<Venta> agregadas) {
+        synchronized (escritura) {
+            for (Venta venta : agregadas) {
+                agregarFila(venta.getId(), marcaTiempo(venta.getFecha()), venta.getCliente().getId(),
+                        venta.getProducto().getId(), venta.getCantidad(), venta.getTotal());
+            }
+        }
+    }
+
+    /**
+     * Agrega una fila al final. Debe llamarse con el candado de escritura tomado.
+     */
+    void agregarFila(long id, long fecha, long idCliente, long idProducto, int cantidad, long importe) {
+        int fila = filas;
+        int numeroSegmento = fila >>> BITS_SEGMENTO;
+        Segmento[] actuales = segmentos;
+        if (numeroSegmento == actuales.length) {
+            actuales = Arrays.copyOf(actuales, numeroSegmento + 1);
+            actuales[numeroSegmento] = new Segmento();
+            segmentos = actuales;
+        }
+        actuales[numeroSegmento].escribir(fila & (TAMANO_SEGMENTO - 1), id, fecha, idCliente, idProducto, cantidad, importe);
+        filas = fila + 1;
+    }
+
+    /**
+     * @return cantidad de filas guardadas.
+     */
+    public int contarFilas() {
+        return filas;
+    }
+
+    /**
+     * Suma las ventas que cumplen el filtro.
+     *
+     * @param filtro condiciones de las filas a sumar.
+     * @return resumen de las filas que cumplen el filtro.
+     */
+    public Resumen agregar(FiltroVentas filtro) {
+        long ventas = 0;
+        long unidades = 0;
+        long importe = 0;
+        long minimo = Long.MAX_VALUE;
+        long maximo = Long.MIN_VALUE;
+        int total = filas;
+        Segmento[] actuales = segmentos;
+        for (int s = 0; s * TAMANO_SEGMENTO < total; s++) {
+            Segmento segmento = actuales[s];
+            if (!segmento.puedeContener(filtro)) {
+                continue;
+            }
+            int limite = Math.min(TAMANO_SEGMENTO, total - s * TAMANO_SEGMENTO);
+            for (int i = 0; i < limite; i++) {
+                if (filtro.acepta(segmento.fechas[i], segmento.clientes[i], segmento.productos[i])) {
+                    long importeFila = segmento.importes[i];
+                    ventas++;
+                    unidades += segmento.cantidades[i];
+                    importe += importeFila;
+                    minimo = Math.min(minimo, importeFila);
+                    maximo = Math.max(maximo, importeFila);
+                }
+            }
+        }
+        return ventas == 0 ? Resumen.VACIO : new Resumen(ventas, unidades, importe, minimo, maximo);
+    }
+
+    /**
+     * Agrupa las ventas que cumplen el filtro, recorriendo los segmentos en paralelo
+     * en el {@link ForkJoinPool#commonPool() grupo común}.
+     *
+     * @param filtro condiciones de las filas a agrupar.
+     * @param clave  columna por la que se agrupa.
+     * @return resumen de cada grupo con ventas, indexado por su clave.
+     */
+    public Map<Long, Resumen> agrupar(FiltroVentas filtro, ClaveGrupo clave) {
+        return agrupar(filtro, clave, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Agrupa las ventas que cumplen el filtro con fork/join: los segmentos se reparten en tareas
+     * que agrupan cada una en su propia tabla, y las tablas se combinan al terminar.
+     *
+     * @param filtro condiciones de las filas a agrupar.
+     * @param clave  columna por la que se agrupa.
+     * @param grupo  grupo de hilos donde se ejecutan las tareas.
+     * @return resumen de cada grupo con ventas, indexado por su clave.
+     */
+    public Map<Long, Resumen> agrupar(FiltroVentas filtro, ClaveGrupo clave, ForkJoinPool grupo) {
+        int total = filas;
+        Segmento[] actuales = segmentos;
+        int cantidadSegmentos = (total + TAMANO_SEGMENTO - 1) >>> BITS_SEGMENTO;
+        int segmentosPorTarea = Math.max(1, cantidadSegmentos / (grupo.getParallelism() * TAREAS_POR_HILO));
+        return grupo.invoke(new TareaAgrupar(actuales, total, 0, cantidadSegmentos, segmentosPorTarea, filtro, clave))
+                .resumenes();
+    }
+
+    /**
+     * Retorna las posiciones de las filas que cumplen el filtro, en orden de llegada.
+     *
+     * @param filtro condiciones de las filas.
+     * @param limite cantidad máxima de filas a retornar.
+     * @return posiciones de las filas, para usarlas con {@link #materializar(int)}.
+     */
+    public int[] buscarFilas(FiltroVentas filtro, int limite) {
+        int[] encontradas = new int[Math.min(limite, 1024)];
+        int cantidad = 0;
+        int total = filas;
+        Segmento[] actuales = segmentos;
+        for (int s = 0; s * TAMANO_SEGMENTO < total && cantidad < limite; s++) {
+            Segmento segmento = actuales[s];
+            if (!segmento.puedeContener(filtro)) {
+                continue;
+            }
+            int base = s * TAMANO_SEGMENTO;
+            int fin = Math.min(TAMANO_SEGMENTO, total - base);
+            for (int i = 0; i < fin && cantidad < limite; i++) {
+                if (filtro.acepta(segmento.fechas[i], segmento.clientes[i], segmento.productos[i])) {
+                    if (cantidad == encontradas.length) {
+                        encontradas = Arrays.copyOf(encontradas, Math.min(limite, cantidad * 2));
+                    }
+                    encontradas[cantidad++] = base + i;
+                }
+            }
+        }
+        return Arrays.copyOf(encontradas, cantidad);
+    }
+
+    /**
+     * Selecciona las posiciones de las filas que cumplen el filtro, ordenadas por una columna.
+     * Las filas con el mismo valor quedan en orden de llegada (o el inverso, si el orden es
+     * descendente). Los clientes y los productos se ordenan por nombre.
+     *
+     * <p>El resultado se escribe en {@code destino}, que conserva sus arreglos entre consultas:
+     * repetir consultas de tamaño parecido no vuelve a reservar memoria por fila.</p>
+     *
+     * @param filtro       condiciones de las filas.
+     * @param orden        columna por la que se ordena, o {@code null} para el orden de llegada.
+     * @param descendente  si se ordena de mayor a menor.
+     * @param destino      selección donde se escriben las posiciones, para usarlas con
+     *                     {@link #materializar(int[])}; se reemplaza su contenido anterior.
+     */
+    public void seleccionar(FiltroVentas filtro, Orden orden, boolean descendente, Seleccion destino) {
+        destino.cantidad = 0;
+        int total = filas;
+        Segmento[] actuales = segmentos;
+        for (int s = 0; s * TAMANO_SEGMENTO < total; s++) {
+            Segmento segmento = actuales[s];
+            if (!segmento.puedeContener(filtro)) {
+                continue;
+            }
+            int base = s * TAMANO_SEGMENTO;
+            int fin = Math.min(TAMANO_SEGMENTO, total - base);
+            for (int i = 0; i < fin; i++) {
+                if (filtro.acepta(segmento.fechas[i], segmento.clientes[i], segmento.productos[i])) {
+                    destino.agregar(base + i);
+                }
+            }
+        }
+
+        int cantidad = destino.cantidad;
+        int[] seleccion = destino.filas;
+        if (orden != null && orden != Orden.ID) {
+            Map<Long, Integer> posiciones = switch (orden) {
+                case CLIENTE -> posicionesPorNombre(clienteRepository.listarClientes(), Cliente::getId, Cliente::getNombre);
+                case PRODUCTO -> posicionesPorNombre(productoRepository.listarProductos(), Producto::getId, Producto::getNombre);
+                default -> null;
+            };
+            long[] claves = destino.reservarTrabajo();
+            for (int k = 0; k < cantidad; k++) {
+                Segmento segmento = actuales[seleccion[k] >>> BITS_SEGMENTO];
+                int i = seleccion[k] & (TAMANO_SEGMENTO - 1);
+                claves[k] = switch (orden) {
+                    case FECHA -> segmento.fechas[i];
+                    case CLIENTE -> posiciones.getOrDefault(segmento.clientes[i], -1);
+                    case PRODUCTO -> posiciones.getOrDefault(segmento.productos[i], -1);
+                    case CANTIDAD -> segmento.cantidades[i];
+                    case PRECIO -> segmento.importes[i] / segmento.cantidades[i];
+                    case TOTAL -> segmento.importes[i];
+                    case ID -> segmento.ids[i];
+                };
+            }
+            destino.ordenar();
+            seleccion = destino.filas;
+        }
+        if (descendente) {
+            for (int i = 0, j = cantidad - 1; i < j; i++, j--) {
+                int fila = seleccion[i];
+                seleccion[i] = seleccion[j];
+                seleccion[j] = fila;
+            }
+        }
+        destino.liberarTrabajo();
+    }
+
+    /**
+     * Reconstruye la venta de una fila para mostrarla. Si su cliente o su producto ya no están
+     * registrados se usa una copia que solo conserva el id.
+     *
+     * @param fila posición de la fila.
+     * @return venta con los datos de la fila.
+     */
+    public Venta materializar(int fila) {
+        return materializar(fila, new HashMap<>(2), new HashMap<>(2));
+    }
+
+    /**
+     * Reconstruye las ventas de varias filas. Cada cliente y cada producto se busca una sola
+     * vez, aunque aparezca en varias filas.
+     *
+     * @param filas posiciones de las filas.
+     * @return ventas en el mismo orden de las posiciones.
+     */
+    public List<Venta> materializar(int[] filas) {
+        Map<Long, Cliente> clientes = new HashMap<>();
+        Map<Long, Producto> productos = new HashMap<>();
+        List<Venta> ventas = new ArrayList<>(filas.length);
+        for (int fila : filas) {
+            ventas.add(materializar(fila, clientes, productos));
+        }
+        return ventas;
+    }
+
+    private Venta materializar(int fila, Map<Long, Cliente> clientes, Map<Long, Producto> productos) {
+        if (fila < 0 || fila >= filas) {
+            throw new IndexOutOfBoundsException("Fila fuera de rango: " + fila);
+        }
+        Segmento segmento = segmentos[fila >>> BITS_SEGMENTO];
+        int i = fila & (TAMANO_SEGMENTO - 1);
+
+        Cliente cliente = clientes.computeIfAbsent(segmento.clientes[i], idCliente ->
+                clienteRepository.buscarClientePorId(idCliente).orElseGet(() -> {
+                    Cliente copia = new Cliente();
+                    copia.setId(idCliente);
+                    return copia;
+                }));
+        int cantidad = segmento.cantidades[i];
+        // El importe es el precio unitario por la cantidad, por lo que la división es exacta
+        long precioUnitario = segmento.importes[i] / cantidad;
+        Producto producto = productos.computeIfAbsent(segmento.productos[i], idProducto ->
+                productoRepository.buscarProductoPorId(idProducto).orElseGet(() ->
+                        new Producto(idProducto, "", precioUnitario, 0, null)));
+        return new Venta(segmento.ids[i], cliente, producto, cantidad, precioUnitario, fecha(segmento.fechas[i]));
+    }
+
+    /**
+     * Convierte una fecha a la marca de tiempo usada en la columna de fechas
+     * (milisegundos, tomando la fecha local como si fuera UTC).
+     *
+     * @param fecha fecha a convertir.
+     * @return marca de tiempo.
+     */
+    public static long marcaTiempo(LocalDateTime fecha) {
+        return fecha.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime fecha(long marcaTiempo) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(marcaTiempo, 1000L),
+                (int) Math.floorMod(marcaTiempo, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * Posición de cada elemento al ordenarlos por nombre, sin distinguir mayúsculas.
+     */
+    private static <T> Map<Long, Integer> posicionesPorNombre(List<T> elementos, Function<T, Long> id,
+                                                              Function<T, String> nombre) {
+        List<T> ordenados = new ArrayList<>(elementos);
+        ordenados.sort(Comparator.comparing(nombre, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)));
+        Map<Long, Integer> posiciones = new HashMap<>(ordenados.size() * 2);
+        for (int i = 0; i < ordenados.size(); i++) {
+            posiciones.put(id.apply(ordenados.get(i)), i);
+        }
+        return posiciones;
+    }
+
+    private static int cubeta(long clave, long minimo, int desplazamiento) {
+        return (int) (((clave - minimo) >>> desplazamiento) & ((1 << BITS_RADIX) - 1));
+    }
+
+    /**
+     * Agrupa un rango de segmentos, dividiéndolo en dos mientras tenga más segmentos
+     * de los que corresponden a una tarea.
+     */
+    private static final class TareaAgrupar extends RecursiveTask<TablaGrupos> {
+        // ForkJoinTask es Serializable, aunque las tareas nunca se serializan
+        private static final long serialVersionUID = 1L;
+
+        private final Segmento[] segmentos;
+        private final int filas;
+        private final int desde;
+        private final int hasta;
+        private final int segmentosPorTarea;
+        private final FiltroVentas filtro;
+        private final ClaveGrupo clave;
+
+        TareaAgrupar(Segmento[] segmentos, int filas, int desde, int hasta, int segmentosPorTarea,
+                     FiltroVentas filtro, ClaveGrupo clave) {
+            this.segmentos = segmentos;
+            this.filas = filas;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.segmentosPorTarea = segmentosPorTarea;
+            this.filtro = filtro;
+            this.clave = clave;
+        }
+
+        @Override
+        protected TablaGrupos compute() {
+            if (hasta - desde <= segmentosPorTarea) {
+                return agruparSegmentos();
+            }
+            int mitad = (desde + hasta) >>> 1;
+            TareaAgrupar izquierda = new TareaAgrupar(segmentos, filas, desde, mitad, segmentosPorTarea, filtro, clave);
+            izquierda.fork();
+            TablaGrupos derecha = new TareaAgrupar(segmentos, filas, mitad, hasta, segmentosPorTarea, filtro, clave).compute();
+            TablaGrupos resultado = izquierda.join();
+            // Se recorre la tabla con menos grupos para combinar
+            if (resultado.cantidad < derecha.cantidad) {
+                derecha.combinar(resultado);
+                return derecha;
+            }
+            resultado.combinar(derecha);
+            return resultado;
+        }
+
+        private TablaGrupos agruparSegmentos() {
+            TablaGrupos grupos = new TablaGrupos();
+            boolean porDia = clave == ClaveGrupo.DIA;
+            for (int s = desde; s < hasta; s++) {
+                Segmento segmento = segmentos[s];
+                if (!segmento.puedeContener(filtro)) {
+                    continue;
+                }
+                long[] claves = switch (clave) {
+                    case PRODUCTO -> segmento.productos;
+                    case CLIENTE -> segmento.clientes;
+                    case DIA -> segmento.fechas;
+                };
+                int limite = Math.min(TAMANO_SEGMENTO, filas - s * TAMANO_SEGMENTO);
+                for (int i = 0; i < limite; i++) {
+                    if (filtro.acepta(segmento.fechas[i], segmento.clientes[i], segmento.productos[i])) {
+                        long grupo = porDia ? Math.floorDiv(claves[i], MILIS_POR_DIA) : claves[i];
+                        grupos.sumar(grupo, segmento.cantidades[i], segmento.importes[i]);
+                    }
+                }
+            }
+            return grupos;
+        }
+    }
+
+    /**
+     * Tabla hash de direccionamiento abierto con claves y acumulados intercalados en un solo
+     * arreglo primitivo (clave, ventas, unidades, importe, mínimo, máximo), para agrupar sin
+     * crear objetos por fila y tocando una sola línea de caché por fila.
+     */
+    private static final class TablaGrupos {
+        // Ningún id real es Long.MIN_VALUE, por eso marca las posiciones libres
+        private static final long LIBRE = Long.MIN_VALUE;
+        private static final int ANCHO = 6;
+
+        private long[] datos = libres(256 * ANCHO);
+        private int cantidad;
+
+        void sumar(long clave, int cantidadVendida, long importe) {
+            int i = posicion(clave);
+            datos[i + 1]++;
+            datos[i + 2] += cantidadVendida;
+            datos[i + 3] += importe;
+            datos[i + 4] = Math.min(datos[i + 4], importe);
+            datos[i + 5] = Math.max(datos[i + 5], importe);
+        }
+
+        void combinar(TablaGrupos otra) {
+            long[] otros = otra.datos;
+            for (int j = 0; j < otros.length; j += ANCHO) {
+                if (otros[j] != LIBRE) {
+                    int i = posicion(otros[j]);
+                    datos[i + 1] += otros[j + 1];
+                    datos[i + 2] += otros[j + 2];
+                    datos[i + 3] += otros[j + 3];
+                    datos[i + 4] = Math.min(datos[i + 4], otros[j + 4]);
+                    datos[i + 5] = Math.max(datos[i + 5], otros[j + 5]);
+                }
+            }
+        }
+
+        private int posicion(long clave) {
+            int mascara = datos.length / ANCHO - 1;
+            int ranura = mezclar(clave) & mascara;
+            while (datos[ranura * ANCHO] != LIBRE) {
+                if (datos[ranura * ANCHO] == clave) {
+                    return ranura * ANCHO;
+                }
+                ranura = (ranura + 1) & mascara;
+            }
+            if ((cantidad + 1) * 2 * ANCHO > datos.length) {
+                crecer();
+                return posicion(clave);
+            }
+            datos[ranura * ANCHO] = clave;
+            datos[ranura * ANCHO + 4] = Long.MAX_VALUE;
+            datos[ranura * ANCHO + 5] = Long.MIN_VALUE;
+            cantidad++;
+            return ranura * ANCHO;
+        }
+
+        private void crecer() {
+            long[] anteriores = datos;
+            datos = libres(anteriores.length * 2);
+            cantidad = 0;
+            for (int j = 0; j < anteriores.length; j += ANCHO) {
+                if (anteriores[j] != LIBRE) {
+                    int i = posicion(anteriores[j]);
+                    System.arraycopy(anteriores, j + 1, datos, i + 1, ANCHO - 1);
+                }
+            }
+        }
+
+        Map<Long, Resumen> resumenes() {
+            Map<Long, Resumen> resultado = new HashMap<>(cantidad * 2);
+            for (int i = 0; i < datos.length; i += ANCHO) {
+                if (datos[i] != LIBRE) {
+                    resultado.put(datos[i], new Resumen(datos[i + 1], datos[i + 2], datos[i + 3], datos[i + 4], datos[i + 5]));
+                }
+            }
+            return resultado;
+        }
+
+        private static long[] libres(int longitud) {
+            long[] datos = new long[longitud];
+            for (int i = 0; i < longitud; i += ANCHO) {
+                datos[i] = LIBRE;
+            }
+            return datos;
+        }
+
+        private static int mezclar(long clave) {
+            // Los ids temporales comparten los bits altos; se mezclan para repartirlos en la tabla
+            long h = clave * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+
+    /**
+     * Posiciones de filas elegidas por {@link VentasColumnares#seleccionar(FiltroVentas, Orden, boolean, Seleccion)}.
+     *
+     * <p>Una misma instancia se reutiliza en consultas sucesivas: el arreglo de posiciones crece
+     * cuando hace falta y no se vuelve a reservar en cada consulta. Los arreglos de trabajo del
+     * ordenamiento (20 bytes por fila) también se conservan, salvo los de más de
+     * {@value #FILAS_TRABAJO_RETENIDAS} filas, que se liberan al terminar para que una consulta
+     * muy grande no deje esa memoria ocupada.</p>
+     *
+     * <p>No es segura para hilos: la escribe una consulta y, cuando termina, solo se lee.</p>
+     */
+    public static final class Seleccion {
+        static final int FILAS_TRABAJO_RETENIDAS = 1 << 20;
+        private static final int CAPACIDAD_INICIAL = 1024;
+
+        private int[] filas = new int[0];
+        private int cantidad;
+        private long[] claves = new long[0];
+        private long[] otrasClaves = new long[0];
+        private int[] otrasFilas = new int[0];
+
+        /**
+         * @return cantidad de filas seleccionadas.
+         */
+        public int cantidad() {
+            return cantidad;
+        }
+
+        /**
+         * Retorna la posición de una fila seleccionada, para usarla con {@link VentasColumnares#materializar(int)}.
+         *
+         * @param indice índice dentro de la selección.
+         * @return posición de la fila en el almacén.
+         */
+        public int fila(int indice) {
+            if (indice < 0 || indice >= cantidad) {
+                throw new IndexOutOfBoundsException("Posición fuera de rango: " + indice);
+            }
+            return filas[indice];
+        }
+
+        private void agregar(int fila) {
+            if (cantidad == filas.length) {
+                filas = Arrays.copyOf(filas, Math.max(CAPACIDAD_INICIAL, cantidad * 2));
+            }
+            filas[cantidad++] = fila;
+        }
+
+        /**
+         * Asegura los arreglos de trabajo para la cantidad actual y retorna el de las claves.
+         */
+        private long[] reservarTrabajo() {
+            if (claves.length < cantidad) {
+                claves = new long[filas.length];
+                otrasClaves = new long[filas.length];
+                otrasFilas = new int[filas.length];
+            }
+            return claves;
+        }
+
+        private void liberarTrabajo() {
+            if (claves.length > FILAS_TRABAJO_RETENIDAS) {
+                claves = new long[0];
+                otrasClaves = new long[0];
+                otrasFilas = new int[0];
+            }
+        }
+
+        /**
+         * Ordena las filas por su clave con radix LSD estable, en pasadas de {@value #BITS_RADIX}
+         * bits solo sobre los bits en que varían las claves. Como las filas llegan en orden de
+         * llegada, a igual clave lo conservan. Cada pasada intercambia los arreglos de posiciones
+         * y claves con los de trabajo, sin reservar otros.
+         */
+        private void ordenar() {
+            long minimo = Long.MAX_VALUE;
+            long maximo = Long.MIN_VALUE;
+            for (int i = 0; i < cantidad; i++) {
+                minimo = Math.min(minimo, claves[i]);
+                maximo = Math.max(maximo, claves[i]);
+            }
+            if (cantidad < 2 || minimo == maximo) {
+                return;
+            }
+            // La resta se lee sin signo, por lo que sirve aunque el rango supere Long.MAX_VALUE
+            int bits = Long.SIZE - Long.numberOfLeadingZeros(maximo - minimo);
+            int[] inicios = new int[1 << BITS_RADIX];
+            for (int desplazamiento = 0; desplazamiento < bits; desplazamiento += BITS_RADIX) {
+                Arrays.fill(inicios, 0);
+                for (int i = 0; i < cantidad; i++) {
+                    inicios[cubeta(claves[i], minimo, desplazamiento)]++;
+                }
+                for (int i = 0, suma = 0; i < inicios.length; i++) {
+                    int enCubeta = inicios[i];
+                    inicios[i] = suma;
+                    suma += enCubeta;
+                }
+                for (int i = 0; i < cantidad; i++) {
+                    int destino = inicios[cubeta(claves[i], minimo, desplazamiento)]++;
+                    otrasClaves[destino] = claves[i];
+                    otrasFilas[destino] = filas[i];
+                }
+                long[] clavesOrdenadas = otrasClaves;
+                otrasClaves = claves;
+                claves = clavesOrdenadas;
+                int[] filasOrdenadas = otrasFilas;
+                otrasFilas = filas;
+                filas = filasOrdenadas;
+            }
+        }
+    }
+
+    /**
+     * Bloque de filas consecutivas, con una columna por arreglo.
+     */
+    private static final class Segmento {
+        final long[] ids = new long[TAMANO_SEGMENTO];
+        final long[] fechas = new long[TAMANO_SEGMENTO];
+        final long[] clientes = new long[TAMANO_SEGMENTO];
+        final long[] productos = new long[TAMANO_SEGMENTO];
+        final int[] cantidades = new int[TAMANO_SEGMENTO];
+        final long[] importes = new long[TAMANO_SEGMENTO];
+        long fechaMinima = Long.MAX_VALUE;
+        long fechaMaxima = Long.MIN_VALUE;
+
+        void escribir(int i, long id, long fecha, long idCliente, long idProducto, int cantidad, long importe) {
+            ids[i] = id;
+            fechas[i] = fecha;
+            clientes[i] = idCliente;
+            productos[i] = idProducto;
+            cantidades[i] = cantidad;
+            importes[i] = importe;
+            fechaMinima = Math.min(fechaMinima, fecha);
+            fechaMaxima = Math.max(fechaMaxima, fecha);
+        }
+
+        boolean puedeContener(FiltroVentas filtro) {
+            return fechaMaxima >= filtro.desde() && fechaMinima <= filtro.hasta();
+        }
+    }
+
+    /**
+     * Condiciones sobre las filas: rango de marcas de tiempo (incluido) y, opcionalmente,
+     * un cliente y un producto.
+     *
+     * @param desde      marca de tiempo inicial.
+     * @param hasta      marca de tiempo final.
+     * @param idCliente  id del cliente, o {@link #CUALQUIERA}.
+     * @param idProducto id del producto, o {@link #CUALQUIERA}.
+     */
+    public record FiltroVentas(long desde, long hasta, long idCliente, long idProducto) {
+        public static final long CUALQUIERA = Long.MIN_VALUE;
+
+        /**
+         * @return filtro que acepta todas las ventas.
+         */
+        public static FiltroVentas todas() {
+            return new FiltroVentas(Long.MIN_VALUE, Long.MAX_VALUE, CUALQUIERA, CUALQUIERA);
+        }
+
+        public FiltroVentas entre(LocalDateTime desde, LocalDateTime hasta) {
+            return new FiltroVentas(marcaTiempo(desde), marcaTiempo(hasta), idCliente, idProducto);
+        }
+
+        public FiltroVentas delCliente(long idCliente) {
+            return new FiltroVentas(desde, hasta, idCliente, idProducto);
+        }
+
+        public FiltroVentas delProducto(long idProducto) {
+            return new FiltroVentas(desde, hasta, idCliente, idProducto);
+        }
+
+        /**
+         * @param venta venta a revisar.
+         * @return {@code true} si la venta cumple todas las condiciones del filtro.
+         */
+        public boolean acepta(Venta venta) {
+            return acepta(marcaTiempo(venta.getFecha()), venta.getCliente().getId(), venta.getProducto().getId());
+        }
+
+        boolean acepta(long fecha, long cliente, long producto) {
+            return fecha >= desde && fecha <= hasta
+                    && (idCliente == CUALQUIERA || cliente == idCliente)
+                    && (idProducto == CUALQUIERA || producto == idProducto);
+        }
+    }
+
+    /**
+     * Columna por la que se agrupan las filas. Los días se identifican por su número
+     * de día desde 1970-01-01 ({@link java.time.LocalDate#toEpochDay()}).
+     */
+    public enum ClaveGrupo { PRODUCTO, CLIENTE, DIA }
+
+    /**
+     * Columna por la que se ordenan las filas seleccionadas. El precio es el unitario
+     * y el total es el importe de la venta.
+     */
+    public enum Orden { ID, FECHA, CLIENTE, PRODUCTO, CANTIDAD, PRECIO, TOTAL }
+
+    /**
+     * Resultado de resumir un grupo de filas. Los importes están en centavos;
+     * el mínimo y el máximo son los de una sola venta.
+     *
+     * @param ventas   cantidad de ventas.
+     * @param unidades unidades vendidas.
+     * @param importe  importe total.
+     * @param minimo   importe de la venta más pequeña.
+     * @param maximo   importe de la venta más grande.
+     */
+    public record Resumen(long ventas, long unidades, long importe, long minimo, long maximo) {
+        public static final Resumen VACIO = new Resumen(0, 0, 0, 0, 0);
+
+        /**
+         * @return importe promedio por venta, truncado al centavo; cero si no hay ventas.
+         */
+        public long promedio() {
+            return ventas == 0 ? 0 : importe / ventas;
+        }
+
+        /**
+         * @return resumen de la unión de los dos grupos.
+         */
+        public Resumen combinar(Resumen otro) {
+            if (ventas == 0) {
+                return otro;
+            }
+            if (otro.ventas == 0) {
+                return this;
+            }
+            return new Resumen(ventas + otro.ventas, unidades + otro.unidades, importe + otro.importe,
+                    Math.min(minimo, otro.minimo), Math.max(maximo, otro.maximo));
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package org.demo.Services;
+
+import org.demo.Models.Venta;
+import org.demo.Repositories.OyenteRepositorio;
+import org.demo.Repositories.Repositorios;
+import org.demo.Repositories.VentaRepository;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Totales de ventas mantenidos de forma incremental: ingresos, unidades y número de ventas
+ * en total, por producto, por cliente y por categoría.
+ *
+ * <p>Se suscribe al repositorio de ventas y suma cada venta nueva a sus acumulados en tiempo
+ * constante, con contadores que admiten ventas concurrentes sin bloqueos. Solo al crearse
+ * recorre una vez las ventas existentes; después ninguna consulta recorre el historial.</p>
+ *
+ * <p>También mantiene los productos y clientes con más ingresos, actualizando el ranking con
+ * cada venta en lugar de ordenar todos los acumulados.</p>
+ *
+ * <p>La categoría que se acumula es la que tenía el producto en el momento de la venta.</p>
+ */
+public final class AgregadosVentas implements OyenteRepositorio<Venta> {
+    static final String SIN_CATEGORIA = "Sin categoría";
+    static final int TAMANO_RANKING = 10;
+
+    private static final Acumulado VACIO = new Acumulado();
+
+    private final Acumulado global;
+    private final ConcurrentMap<Long, Acumulado> porProducto;
+    private final ConcurrentMap<Long, Acumulado> porCliente;
+    private final ConcurrentMap<String, Acumulado> porCategoria;
+    private final Ranking topProductos;
+    private final Ranking topClientes;
+    private final List<Runnable> oyentes;
+
+    private AgregadosVentas() {
+        global = new Acumulado();
+        porProducto = new ConcurrentHashMap<>();
+        porCliente = new ConcurrentHashMap<>();
+        porCategoria = new ConcurrentHashMap<>();
+        topProductos = new Ranking(TAMANO_RANKING);
+        topClientes = new Ranking(TAMANO_RANKING);
+        oyentes = new CopyOnWriteArrayList<>();
+    }
+
+    private static class Contenedor {
+        static final AgregadosVentas INSTANCIA = crear(Repositorios.ventas());
+    }
+
+    /**
+     * Devuelve la instancia única, suscrita al repositorio de ventas de la aplicación.
+     *
+     * @return instancia única de {@code AgregadosVentas}.
+     */
+    public static AgregadosVentas getInstancia() {
+        return Contenedor.INSTANCIA;
+    }
+
+    /**
+     * Crea los agregados de un repositorio de ventas, sumando las ventas existentes
+     * y suscribiéndose a las nuevas de forma atómica con la entrega, por páginas, de las existentes.
+     *
+     * @param ventaRepository repositorio de ventas a acumular.
+     * @return agregados suscritos al repositorio.
+     */
+    static AgregadosVentas crear(VentaRepository ventaRepository) {
+        AgregadosVentas agregados = new AgregadosVentas();
+        ventaRepository.suscribir(agregados);
+        return agregados;
+    }
+
+    @Override
+    public void alAgregar(List<Venta> agregadas) {
+        agregadas.forEach(this::registrar);
+        oyentes.forEach(Runnable::run);
+    }
+
+    /**
+     * Registra una acción que se ejecuta después de acumular cada lote de ventas nuevas,
+     * en el hilo que guardó las ventas.
+     *
+     * @param oyente acción a ejecutar.
+     */
+    public void agregarOyente(Runnable oyente) {
+        oyentes.add(oyente);
+    }
+
+    /**
+     * @return acumulado de todas las ventas.
+     */
+    public Acumulado getGlobal() {
+        return global;
+    }
+
+    /**
+     * @param idProducto identificador del producto.
+     * @return acumulado de las ventas del producto; en cero si no se ha vendido.
+     */
+    public Acumulado porProducto(long idProducto) {
+        return porProducto.getOrDefault(idProducto, VACIO);
+    }
+
+    /**
+     * @param idCliente identificador del cliente.
+     * @return acumulado de las compras del cliente; en cero si no ha comprado.
+     */
+    public Acumulado porCliente(long idCliente) {
+        return porCliente.getOrDefault(idCliente, VACIO);
+    }
+
+    /**
+     * @param categoria categoría de producto.
+     * @return acumulado de las ventas de la categoría; en cero si no tiene ventas.
+     */
+    public Acumulado porCategoria(String categoria) {
+        return porCategoria.getOrDefault(categoria(categoria), VACIO);
+    }
+
+    /**
+     * Retorna una vista de solo lectura de los acumulados por categoría, que sigue
+     * reflejando las ventas nuevas.
+     *
+     * @return acumulados indexados por nombre de categoría.
+     */
+    public Map<String, Acumulado> getCategorias() {
+        return Collections.unmodifiableMap(porCategoria);
+    }
+
+    /**
+     * @return los productos con más ingresos, de mayor a menor.
+     */
+    public List<Ranking.Posicion> getTopProductos() {
+        return topProductos.listar();
+    }
+
+    /**
+     * @return los clientes con más compras en dinero, de mayor a menor.
+     */
+    public List<Ranking.Posicion> getTopClientes() {
+        return topClientes.listar();
+    }
+
+    private void registrar(Venta venta) {
+        global.sumar(venta);
+
+        Acumulado producto = porProducto.computeIfAbsent(venta.getProducto().getId(), id -> new Acumulado());
+        producto.sumar(venta);
+        // El valor se lee después de sumar, así la última actualización de cada id ve su total completo
+        topProductos.actualizar(venta.getProducto().getId(), venta.getProducto().getNombre(), producto.getIngresos());
+
+        Acumulado cliente = porCliente.computeIfAbsent(venta.getCliente().getId(), id -> new Acumulado());
+        cliente.sumar(venta);
+        topClientes.actualizar(venta.getCliente().getId(), venta.getCliente().getNombre(), cliente.getIngresos());
+
+        porCategoria.computeIfAbsent(categoria(venta.getProducto().getCategoria()), c -> new Acumulado()).sumar(venta);
+    }
+
+    private static String categoria(String categoria) {
+        return categoria == null || categoria.isBlank() ? SIN_CATEGORIA : categoria;
+    }
+
+    /**
+     * Ingresos, unidades y número de ventas de un grupo de ventas.
+     * Cada valor es exacto una vez terminadas las ventas en curso; mientras tanto,
+     * una lectura puede incluir una venta en un valor y todavía no en otro.
+     */
+    public static final class Acumulado {
+        private final LongAdder ingresos = new LongAdder();
+        private final LongAdder unidades = new LongAdder();
+        private final LongAdder ventas = new LongAdder();
+
+        private Acumulado() {}
+
+        private void sumar(Venta venta) {
+            ingresos.add(venta.getTotal());
+            unidades.add(venta.getCantidad());
+            ventas.increment();
+        }
+
+        /**
+         * @return ingresos en centavos.
+         */
+        public long getIngresos() {
+            return ingresos.sum();
+        }
+
+        public long getUnidades() {
+            return unidades.sum();
+        }
+
+        public long getVentas() {
+            return ventas.sum();
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package org.demo.Services;
+
+import org.demo.Models.Producto;
+import org.demo.Repositories.OyenteRepositorio;
+import org.demo.Repositories.ProductoRepository;
+import org.demo.Repositories.Repositorios;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Alertas de productos con stock bajo, publicadas a los suscriptores en cuanto cambia el stock.
+ *
+ * <p>Un producto tiene stock bajo cuando su cantidad es menor o igual que su nivel de reposición:
+ * el fijado para el producto, si no el de su categoría y si no el nivel general (propiedad del
+ * sistema {@code ventas.stock.nivel}, 5 por defecto).</p>
+ *
+ * <p>Escucha los cambios de stock de {@link InventarioService} y los cambios del repositorio de
+ * productos, y revisa solo el producto que cambió con un par de búsquedas en tablas hash. En la
+ * venta de un producto con stock suficiente no toma candados ni crea objetos; solo la entrada,
+ * el cambio o la salida de un producto de la lista de stock bajo publica una {@link Alerta}.
+ * El catálogo completo se recorre únicamente al crearse y al cambiar el nivel de una categoría
+ * o el nivel general.</p>
+ */
+public final class AlertasStock implements OyenteRepositorio<Producto> {
+    public static final String PROPIEDAD_NIVEL = "ventas.stock.nivel";
+    static final int NIVEL_PREDETERMINADO = 5;
+
+    private final ProductoRepository productoRepository;
+    private final ConcurrentMap<Long, Integer> nivelesPorProducto;
+    private final ConcurrentMap<String, Integer> nivelesPorCategoria;
+    private volatile int nivelGeneral;
+    // Solo se modifica con el candado de la instancia, para publicar las alertas en orden
+    private final ConcurrentMap<Long, Alerta> activas;
+    private final List<Consumer<Alerta>> oyentes;
+
+    private AlertasStock(ProductoRepository productoRepository, int nivelGeneral) {
+        this.productoRepository = productoRepository;
+        this.nivelesPorProducto = new ConcurrentHashMap<>();
+        this.nivelesPorCategoria = new ConcurrentHashMap<>();
+        this.nivelGeneral = validarNivel(nivelGeneral);
+        this.activas = new ConcurrentHashMap<>();
+        this.oyentes = new CopyOnWriteArrayList<>();
+    }
+
+    private static class Contenedor {
+        static final AlertasStock INSTANCIA = crear(Repositorios.productos(), InventarioService.getInstancia(),
+                Integer.getInteger(PROPIEDAD_NIVEL, NIVEL_PREDETERMINADO));
+    }
+
+    /**
+     * Devuelve la instancia única, suscrita al inventario y al repositorio de productos de la aplicación.
+     *
+     * @return instancia única de {@code AlertasStock}.
+     */
+    public static AlertasStock getInstancia() {
+        return Contenedor.INSTANCIA;
+    }
+
+    /**
+     * Crea las alertas revisando los productos existentes y suscribiéndose a los cambios de stock
+     * y del catálogo.
+     *
+     * @param productoRepository repositorio de productos a vigilar.
+     * @param inventario         inventario que avisa los cambios de stock por ventas.
+     * @param nivelGeneral       nivel de reposición de los productos sin nivel propio ni de categoría.
+     * @return alertas suscritas.
+     */
+    static AlertasStock crear(ProductoRepository productoRepository, InventarioService inventario, int nivelGeneral) {
+        AlertasStock alertas = new AlertasStock(productoRepository, nivelGeneral);
+        // Primero el inventario: revisar dos veces un producto no cambia el resultado, perder un cambio sí
+        inventario.agregarOyente(alertas::revisar);
+        productoRepository.suscribir(alertas).forEach(alertas::revisar);
+        return alertas;
+    }
+
+    /**
+     * Registra un suscriptor de alertas y retorna, de forma atómica con el registro,
+     * los productos que tienen stock bajo en ese momento.
+     * Las alertas llegan en el hilo que cambió el stock, que puede no ser el hilo de JavaFX.
+     *
+     * @param oyente acción que recibe cada alerta.
+     * @return alertas activas antes de la suscripción.
+     */
+    public synchronized List<Alerta> suscribir(Consumer<Alerta> oyente) {
+        oyentes.add(oyente);
+        return new ArrayList<>(activas.values());
+    }
+
+    /**
+     * @return productos con stock bajo, sin orden particular.
+     */
+    public List<Alerta> getActivas() {
+        return new ArrayList<>(activas.values());
+    }
+
+    /**
+     * Revisa el stock de un producto contra su nivel de reposición.
+     *
+     * @param producto producto cuyo stock pudo cambiar.
+     */
+    public void revisar(Producto producto) {
+        if (producto.getCantidad() <= nivel(producto) || activas.containsKey(producto.getId())) {
+            actualizar(producto);
+        }
+    }
+
+    /**
+     * Fija el nivel de reposición de un producto, que tiene prioridad sobre el de su categoría.
+     *
+     * @param idProducto identificador del producto.
+     * @param nivel      cantidad a partir de la cual se alerta.
+     */
+    public void fijarNivelProducto(long idProducto, int nivel) {
+        nivelesPorProducto.put(idProducto, validarNivel(nivel));
+        productoRepository.buscarProductoPorId(idProducto).ifPresent(this::revisar);
+    }
+
+    /**
+     * Quita el nivel propio de un producto, que vuelve a usar el de su categoría o el general.
+     *
+     * @param idProducto identificador del producto.
+     */
+    public void quitarNivelProducto(long idProducto) {
+        nivelesPorProducto.remove(idProducto);
+        productoRepository.buscarProductoPorId(idProducto).ifPresent(this::revisar);
+    }
+
+    /**
+     * Fija el nivel de reposición de una categoría y revisa sus productos.
+     *
+     * @param categoria nombre de la categoría.
+     * @param nivel     cantidad a partir de la cual se alerta.
+     */
+    public void fijarNivelCategoria(String categoria, int nivel) {
+        nivelesPorCategoria.put(categoria, validarNivel(nivel));
+        revisarCategoria(categoria);
+    }
+
+    /**
+     * Quita el nivel de una categoría, cuyos productos vuelven a usar el nivel general.
+     *
+     * @param categoria nombre de la categoría.
+     */
+    public void quitarNivelCategoria(String categoria) {
+        nivelesPorCategoria.remove(categoria);
+        revisarCategoria(categoria);
+    }
+
+    /**
+     * Fija el nivel de los productos sin nivel propio ni de categoría y revisa el catálogo.
+     *
+     * @param nivel cantidad a partir de la cual se alerta.
+     */
+    public void fijarNivelGeneral(int nivel) {
+        nivelGeneral = validarNivel(nivel);
+        productoRepository.listarProductos().forEach(this::revisar);
+    }
+
+    /**
+     * @param producto producto a consultar.
+     * @return nivel de reposición que se aplica al producto.
+     */
+    public int nivel(Producto producto) {
+        // Sin niveles propios ni por categoría, la venta no busca en las tablas
+        if (!nivelesPorProducto.isEmpty()) {
+            Integer nivel = nivelesPorProducto.get(producto.getId());
+            if (nivel != null) {
+                return nivel;
+            }
+        }
+        if (!nivelesPorCategoria.isEmpty() && producto.getCategoria() != null) {
+            Integer nivel = nivelesPorCategoria.get(producto.getCategoria());
+            if (nivel != null) {
+                return nivel;
+            }
+        }
+        return nivelGeneral;
+    }
+
+    @Override
+    public void alAgregar(List<Producto> agregados) {
+        agregados.forEach(this::revisar);
+    }
+
+    @Override
+    public void alActualizar(Producto actualizado) {
+        revisar(actualizado);
+    }
+
+    @Override
+    public synchronized void alEliminar(Producto eliminado) {
+        nivelesPorProducto.remove(eliminado.getId());
+        Alerta anterior = activas.remove(eliminado.getId());
+        if (anterior != null) {
+            publicar(new Alerta(eliminado.getId(), eliminado.getNombre(), eliminado.getCantidad(),
+                    anterior.nivel(), Alerta.Tipo.RESUELTA));
+        }
+    }
+
+    private void revisarCategoria(String categoria) {
+        for (Producto producto : productoRepository.listarProductos()) {
+            if (categoria.equals(producto.getCategoria())) {
+                revisar(producto);
+            }
+        }
+    }
+
+    /**
+     * Vuelve a leer el stock con el candado tomado: el último cambio de un producto siempre
+     * deja su estado final en la lista, aunque las revisiones de dos hilos se crucen.
+     */
+    private synchronized void actualizar(Producto producto) {
+        int nivel = nivel(producto);
+        int cantidad = producto.getCantidad();
+        Alerta anterior = activas.get(producto.getId());
+        Alerta alerta;
+        if (cantidad <= nivel) {
+            if (anterior != null && anterior.cantidad() == cantidad && anterior.nivel() == nivel) {
+                return;
+            }
+            alerta = new Alerta(producto.getId(), producto.getNombre(), cantidad, nivel,
+                    anterior == null ? Alerta.Tipo.ACTIVADA : Alerta.Tipo.ACTUALIZADA);
+            activas.put(producto.getId(), alerta);
+        } else if (anterior != null) {
+            alerta = new Alerta(producto.getId(), producto.getNombre(), cantidad, nivel, Alerta.Tipo.RESUELTA);
+            activas.remove(producto.getId());
+        } else {
+            return;
+        }
+        publicar(alerta);
+    }
+
+    private void publicar(Alerta alerta) {
+        for (Consumer<Alerta> oyente : oyentes) {
+            oyente.accept(alerta);
+        }
+    }
+
+    private static int validarNivel(int nivel) {
+        if (nivel < 0) {
+            throw new IllegalArgumentException("El nivel de reposición no puede ser negativo");
+        }
+        return nivel;
+    }
+
+    /**
+     * Cambio en la lista de productos con stock bajo.
+     *
+     * @param idProducto identificador del producto.
+     * @param nombre     nombre del producto.
+     * @param cantidad   stock del producto al publicar la alerta.
+     * @param nivel      nivel de reposición aplicado.
+     * @param tipo       si el producto entra, sigue o sale de la lista.
+     */
+    public record Alerta(long idProducto, String nombre, int cantidad, int nivel, Tipo tipo) {
+        public enum Tipo {
+            /** El producto bajó a su nivel de reposición. */
+            ACTIVADA,
+            /** El producto sigue con stock bajo, con otra cantidad o nivel. */
+            ACTUALIZADA,
+            /** El producto se repuso, cambió su nivel o se eliminó. */
+            RESUELTA
+        }
+    }
+}
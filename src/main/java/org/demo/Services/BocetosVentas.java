@@ -0,0 +1,316 @@
+package org.demo.Services;
+
+import org.demo.Models.Venta;
+import org.demo.Repositories.OyenteRepositorio;
+import org.demo.Repositories.Repositorios;
+import org.demo.Repositories.VentaRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Estadísticas aproximadas de las ventas en memoria fija por grupo: clientes distintos por
+ * producto y por periodo ({@link HyperLogLog}) y productos más vendidos por periodo y en total
+ * ({@link MasVendidos}).
+ *
+ * <p>Se suscribe al repositorio de ventas y actualiza sus estimaciones con cada venta nueva.
+ * Las estimaciones se guardan por día durante los últimos {@link Configuracion#diasDetallados()}
+ * días (contados desde el día más reciente con ventas); los días más viejos se combinan en la
+ * estimación de su mes, de modo que la memoria crece con los meses y no con los días. Las
+ * estimaciones de los periodos se combinan para responder por cualquier rango de fechas, sin
+ * contar dos veces a un cliente que compró en varios periodos. En las fechas ya compactadas la
+ * resolución es el mes: un rango que toca un día de un mes compactado incluye el mes completo.
+ * La precisión y el tamaño de cada estimación se eligen con {@link Configuracion}.</p>
+ *
+ * <p>Las actualizaciones y consultas se sincronizan sobre la instancia.</p>
+ */
+public final class BocetosVentas implements OyenteRepositorio<Venta> {
+    private final Configuracion configuracion;
+    private final TreeMap<Long, Periodo> dias;
+    private final TreeMap<Long, Periodo> meses;
+    private final MasVendidos masVendidos;
+
+    private BocetosVentas(Configuracion configuracion) {
+        this.configuracion = configuracion;
+        this.dias = new TreeMap<>();
+        this.meses = new TreeMap<>();
+        this.masVendidos = configuracion.crearMasVendidos();
+    }
+
+    private static class Contenedor {
+        static final BocetosVentas INSTANCIA = crear(Repositorios.ventas(), Configuracion.desdePropiedades());
+    }
+
+    /**
+     * Devuelve la instancia única, suscrita al repositorio de ventas de la aplicación y
+     * configurada con las propiedades del sistema.
+     *
+     * @return instancia única de {@code BocetosVentas}.
+     */
+    public static BocetosVentas getInstancia() {
+        return Contenedor.INSTANCIA;
+    }
+
+    /**
+     * Crea las estimaciones de un repositorio de ventas, sumando las ventas existentes
+     * y suscribiéndose a las nuevas de forma atómica con la entrega, por páginas, de las existentes.
+     *
+     * @param ventaRepository repositorio de ventas a estimar.
+     * @param configuracion   precisión y tamaño de las estimaciones.
+     * @return estimaciones suscritas al repositorio.
+     */
+    static BocetosVentas crear(VentaRepository ventaRepository, Configuracion configuracion) {
+        BocetosVentas bocetos = new BocetosVentas(configuracion);
+        ventaRepository.suscribir(bocetos);
+        return bocetos;
+    }
+
+    @Override
+    public synchronized void alAgregar(List<Venta> agregadas) {
+        for (Venta venta : agregadas) {
+            long idCliente = venta.getCliente().getId();
+            long idProducto = venta.getProducto().getId();
+            String nombre = venta.getProducto().getNombre();
+            LocalDate fecha = venta.getFecha().toLocalDate();
+
+            Periodo periodo = dias.isEmpty() || fecha.toEpochDay() >= primerDiaDetallado(dias.lastKey())
+                    ? dias.computeIfAbsent(fecha.toEpochDay(), d -> new Periodo(configuracion))
+                    : meses.computeIfAbsent(mes(fecha), m -> new Periodo(configuracion));
+            periodo.sumar(idCliente, idProducto, nombre, venta.getCantidad(), configuracion);
+            masVendidos.sumar(idProducto, nombre, venta.getCantidad());
+        }
+        compactar();
+    }
+
+    /**
+     * @param idProducto identificador del producto.
+     * @return cantidad estimada de clientes distintos que han comprado el producto.
+     */
+    public synchronized long clientesDistintosPorProducto(long idProducto) {
+        HyperLogLog union = new HyperLogLog(configuracion.precisionPorProducto());
+        for (Map<Long, Periodo> periodos : List.of(meses, dias)) {
+            for (Periodo periodo : periodos.values()) {
+                periodo.combinarClientesDe(idProducto, union);
+            }
+        }
+        return union.estimar();
+    }
+
+    /**
+     * @param idProducto identificador del producto.
+     * @param desde      primer día (incluido).
+     * @param hasta      último día (incluido).
+     * @return cantidad estimada de clientes distintos que compraron el producto en esos días.
+     */
+    public synchronized long clientesDistintosPorProductoEntre(long idProducto, LocalDate desde, LocalDate hasta) {
+        HyperLogLog union = new HyperLogLog(configuracion.precisionPorProducto());
+        for (Periodo periodo : rango(desde, hasta)) {
+            periodo.combinarClientesDe(idProducto, union);
+        }
+        return union.estimar();
+    }
+
+    /**
+     * @param desde primer día (incluido).
+     * @param hasta último día (incluido).
+     * @return cantidad estimada de clientes distintos que compraron en esos días.
+     */
+    public synchronized long clientesDistintosEntre(LocalDate desde, LocalDate hasta) {
+        HyperLogLog union = new HyperLogLog(configuracion.precisionPorDia());
+        for (Periodo periodo : rango(desde, hasta)) {
+            union.combinar(periodo.clientes);
+        }
+        return union.estimar();
+    }
+
+    /**
+     * @return los productos con más unidades vendidas estimadas, de mayor a menor.
+     */
+    public synchronized List<Ranking.Posicion> masVendidos() {
+        return masVendidos.listar();
+    }
+
+    /**
+     * @param desde primer día (incluido).
+     * @param hasta último día (incluido).
+     * @return los productos con más unidades vendidas estimadas en esos días, de mayor a menor.
+     */
+    public synchronized List<Ranking.Posicion> masVendidosEntre(LocalDate desde, LocalDate hasta) {
+        return combinarPeriodos(desde, hasta).listar();
+    }
+
+    /**
+     * @param idProducto identificador del producto.
+     * @param desde      primer día (incluido).
+     * @param hasta      último día (incluido).
+     * @return unidades vendidas estimadas del producto en esos días, nunca menos que las reales.
+     */
+    public synchronized long unidadesEstimadasEntre(long idProducto, LocalDate desde, LocalDate hasta) {
+        return combinarPeriodos(desde, hasta).estimar(idProducto);
+    }
+
+    /**
+     * @return cantidad de días con estimaciones propias y de meses compactados, en ese orden.
+     */
+    synchronized int[] contarPeriodos() {
+        return new int[]{dias.size(), meses.size()};
+    }
+
+    /**
+     * Combina en su mes los días anteriores a la ventana de días detallados.
+     */
+    private void compactar() {
+        if (dias.isEmpty()) {
+            return;
+        }
+        long primerDia = primerDiaDetallado(dias.lastKey());
+        Map<Long, Periodo> viejos = dias.headMap(primerDia, false);
+        for (Map.Entry<Long, Periodo> dia : viejos.entrySet()) {
+            long mes = mes(LocalDate.ofEpochDay(dia.getKey()));
+            Periodo acumulado = meses.get(mes);
+            if (acumulado == null) {
+                meses.put(mes, dia.getValue());
+            } else {
+                acumulado.combinar(dia.getValue());
+            }
+        }
+        viejos.clear();
+    }
+
+    private long primerDiaDetallado(long ultimoDia) {
+        return ultimoDia - configuracion.diasDetallados() + 1;
+    }
+
+    private MasVendidos combinarPeriodos(LocalDate desde, LocalDate hasta) {
+        MasVendidos union = configuracion.crearMasVendidos();
+        for (Periodo periodo : rango(desde, hasta)) {
+            union.combinar(periodo.masVendidos);
+        }
+        return union;
+    }
+
+    /**
+     * Periodos que tocan el rango: los meses compactados que contienen alguno de sus días
+     * y los días detallados dentro de él.
+     */
+    private List<Periodo> rango(LocalDate desde, LocalDate hasta) {
+        if (hasta.isBefore(desde)) {
+            return List.of();
+        }
+        List<Periodo> periodos = new ArrayList<>(meses.subMap(mes(desde), true, mes(hasta), true).values());
+        periodos.addAll(dias.subMap(desde.toEpochDay(), true, hasta.toEpochDay(), true).values());
+        return periodos;
+    }
+
+    private static long mes(LocalDate fecha) {
+        return fecha.getYear() * 12L + fecha.getMonthValue() - 1;
+    }
+
+    /**
+     * Estimaciones de las ventas de un día o de un mes compactado. Los clientes por producto
+     * se guardan por periodo para poder combinarlos en cualquier rango de fechas.
+     */
+    private static final class Periodo {
+        final HyperLogLog clientes;
+        final MasVendidos masVendidos;
+        final Map<Long, HyperLogLog> clientesPorProducto;
+
+        Periodo(Configuracion configuracion) {
+            clientes = new HyperLogLog(configuracion.precisionPorDia());
+            masVendidos = configuracion.crearMasVendidos();
+            clientesPorProducto = new HashMap<>();
+        }
+
+        void sumar(long idCliente, long idProducto, String nombre, int cantidad, Configuracion configuracion) {
+            clientes.agregar(idCliente);
+            masVendidos.sumar(idProducto, nombre, cantidad);
+            clientesPorProducto.computeIfAbsent(idProducto,
+                    id -> new HyperLogLog(configuracion.precisionPorProducto())).agregar(idCliente);
+        }
+
+        void combinarClientesDe(long idProducto, HyperLogLog union) {
+            HyperLogLog propios = clientesPorProducto.get(idProducto);
+            if (propios != null) {
+                union.combinar(propios);
+            }
+        }
+
+        void combinar(Periodo otro) {
+            clientes.combinar(otro.clientes);
+            masVendidos.combinar(otro.masVendidos);
+            otro.clientesPorProducto.forEach((idProducto, otros) -> {
+                HyperLogLog propios = clientesPorProducto.get(idProducto);
+                if (propios == null) {
+                    clientesPorProducto.put(idProducto, otros);
+                } else {
+                    propios.combinar(otros);
+                }
+            });
+        }
+    }
+
+    /**
+     * Precisión y tamaño de las estimaciones. Más precisión ocupa más memoria por grupo.
+     *
+     * @param precisionPorProducto bits de {@link HyperLogLog} por producto: {@code 2^p} bytes y
+     *                             error cercano a {@code 1.04 / sqrt(2^p)}.
+     * @param precisionPorDia      bits de {@link HyperLogLog} por día.
+     * @param error                error de las unidades estimadas, relativo a las unidades del periodo.
+     * @param probabilidadFallo    probabilidad de que una estimación de unidades supere ese error.
+     * @param tamanoMasVendidos    cantidad de productos más vendidos a mantener.
+     * @param diasDetallados       días recientes que se guardan por separado antes de compactarse en su mes.
+     */
+    public record Configuracion(int precisionPorProducto, int precisionPorDia, double error,
+                                double probabilidadFallo, int tamanoMasVendidos, int diasDetallados) {
+        public static final String PROPIEDAD_PRECISION_PRODUCTO = "ventas.bocetos.precision.producto";
+        public static final String PROPIEDAD_PRECISION_DIA = "ventas.bocetos.precision.dia";
+        public static final String PROPIEDAD_ERROR = "ventas.bocetos.error";
+        public static final String PROPIEDAD_FALLO = "ventas.bocetos.fallo";
+        public static final String PROPIEDAD_MAS_VENDIDOS = "ventas.bocetos.masvendidos";
+        public static final String PROPIEDAD_DIAS_DETALLADOS = "ventas.bocetos.dias";
+
+        public Configuracion {
+            if (precisionPorProducto < HyperLogLog.PRECISION_MINIMA || precisionPorProducto > HyperLogLog.PRECISION_MAXIMA
+                    || precisionPorDia < HyperLogLog.PRECISION_MINIMA || precisionPorDia > HyperLogLog.PRECISION_MAXIMA) {
+                throw new IllegalArgumentException("La precisión debe estar entre " + HyperLogLog.PRECISION_MINIMA
+                        + " y " + HyperLogLog.PRECISION_MAXIMA);
+            }
+            if (!(error > 0 && error < 1) || !(probabilidadFallo > 0 && probabilidadFallo < 1)) {
+                throw new IllegalArgumentException("El error y la probabilidad de fallo deben estar entre 0 y 1");
+            }
+            if (tamanoMasVendidos <= 0) {
+                throw new IllegalArgumentException("La cantidad de productos más vendidos debe ser positiva");
+            }
+            if (diasDetallados <= 0) {
+                throw new IllegalArgumentException("La cantidad de días detallados debe ser positiva");
+            }
+        }
+
+        /**
+         * Lee la configuración de las propiedades del sistema. Sin propiedades: 256 bytes por
+         * producto (error cercano a 6,5 %), 2 KiB por día (2,3 %), unidades con error de 0,2 % del
+         * periodo en el 98 % de los casos (42,5 KiB por periodo), 20 productos más vendidos y
+         * 90 días detallados; con ventas durante diez años quedan unos 210 periodos (cerca de 9 MiB
+         * más 256 bytes por producto vendido en cada periodo) en lugar de 3.650 días.
+         *
+         * @return configuración leída.
+         */
+        public static Configuracion desdePropiedades() {
+            return new Configuracion(
+                    Integer.getInteger(PROPIEDAD_PRECISION_PRODUCTO, 8),
+                    Integer.getInteger(PROPIEDAD_PRECISION_DIA, 11),
+                    Double.parseDouble(System.getProperty(PROPIEDAD_ERROR, "0.002")),
+                    Double.parseDouble(System.getProperty(PROPIEDAD_FALLO, "0.02")),
+                    Integer.getInteger(PROPIEDAD_MAS_VENDIDOS, 20),
+                    Integer.getInteger(PROPIEDAD_DIAS_DETALLADOS, 90));
+        }
+
+        private MasVendidos crearMasVendidos() {
+            return new MasVendidos(tamanoMasVendidos, error, probabilidadFallo);
+        }
+    }
+}
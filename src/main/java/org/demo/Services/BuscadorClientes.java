@@ -0,0 +1,412 @@
+package org.demo.Services;
+
+import org.demo.Models.Cliente;
+import org.demo.Repositories.ClienteRepository;
+import org.demo.Repositories.OyenteRepositorio;
+import org.demo.Repositories.Repositorios;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * Búsqueda aproximada de clientes por nombre, documento, correo y teléfono, sin importar tildes,
+ * mayúsculas ni signos: "simon bolivar" encuentra a "Simón Bolívar" y "simn bolivr" también.
+ *
+ * <p>Los campos de cada cliente se pliegan a minúsculas sin tildes y se parten en palabras, y el
+ * índice guarda para cada trigrama (tres caracteres seguidos, contando el espacio que antecede a
+ * cada palabra) la lista de clientes que lo contienen. Una consulta se parte igual y cada cliente
+ * vale tantos votos como trigramas de la consulta contiene; pasan los que reúnen al menos
+ * {@value #PORCENTAJE_MINIMO}% de ellos, lo que tolera un par de letras de más, de menos o
+ * cambiadas. Como el espacio inicial forma parte del primer trigrama de cada palabra, una palabra
+ * a medio escribir ya encuentra las que empiezan igual.</p>
+ *
+ * <p>Los candidatos salen de las listas menos frecuentes de la consulta, las únicas en las que
+ * tiene que aparecer quien alcance el mínimo de votos; las listas muy frecuentes (como las de
+ * "gmail") no se recorren y solo se comprueban en el texto de esos candidatos. Se ordenan por votos,
+ * luego los que contienen cada palabra de la consulta tal cual y luego los de texto más corto.</p>
+ *
+ * <p>Con un millón de clientes, la mediana de cada letra escrita queda por debajo de 10 ms en
+ * {@code BuscadorClientesBenchmark}; las palabras que comparte una gran parte de los clientes
+ * (como el dominio de un correo) rondan ese límite, porque sus listas se recorren completas.</p>
+ *
+ * <p>Se mantiene al día con los cambios del repositorio de clientes. Cada cliente guarda su texto
+ * plegado, porque el repositorio avisa las actualizaciones con el cliente ya modificado y hay que
+ * retirar los trigramas anteriores. Las actualizaciones y búsquedas se sincronizan sobre la
+ * instancia.</p>
+ */
+public final class BuscadorClientes implements OyenteRepositorio<Cliente> {
+    static final int PORCENTAJE_MINIMO = 60;
+    // Letras, dígitos, espacio y cualquier otro carácter
+    private static final int SIMBOLOS = 38;
+    private static final int OTRO = 37;
+    // Comprobar un trigrama en el texto de un candidato cuesta lo que recorrer unas cuantas entradas de una lista
+    private static final int COSTO_COMPROBAR = 16;
+
+    private final Map<Long, Integer> posiciones;
+    private Cliente[] clientes;
+    private byte[][] textos;
+    // Largo de cada texto plegado, para descartar candidatos sin leer su texto
+    private int[] largosTexto;
+    private int[] libres;
+    private int cantidadLibres;
+    private int siguiente;
+    private final int[][] listas;
+    private final int[] largos;
+    // Votos por posición durante una búsqueda; se dejan en cero al terminar
+    private int[] votos;
+    // Posiciones con algún voto durante una búsqueda; se conserva entre búsquedas para no reservarlo en cada letra
+    private int[] candidatos;
+
+    private BuscadorClientes() {
+        this.posiciones = new HashMap<>();
+        this.clientes = new Cliente[256];
+        this.textos = new byte[256][];
+        this.largosTexto = new int[256];
+        this.libres = new int[16];
+        this.listas = new int[SIMBOLOS * SIMBOLOS * SIMBOLOS][];
+        this.largos = new int[listas.length];
+        this.votos = new int[256];
+        this.candidatos = new int[256];
+    }
+
+    private static class Contenedor {
+        static final BuscadorClientes INSTANCIA = crear(Repositorios.clientes());
+    }
+
+    /**
+     * Devuelve la instancia única, suscrita al repositorio de clientes de la aplicación.
+     *
+     * @return instancia única de {@code BuscadorClientes}.
+     */
+    public static BuscadorClientes getInstancia() {
+        return Contenedor.INSTANCIA;
+    }
+
+    /**
+     * Crea el índice con los clientes existentes, suscribiéndose a los cambios del repositorio.
+     *
+     * @param clienteRepository repositorio de clientes a indexar.
+     * @return índice suscrito al repositorio.
+     */
+    static BuscadorClientes crear(ClienteRepository clienteRepository) {
+        BuscadorClientes buscador = new BuscadorClientes();
+        buscador.alAgregar(clienteRepository.suscribir(buscador));
+        return buscador;
+    }
+
+    @Override
+    public synchronized void alAgregar(List<Cliente> agregados) {
+        for (Cliente cliente : agregados) {
+            indexar(cliente);
+        }
+    }
+
+    @Override
+    public synchronized void alActualizar(Cliente actualizado) {
+        indexar(actualizado);
+    }
+
+    @Override
+    public synchronized void alEliminar(Cliente eliminado) {
+        Integer posicion = posiciones.remove(eliminado.getId());
+        if (posicion == null) {
+            return;
+        }
+        quitarTrigramas(posicion);
+        clientes[posicion] = null;
+        textos[posicion] = null;
+        if (cantidadLibres == libres.length) {
+            libres = Arrays.copyOf(libres, cantidadLibres * 2);
+        }
+        libres[cantidadLibres++] = posicion;
+    }
+
+    /**
+     * Busca los clientes que más se parecen a la consulta.
+     *
+     * @param consulta texto escrito por el usuario; se ignoran tildes, mayúsculas y signos.
+     * @param limite   cantidad máxima de clientes a retornar.
+     * @return clientes encontrados, del más parecido al menos parecido; vacía si la consulta
+     *         no tiene al menos dos letras o dígitos seguidos.
+     */
+    public synchronized List<Cliente> buscar(String consulta, int limite) {
+        if (limite <= 0) {
+            throw new IllegalArgumentException("El límite debe ser mayor a cero");
+        }
+        byte[] texto = plegar(consulta);
+        int[] trigramas = trigramas(texto);
+        if (trigramas.length == 0) {
+            return new ArrayList<>();
+        }
+        byte[][] palabras = palabras(texto);
+
+        // Las listas más cortas primero: quien alcance el mínimo de votos aparece en alguna de las primeras
+        Integer[] orden = new Integer[trigramas.length];
+        for (int i = 0; i < orden.length; i++) {
+            orden[i] = trigramas[i];
+        }
+        Arrays.sort(orden, Comparator.comparingInt(trigrama -> largos[trigrama]));
+        int minimo = Math.max(1, (trigramas.length * PORCENTAJE_MINIMO + 99) / 100);
+        int generadoras = trigramas.length - minimo + 1;
+
+        int cantidadCandidatos = 0;
+        for (int i = 0; i < generadoras; i++) {
+            int[] lista = listas[orden[i]];
+            for (int j = 0, largo = largos[orden[i]]; j < largo; j++) {
+                int posicion = lista[j];
+                if (votos[posicion]++ == 0) {
+                    if (cantidadCandidatos == candidatos.length) {
+                        candidatos = Arrays.copyOf(candidatos, cantidadCandidatos * 2);
+                    }
+                    candidatos[cantidadCandidatos++] = posicion;
+                }
+            }
+        }
+        for (int i = generadoras; i < orden.length; i++) {
+            int trigrama = orden[i];
+            if ((long) cantidadCandidatos * COSTO_COMPROBAR < largos[trigrama]) {
+                for (int j = 0; j < cantidadCandidatos; j++) {
+                    if (contiene(textos[candidatos[j]], trigrama)) {
+                        votos[candidatos[j]]++;
+                    }
+                }
+            } else {
+                int[] lista = listas[trigrama];
+                for (int j = 0, largo = largos[trigrama]; j < largo; j++) {
+                    if (votos[lista[j]] > 0) {
+                        votos[lista[j]]++;
+                    }
+                }
+            }
+        }
+
+        // Los peores de los mejores quedan en la cabeza, para descartarlos al llegar uno mejor
+        PriorityQueue<Coincidencia> mejores = new PriorityQueue<>(limite + 1, Coincidencia.ORDEN.reversed());
+        for (int i = 0; i < cantidadCandidatos; i++) {
+            int posicion = candidatos[i];
+            int puntaje = votos[posicion];
+            votos[posicion] = 0;
+            if (puntaje < minimo) {
+                continue;
+            }
+            int largo = largosTexto[posicion];
+            Coincidencia peor = mejores.size() < limite ? null : mejores.peek();
+            // Descarta sin revisar las palabras a quien no puede superar al peor de los mejores
+            if (peor != null && (puntaje < peor.votos()
+                    || (puntaje == peor.votos() && peor.exacta() && largo >= peor.largo()))) {
+                continue;
+            }
+            Coincidencia coincidencia = new Coincidencia(posicion, puntaje,
+                    puntaje == trigramas.length && contieneTodas(textos[posicion], palabras), largo);
+            if (peor == null) {
+                mejores.add(coincidencia);
+            } else if (Coincidencia.ORDEN.compare(coincidencia, peor) < 0) {
+                mejores.poll();
+                mejores.add(coincidencia);
+            }
+        }
+        List<Coincidencia> ordenadas = new ArrayList<>(mejores);
+        ordenadas.sort(Coincidencia.ORDEN);
+        List<Cliente> encontrados = new ArrayList<>(ordenadas.size());
+        for (Coincidencia coincidencia : ordenadas) {
+            encontrados.add(clientes[coincidencia.posicion()]);
+        }
+        return encontrados;
+    }
+
+    /**
+     * Indexa un cliente nuevo o vuelve a indexar uno existente con sus datos actuales.
+     * Debe llamarse con el candado de la instancia tomado.
+     */
+    private void indexar(Cliente cliente) {
+        Integer existente = posiciones.get(cliente.getId());
+        int posicion;
+        if (existente != null) {
+            posicion = existente;
+            quitarTrigramas(posicion);
+        } else {
+            posicion = cantidadLibres > 0 ? libres[--cantidadLibres] : siguiente++;
+            if (posicion == clientes.length) {
+                clientes = Arrays.copyOf(clientes, clientes.length * 2);
+                textos = Arrays.copyOf(textos, textos.length * 2);
+                largosTexto = Arrays.copyOf(largosTexto, largosTexto.length * 2);
+                votos = new int[clientes.length];
+            }
+            posiciones.put(cliente.getId(), posicion);
+        }
+        byte[] texto = plegar(Objects.toString(cliente.getNombre(), "") + ' '
+                + Objects.toString(cliente.getDocumento(), "") + ' '
+                + Objects.toString(cliente.getCorreo(), "") + ' '
+                + Objects.toString(cliente.getTelefono(), ""));
+        clientes[posicion] = cliente;
+        textos[posicion] = texto;
+        largosTexto[posicion] = texto.length;
+        for (int trigrama : trigramas(texto)) {
+            int[] lista = listas[trigrama];
+            if (lista == null) {
+                lista = new int[4];
+            } else if (largos[trigrama] == lista.length) {
+                lista = Arrays.copyOf(lista, lista.length * 2);
+            }
+            lista[largos[trigrama]++] = posicion;
+            listas[trigrama] = lista;
+        }
+    }
+
+    /**
+     * Retira una posición de las listas de sus trigramas. Las listas no están ordenadas: la
+     * posición se reemplaza por la última de la lista.
+     */
+    private void quitarTrigramas(int posicion) {
+        for (int trigrama : trigramas(textos[posicion])) {
+            int[] lista = listas[trigrama];
+            int largo = largos[trigrama];
+            for (int i = 0; i < largo; i++) {
+                if (lista[i] == posicion) {
+                    lista[i] = lista[largo - 1];
+                    largos[trigrama] = largo - 1;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Pliega un texto a letras minúsculas sin tildes y dígitos, con cada palabra precedida por
+     * un espacio. Los signos (como los de un correo) separan palabras.
+     */
+    static byte[] plegar(String texto) {
+        String descompuesto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        byte[] plegado = new byte[descompuesto.length() + 1];
+        int largo = 0;
+        boolean enPalabra = false;
+        for (int i = 0; i < descompuesto.length(); i++) {
+            char c = descompuesto.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            c = Character.toLowerCase(c);
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                if (!enPalabra) {
+                    plegado[largo++] = ' ';
+                    enPalabra = true;
+                }
+                plegado[largo++] = (byte) c;
+            } else if (Character.isLetterOrDigit(c)) {
+                // Letras de otros alfabetos: cuentan como parte de la palabra con un mismo símbolo
+                if (!enPalabra) {
+                    plegado[largo++] = ' ';
+                    enPalabra = true;
+                }
+                plegado[largo++] = '_';
+            } else {
+                enPalabra = false;
+            }
+        }
+        return Arrays.copyOf(plegado, largo);
+    }
+
+    /**
+     * @return códigos de los trigramas distintos del texto plegado, sin los que cruzan de una
+     *         palabra a la siguiente.
+     */
+    private static int[] trigramas(byte[] texto) {
+        int[] codigos = new int[Math.max(0, texto.length - 2)];
+        int cantidad = 0;
+        for (int i = 0; i + 2 < texto.length; i++) {
+            if (texto[i + 1] != ' ' && texto[i + 2] != ' ') {
+                codigos[cantidad++] = codigo(texto[i], texto[i + 1], texto[i + 2]);
+            }
+        }
+        Arrays.sort(codigos, 0, cantidad);
+        int distintos = 0;
+        for (int i = 0; i < cantidad; i++) {
+            if (distintos == 0 || codigos[distintos - 1] != codigos[i]) {
+                codigos[distintos++] = codigos[i];
+            }
+        }
+        return Arrays.copyOf(codigos, distintos);
+    }
+
+    private static int codigo(byte a, byte b, byte c) {
+        return (simbolo(a) * SIMBOLOS + simbolo(b)) * SIMBOLOS + simbolo(c);
+    }
+
+    private static int simbolo(byte c) {
+        if (c == ' ') {
+            return 0;
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 1;
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 27;
+        }
+        return OTRO;
+    }
+
+    private static boolean contiene(byte[] texto, int trigrama) {
+        for (int i = 0; i + 2 < texto.length; i++) {
+            if (codigo(texto[i], texto[i + 1], texto[i + 2]) == trigrama) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[][] palabras(byte[] texto) {
+        List<byte[]> palabras = new ArrayList<>();
+        int inicio = 0;
+        for (int i = 1; i <= texto.length; i++) {
+            if (i == texto.length || texto[i] == ' ') {
+                palabras.add(Arrays.copyOfRange(texto, inicio, i));
+                inicio = i;
+            }
+        }
+        return palabras.toArray(new byte[0][]);
+    }
+
+    /**
+     * @return si el texto contiene cada palabra, con su espacio inicial, es decir, como inicio
+     *         de alguna de sus palabras.
+     */
+    private static boolean contieneTodas(byte[] texto, byte[][] palabras) {
+        for (byte[] palabra : palabras) {
+            if (!contiene(texto, palabra)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contiene(byte[] texto, byte[] palabra) {
+        for (int i = 0; i + palabra.length <= texto.length; i++) {
+            if (texto[i] == ' ' && Arrays.equals(texto, i, i + palabra.length, palabra, 0, palabra.length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cliente candidato con su puntaje.
+     *
+     * @param posicion posición del cliente en el índice.
+     * @param votos    trigramas de la consulta que contiene.
+     * @param exacta   si contiene todas las palabras de la consulta como inicio de sus palabras.
+     * @param largo    largo de su texto plegado.
+     */
+    private record Coincidencia(int posicion, int votos, boolean exacta, int largo) {
+        static final Comparator<Coincidencia> ORDEN = Comparator.comparingInt(Coincidencia::votos).reversed()
+                .thenComparing(Coincidencia::exacta, Comparator.reverseOrder())
+                .thenComparingInt(Coincidencia::largo)
+                .thenComparingInt(Coincidencia::posicion);
+    }
+}
@@ -0,0 +1,421 @@
+package org.demo.Services;
+
+import org.demo.Models.Cliente;
+import org.demo.Models.Producto;
+import org.demo.Models.Venta;
+import org.demo.Repositories.ClienteRepository;
+import org.demo.Repositories.OyenteRepositorio;
+import org.demo.Repositories.ProductoRepository;
+import org.demo.Repositories.Repositorios;
+import org.demo.Repositories.VentaRepository;
+import org.demo.Repositories.VentasColumnares.FiltroVentas;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Caché de consultas de ventas, productos, clientes y reportes, con capacidad fija y desalojo
+ * del resultado usado hace más tiempo (LRU).
+ *
+ * <p>Cada resultado recuerda de qué depende: las ventas que cumplen un {@link FiltroVentas}
+ * (producto, cliente y rango de fechas), un producto o cliente del catálogo, o el catálogo
+ * completo. Se suscribe a los repositorios y, con cada venta nueva, descarta solo los
+ * resultados cuyo filtro acepta esa venta; con cada cambio de un producto o cliente, solo los
+ * que dependen de él. Los resultados se buscan por índices de producto y de cliente; solo los
+ * que dependen de un rango de fechas sin producto ni cliente se revisan uno por uno.</p>
+ *
+ * <p>Las consultas se ejecutan fuera del candado. Si el resultado se invalida mientras se
+ * calcula, se retorna pero no se guarda.</p>
+ *
+ * <p>La capacidad se configura con la propiedad del sistema {@code ventas.cache.entradas}.</p>
+ */
+public final class CacheConsultas {
+    public static final String PROPIEDAD_ENTRADAS = "ventas.cache.entradas";
+    static final int ENTRADAS_PREDETERMINADAS = 1_000;
+
+    // Indica que un resultado no depende de ningún producto o cliente del catálogo
+    private static final long NINGUNO = Long.MAX_VALUE;
+
+    private final VentaRepository ventaRepository;
+    private final ProductoRepository productoRepository;
+    private final ClienteRepository clienteRepository;
+    private final MotorReportes motorReportes;
+    private final int capacidad;
+
+    private final LinkedHashMap<Object, Entrada> entradas;
+    private final Map<Long, Set<Entrada>> ventasPorProducto = new HashMap<>();
+    private final Map<Long, Set<Entrada>> ventasPorCliente = new HashMap<>();
+    private final Set<Entrada> ventasPorRango = new HashSet<>();
+    private final Map<Long, Set<Entrada>> catalogoPorProducto = new HashMap<>();
+    private final Map<Long, Set<Entrada>> catalogoPorCliente = new HashMap<>();
+    private final Set<Entrada> catalogoProductos = new HashSet<>();
+    private final Set<Entrada> catalogoClientes = new HashSet<>();
+
+    // Contadores modificados siempre con el candado de la instancia
+    private long aciertos;
+    private long fallos;
+    private long invalidaciones;
+    private long desalojos;
+
+    private CacheConsultas(VentaRepository ventaRepository, ProductoRepository productoRepository,
+                           ClienteRepository clienteRepository, MotorReportes motorReportes, int capacidad) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad de la caché debe ser positiva");
+        }
+        this.ventaRepository = ventaRepository;
+        this.productoRepository = productoRepository;
+        this.clienteRepository = clienteRepository;
+        this.motorReportes = motorReportes;
+        this.capacidad = capacidad;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entrada> mayor) {
+                if (size() <= CacheConsultas.this.capacidad) {
+                    return false;
+                }
+                desindexar(mayor.getValue());
+                desalojos++;
+                return true;
+            }
+        };
+    }
+
+    private static class Contenedor {
+        static final CacheConsultas INSTANCIA = crear(Repositorios.ventas(), Repositorios.productos(),
+                Repositorios.clientes(), MotorReportes.getInstancia(),
+                Integer.getInteger(PROPIEDAD_ENTRADAS, ENTRADAS_PREDETERMINADAS));
+    }
+
+    /**
+     * Devuelve la instancia única, suscrita a los repositorios de la aplicación.
+     *
+     * @return instancia única de {@code CacheConsultas}.
+     */
+    public static CacheConsultas getInstancia() {
+        return Contenedor.INSTANCIA;
+    }
+
+    /**
+     * Crea una caché vacía suscrita a los cambios de los repositorios.
+     *
+     * @param ventaRepository    repositorio de ventas consultado.
+     * @param productoRepository repositorio de productos consultado.
+     * @param clienteRepository  repositorio de clientes consultado.
+     * @param motorReportes      motor de los reportes consultados.
+     * @param capacidad          cantidad máxima de resultados guardados.
+     * @return caché suscrita.
+     */
+    static CacheConsultas crear(VentaRepository ventaRepository, ProductoRepository productoRepository,
+                                ClienteRepository clienteRepository, MotorReportes motorReportes, int capacidad) {
+        CacheConsultas cache = new CacheConsultas(ventaRepository, productoRepository, clienteRepository,
+                motorReportes, capacidad);
+        ventaRepository.contarYSuscribir(new OyenteRepositorio<>() {
+            @Override
+            public void alAgregar(List<Venta> agregadas) {
+                agregadas.forEach(cache::invalidarVenta);
+            }
+        });
+        productoRepository.contarYSuscribir(new OyenteRepositorio<>() {
+            @Override
+            public void alAgregar(List<Producto> agregados) {
+                agregados.forEach(producto -> cache.invalidarProducto(producto.getId()));
+            }
+
+            @Override
+            public void alEliminar(Producto eliminado) {
+                cache.invalidarProducto(eliminado.getId());
+            }
+
+            @Override
+            public void alActualizar(Producto actualizado) {
+                cache.invalidarProducto(actualizado.getId());
+            }
+        });
+        clienteRepository.contarYSuscribir(new OyenteRepositorio<>() {
+            @Override
+            public void alAgregar(List<Cliente> agregados) {
+                agregados.forEach(cliente -> cache.invalidarCliente(cliente.getId()));
+            }
+
+            @Override
+            public void alEliminar(Cliente eliminado) {
+                cache.invalidarCliente(eliminado.getId());
+            }
+
+            @Override
+            public void alActualizar(Cliente actualizado) {
+                cache.invalidarCliente(actualizado.getId());
+            }
+        });
+        return cache;
+    }
+
+    /**
+     * @param idCliente identificador del cliente.
+     * @return ventas del cliente, de solo lectura.
+     */
+    public List<Venta> ventasPorCliente(long idCliente) {
+        return obtener(List.of("ventasPorCliente", idCliente),
+                FiltroVentas.todas().delCliente(idCliente), NINGUNO, NINGUNO,
+                () -> List.copyOf(ventaRepository.buscarVentasPorCliente(idCliente)));
+    }
+
+    /**
+     * @param idProducto identificador del producto.
+     * @return ventas del producto, de solo lectura.
+     */
+    public List<Venta> ventasPorProducto(long idProducto) {
+        return obtener(List.of("ventasPorProducto", idProducto),
+                FiltroVentas.todas().delProducto(idProducto), NINGUNO, NINGUNO,
+                () -> List.copyOf(ventaRepository.buscarVentasPorProducto(idProducto)));
+    }
+
+    /**
+     * @param desde fecha inicial (incluida).
+     * @param hasta fecha final (incluida).
+     * @return ventas dentro del rango en orden cronológico, de solo lectura.
+     */
+    public List<Venta> ventasEntre(LocalDateTime desde, LocalDateTime hasta) {
+        return obtener(List.of("ventasEntre", desde, hasta),
+                FiltroVentas.todas().entre(desde, hasta), NINGUNO, NINGUNO,
+                () -> List.copyOf(ventaRepository.buscarVentasEntre(desde, hasta)));
+    }
+
+    /**
+     * Genera un reporte con {@link MotorReportes}. Los reportes que muestran nombres de productos,
+     * categorías o clientes dependen también del catálogo correspondiente.
+     *
+     * @param agrupacion criterio de agrupación.
+     * @param filtro     condiciones de las ventas a incluir.
+     * @return filas del reporte, de solo lectura.
+     */
+    public List<MotorReportes.FilaReporte> reporte(MotorReportes.Agrupacion agrupacion, FiltroVentas filtro) {
+        long productos = agrupacion == MotorReportes.Agrupacion.PRODUCTO
+                || agrupacion == MotorReportes.Agrupacion.CATEGORIA ? FiltroVentas.CUALQUIERA : NINGUNO;
+        long clientes = agrupacion == MotorReportes.Agrupacion.CLIENTE ? FiltroVentas.CUALQUIERA : NINGUNO;
+        return obtener(List.of("reporte", agrupacion, filtro), filtro, productos, clientes,
+                () -> List.copyOf(motorReportes.generar(agrupacion, filtro)));
+    }
+
+    /**
+     * El resultado depende del producto y de sus ventas, que cambian su stock.
+     *
+     * @param idProducto identificador del producto.
+     * @return el producto, si existe.
+     */
+    public Optional<Producto> productoPorId(long idProducto) {
+        return obtener(List.of("productoPorId", idProducto),
+                FiltroVentas.todas().delProducto(idProducto), idProducto, NINGUNO,
+                () -> productoRepository.buscarProductoPorId(idProducto));
+    }
+
+    /**
+     * @param nombre nombre del producto.
+     * @return el producto, si existe.
+     */
+    public Optional<Producto> productoPorNombre(String nombre) {
+        // Cualquier producto puede tomar el nombre buscado, así que depende de todo el catálogo
+        return obtener(List.of("productoPorNombre", nombre), null, FiltroVentas.CUALQUIERA, NINGUNO,
+                () -> productoRepository.buscarProductoPorNombre(nombre));
+    }
+
+    /**
+     * @param idCliente identificador del cliente.
+     * @return el cliente, si existe.
+     */
+    public Optional<Cliente> clientePorId(long idCliente) {
+        return obtener(List.of("clientePorId", idCliente), null, NINGUNO, idCliente,
+                () -> clienteRepository.buscarClientePorId(idCliente));
+    }
+
+    /**
+     * @return aciertos, fallos, invalidaciones y desalojos desde la creación.
+     */
+    public synchronized Estadisticas getEstadisticas() {
+        return new Estadisticas(aciertos, fallos, invalidaciones, desalojos, entradas.size());
+    }
+
+    /**
+     * Descarta todos los resultados guardados, sin reiniciar las estadísticas.
+     */
+    public synchronized void limpiar() {
+        for (Entrada entrada : new ArrayList<>(entradas.values())) {
+            descartar(entrada);
+        }
+    }
+
+    /**
+     * Retorna el resultado guardado o ejecuta la consulta. La entrada se registra antes de
+     * consultar, para que una invalidación durante la consulta impida guardar su resultado.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T obtener(Object clave, FiltroVentas ventas, long producto, long cliente, Supplier<T> consulta) {
+        Entrada entrada;
+        synchronized (this) {
+            Entrada existente = entradas.get(clave);
+            if (existente != null && existente.cargada) {
+                aciertos++;
+                return (T) existente.valor;
+            }
+            fallos++;
+            if (existente != null) {
+                // Otra consulta igual está en curso; se consulta sin esperarla ni reemplazarla
+                return consulta.get();
+            }
+            entrada = new Entrada(clave, ventas, producto, cliente);
+            indexar(entrada);
+            entradas.put(clave, entrada);
+        }
+        T valor;
+        try {
+            valor = consulta.get();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                if (entradas.get(clave) == entrada) {
+                    entradas.remove(clave);
+                    desindexar(entrada);
+                }
+            }
+            throw e;
+        }
+        synchronized (this) {
+            if (entradas.get(clave) == entrada) {
+                entrada.valor = valor;
+                entrada.cargada = true;
+            }
+        }
+        return valor;
+    }
+
+    private synchronized void invalidarVenta(Venta venta) {
+        List<Entrada> afectadas = new ArrayList<>();
+        agregarAfectadas(ventasPorProducto.get(venta.getProducto().getId()), venta, afectadas);
+        agregarAfectadas(ventasPorCliente.get(venta.getCliente().getId()), venta, afectadas);
+        agregarAfectadas(ventasPorRango, venta, afectadas);
+        afectadas.forEach(this::invalidar);
+    }
+
+    private static void agregarAfectadas(Set<Entrada> candidatas, Venta venta, List<Entrada> afectadas) {
+        if (candidatas != null) {
+            for (Entrada entrada : candidatas) {
+                if (entrada.ventas.acepta(venta)) {
+                    afectadas.add(entrada);
+                }
+            }
+        }
+    }
+
+    private synchronized void invalidarProducto(long idProducto) {
+        List<Entrada> afectadas = new ArrayList<>(catalogoProductos);
+        afectadas.addAll(catalogoPorProducto.getOrDefault(idProducto, Set.of()));
+        afectadas.forEach(this::invalidar);
+    }
+
+    private synchronized void invalidarCliente(long idCliente) {
+        List<Entrada> afectadas = new ArrayList<>(catalogoClientes);
+        afectadas.addAll(catalogoPorCliente.getOrDefault(idCliente, Set.of()));
+        afectadas.forEach(this::invalidar);
+    }
+
+    private void invalidar(Entrada entrada) {
+        // Una entrada puede aparecer en dos índices; solo la primera vez sigue en el mapa
+        if (entradas.get(entrada.clave) == entrada) {
+            descartar(entrada);
+            invalidaciones++;
+        }
+    }
+
+    private void descartar(Entrada entrada) {
+        entradas.remove(entrada.clave);
+        desindexar(entrada);
+    }
+
+    private void indexar(Entrada entrada) {
+        if (entrada.ventas != null) {
+            if (entrada.ventas.idProducto() != FiltroVentas.CUALQUIERA) {
+                ventasPorProducto.computeIfAbsent(entrada.ventas.idProducto(), id -> new HashSet<>()).add(entrada);
+            } else if (entrada.ventas.idCliente() != FiltroVentas.CUALQUIERA) {
+                ventasPorCliente.computeIfAbsent(entrada.ventas.idCliente(), id -> new HashSet<>()).add(entrada);
+            } else {
+                ventasPorRango.add(entrada);
+            }
+        }
+        indexarCatalogo(entrada.producto, entrada, catalogoProductos, catalogoPorProducto);
+        indexarCatalogo(entrada.cliente, entrada, catalogoClientes, catalogoPorCliente);
+    }
+
+    private static void indexarCatalogo(long id, Entrada entrada, Set<Entrada> todos, Map<Long, Set<Entrada>> porId) {
+        if (id == FiltroVentas.CUALQUIERA) {
+            todos.add(entrada);
+        } else if (id != NINGUNO) {
+            porId.computeIfAbsent(id, clave -> new HashSet<>()).add(entrada);
+        }
+    }
+
+    private void desindexar(Entrada entrada) {
+        if (entrada.ventas != null) {
+            quitar(ventasPorProducto, entrada.ventas.idProducto(), entrada);
+            quitar(ventasPorCliente, entrada.ventas.idCliente(), entrada);
+            ventasPorRango.remove(entrada);
+        }
+        catalogoProductos.remove(entrada);
+        catalogoClientes.remove(entrada);
+        quitar(catalogoPorProducto, entrada.producto, entrada);
+        quitar(catalogoPorCliente, entrada.cliente, entrada);
+    }
+
+    private static void quitar(Map<Long, Set<Entrada>> indice, long id, Entrada entrada) {
+        Set<Entrada> conjunto = indice.get(id);
+        if (conjunto != null && conjunto.remove(entrada) && conjunto.isEmpty()) {
+            indice.remove(id);
+        }
+    }
+
+    /**
+     * Resultado guardado y sus dependencias. Se compara por identidad.
+     */
+    private static final class Entrada {
+        final Object clave;
+        // Ventas que cambian el resultado, o null si no depende de las ventas
+        final FiltroVentas ventas;
+        // Producto y cliente del catálogo de los que depende: un id, CUALQUIERA o NINGUNO
+        final long producto;
+        final long cliente;
+        Object valor;
+        boolean cargada;
+
+        Entrada(Object clave, FiltroVentas ventas, long producto, long cliente) {
+            this.clave = clave;
+            this.ventas = ventas;
+            this.producto = producto;
+            this.cliente = cliente;
+        }
+    }
+
+    /**
+     * Estadísticas de uso de la caché.
+     *
+     * @param aciertos       consultas respondidas con un resultado guardado.
+     * @param fallos         consultas que tuvieron que ejecutarse.
+     * @param invalidaciones resultados descartados por cambios en los datos.
+     * @param desalojos      resultados descartados por falta de capacidad.
+     * @param entradas       resultados guardados actualmente.
+     */
+    public record Estadisticas(long aciertos, long fallos, long invalidaciones, long desalojos, int entradas) {
+        /**
+         * @return fracción de consultas respondidas desde la caché, entre 0 y 1.
+         */
+        public double tasaAciertos() {
+            long consultas = aciertos + fallos;
+            return consultas == 0 ? 0 : (double) aciertos / consultas;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.demo.Services;
+
+/**
+ * Estimación de la frecuencia de cada elemento en memoria fija (Count-Min).
+ *
+ * <p>Cada elemento suma su cantidad en una celda de cada fila; la estimación es el mínimo de
+ * esas celdas. Nunca es menor que el valor real y, con probabilidad {@code 1 - probabilidadFallo},
+ * lo supera en menos de {@code error × total}. El ancho es {@code ⌈e / error⌉} y la profundidad
+ * {@code ⌈ln(1 / probabilidadFallo)⌉}: con error 0,002 y probabilidad 0,02, 1360 × 4 contadores
+ * (42,5 KiB). Dos estimaciones con las mismas dimensiones se combinan sumando sus celdas.</p>
+ *
+ * <p>No es segura entre hilos; quien la comparte debe sincronizar el acceso.</p>
+ */
+final class CountMin {
+    private final int ancho;
+    private final int profundidad;
+    private final long[] celdas;
+
+    /**
+     * @param error             error relativo al total admitido en cada estimación, entre 0 y 1.
+     * @param probabilidadFallo probabilidad de superar ese error, entre 0 y 1.
+     */
+    CountMin(double error, double probabilidadFallo) {
+        if (!(error > 0 && error < 1) || !(probabilidadFallo > 0 && probabilidadFallo < 1)) {
+            throw new IllegalArgumentException("El error y la probabilidad de fallo deben estar entre 0 y 1");
+        }
+        this.ancho = (int) Math.ceil(Math.E / error);
+        this.profundidad = (int) Math.ceil(Math.log(1 / probabilidadFallo));
+        this.celdas = new long[ancho * profundidad];
+    }
+
+    /**
+     * @param id       elemento.
+     * @param cantidad cantidad a sumar, mayor o igual que cero.
+     */
+    void sumar(long id, long cantidad) {
+        long hash = HyperLogLog.mezclar(id);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int fila = 0; fila < profundidad; fila++) {
+            celdas[fila * ancho + celda(h1, h2, fila)] += cantidad;
+        }
+    }
+
+    /**
+     * @param id elemento.
+     * @return cantidad estimada del elemento, nunca menor que la real.
+     */
+    long estimar(long id) {
+        long hash = HyperLogLog.mezclar(id);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long minimo = Long.MAX_VALUE;
+        for (int fila = 0; fila < profundidad; fila++) {
+            minimo = Math.min(minimo, celdas[fila * ancho + celda(h1, h2, fila)]);
+        }
+        return minimo;
+    }
+
+    /**
+     * Suma a esta estimación las cantidades de otra con las mismas dimensiones.
+     *
+     * @param otra estimación a combinar.
+     * @return esta misma estimación.
+     */
+    CountMin combinar(CountMin otra) {
+        if (otra.ancho != ancho || otra.profundidad != profundidad) {
+            throw new IllegalArgumentException("Solo se pueden combinar estimaciones con las mismas dimensiones");
+        }
+        for (int i = 0; i < celdas.length; i++) {
+            celdas[i] += otra.celdas[i];
+        }
+        return this;
+    }
+
+    /**
+     * Celda de una fila, derivando un hash por fila de dos hashes (Kirsch-Mitzenmacher).
+     */
+    private int celda(int h1, int h2, int fila) {
+        return Math.floorMod(h1 + fila * h2, ancho);
+    }
+}
@@ -0,0 +1,279 @@
+package org.demo.Services;
+
+import org.demo.Models.Venta;
+import org.demo.Repositories.VentaRepository;
+import org.demo.Repositories.VentasColumnares;
+import org.demo.Utils.Dinero;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Exportación de las ventas a CSV o a un archivo binario por columnas.
+ *
+ * <p>Las ventas se leen por páginas de {@link #TAMANO_PAGINA} con
+ * {@link VentaRepository#listarVentasDesde(long, int)} y cada página se escribe antes de pedir
+ * la siguiente, a través de un búfer fijo sobre un {@link FileChannel}. La memoria usada no
+ * depende de la cantidad de ventas. Los métodos bloquean hasta terminar, por lo que la interfaz
+ * debe llamarlos desde un hilo de fondo.</p>
+ *
+ * <p>Se escribe en un archivo temporal que reemplaza al destino solo si la exportación termina;
+ * si el hilo se interrumpe, la exportación se cancela y el destino queda intacto.</p>
+ *
+ * <p>Formato CSV (UTF-8, con encabezado):
+ * {@code id,fecha,id_cliente,cliente,id_producto,producto,categoria,cantidad,precio_unitario,total}.
+ * Los importes van en pesos, con el formato de {@link Dinero#aTexto(long)}.</p>
+ *
+ * <p>Formato binario: {@code [magia:int][versión:short][filas:long]} seguido de bloques
+ * {@code [filas:int]} con las columnas del bloque una tras otra: ids, fechas, ids de cliente e
+ * ids de producto ({@code long}), cantidades ({@code int}) y precios unitarios en centavos
+ * ({@code long}), 44 bytes por venta. Las fechas van en milisegundos desde 1970, tomando la
+ * hora local como UTC. Los nombres no se incluyen; se obtienen del catálogo por id.</p>
+ */
+public final class ExportadorVentas {
+    public static final int TAMANO_PAGINA = 8_192;
+    public static final int MAGIA_BINARIO = 0x56434F4C; // "VCOL"
+    public static final short VERSION_BINARIO = 1;
+
+    private static final int TAMANO_BUFER = 1 << 20;
+    private static final int BYTES_POR_FILA = 5 * Long.BYTES + Integer.BYTES;
+    private static final String ENCABEZADO_CSV =
+            "id,fecha,id_cliente,cliente,id_producto,producto,categoria,cantidad,precio_unitario,total\n";
+
+    private ExportadorVentas() {}
+
+    /**
+     * Recibe el avance de una exportación, después de cada página.
+     */
+    @FunctionalInterface
+    public interface Progreso {
+        /**
+         * @param leidas ventas revisadas hasta ahora, incluidas las que no cumplen el rango.
+         * @param total  ventas registradas al empezar la exportación.
+         */
+        void avanzar(long leidas, long total);
+    }
+
+    /**
+     * Exporta las ventas a un archivo CSV.
+     *
+     * @param repository repositorio de ventas.
+     * @param archivo    archivo de destino; se reemplaza si existe.
+     * @param desde      fecha inicial (incluida), o {@code null} para no limitarla.
+     * @param hasta      fecha final (incluida), o {@code null} para no limitarla.
+     * @param progreso   receptor del avance.
+     * @return cantidad de ventas exportadas.
+     */
+    public static long exportarCsv(VentaRepository repository, Path archivo, LocalDateTime desde,
+                                   LocalDateTime hasta, Progreso progreso) {
+        return exportar(repository, archivo, desde, hasta, progreso, new EscritorCsv());
+    }
+
+    /**
+     * Exporta las ventas al formato binario por columnas.
+     *
+     * @param repository repositorio de ventas.
+     * @param archivo    archivo de destino; se reemplaza si existe.
+     * @param desde      fecha inicial (incluida), o {@code null} para no limitarla.
+     * @param hasta      fecha final (incluida), o {@code null} para no limitarla.
+     * @param progreso   receptor del avance.
+     * @return cantidad de ventas exportadas.
+     */
+    public static long exportarBinario(VentaRepository repository, Path archivo, LocalDateTime desde,
+                                       LocalDateTime hasta, Progreso progreso) {
+        return exportar(repository, archivo, desde, hasta, progreso, new EscritorBinario());
+    }
+
+    private static long exportar(VentaRepository repository, Path archivo, LocalDateTime desde, LocalDateTime hasta,
+                                 Progreso progreso, Escritor escritor) {
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        long total = repository.contarVentas();
+        long leidas = 0;
+        long exportadas = 0;
+        try {
+            try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                Salida salida = new Salida(canal);
+                escritor.iniciar(salida);
+                Venta[] pagina = new Venta[TAMANO_PAGINA];
+                long idAnterior = Long.MIN_VALUE;
+                List<Venta> leidasPagina;
+                do {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new CancellationException("Exportación cancelada");
+                    }
+                    leidasPagina = repository.listarVentasDesde(idAnterior, TAMANO_PAGINA);
+                    int filas = 0;
+                    for (Venta venta : leidasPagina) {
+                        if ((desde == null || !venta.getFecha().isBefore(desde))
+                                && (hasta == null || !venta.getFecha().isAfter(hasta))) {
+                            pagina[filas++] = venta;
+                        }
+                    }
+                    if (filas > 0) {
+                        escritor.escribir(salida, pagina, filas);
+                        exportadas += filas;
+                    }
+                    if (!leidasPagina.isEmpty()) {
+                        idAnterior = leidasPagina.get(leidasPagina.size() - 1).getId();
+                        leidas += leidasPagina.size();
+                        progreso.avanzar(leidas, Math.max(total, leidas));
+                    }
+                } while (leidasPagina.size() == TAMANO_PAGINA);
+                salida.vaciar();
+                escritor.terminar(canal, exportadas);
+                canal.force(false);
+            }
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return exportadas;
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo exportar las ventas a " + archivo, e);
+        } finally {
+            try {
+                Files.deleteIfExists(temporal);
+            } catch (IOException ignorada) {
+                // El temporal se sobrescribe en la siguiente exportación
+            }
+        }
+    }
+
+    /**
+     * Búfer de escritura de tamaño fijo sobre un canal.
+     */
+    private static final class Salida {
+        private final FileChannel canal;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANO_BUFER);
+
+        Salida(FileChannel canal) {
+            this.canal = canal;
+        }
+
+        /** Retorna el búfer con al menos {@code bytes} libres, vaciándolo si hace falta. */
+        ByteBuffer reservar(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                vaciar();
+            }
+            return buffer;
+        }
+
+        void escribir(byte[] bytes) throws IOException {
+            int posicion = 0;
+            while (posicion < bytes.length) {
+                int parte = Math.min(reservar(1).remaining(), bytes.length - posicion);
+                buffer.put(bytes, posicion, parte);
+                posicion += parte;
+            }
+        }
+
+        void vaciar() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    private interface Escritor {
+        void iniciar(Salida salida) throws IOException;
+
+        void escribir(Salida salida, Venta[] ventas, int filas) throws IOException;
+
+        /** Se llama con el búfer ya vaciado en el canal. */
+        void terminar(FileChannel canal, long filas) throws IOException;
+    }
+
+    private static final class EscritorCsv implements Escritor {
+        private final StringBuilder texto = new StringBuilder(TAMANO_PAGINA * 96);
+
+        @Override
+        public void iniciar(Salida salida) throws IOException {
+            salida.escribir(ENCABEZADO_CSV.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void escribir(Salida salida, Venta[] ventas, int filas) throws IOException {
+            texto.setLength(0);
+            for (int i = 0; i < filas; i++) {
+                Venta venta = ventas[i];
+                texto.append(venta.getId()).append(',')
+                        .append(venta.getFecha()).append(',')
+                        .append(venta.getCliente().getId()).append(',');
+                campo(venta.getCliente().getNombre()).append(',')
+                        .append(venta.getProducto().getId()).append(',');
+                campo(venta.getProducto().getNombre()).append(',');
+                campo(venta.getProducto().getCategoria()).append(',')
+                        .append(venta.getCantidad()).append(',')
+                        .append(Dinero.aTexto(venta.getPrecioUnitario())).append(',')
+                        .append(Dinero.aTexto(venta.getTotal())).append('\n');
+            }
+            salida.escribir(texto.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void terminar(FileChannel canal, long filas) {}
+
+        /** Agrega un texto entre comillas si contiene comas, comillas o saltos de línea. */
+        private StringBuilder campo(String valor) {
+            if (valor == null) {
+                return texto;
+            }
+            if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+                return texto.append(valor);
+            }
+            return texto.append('"').append(valor.replace("\"", "\"\"")).append('"');
+        }
+    }
+
+    private static final class EscritorBinario implements Escritor {
+        private static final int POSICION_FILAS = Integer.BYTES + Short.BYTES;
+
+        @Override
+        public void iniciar(Salida salida) throws IOException {
+            // La cantidad de filas se completa al terminar, cuando ya se conoce
+            salida.reservar(POSICION_FILAS + Long.BYTES)
+                    .putInt(MAGIA_BINARIO).putShort(VERSION_BINARIO).putLong(0);
+        }
+
+        @Override
+        public void escribir(Salida salida, Venta[] ventas, int filas) throws IOException {
+            ByteBuffer buffer = salida.reservar(Integer.BYTES + filas * BYTES_POR_FILA);
+            buffer.putInt(filas);
+            for (int i = 0; i < filas; i++) {
+                buffer.putLong(ventas[i].getId());
+            }
+            for (int i = 0; i < filas; i++) {
+                buffer.putLong(VentasColumnares.marcaTiempo(ventas[i].getFecha()));
+            }
+            for (int i = 0; i < filas; i++) {
+                buffer.putLong(ventas[i].getCliente().getId());
+            }
+            for (int i = 0; i < filas; i++) {
+                buffer.putLong(ventas[i].getProducto().getId());
+            }
+            for (int i = 0; i < filas; i++) {
+                buffer.putInt(ventas[i].getCantidad());
+            }
+            for (int i = 0; i < filas; i++) {
+                buffer.putLong(ventas[i].getPrecioUnitario());
+            }
+        }
+
+        @Override
+        public void terminar(FileChannel canal, long filas) throws IOException {
+            ByteBuffer cantidad = ByteBuffer.allocate(Long.BYTES).putLong(0, filas);
+            while (cantidad.hasRemaining()) {
+                canal.write(cantidad, POSICION_FILAS + cantidad.position());
+            }
+        }
+    }
+}
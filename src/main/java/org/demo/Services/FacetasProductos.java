@@ -0,0 +1,469 @@
+package org.demo.Services;
+
+import org.demo.Models.Producto;
+import org.demo.Repositories.OyenteRepositorio;
+import org.demo.Repositories.ProductoRepository;
+import org.demo.Repositories.Repositorios;
+import org.demo.Utils.Dinero;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Índices de mapas de bits del catálogo por categoría, rango de precio y nivel de stock,
+ * para filtrar productos por facetas y contar cuántos hay en cada una.
+ *
+ * <p>Cada producto ocupa una posición fija y cada valor de faceta tiene un mapa de bits con un
+ * bit por posición (8 KiB por valor con 65.536 productos). Un filtro combinado es la intersección
+ * de los mapas de los valores elegidos, palabra por palabra, y cuántos productos lo cumplen sale
+ * de contar bits, sin recorrer los productos. Las posiciones de los productos eliminados se
+ * reutilizan.</p>
+ *
+ * <p>Se mantiene al día con los cambios del repositorio de productos y con los cambios de stock de
+ * {@link InventarioService}. Una venta solo modifica los mapas cuando el producto pasa a otro nivel
+ * de stock; en ese caso, y con cada cambio del catálogo, se avisa a los oyentes para que vuelvan a
+ * contar.</p>
+ *
+ * <p>Las actualizaciones y consultas se sincronizan sobre la instancia. El nivel de stock de cada
+ * producto se publica además en un mapa concurrente, de modo que una venta que no cambia el nivel
+ * se descarta sin tomar el candado.</p>
+ */
+public final class FacetasProductos implements OyenteRepositorio<Producto> {
+    /** Categoría con la que se indexan los productos sin categoría. */
+    public static final String SIN_CATEGORIA = "";
+
+    private final Map<Long, Integer> posiciones;
+    private Producto[] productos;
+    private String[] categorias;
+    private byte[] rangos;
+    private byte[] niveles;
+    private int[] libres;
+    private int cantidadLibres;
+    private int siguiente;
+    private final MapaBits vivos;
+    private final Map<String, MapaBits> porCategoria;
+    private final MapaBits[] porRango;
+    private final MapaBits[] porNivel;
+    private final List<Runnable> oyentes;
+    // Copia del nivel de cada producto indexado, legible sin el candado
+    private final Map<Long, NivelStock> nivelesPublicados;
+
+    private FacetasProductos() {
+        this.posiciones = new HashMap<>();
+        this.productos = new Producto[256];
+        this.categorias = new String[256];
+        this.rangos = new byte[256];
+        this.niveles = new byte[256];
+        this.libres = new int[16];
+        this.vivos = new MapaBits();
+        this.porCategoria = new TreeMap<>();
+        this.porRango = nuevosMapas(RangoPrecio.values().length);
+        this.porNivel = nuevosMapas(NivelStock.values().length);
+        this.oyentes = new CopyOnWriteArrayList<>();
+        this.nivelesPublicados = new ConcurrentHashMap<>();
+    }
+
+    private static class Contenedor {
+        static final FacetasProductos INSTANCIA = crear(Repositorios.productos(), InventarioService.getInstancia());
+    }
+
+    /**
+     * Devuelve la instancia única, suscrita al inventario y al repositorio de productos de la aplicación.
+     *
+     * @return instancia única de {@code FacetasProductos}.
+     */
+    public static FacetasProductos getInstancia() {
+        return Contenedor.INSTANCIA;
+    }
+
+    /**
+     * Crea los índices con los productos existentes, suscribiéndose a los cambios de stock y del catálogo.
+     *
+     * @param productoRepository repositorio de productos a indexar.
+     * @param inventario         inventario que avisa los cambios de stock por ventas.
+     * @return índices suscritos.
+     */
+    static FacetasProductos crear(ProductoRepository productoRepository, InventarioService inventario) {
+        FacetasProductos facetas = new FacetasProductos();
+        // Los productos que aún no están indexados se ignoran al revisar y se indexan con su stock al agregarse
+        inventario.agregarOyente(facetas::revisar);
+        facetas.alAgregar(productoRepository.suscribir(facetas));
+        return facetas;
+    }
+
+    /**
+     * Registra una acción que se ejecuta cada vez que cambian los conteos, en el hilo que hizo
+     * el cambio, que puede no ser el hilo de JavaFX.
+     *
+     * @param oyente acción a ejecutar.
+     */
+    public void agregarOyente(Runnable oyente) {
+        oyentes.add(oyente);
+    }
+
+    @Override
+    public void alAgregar(List<Producto> agregados) {
+        synchronized (this) {
+            for (Producto producto : agregados) {
+                indexar(producto);
+            }
+        }
+        avisar();
+    }
+
+    @Override
+    public void alActualizar(Producto actualizado) {
+        synchronized (this) {
+            indexar(actualizado);
+        }
+        avisar();
+    }
+
+    @Override
+    public void alEliminar(Producto eliminado) {
+        synchronized (this) {
+            Integer posicion = posiciones.remove(eliminado.getId());
+            if (posicion == null) {
+                return;
+            }
+            nivelesPublicados.remove(eliminado.getId());
+            desindexar(posicion);
+            productos[posicion] = null;
+            vivos.quitar(posicion);
+            if (cantidadLibres == libres.length) {
+                libres = Arrays.copyOf(libres, cantidadLibres * 2);
+            }
+            libres[cantidadLibres++] = posicion;
+        }
+        avisar();
+    }
+
+    /**
+     * Revisa el nivel de stock de un producto cuya cantidad cambió.
+     *
+     * @param producto producto cuyo stock pudo cambiar.
+     */
+    public void revisar(Producto producto) {
+        NivelStock publicado = nivelesPublicados.get(producto.getId());
+        if (publicado == null || publicado == NivelStock.de(producto.getCantidad())) {
+            return;
+        }
+        synchronized (this) {
+            Integer posicion = posiciones.get(producto.getId());
+            if (posicion == null || !ajustarNivel(posicion, producto)) {
+                return;
+            }
+        }
+        avisar();
+    }
+
+    /**
+     * Lleva el producto al nivel que corresponde a su cantidad actual, releída con el candado tomado
+     * para que ventas concurrentes no apliquen niveles fuera de orden. Tras publicar un nivel se
+     * vuelve a leer la cantidad: una venta que vio el nivel anterior en el camino rápido cambió la
+     * cantidad antes de esa lectura, así que su cambio no se pierde.
+     * Debe llamarse con el candado de la instancia tomado.
+     *
+     * @return {@code true} si el nivel cambió.
+     */
+    private boolean ajustarNivel(int posicion, Producto producto) {
+        boolean cambio = false;
+        NivelStock nivel = NivelStock.de(producto.getCantidad());
+        while (niveles[posicion] != nivel.ordinal()) {
+            porNivel[niveles[posicion]].quitar(posicion);
+            porNivel[nivel.ordinal()].poner(posicion);
+            niveles[posicion] = (byte) nivel.ordinal();
+            nivelesPublicados.put(producto.getId(), nivel);
+            cambio = true;
+            nivel = NivelStock.de(producto.getCantidad());
+        }
+        return cambio;
+    }
+
+    /**
+     * Cuenta los productos que cumplen el filtro y, para cada valor de cada faceta, cuántos lo
+     * cumplirían eligiendo ese valor en lugar del elegido en esa faceta.
+     *
+     * @param filtro valores elegidos.
+     * @return conteos del filtro y de cada faceta.
+     */
+    public synchronized Conteos contar(Filtro filtro) {
+        long[] categoria = mascaraCategoria(filtro);
+        long[] rango = mascaraPrecio(filtro);
+        long[] nivel = mascaraStock(filtro);
+
+        long[] rangoYNivel = interseccion(rango, nivel);
+        Map<String, Integer> categorias = new TreeMap<>();
+        for (Map.Entry<String, MapaBits> entrada : porCategoria.entrySet()) {
+            categorias.put(entrada.getKey(), contar(entrada.getValue().palabras, rangoYNivel));
+        }
+        long[] categoriaYNivel = interseccion(categoria, nivel);
+        Map<RangoPrecio, Integer> rangos = new EnumMap<>(RangoPrecio.class);
+        for (RangoPrecio valor : RangoPrecio.values()) {
+            rangos.put(valor, contar(porRango[valor.ordinal()].palabras, categoriaYNivel));
+        }
+        long[] categoriaYRango = interseccion(categoria, rango);
+        Map<NivelStock, Integer> niveles = new EnumMap<>(NivelStock.class);
+        for (NivelStock valor : NivelStock.values()) {
+            niveles.put(valor, contar(porNivel[valor.ordinal()].palabras, categoriaYRango));
+        }
+        return new Conteos(contar(categoria, rangoYNivel), categorias, rangos, niveles);
+    }
+
+    /**
+     * @param filtro valores elegidos.
+     * @return productos que cumplen el filtro, ordenados por id.
+     */
+    public List<Producto> buscar(Filtro filtro) {
+        List<Producto> encontrados = new ArrayList<>();
+        synchronized (this) {
+            long[] coincidencias = interseccion(interseccion(mascaraCategoria(filtro), mascaraPrecio(filtro)),
+                    mascaraStock(filtro));
+            for (int i = 0; i < coincidencias.length; i++) {
+                long palabra = coincidencias[i];
+                while (palabra != 0) {
+                    encontrados.add(productos[(i << 6) + Long.numberOfTrailingZeros(palabra)]);
+                    palabra &= palabra - 1;
+                }
+            }
+        }
+        // Las posiciones reutilizadas no siguen el orden de registro
+        encontrados.sort(Comparator.comparingLong(Producto::getId));
+        return encontrados;
+    }
+
+    /**
+     * Indexa un producto nuevo o vuelve a indexar uno existente con sus datos actuales.
+     * Debe llamarse con el candado de la instancia tomado.
+     */
+    private void indexar(Producto producto) {
+        Integer existente = posiciones.get(producto.getId());
+        int posicion;
+        if (existente != null) {
+            posicion = existente;
+            desindexar(posicion);
+        } else {
+            posicion = cantidadLibres > 0 ? libres[--cantidadLibres] : siguiente++;
+            if (posicion == productos.length) {
+                int capacidad = productos.length * 2;
+                productos = Arrays.copyOf(productos, capacidad);
+                categorias = Arrays.copyOf(categorias, capacidad);
+                rangos = Arrays.copyOf(rangos, capacidad);
+                niveles = Arrays.copyOf(niveles, capacidad);
+            }
+            posiciones.put(producto.getId(), posicion);
+            vivos.poner(posicion);
+        }
+        String categoria = producto.getCategoria() == null ? SIN_CATEGORIA : producto.getCategoria();
+        RangoPrecio rango = RangoPrecio.de(producto.getPrecio());
+        NivelStock nivel = NivelStock.de(producto.getCantidad());
+        productos[posicion] = producto;
+        categorias[posicion] = categoria;
+        rangos[posicion] = (byte) rango.ordinal();
+        niveles[posicion] = (byte) nivel.ordinal();
+        porCategoria.computeIfAbsent(categoria, c -> new MapaBits()).poner(posicion);
+        porRango[rango.ordinal()].poner(posicion);
+        porNivel[nivel.ordinal()].poner(posicion);
+        nivelesPublicados.put(producto.getId(), nivel);
+        ajustarNivel(posicion, producto);
+    }
+
+    private void desindexar(int posicion) {
+        MapaBits categoria = porCategoria.get(categorias[posicion]);
+        categoria.quitar(posicion);
+        if (categoria.vacio()) {
+            porCategoria.remove(categorias[posicion]);
+        }
+        porRango[rangos[posicion]].quitar(posicion);
+        porNivel[niveles[posicion]].quitar(posicion);
+    }
+
+    /**
+     * Palabras de la categoría elegida, o de todos los productos si no se eligió categoría.
+     * Una categoría que ya no tiene productos no deja pasar a ninguno.
+     */
+    private long[] mascaraCategoria(Filtro filtro) {
+        if (filtro.categoria() == null) {
+            return vivos.palabras;
+        }
+        MapaBits categoria = porCategoria.get(filtro.categoria());
+        return categoria == null ? new long[0] : categoria.palabras;
+    }
+
+    private long[] mascaraPrecio(Filtro filtro) {
+        return filtro.precio() == null ? vivos.palabras : porRango[filtro.precio().ordinal()].palabras;
+    }
+
+    private long[] mascaraStock(Filtro filtro) {
+        return filtro.stock() == null ? vivos.palabras : porNivel[filtro.stock().ordinal()].palabras;
+    }
+
+    private static long[] interseccion(long[] a, long[] b) {
+        long[] resultado = new long[Math.min(a.length, b.length)];
+        for (int i = 0; i < resultado.length; i++) {
+            resultado[i] = a[i] & b[i];
+        }
+        return resultado;
+    }
+
+    private static int contar(long[] a, long[] b) {
+        int cantidad = 0;
+        for (int i = 0, fin = Math.min(a.length, b.length); i < fin; i++) {
+            cantidad += Long.bitCount(a[i] & b[i]);
+        }
+        return cantidad;
+    }
+
+    private void avisar() {
+        for (Runnable oyente : oyentes) {
+            oyente.run();
+        }
+    }
+
+    private static MapaBits[] nuevosMapas(int cantidad) {
+        MapaBits[] mapas = new MapaBits[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            mapas[i] = new MapaBits();
+        }
+        return mapas;
+    }
+
+    /**
+     * Mapa de bits que crece a medida que se marcan posiciones más altas.
+     */
+    private static final class MapaBits {
+        long[] palabras = new long[4];
+        int cantidad;
+
+        void poner(int posicion) {
+            int palabra = posicion >>> 6;
+            if (palabra >= palabras.length) {
+                palabras = Arrays.copyOf(palabras, Math.max(palabra + 1, palabras.length * 2));
+            }
+            if ((palabras[palabra] & (1L << posicion)) == 0) {
+                palabras[palabra] |= 1L << posicion;
+                cantidad++;
+            }
+        }
+
+        void quitar(int posicion) {
+            int palabra = posicion >>> 6;
+            if (palabra < palabras.length && (palabras[palabra] & (1L << posicion)) != 0) {
+                palabras[palabra] &= ~(1L << posicion);
+                cantidad--;
+            }
+        }
+
+        boolean vacio() {
+            return cantidad == 0;
+        }
+    }
+
+    /**
+     * Valores elegidos en cada faceta; {@code null} no filtra por esa faceta.
+     *
+     * @param categoria categoría, o {@link #SIN_CATEGORIA} para los productos sin categoría.
+     * @param precio    rango de precio.
+     * @param stock     nivel de stock.
+     */
+    public record Filtro(String categoria, RangoPrecio precio, NivelStock stock) {
+        /**
+         * @return filtro que acepta todos los productos.
+         */
+        public static Filtro todos() {
+            return new Filtro(null, null, null);
+        }
+    }
+
+    /**
+     * Resultado de contar un filtro.
+     *
+     * @param total      productos que cumplen el filtro.
+     * @param categorias productos por categoría con las demás facetas del filtro, ordenados por nombre.
+     * @param precios    productos por rango de precio con las demás facetas del filtro.
+     * @param niveles    productos por nivel de stock con las demás facetas del filtro.
+     */
+    public record Conteos(int total, Map<String, Integer> categorias, Map<RangoPrecio, Integer> precios,
+                          Map<NivelStock, Integer> niveles) {
+    }
+
+    /**
+     * Rangos de precio del catálogo, en pesos.
+     */
+    public enum RangoPrecio {
+        HASTA_5_MIL(0, "Menos de $5,000"),
+        HASTA_20_MIL(Dinero.pesos(5_000), "$5,000 a $19,999"),
+        HASTA_100_MIL(Dinero.pesos(20_000), "$20,000 a $99,999"),
+        DESDE_100_MIL(Dinero.pesos(100_000), "$100,000 o más");
+
+        private final long desde;
+        private final String descripcion;
+
+        RangoPrecio(long desde, String descripcion) {
+            this.desde = desde;
+            this.descripcion = descripcion;
+        }
+
+        /**
+         * @param precio precio en centavos.
+         * @return rango que contiene el precio.
+         */
+        public static RangoPrecio de(long precio) {
+            RangoPrecio[] rangos = values();
+            for (int i = rangos.length - 1; i > 0; i--) {
+                if (precio >= rangos[i].desde) {
+                    return rangos[i];
+                }
+            }
+            return rangos[0];
+        }
+
+        public String getDescripcion() {
+            return descripcion;
+        }
+    }
+
+    /**
+     * Niveles de stock de un producto.
+     */
+    public enum NivelStock {
+        AGOTADO(0, "Agotado"),
+        BAJO(1, "1 a 10 u."),
+        MEDIO(11, "11 a 100 u."),
+        ALTO(101, "Más de 100 u.");
+
+        private final int desde;
+        private final String descripcion;
+
+        NivelStock(int desde, String descripcion) {
+            this.desde = desde;
+            this.descripcion = descripcion;
+        }
+
+        /**
+         * @param cantidad unidades en stock.
+         * @return nivel que contiene la cantidad.
+         */
+        public static NivelStock de(int cantidad) {
+            NivelStock[] niveles = values();
+            for (int i = niveles.length - 1; i > 0; i--) {
+                if (cantidad >= niveles[i].desde) {
+                    return niveles[i];
+                }
+            }
+            return niveles[0];
+        }
+
+        public String getDescripcion() {
+            return descripcion;
+        }
+    }
+}
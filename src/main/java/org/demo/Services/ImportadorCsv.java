@@ -0,0 +1,393 @@
+package org.demo.Services;
+
+import org.demo.Models.Cliente;
+import org.demo.Models.Producto;
+import org.demo.Repositories.ClienteRepository;
+import org.demo.Repositories.ProductoRepository;
+import org.demo.Utils.Dinero;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Importación masiva de clientes y productos desde archivos CSV.
+ *
+ * <p>El archivo se lee en flujo, por lotes de {@link #TAMANO_LOTE} líneas, sin cargarlo
+ * completo en memoria. Cada lote se separa en campos y se valida en paralelo. Después se
+ * consultan al repositorio, de una vez para todo el lote, las claves que ya están registradas,
+ * y en orden de archivo se descartan las filas que repiten una de ellas o una clave aceptada
+ * antes en el mismo lote. Las filas aceptadas de cada lote se guardan con una sola llamada al
+ * repositorio, que emite una única notificación de cambio; así las claves de los lotes
+ * anteriores ya están en el repositorio y la memoria usada no crece con el tamaño del archivo.</p>
+ *
+ * <p>Formato esperado (separado por comas, UTF-8, con encabezado opcional):</p>
+ * <ul>
+ *     <li>Clientes: {@code nombre,documento,telefono,direccion,correo}</li>
+ *     <li>Productos: {@code nombre,precio,cantidad,categoria}</li>
+ * </ul>
+ * <p>Los campos pueden ir entre comillas dobles; no se admiten saltos de línea dentro de un campo.</p>
+ */
+public final class ImportadorCsv {
+    public static final int TAMANO_LOTE = 10_000;
+
+    // Mismas reglas que aplican los formularios de clientes
+    private static final Pattern DOCUMENTO = Pattern.compile("\\d{5,}");
+    private static final Pattern TELEFONO = Pattern.compile("\\d{10}");
+    private static final Pattern CORREO = Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
+
+    private ImportadorCsv() {}
+
+    /**
+     * Importa clientes desde un archivo CSV.
+     *
+     * @param archivo    archivo a importar.
+     * @param repository repositorio donde se guardan los clientes aceptados.
+     * @return cantidad de clientes importados y filas rechazadas.
+     */
+    public static ResultadoImportacion importarClientes(Path archivo, ClienteRepository repository) {
+        return importar(archivo, new EsquemaClientes(repository));
+    }
+
+    /**
+     * Importa productos desde un archivo CSV.
+     *
+     * @param archivo    archivo a importar.
+     * @param repository repositorio donde se guardan los productos aceptados.
+     * @return cantidad de productos importados y filas rechazadas.
+     */
+    public static ResultadoImportacion importarProductos(Path archivo, ProductoRepository repository) {
+        return importar(archivo, new EsquemaProductos(repository));
+    }
+
+    private static <T> ResultadoImportacion importar(Path archivo, Esquema<T> esquema) {
+        List<ResultadoImportacion.Rechazo> rechazos = new ArrayList<>();
+        long aceptados = 0;
+
+        try (BufferedReader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            List<String> lote = new ArrayList<>(TAMANO_LOTE);
+            long numeroLinea = 0;
+            long inicioLote = 1;
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                numeroLinea++;
+                if (numeroLinea == 1) {
+                    linea = linea.replace("\uFEFF", "");
+                    if (esEncabezado(linea)) {
+                        inicioLote = 2;
+                        continue;
+                    }
+                }
+                lote.add(linea);
+                if (lote.size() == TAMANO_LOTE) {
+                    aceptados += procesarLote(lote, inicioLote, esquema, rechazos);
+                    inicioLote = numeroLinea + 1;
+                    lote.clear();
+                }
+            }
+            aceptados += procesarLote(lote, inicioLote, esquema, rechazos);
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo leer el archivo: " + archivo, e);
+        }
+        return new ResultadoImportacion(aceptados, rechazos);
+    }
+
+    /**
+     * Valida, filtra y guarda un lote de líneas.
+     *
+     * @return cantidad de filas del lote guardadas.
+     */
+    private static <T> long procesarLote(List<String> lote, long inicioLote, Esquema<T> esquema,
+                                         List<ResultadoImportacion.Rechazo> rechazos) {
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        // Separación y validación en paralelo; el resultado conserva el orden del archivo
+        Object[] analizadas = IntStream.range(0, lote.size()).parallel()
+                .mapToObj(i -> analizar(lote.get(i), esquema))
+                .toArray();
+
+        List<String[]> validas = new ArrayList<>(analizadas.length);
+        for (Object analizada : analizadas) {
+            if (analizada instanceof String[] campos) {
+                validas.add(campos);
+            }
+        }
+        Duplicados duplicados = esquema.duplicados(validas);
+
+        List<T> aceptados = new ArrayList<>(validas.size());
+        Map<T, Long> lineas = new IdentityHashMap<>(validas.size());
+        for (int i = 0; i < analizadas.length; i++) {
+            long numeroLinea = inicioLote + i;
+            String linea = lote.get(i);
+            if (analizadas[i] == null) {
+                continue;
+            }
+            if (analizadas[i] instanceof String motivo) {
+                rechazos.add(new ResultadoImportacion.Rechazo(numeroLinea, linea, motivo));
+                continue;
+            }
+            String[] campos = (String[]) analizadas[i];
+            String duplicado = duplicados.buscar(campos);
+            if (duplicado != null) {
+                rechazos.add(new ResultadoImportacion.Rechazo(numeroLinea, linea, duplicado));
+                continue;
+            }
+            T registro = esquema.crear(campos);
+            aceptados.add(registro);
+            lineas.put(registro, numeroLinea);
+        }
+        if (aceptados.isEmpty()) {
+            return 0;
+        }
+
+        // Filas que otro usuario registró entre la consulta de claves y el guardado
+        List<T> registrados = esquema.guardar(aceptados);
+        for (T registrado : registrados) {
+            rechazos.add(new ResultadoImportacion.Rechazo(lineas.get(registrado),
+                    esquema.describir(registrado), "Ya se encuentra registrado"));
+        }
+        return aceptados.size() - registrados.size();
+    }
+
+    /**
+     * @return los campos de la fila si es válida, el motivo del rechazo si no lo es,
+     * o {@code null} si la línea está vacía.
+     */
+    private static Object analizar(String linea, Esquema<?> esquema) {
+        if (linea.isBlank()) {
+            return null;
+        }
+        String[] campos;
+        try {
+            campos = dividir(linea);
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        if (campos.length != esquema.cantidadCampos()) {
+            return "Se esperaban " + esquema.cantidadCampos() + " campos y se encontraron " + campos.length;
+        }
+        String motivo = esquema.validar(campos);
+        return motivo != null ? motivo : campos;
+    }
+
+    /**
+     * Separa una línea CSV en campos, respetando comillas dobles y comillas escapadas ({@code ""}).
+     *
+     * @param linea línea a separar.
+     * @return campos sin espacios laterales.
+     */
+    static String[] dividir(String linea) {
+        List<String> campos = new ArrayList<>(6);
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c != '"') {
+                    actual.append(c);
+                } else if (i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else {
+                    entreComillas = false;
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(actual.toString().trim());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        if (entreComillas) {
+            throw new IllegalArgumentException("Comillas sin cerrar");
+        }
+        campos.add(actual.toString().trim());
+        return campos.toArray(new String[0]);
+    }
+
+    private static boolean esEncabezado(String linea) {
+        String primero = linea.split(",", 2)[0].replace("\"", "").trim();
+        return primero.equalsIgnoreCase("nombre");
+    }
+
+    private static String clave(String valor) {
+        return valor.toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> columna(List<String[]> filas, int indice) {
+        List<String> valores = new ArrayList<>(filas.size());
+        for (String[] campos : filas) {
+            valores.add(campos[indice]);
+        }
+        return valores;
+    }
+
+    /**
+     * Reglas de conversión y validación de un tipo de registro.
+     *
+     * @param <T> entidad que se importa.
+     */
+    private interface Esquema<T> {
+        int cantidadCampos();
+
+        /** Valida los campos de una fila; se llama en paralelo. Retorna el motivo del rechazo o {@code null}. */
+        String validar(String[] campos);
+
+        /** Consulta de una vez las claves del lote que ya están en el repositorio. */
+        Duplicados duplicados(List<String[]> filas);
+
+        T crear(String[] campos);
+
+        List<T> guardar(List<T> registros);
+
+        String describir(T registro);
+    }
+
+    /**
+     * Claves ya registradas o ya aceptadas en un lote.
+     */
+    private interface Duplicados {
+        /** Se llama en orden de archivo. Retorna el motivo si la fila repite una clave, o registra sus claves y retorna {@code null}. */
+        String buscar(String[] campos);
+    }
+
+    private record EsquemaClientes(ClienteRepository repository) implements Esquema<Cliente> {
+        @Override
+        public int cantidadCampos() {
+            return 5;
+        }
+
+        @Override
+        public String validar(String[] campos) {
+            if (campos[0].isEmpty()) {
+                return "El nombre es obligatorio";
+            }
+            if (!DOCUMENTO.matcher(campos[1]).matches()) {
+                return "El documento debe ser válido (mínimo 5 números)";
+            }
+            if (!TELEFONO.matcher(campos[2]).matches()) {
+                return "El teléfono debe ser válido (10 números)";
+            }
+            if (campos[3].isEmpty()) {
+                return "La dirección es obligatoria";
+            }
+            if (!CORREO.matcher(campos[4]).matches()) {
+                return "El correo debe ser válido";
+            }
+            return null;
+        }
+
+        @Override
+        public Duplicados duplicados(List<String[]> filas) {
+            // Copias modificables: se les agregan las claves aceptadas del lote
+            Set<String> documentos = new HashSet<>(repository.buscarRegistrados(
+                    ClienteRepository.ClaveCliente.DOCUMENTO, columna(filas, 1)));
+            Set<String> telefonos = new HashSet<>(repository.buscarRegistrados(
+                    ClienteRepository.ClaveCliente.TELEFONO, columna(filas, 2)));
+            Set<String> correos = new HashSet<>(repository.buscarRegistrados(
+                    ClienteRepository.ClaveCliente.CORREO, columna(filas, 4)));
+            return campos -> {
+                String documento = clave(campos[1]);
+                String telefono = clave(campos[2]);
+                String correo = clave(campos[4]);
+                if (documentos.contains(documento)) {
+                    return "Documento ya registrado: " + campos[1];
+                }
+                if (telefonos.contains(telefono)) {
+                    return "Teléfono ya registrado: " + campos[2];
+                }
+                if (correos.contains(correo)) {
+                    return "Correo ya registrado: " + campos[4];
+                }
+                documentos.add(documento);
+                telefonos.add(telefono);
+                correos.add(correo);
+                return null;
+            };
+        }
+
+        @Override
+        public Cliente crear(String[] campos) {
+            return new Cliente(campos[0], campos[1], campos[2], campos[3], campos[4]);
+        }
+
+        @Override
+        public List<Cliente> guardar(List<Cliente> registros) {
+            return repository.guardarClientes(registros);
+        }
+
+        @Override
+        public String describir(Cliente cliente) {
+            return String.join(",", cliente.getNombre(), cliente.getDocumento(), cliente.getTelefono(),
+                    cliente.getDireccion(), cliente.getCorreo());
+        }
+    }
+
+    private record EsquemaProductos(ProductoRepository repository) implements Esquema<Producto> {
+        @Override
+        public int cantidadCampos() {
+            return 4;
+        }
+
+        @Override
+        public String validar(String[] campos) {
+            if (campos[0].isEmpty()) {
+                return "El nombre del producto es obligatorio";
+            }
+            try {
+                if (Dinero.desdeTexto(campos[1]) <= 0) {
+                    return "El precio debe ser mayor que cero";
+                }
+            } catch (NumberFormatException e) {
+                return "Precio inválido: " + campos[1];
+            }
+            try {
+                if (Integer.parseInt(campos[2]) < 0) {
+                    return "La cantidad no puede ser negativa";
+                }
+            } catch (NumberFormatException e) {
+                return "Cantidad inválida: " + campos[2];
+            }
+            if (campos[3].isEmpty()) {
+                return "La categoría del producto es obligatoria";
+            }
+            return null;
+        }
+
+        @Override
+        public Duplicados duplicados(List<String[]> filas) {
+            Set<String> nombres = new HashSet<>(repository.buscarNombresRegistrados(columna(filas, 0)));
+            return campos -> nombres.add(campos[0]) ? null : "Producto ya registrado: " + campos[0];
+        }
+
+        @Override
+        public Producto crear(String[] campos) {
+            return new Producto(campos[0], Dinero.desdeTexto(campos[1]), Integer.parseInt(campos[2]), campos[3]);
+        }
+
+        @Override
+        public List<Producto> guardar(List<Producto> registros) {
+            return repository.guardarProductos(registros);
+        }
+
+        @Override
+        public String describir(Producto producto) {
+            return String.join(",", producto.getNombre(), Dinero.aTexto(producto.getPrecio()),
+                    String.valueOf(producto.getCantidad()), producto.getCategoria());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.demo.Services;
+
+import org.demo.Models.Producto;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Libro de inventario encargado de reservar, confirmar y liberar stock de los productos.
+ * Cada operación se resuelve con compare-and-set sobre la cantidad del propio producto,
+ * por lo que ventas concurrentes de productos distintos no compiten entre sí
+ * y ninguna venta puede dejar la cantidad de un producto en negativo.
+ *
+ * <p>Después de cada cambio de stock se avisa a los oyentes registrados con
+ * {@link #agregarOyente(Consumer)}, en el hilo que hizo el cambio.</p>
+ */
+public class InventarioService {
+    private static final InventarioService INSTANCIA = new InventarioService();
+
+    // Unidades reservadas y aún no confirmadas ni liberadas, por id de producto
+    private final ConcurrentMap<Long, AtomicInteger> unidadesReservadas;
+    private final List<Consumer<Producto>> oyentes;
+
+    private InventarioService() {
+        unidadesReservadas = new ConcurrentHashMap<>();
+        oyentes = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Devuelve la instancia única del servicio de inventario.
+     *
+     * @return instancia única de {@code InventarioService}.
+     */
+    public static InventarioService getInstancia() {
+        return INSTANCIA;
+    }
+
+    /**
+     * Reserva unidades de un producto descontándolas del stock disponible de forma atómica.
+     * La reserva debe confirmarse o liberarse posteriormente.
+     *
+     * @param producto producto a reservar.
+     * @param unidades unidades a reservar.
+     * @return reserva pendiente.
+     * @throws IllegalArgumentException si las unidades no son positivas o no hay stock suficiente.
+     */
+    public ReservaStock reservar(Producto producto, int unidades) {
+        if (unidades <= 0) {
+            throw new IllegalArgumentException("La cantidad a reservar debe ser mayor a cero");
+        }
+        if (!producto.descontarCantidad(unidades)) {
+            throw new IllegalArgumentException("No hay cantidad suficiente del producto: " + producto.getNombre());
+        }
+        unidadesReservadas.computeIfAbsent(producto.getId(), id -> new AtomicInteger()).addAndGet(unidades);
+        avisar(producto);
+        return new ReservaStock(this, producto, unidades);
+    }
+
+    /**
+     * Ajusta el stock de un producto sumándole una diferencia de forma atómica, como al
+     * reabastecerlo o al corregir un conteo. Se aplica como un delta y no como un valor absoluto,
+     * por lo que no pisa las reservas que otros hilos hagan al mismo tiempo.
+     *
+     * @param producto   producto a ajustar.
+     * @param diferencia unidades a sumar; negativa para descontar.
+     * @throws IllegalArgumentException si la diferencia dejaría el stock en negativo.
+     */
+    public void ajustar(Producto producto, int diferencia) {
+        if (diferencia == 0) {
+            return;
+        }
+        if (diferencia > 0) {
+            producto.agregarCantidad(diferencia);
+        } else if (!producto.descontarCantidad(-diferencia)) {
+            throw new IllegalArgumentException("No hay cantidad suficiente del producto: " + producto.getNombre());
+        }
+        avisar(producto);
+    }
+
+    /**
+     * Registra una acción que recibe el producto cada vez que cambia su stock por una reserva,
+     * una liberación o un ajuste. Se ejecuta en el hilo de la venta, por lo que debe ser breve.
+     *
+     * @param oyente acción a ejecutar.
+     */
+    public void agregarOyente(Consumer<Producto> oyente) {
+        oyentes.add(oyente);
+    }
+
+    /**
+     * Retorna las unidades de un producto que están reservadas pero sin confirmar.
+     *
+     * @param idProducto identificador del producto.
+     * @return unidades reservadas pendientes.
+     */
+    public int getUnidadesReservadas(long idProducto) {
+        AtomicInteger reservadas = unidadesReservadas.get(idProducto);
+        return reservadas == null ? 0 : reservadas.get();
+    }
+
+    /**
+     * Cierra una reserva confirmada: las unidades quedan definitivamente descontadas.
+     */
+    void confirmar(ReservaStock reserva) {
+        unidadesReservadas.get(reserva.getProducto().getId()).addAndGet(-reserva.getUnidades());
+    }
+
+    /**
+     * Cierra una reserva liberada: las unidades vuelven al stock del producto.
+     */
+    void liberar(ReservaStock reserva) {
+        unidadesReservadas.get(reserva.getProducto().getId()).addAndGet(-reserva.getUnidades());
+        reserva.getProducto().agregarCantidad(reserva.getUnidades());
+        avisar(reserva.getProducto());
+    }
+
+    private void avisar(Producto producto) {
+        for (Consumer<Producto> oyente : oyentes) {
+            oyente.accept(producto);
+        }
+    }
+}
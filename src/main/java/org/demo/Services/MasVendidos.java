@@ -0,0 +1,73 @@
+package org.demo.Services;
+
+import java.util.List;
+
+/**
+ * Productos más vendidos estimados en memoria fija: un {@link CountMin} con las unidades de
+ * cada producto y un {@link Ranking} con los candidatos de mayor estimación.
+ *
+ * <p>Como las estimaciones de Count-Min solo crecen, basta revisar el ranking con la estimación
+ * del producto recién vendido. Al combinar dos periodos se suman los Count-Min y los candidatos
+ * de ambos se vuelven a estimar sobre la suma.</p>
+ *
+ * <p>No es segura entre hilos; quien la comparte debe sincronizar el acceso.</p>
+ */
+final class MasVendidos {
+    private final int capacidad;
+    private final CountMin unidades;
+    private Ranking candidatos;
+
+    /**
+     * @param capacidad         cantidad de productos a mantener.
+     * @param error             error de las estimaciones, relativo a las unidades totales.
+     * @param probabilidadFallo probabilidad de superar ese error.
+     */
+    MasVendidos(int capacidad, double error, double probabilidadFallo) {
+        this.capacidad = capacidad;
+        this.unidades = new CountMin(error, probabilidadFallo);
+        this.candidatos = new Ranking(capacidad);
+    }
+
+    /**
+     * @param idProducto identificador del producto vendido.
+     * @param nombre     nombre del producto.
+     * @param cantidad   unidades vendidas.
+     */
+    void sumar(long idProducto, String nombre, int cantidad) {
+        unidades.sumar(idProducto, cantidad);
+        candidatos.actualizar(idProducto, nombre, unidades.estimar(idProducto));
+    }
+
+    /**
+     * @return los productos con más unidades estimadas, de mayor a menor.
+     */
+    List<Ranking.Posicion> listar() {
+        return candidatos.listar();
+    }
+
+    /**
+     * @param idProducto identificador del producto.
+     * @return unidades estimadas del producto, nunca menos que las reales.
+     */
+    long estimar(long idProducto) {
+        return unidades.estimar(idProducto);
+    }
+
+    /**
+     * Suma a este resumen las ventas de otro con la misma configuración.
+     *
+     * @param otro resumen a combinar.
+     * @return este mismo resumen.
+     */
+    MasVendidos combinar(MasVendidos otro) {
+        List<Ranking.Posicion> propios = candidatos.listar();
+        unidades.combinar(otro.unidades);
+        candidatos = new Ranking(capacidad);
+        for (List<Ranking.Posicion> posiciones : List.of(propios, otro.listar())) {
+            for (Ranking.Posicion posicion : posiciones) {
+                candidatos.actualizar(posicion.id(), posicion.nombre(), unidades.estimar(posicion.id()));
+            }
+        }
+        return this;
+    }
+}
@@ -0,0 +1,156 @@
+package org.demo.Services;
+
+import org.demo.Models.Cliente;
+import org.demo.Models.Producto;
+import org.demo.Repositories.ClienteRepository;
+import org.demo.Repositories.ProductoRepository;
+import org.demo.Repositories.Repositorios;
+import org.demo.Repositories.VentasColumnares;
+import org.demo.Repositories.VentasColumnares.ClaveGrupo;
+import org.demo.Repositories.VentasColumnares.FiltroVentas;
+import org.demo.Repositories.VentasColumnares.Resumen;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongFunction;
+
+/**
+ * Reportes de ventas agrupadas por periodo, categoría, cliente o producto, con la cantidad,
+ * la suma, el promedio, el mínimo y el máximo de los importes de cada grupo.
+ *
+ * <p>Los reportes se calculan sobre el {@link VentasColumnares historial por columnas}: el
+ * recorrido se divide por segmentos entre los núcleos con fork/join. Las semanas y los meses
+ * se obtienen combinando los grupos por día, y las categorías combinando los grupos por
+ * producto, por lo que solo hay tres recorridos distintos del historial.</p>
+ *
+ * <p>La categoría de cada venta es la que tiene su producto al generar el reporte.</p>
+ */
+public final class MotorReportes {
+    private final VentasColumnares ventas;
+    private final ClienteRepository clienteRepository;
+    private final ProductoRepository productoRepository;
+    private final ForkJoinPool grupo;
+
+    /**
+     * @param ventas             historial de ventas por columnas.
+     * @param clienteRepository  repositorio usado para nombrar los clientes.
+     * @param productoRepository repositorio usado para nombrar los productos y leer sus categorías.
+     * @param grupo              grupo de hilos donde se reparte el cálculo.
+     */
+    public MotorReportes(VentasColumnares ventas, ClienteRepository clienteRepository,
+                         ProductoRepository productoRepository, ForkJoinPool grupo) {
+        this.ventas = ventas;
+        this.clienteRepository = clienteRepository;
+        this.productoRepository = productoRepository;
+        this.grupo = grupo;
+    }
+
+    private static class Contenedor {
+        static final MotorReportes INSTANCIA = new MotorReportes(Repositorios.ventasColumnares(),
+                Repositorios.clientes(), Repositorios.productos(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Devuelve la instancia única, sobre los repositorios de la aplicación y el grupo común de hilos.
+     *
+     * @return instancia única de {@code MotorReportes}.
+     */
+    public static MotorReportes getInstancia() {
+        return Contenedor.INSTANCIA;
+    }
+
+    /**
+     * Genera un reporte de las ventas que cumplen el filtro.
+     * Los reportes por periodo quedan en orden cronológico; los demás, de mayor a menor importe.
+     *
+     * @param agrupacion criterio de agrupación.
+     * @param filtro     condiciones de las ventas a incluir.
+     * @return una fila por grupo con ventas.
+     */
+    public List<FilaReporte> generar(Agrupacion agrupacion, FiltroVentas filtro) {
+        return switch (agrupacion) {
+            case DIA -> porPeriodo(filtro, dia -> LocalDate.ofEpochDay(dia).toString());
+            case SEMANA -> porPeriodo(filtro, dia -> {
+                LocalDate fecha = LocalDate.ofEpochDay(dia);
+                return String.format("%d-S%02d", fecha.get(IsoFields.WEEK_BASED_YEAR),
+                        fecha.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+            });
+            case MES -> porPeriodo(filtro, dia -> YearMonth.from(LocalDate.ofEpochDay(dia)).toString());
+            case CATEGORIA -> porImporte(combinar(ventas.agrupar(filtro, ClaveGrupo.PRODUCTO, grupo),
+                    id -> productoRepository.buscarProductoPorId(id)
+                            .map(Producto::getCategoria)
+                            .filter(categoria -> !categoria.isBlank())
+                            .orElse(AgregadosVentas.SIN_CATEGORIA)));
+            case CLIENTE -> porImporte(nombrar(ventas.agrupar(filtro, ClaveGrupo.CLIENTE, grupo),
+                    id -> clienteRepository.buscarClientePorId(id)
+                            .map(Cliente::getNombre)
+                            .orElse("Cliente " + id)));
+            case PRODUCTO -> porImporte(nombrar(ventas.agrupar(filtro, ClaveGrupo.PRODUCTO, grupo),
+                    id -> productoRepository.buscarProductoPorId(id)
+                            .map(Producto::getNombre)
+                            .orElse("Producto " + id)));
+        };
+    }
+
+    /**
+     * Agrupa por día y combina los días que comparten la misma etiqueta de periodo.
+     * Las etiquetas de periodo se ordenan igual que las fechas.
+     */
+    private List<FilaReporte> porPeriodo(FiltroVentas filtro, LongFunction<String> periodo) {
+        Map<String, Resumen> periodos = new TreeMap<>(combinar(ventas.agrupar(filtro, ClaveGrupo.DIA, grupo), periodo));
+        List<FilaReporte> filas = new ArrayList<>(periodos.size());
+        periodos.forEach((etiqueta, resumen) -> filas.add(new FilaReporte(etiqueta, resumen)));
+        return filas;
+    }
+
+    private static List<FilaReporte> porImporte(Map<String, Resumen> grupos) {
+        List<FilaReporte> filas = new ArrayList<>(grupos.size());
+        grupos.forEach((etiqueta, resumen) -> filas.add(new FilaReporte(etiqueta, resumen)));
+        return porImporte(filas);
+    }
+
+    private static List<FilaReporte> porImporte(List<FilaReporte> filas) {
+        filas.sort(Comparator.comparingLong((FilaReporte fila) -> fila.resumen().importe()).reversed()
+                .thenComparing(FilaReporte::grupo));
+        return filas;
+    }
+
+    /**
+     * Crea una fila por clave, sin combinar claves distintas aunque tengan el mismo nombre.
+     */
+    private static List<FilaReporte> nombrar(Map<Long, Resumen> grupos, LongFunction<String> nombre) {
+        List<FilaReporte> filas = new ArrayList<>(grupos.size());
+        grupos.forEach((clave, resumen) -> filas.add(new FilaReporte(nombre.apply(clave), resumen)));
+        return filas;
+    }
+
+    /**
+     * Combina los grupos cuyas claves tienen la misma etiqueta. La etiqueta se calcula una vez por clave.
+     */
+    private static Map<String, Resumen> combinar(Map<Long, Resumen> grupos, LongFunction<String> etiqueta) {
+        Map<String, Resumen> combinados = new HashMap<>();
+        grupos.forEach((clave, resumen) -> combinados.merge(etiqueta.apply(clave), resumen, Resumen::combinar));
+        return combinados;
+    }
+
+    /**
+     * Criterio de agrupación de un reporte. Las semanas son semanas ISO (de lunes a domingo).
+     */
+    public enum Agrupacion { DIA, SEMANA, MES, CATEGORIA, CLIENTE, PRODUCTO }
+
+    /**
+     * Fila de un reporte.
+     *
+     * @param grupo   nombre del grupo (fecha, semana, mes, categoría, cliente o producto).
+     * @param resumen cantidad de ventas, unidades, y suma, mínimo y máximo de los importes.
+     */
+    public record FilaReporte(String grupo, Resumen resumen) {}
+}
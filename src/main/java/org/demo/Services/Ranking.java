@@ -0,0 +1,79 @@
+package org.demo.Services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Los primeros elementos según un valor que solo puede crecer, como los ingresos acumulados
+ * de un producto. Guarda únicamente las posiciones del ranking, por lo que cada actualización
+ * cuesta O(log n) sobre esas pocas posiciones, sin ordenar el resto de elementos.
+ *
+ * <p>Como los valores nunca disminuyen, un elemento que no está en el ranking solo puede
+ * entrar cuando se actualiza su propio valor, y ese es justamente el momento en que se revisa.</p>
+ */
+public final class Ranking {
+    private static final Comparator<Posicion> ORDEN = Comparator
+            .comparingLong(Posicion::valor).reversed()
+            .thenComparingLong(Posicion::id);
+
+    private final int capacidad;
+    private final TreeSet<Posicion> posiciones;
+    private final Map<Long, Posicion> porId;
+
+    /**
+     * @param capacidad cantidad de posiciones del ranking.
+     */
+    Ranking(int capacidad) {
+        this.capacidad = capacidad;
+        this.posiciones = new TreeSet<>(ORDEN);
+        this.porId = new HashMap<>();
+    }
+
+    /**
+     * Actualiza el valor acumulado de un elemento, haciéndolo entrar al ranking si lo supera.
+     *
+     * @param id     identificador del elemento.
+     * @param nombre nombre a mostrar del elemento.
+     * @param valor  valor acumulado actual, mayor o igual que el anterior.
+     */
+    synchronized void actualizar(long id, String nombre, long valor) {
+        Posicion anterior = porId.get(id);
+        if (anterior != null) {
+            if (valor <= anterior.valor()) {
+                // Otro hilo ya registró un valor igual o más reciente
+                return;
+            }
+            posiciones.remove(anterior);
+        } else if (posiciones.size() == capacidad) {
+            Posicion ultima = posiciones.last();
+            if (ORDEN.compare(new Posicion(id, nombre, valor), ultima) >= 0) {
+                return;
+            }
+            posiciones.pollLast();
+            porId.remove(ultima.id());
+        }
+        Posicion nueva = new Posicion(id, nombre, valor);
+        posiciones.add(nueva);
+        porId.put(id, nueva);
+    }
+
+    /**
+     * @return posiciones actuales, de mayor a menor valor.
+     */
+    synchronized List<Posicion> listar() {
+        return new ArrayList<>(posiciones);
+    }
+
+    /**
+     * Posición de un elemento dentro del ranking.
+     *
+     * @param id     identificador del elemento.
+     * @param nombre nombre del elemento en el momento de su última venta.
+     * @param valor  valor acumulado.
+     */
+    public record Posicion(long id, String nombre, long valor) {}
+}
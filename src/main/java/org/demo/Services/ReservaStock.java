@@ -0,0 +1,64 @@
+package org.demo.Services;
+
+import org.demo.Models.Producto;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reserva de unidades de un producto obtenida desde {@link InventarioService}.
+ * Solo puede cerrarse una vez: confirmándola o liberándola.
+ */
+public class ReservaStock {
+
+    public enum Estado { PENDIENTE, CONFIRMADA, LIBERADA }
+
+    private final InventarioService inventario;
+    private final Producto producto;
+    private final int unidades;
+    private final AtomicReference<Estado> estado;
+
+    ReservaStock(InventarioService inventario, Producto producto, int unidades) {
+        this.inventario = inventario;
+        this.producto = producto;
+        this.unidades = unidades;
+        this.estado = new AtomicReference<>(Estado.PENDIENTE);
+    }
+
+    /**
+     * Confirma la reserva, dejando las unidades descontadas del producto.
+     *
+     * @throws IllegalStateException si la reserva ya fue cerrada.
+     */
+    public void confirmar() {
+        cerrar(Estado.CONFIRMADA);
+        inventario.confirmar(this);
+    }
+
+    /**
+     * Libera la reserva, devolviendo las unidades al stock del producto.
+     *
+     * @throws IllegalStateException si la reserva ya fue cerrada.
+     */
+    public void liberar() {
+        cerrar(Estado.LIBERADA);
+        inventario.liberar(this);
+    }
+
+    private void cerrar(Estado nuevoEstado) {
+        if (!estado.compareAndSet(Estado.PENDIENTE, nuevoEstado)) {
+            throw new IllegalStateException("La reserva ya fue " + estado.get().name().toLowerCase());
+        }
+    }
+
+    public Producto getProducto() {
+        return producto;
+    }
+
+    public int getUnidades() {
+        return unidades;
+    }
+
+    public Estado getEstado() {
+        return estado.get();
+    }
+}
@@ -0,0 +1,65 @@
+package org.demo.Services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de una importación masiva: cuántas filas se guardaron y cuáles fueron rechazadas.
+ */
+public class ResultadoImportacion {
+    private final long aceptados;
+    private final List<Rechazo> rechazos;
+
+    ResultadoImportacion(long aceptados, List<Rechazo> rechazos) {
+        this.aceptados = aceptados;
+        this.rechazos = Collections.unmodifiableList(rechazos);
+    }
+
+    public long getAceptados() {
+        return aceptados;
+    }
+
+    public List<Rechazo> getRechazos() {
+        return rechazos;
+    }
+
+    /**
+     * Escribe el reporte de filas rechazadas en formato CSV ({@code linea,motivo,contenido}).
+     *
+     * @param archivo ruta del reporte.
+     */
+    public void escribirReporte(Path archivo) {
+        try (BufferedWriter salida = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8)) {
+            salida.write("linea,motivo,contenido");
+            salida.newLine();
+            for (Rechazo rechazo : rechazos) {
+                salida.write(Long.toString(rechazo.linea()));
+                salida.write(',');
+                salida.write(citar(rechazo.motivo()));
+                salida.write(',');
+                salida.write(citar(rechazo.contenido()));
+                salida.newLine();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo escribir el reporte de rechazos: " + archivo, e);
+        }
+    }
+
+    private static String citar(String valor) {
+        return "\"" + valor.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Fila del archivo que no se importó.
+     *
+     * @param linea     número de línea en el archivo (empezando en 1).
+     * @param contenido texto de la fila.
+     * @param motivo    razón por la que se rechazó.
+     */
+    public record Rechazo(long linea, String contenido, String motivo) {}
+}
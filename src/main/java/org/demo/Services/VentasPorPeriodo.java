@@ -0,0 +1,310 @@
+package org.demo.Services;
+
+import org.demo.Models.Venta;
+import org.demo.Repositories.OyenteRepositorio;
+import org.demo.Repositories.Repositorios;
+import org.demo.Repositories.VentaRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Totales de ventas por minuto, hora, día y mes, mantenidos a medida que se guardan las ventas.
+ *
+ * <p>Cada venta se suma a su periodo en los cuatro niveles. En cada nivel solo quedan abiertos el
+ * periodo más reciente con ventas y el anterior; los periodos más viejos se sellan y pasan a
+ * arreglos primitivos ordenados (32 bytes por periodo, sin objetos). Así, los ingresos de los
+ * últimos 90 días por día se leen de 90 periodos, sin recorrer las ventas.</p>
+ *
+ * <p>Una venta con fecha de un periodo ya sellado se suma a ese periodo en su lugar. Los periodos
+ * sin ventas no ocupan espacio y no aparecen en las consultas.</p>
+ *
+ * <p>Los minutos y las horas solo se conservan durante una ventana de retención contada desde el
+ * periodo más reciente con ventas (ver {@link Nivel}); los más viejos se descartan, porque sus
+ * ventas ya están sumadas en los días y los meses, que se conservan siempre. Así la memoria de
+ * los niveles finos no crece con la historia, y sumar una venta atrasada mueve a lo sumo los
+ * periodos de esa ventana.</p>
+ *
+ * <p>Las fechas se toman tal como las guarda cada venta, sin zona horaria.</p>
+ */
+public final class VentasPorPeriodo implements OyenteRepositorio<Venta> {
+    private final Map<Nivel, Periodos> niveles;
+    private final List<Runnable> oyentes;
+
+    private VentasPorPeriodo() {
+        niveles = new EnumMap<>(Nivel.class);
+        for (Nivel nivel : Nivel.values()) {
+            niveles.put(nivel, new Periodos(nivel.retencion));
+        }
+        oyentes = new CopyOnWriteArrayList<>();
+    }
+
+    private static class Contenedor {
+        static final VentasPorPeriodo INSTANCIA = crear(Repositorios.ventas());
+    }
+
+    /**
+     * Devuelve la instancia única, suscrita al repositorio de ventas de la aplicación.
+     *
+     * @return instancia única de {@code VentasPorPeriodo}.
+     */
+    public static VentasPorPeriodo getInstancia() {
+        return Contenedor.INSTANCIA;
+    }
+
+    /**
+     * Crea los totales de un repositorio de ventas, sumando las ventas existentes
+     * y suscribiéndose a las nuevas de forma atómica con la entrega, por páginas, de las existentes.
+     *
+     * @param ventaRepository repositorio de ventas a acumular.
+     * @return totales suscritos al repositorio.
+     */
+    static VentasPorPeriodo crear(VentaRepository ventaRepository) {
+        VentasPorPeriodo periodos = new VentasPorPeriodo();
+        ventaRepository.suscribir(periodos);
+        return periodos;
+    }
+
+    @Override
+    public void alAgregar(List<Venta> agregadas) {
+        for (Venta venta : agregadas) {
+            for (Nivel nivel : Nivel.values()) {
+                niveles.get(nivel).sumar(nivel.clave(venta.getFecha()), venta.getCantidad(), venta.getTotal());
+            }
+        }
+        oyentes.forEach(Runnable::run);
+    }
+
+    /**
+     * Registra una acción que se ejecuta después de sumar cada lote de ventas nuevas,
+     * en el hilo que guardó las ventas.
+     *
+     * @param oyente acción a ejecutar.
+     */
+    public void agregarOyente(Runnable oyente) {
+        oyentes.add(oyente);
+    }
+
+    /**
+     * Consulta los periodos de un nivel entre dos fechas, incluyendo el periodo que contiene
+     * {@code desde} y el que contiene {@code hasta}.
+     *
+     * @param nivel duración de los periodos.
+     * @param desde fecha inicial.
+     * @param hasta fecha final.
+     * @return periodos con ventas, en orden cronológico.
+     */
+    public List<Periodo> consultar(Nivel nivel, LocalDateTime desde, LocalDateTime hasta) {
+        return niveles.get(nivel).consultar(nivel, nivel.clave(desde), nivel.clave(hasta));
+    }
+
+    /**
+     * Consulta los últimos periodos de un nivel, terminando en el periodo actual.
+     * Por ejemplo, {@code ultimos(Nivel.DIA, 90)} da los ingresos de los últimos 90 días por día.
+     *
+     * @param nivel    duración de los periodos.
+     * @param cantidad cantidad de periodos, contando el actual.
+     * @return periodos con ventas, en orden cronológico.
+     */
+    public List<Periodo> ultimos(Nivel nivel, int cantidad) {
+        if (cantidad <= 0) {
+            throw new IllegalArgumentException("La cantidad de periodos debe ser positiva");
+        }
+        long actual = nivel.clave(LocalDateTime.now());
+        return niveles.get(nivel).consultar(nivel, actual - cantidad + 1, actual);
+    }
+
+    /**
+     * Suma los periodos de un nivel entre dos fechas, con los mismos límites que
+     * {@link #consultar(Nivel, LocalDateTime, LocalDateTime)}.
+     *
+     * @param nivel duración de los periodos a sumar.
+     * @param desde fecha inicial.
+     * @param hasta fecha final.
+     * @return un periodo que empieza en el primer periodo del rango, con la suma de todos.
+     */
+    public Periodo total(Nivel nivel, LocalDateTime desde, LocalDateTime hasta) {
+        long ventas = 0;
+        long unidades = 0;
+        long importe = 0;
+        for (Periodo periodo : consultar(nivel, desde, hasta)) {
+            ventas += periodo.ventas();
+            unidades += periodo.unidades();
+            importe += periodo.importe();
+        }
+        return new Periodo(nivel.inicio(nivel.clave(desde)), ventas, unidades, importe);
+    }
+
+    /**
+     * Duración de los periodos. Las claves de minuto, hora y día cuentan periodos desde
+     * 1970-01-01; la de mes cuenta meses desde el año 0.
+     *
+     * <p>Los minutos se conservan durante 7 días y las horas durante 366 días; las consultas
+     * más antiguas en esos niveles no encuentran periodos y deben hacerse por día o por mes.</p>
+     */
+    public enum Nivel {
+        MINUTO(60, 7 * 24 * 60), HORA(3_600, 366 * 24), DIA(86_400, 0), MES(0, 0);
+
+        private final long segundos;
+        // Cantidad de periodos que se conservan; 0 los conserva todos
+        private final long retencion;
+
+        Nivel(long segundos, long retencion) {
+            this.segundos = segundos;
+            this.retencion = retencion;
+        }
+
+        long clave(LocalDateTime fecha) {
+            if (this == MES) {
+                return fecha.getYear() * 12L + fecha.getMonthValue() - 1;
+            }
+            return Math.floorDiv(fecha.toEpochSecond(ZoneOffset.UTC), segundos);
+        }
+
+        LocalDateTime inicio(long clave) {
+            if (this == MES) {
+                return LocalDate.of((int) Math.floorDiv(clave, 12L), (int) Math.floorMod(clave, 12L) + 1, 1)
+                        .atStartOfDay();
+            }
+            return LocalDateTime.ofEpochSecond(clave * segundos, 0, ZoneOffset.UTC);
+        }
+    }
+
+    /**
+     * Totales de un periodo.
+     *
+     * @param inicio   fecha y hora en que empieza el periodo.
+     * @param ventas   cantidad de ventas.
+     * @param unidades unidades vendidas.
+     * @param importe  ingresos en centavos.
+     */
+    public record Periodo(LocalDateTime inicio, long ventas, long unidades, long importe) {}
+
+    /**
+     * Periodos de un nivel: los abiertos en un mapa ordenado y los sellados en arreglos
+     * ordenados por clave, con ventas, unidades e importe intercalados.
+     *
+     * <p>Con retención, los sellados vencidos se descartan por tandas de al menos un cuarto de
+     * la ventana, para que cargar una historia larga no desplace los arreglos en cada periodo.</p>
+     */
+    private static final class Periodos {
+        private static final int ANCHO = 3;
+        // Periodos abiertos además del más reciente, para las ventas que llegan algo desordenadas
+        private static final int ABIERTOS_ANTERIORES = 1;
+
+        private final long retencion;
+        private final TreeMap<Long, long[]> abiertos = new TreeMap<>();
+        private long[] claves = new long[16];
+        private long[] datos = new long[16 * ANCHO];
+        private int sellados;
+
+        Periodos(long retencion) {
+            this.retencion = retencion;
+        }
+
+        synchronized void sumar(long clave, int cantidad, long importe) {
+            if (vencida(clave)) {
+                return;
+            }
+            if (sellados > 0 && clave <= claves[sellados - 1]) {
+                sumarSellado(clave, cantidad, importe);
+                return;
+            }
+            long[] periodo = abiertos.computeIfAbsent(clave, c -> new long[ANCHO]);
+            periodo[0]++;
+            periodo[1] += cantidad;
+            periodo[2] += importe;
+            sellarAntesDe(abiertos.lastKey() - ABIERTOS_ANTERIORES);
+            descartarVencidos();
+        }
+
+        synchronized List<Periodo> consultar(Nivel nivel, long desde, long hasta) {
+            List<Periodo> resultado = new ArrayList<>();
+            int i = buscar(desde);
+            for (i = i < 0 ? -i - 1 : i; i < sellados && claves[i] <= hasta; i++) {
+                int base = i * ANCHO;
+                resultado.add(new Periodo(nivel.inicio(claves[i]), datos[base], datos[base + 1], datos[base + 2]));
+            }
+            if (desde <= hasta) {
+                abiertos.subMap(desde, true, hasta, true).forEach((clave, periodo) ->
+                        resultado.add(new Periodo(nivel.inicio(clave), periodo[0], periodo[1], periodo[2])));
+            }
+            return resultado;
+        }
+
+        private void sellarAntesDe(long limite) {
+            Iterator<Map.Entry<Long, long[]>> viejos = abiertos.headMap(limite).entrySet().iterator();
+            while (viejos.hasNext()) {
+                Map.Entry<Long, long[]> periodo = viejos.next();
+                // Las claves abiertas son mayores que las selladas, así que se agregan al final
+                insertar(sellados, periodo.getKey(), periodo.getValue());
+                viejos.remove();
+            }
+        }
+
+        /**
+         * Indica si una clave queda fuera de la ventana de retención, contada desde el periodo
+         * más reciente con ventas.
+         */
+        private boolean vencida(long clave) {
+            if (retencion == 0) {
+                return false;
+            }
+            if (!abiertos.isEmpty()) {
+                return clave <= abiertos.lastKey() - retencion;
+            }
+            return sellados > 0 && clave <= claves[sellados - 1] - retencion;
+        }
+
+        private void descartarVencidos() {
+            if (retencion == 0) {
+                return;
+            }
+            int vencidos = buscar(abiertos.lastKey() - retencion + 1);
+            vencidos = vencidos < 0 ? -vencidos - 1 : vencidos;
+            if (vencidos < Math.max(1, retencion / 4)) {
+                return;
+            }
+            sellados -= vencidos;
+            System.arraycopy(claves, vencidos, claves, 0, sellados);
+            System.arraycopy(datos, vencidos * ANCHO, datos, 0, sellados * ANCHO);
+        }
+
+        private void sumarSellado(long clave, int cantidad, long importe) {
+            int i = buscar(clave);
+            if (i < 0) {
+                i = -i - 1;
+                insertar(i, clave, new long[ANCHO]);
+            }
+            int base = i * ANCHO;
+            datos[base]++;
+            datos[base + 1] += cantidad;
+            datos[base + 2] += importe;
+        }
+
+        private void insertar(int posicion, long clave, long[] periodo) {
+            if (sellados == claves.length) {
+                claves = Arrays.copyOf(claves, sellados * 2);
+                datos = Arrays.copyOf(datos, sellados * 2 * ANCHO);
+            }
+            System.arraycopy(claves, posicion, claves, posicion + 1, sellados - posicion);
+            System.arraycopy(datos, posicion * ANCHO, datos, (posicion + 1) * ANCHO, (sellados - posicion) * ANCHO);
+            claves[posicion] = clave;
+            System.arraycopy(periodo, 0, datos, posicion * ANCHO, ANCHO);
+            sellados++;
+        }
+
+        private int buscar(long clave) {
+            return Arrays.binarySearch(claves, 0, sellados, clave);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.demo.Utils;
+
+/**
+ * Operaciones sobre valores de dinero representados como {@code long} en centavos.
+ *
+ * <p>Los precios, totales e ingresos de la aplicación se guardan en centavos para que las sumas
+ * y multiplicaciones sean exactas (sin el error acumulado de {@code double}) y no creen objetos.
+ * Las operaciones lanzan {@link ArithmeticException} si el resultado no cabe en un {@code long}.</p>
+ */
+public final class Dinero {
+    public static final long CENTAVOS_POR_PESO = 100;
+
+    private Dinero() {}
+
+    /**
+     * @param pesos valor en pesos enteros.
+     * @return el mismo valor en centavos.
+     */
+    public static long pesos(long pesos) {
+        return Math.multiplyExact(pesos, CENTAVOS_POR_PESO);
+    }
+
+    /**
+     * @param centavos precio unitario en centavos.
+     * @param cantidad unidades.
+     * @return importe de las unidades en centavos.
+     */
+    public static long multiplicar(long centavos, int cantidad) {
+        return Math.multiplyExact(centavos, (long) cantidad);
+    }
+
+    /**
+     * @return suma exacta de dos valores en centavos.
+     */
+    public static long sumar(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    /**
+     * Convierte un valor en pesos expresado como {@code double}, redondeando al centavo.
+     * Solo se usa para leer datos guardados en formatos anteriores.
+     *
+     * @param pesos valor en pesos.
+     * @return valor en centavos.
+     */
+    public static long desdeDouble(double pesos) {
+        return Math.round(pesos * CENTAVOS_POR_PESO);
+    }
+
+    /**
+     * Interpreta un valor en pesos escrito con punto decimal, por ejemplo {@code "1500"} o
+     * {@code "1500.5"}. Se admiten hasta dos decimales.
+     *
+     * @param texto valor en pesos.
+     * @return valor en centavos.
+     * @throws NumberFormatException si el texto no es un valor válido.
+     */
+    public static long desdeTexto(String texto) {
+        String valor = texto == null ? "" : texto.trim();
+        boolean negativo = valor.startsWith("-");
+        if (negativo || valor.startsWith("+")) {
+            valor = valor.substring(1);
+        }
+        int punto = valor.indexOf('.');
+        String enteros = punto < 0 ? valor : valor.substring(0, punto);
+        String decimales = punto < 0 ? "" : valor.substring(punto + 1);
+        if (enteros.isEmpty() && decimales.isEmpty() || decimales.length() > 2
+                || !soloDigitos(enteros) || !soloDigitos(decimales)) {
+            throw new NumberFormatException("Valor de dinero inválido: " + texto);
+        }
+        try {
+            long centavos = Math.addExact(
+                    pesos(enteros.isEmpty() ? 0 : Long.parseLong(enteros)),
+                    decimales.isEmpty() ? 0 : Long.parseLong(decimales) * (decimales.length() == 1 ? 10 : 1));
+            return negativo ? -centavos : centavos;
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Valor de dinero fuera de rango: " + texto);
+        }
+    }
+
+    /**
+     * Escribe un valor sin símbolo ni separadores de miles, en el formato que acepta
+     * {@link #desdeTexto(String)}. Los decimales se omiten si son cero.
+     *
+     * @param centavos valor en centavos.
+     * @return texto como {@code "1500"} o {@code "1500.50"}.
+     */
+    public static String aTexto(long centavos) {
+        long resto = Math.abs(centavos % CENTAVOS_POR_PESO);
+        String pesos = (centavos < 0 ? "-" : "") + Math.abs(centavos / CENTAVOS_POR_PESO);
+        return resto == 0 ? pesos : pesos + (resto < 10 ? ".0" : ".") + resto;
+    }
+
+    /**
+     * Escribe un valor para mostrarlo, con símbolo y separadores de miles.
+     * Los decimales se omiten si son cero.
+     *
+     * @param centavos valor en centavos.
+     * @return texto como {@code "$1,500"} o {@code "$1,500.50"}.
+     */
+    public static String formatear(long centavos) {
+        long resto = Math.abs(centavos % CENTAVOS_POR_PESO);
+        String pesos = String.format("%s$%,d", centavos < 0 ? "-" : "", Math.abs(centavos / CENTAVOS_POR_PESO));
+        return resto == 0 ? pesos : pesos + (resto < 10 ? ".0" : ".") + resto;
+    }
+
+    private static boolean soloDigitos(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
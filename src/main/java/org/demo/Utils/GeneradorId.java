@@ -0,0 +1,23 @@
+package org.demo.Utils;
+
+/**
+ * Estrategia de generación de identificadores numéricos de 64 bits.
+ * Las implementaciones deben ser seguras para uso concurrente.
+ */
+public interface GeneradorId {
+
+    /**
+     * Genera un nuevo identificador único.
+     *
+     * @return identificador positivo que nunca se repite.
+     */
+    long siguienteId();
+
+    /**
+     * Garantiza que los identificadores generados a partir de ahora sean mayores que {@code id}.
+     * Se usa al restaurar datos persistidos para no reutilizar identificadores de una ejecución anterior.
+     *
+     * @param id último identificador conocido.
+     */
+    void asegurarMayorQue(long id);
+}
@@ -0,0 +1,88 @@
+package org.demo.Utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generador de identificadores ordenados en el tiempo.
+ * Cada identificador combina los milisegundos transcurridos desde {@link #EPOCA} (bits altos)
+ * con una secuencia de {@value #BITS_SECUENCIA} bits (bits bajos), por lo que los identificadores
+ * crecen con el reloj y no se repiten entre reinicios de la aplicación.
+ *
+ * <p>No usa bloqueos: cada hilo reserva con un compare-and-set un bloque de secuencias
+ * y lo consume localmente, de modo que la mayoría de llamadas no tocan estado compartido.</p>
+ */
+public class GeneradorIdTemporal implements GeneradorId {
+    /** Instante de referencia (2024-01-01T00:00:00Z) en milisegundos. */
+    public static final long EPOCA = 1704067200000L;
+    public static final int BITS_SECUENCIA = 22;
+
+    private final int tamanoBloque;
+    // Último identificador reservado por cualquier hilo
+    private final AtomicLong ultimoReservado;
+    // Bloque local de cada hilo: {siguiente, último}
+    private final ThreadLocal<long[]> bloqueLocal;
+
+    /**
+     * Crea un generador que reserva bloques de {@code tamanoBloque} identificadores por hilo.
+     *
+     * @param tamanoBloque cantidad de identificadores reservados en cada acceso al estado compartido.
+     */
+    public GeneradorIdTemporal(int tamanoBloque) {
+        if (tamanoBloque <= 0) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser mayor a cero");
+        }
+        this.tamanoBloque = tamanoBloque;
+        this.ultimoReservado = new AtomicLong();
+        this.bloqueLocal = ThreadLocal.withInitial(() -> new long[]{1, 0});
+    }
+
+    public GeneradorIdTemporal() {
+        this(64);
+    }
+
+    @Override
+    public long siguienteId() {
+        long[] bloque = bloqueLocal.get();
+        long milisActual = System.currentTimeMillis() - EPOCA;
+        // Un bloque vacío o de un milisegundo anterior se descarta para mantener el orden temporal
+        if (bloque[0] > bloque[1] || (bloque[0] >>> BITS_SECUENCIA) < milisActual) {
+            long inicio = reservarBloque(milisActual);
+            bloque[0] = inicio;
+            bloque[1] = inicio + tamanoBloque - 1;
+        }
+        return bloque[0]++;
+    }
+
+    @Override
+    public void asegurarMayorQue(long id) {
+        long actual;
+        do {
+            actual = ultimoReservado.get();
+            if (actual >= id) {
+                return;
+            }
+        } while (!ultimoReservado.compareAndSet(actual, id));
+    }
+
+    /**
+     * Extrae el instante en que se generó un identificador.
+     *
+     * @param id identificador generado por esta clase.
+     * @return milisegundos desde la época Unix.
+     */
+    public static long obtenerMilis(long id) {
+        return (id >>> BITS_SECUENCIA) + EPOCA;
+    }
+
+    private long reservarBloque(long milisActual) {
+        long base = milisActual << BITS_SECUENCIA;
+        while (true) {
+            long anterior = ultimoReservado.get();
+            long inicio = Math.max(anterior + 1, base);
+            long fin = inicio + tamanoBloque - 1;
+            if (ultimoReservado.compareAndSet(anterior, fin)) {
+                return inicio;
+            }
+        }
+    }
+}
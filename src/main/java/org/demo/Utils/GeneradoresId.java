@@ -0,0 +1,38 @@
+package org.demo.Utils;
+
+/**
+ * Punto de acceso a los generadores de identificadores de cada entidad.
+ * Por defecto se usa {@link GeneradorIdTemporal}; puede reemplazarse por otra implementación
+ * antes de crear entidades (por ejemplo, en pruebas o al cambiar de almacenamiento).
+ */
+public final class GeneradoresId {
+    private static volatile GeneradorId clientes = new GeneradorIdTemporal();
+    private static volatile GeneradorId productos = new GeneradorIdTemporal();
+    private static volatile GeneradorId ventas = new GeneradorIdTemporal();
+
+    private GeneradoresId() {}
+
+    public static GeneradorId clientes() {
+        return clientes;
+    }
+
+    public static GeneradorId productos() {
+        return productos;
+    }
+
+    public static GeneradorId ventas() {
+        return ventas;
+    }
+
+    public static void setClientes(GeneradorId generador) {
+        clientes = generador;
+    }
+
+    public static void setProductos(GeneradorId generador) {
+        productos = generador;
+    }
+
+    public static void setVentas(GeneradorId generador) {
+        ventas = generador;
+    }
+}
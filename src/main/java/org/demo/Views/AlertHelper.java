@@ -1,4 +1,4 @@
-package org.demo.Utils;
+package org.demo.Views;
 
 import javafx.scene.control.Alert;
 
@@ -0,0 +1,178 @@
+package org.demo.Views;
+
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.cell.PropertyValueFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Valores de las celdas de una tabla leídos con funciones tipadas, sin reflexión.
+ *
+ * <p>{@link PropertyValueFactory} busca el getter por reflexión y, como las fábricas que crean
+ * un {@code SimpleStringProperty} por celda, produce un valor nuevo cada vez que la tabla vuelve
+ * a dibujar una celda, es decir, en cada cuadro de un desplazamiento. Aquí cada columna recuerda
+ * el valor de las últimas {@value #FILAS_EN_MEMORIA} filas dibujadas junto con el dato del que
+ * salió: mientras el dato no cambie se devuelve el mismo valor, sin volver a formatear ni crear
+ * objetos. Si el dato cambió (por ejemplo, al editar un producto y refrescar la tabla) se
+ * actualiza el valor guardado.</p>
+ *
+ * <p>Las filas {@code null}, como las de una página que aún se está cargando, se muestran vacías.
+ * Los valores se usan solamente desde el hilo de JavaFX.</p>
+ */
+public final class CeldasTabla {
+    static final int FILAS_EN_MEMORIA = 512;
+
+    private CeldasTabla() {}
+
+    /**
+     * Muestra en la columna un valor de la fila tal como lo retorna su getter.
+     *
+     * @param columna columna a configurar.
+     * @param valor   lee el valor de la fila.
+     */
+    public static <S, T> void valor(TableColumn<S, T> columna, Function<S, T> valor) {
+        Map<S, Valor<T>> valores = memoria();
+        columna.setCellValueFactory(datos -> {
+            S fila = datos.getValue();
+            if (fila == null) {
+                return null;
+            }
+            T dato = valor.apply(fila);
+            Valor<T> celda = valores.computeIfAbsent(fila, f -> new Valor<>());
+            if (celda.nuevo || !Objects.equals(celda.dato, dato)) {
+                celda.dato = dato;
+                celda.nuevo = false;
+                celda.set(dato);
+            }
+            return celda;
+        });
+    }
+
+    /**
+     * Muestra en la columna un dato de la fila convertido a texto, formateándolo solo cuando cambia.
+     *
+     * @param columna columna a configurar.
+     * @param valor   lee el dato de la fila.
+     * @param formato convierte el dato a texto.
+     */
+    public static <S, T> void formato(TableColumn<S, String> columna, Function<S, T> valor, Function<T, String> formato) {
+        Map<S, Valor<String>> valores = memoria();
+        columna.setCellValueFactory(datos -> {
+            S fila = datos.getValue();
+            if (fila == null) {
+                return null;
+            }
+            T dato = valor.apply(fila);
+            Valor<String> celda = valores.computeIfAbsent(fila, f -> new Valor<>());
+            if (celda.nuevo || !Objects.equals(celda.dato, dato)) {
+                celda.dato = dato;
+                celda.nuevo = false;
+                celda.set(dato == null ? "" : formato.apply(dato));
+            }
+            return celda;
+        });
+    }
+
+    /**
+     * Muestra en la columna un número de la fila convertido a texto, como un importe en centavos,
+     * formateándolo solo cuando cambia.
+     *
+     * @param columna columna a configurar.
+     * @param valor   lee el número de la fila.
+     * @param formato convierte el número a texto.
+     */
+    public static <S> void formatoNumero(TableColumn<S, String> columna, ToLongFunction<S> valor, LongFunction<String> formato) {
+        Map<S, Valor<String>> valores = memoria();
+        columna.setCellValueFactory(datos -> {
+            S fila = datos.getValue();
+            if (fila == null) {
+                return null;
+            }
+            long numero = valor.applyAsLong(fila);
+            Valor<String> celda = valores.computeIfAbsent(fila, f -> new Valor<>());
+            if (celda.nuevo || celda.numero != numero) {
+                celda.numero = numero;
+                celda.nuevo = false;
+                celda.set(formato.apply(numero));
+            }
+            return celda;
+        });
+    }
+
+    /**
+     * Muestra en la columna un número entero largo de la fila, como un id.
+     *
+     * @param columna columna a configurar.
+     * @param valor   lee el número de la fila.
+     */
+    public static <S> void numero(TableColumn<S, Long> columna, ToLongFunction<S> valor) {
+        Map<S, Valor<Long>> valores = memoria();
+        columna.setCellValueFactory(datos -> {
+            S fila = datos.getValue();
+            if (fila == null) {
+                return null;
+            }
+            long numero = valor.applyAsLong(fila);
+            Valor<Long> celda = valores.computeIfAbsent(fila, f -> new Valor<>());
+            if (celda.nuevo || celda.numero != numero) {
+                celda.numero = numero;
+                celda.nuevo = false;
+                celda.set(numero);
+            }
+            return celda;
+        });
+    }
+
+    /**
+     * Muestra en la columna un número entero de la fila, como una cantidad.
+     *
+     * @param columna columna a configurar.
+     * @param valor   lee el número de la fila.
+     */
+    public static <S> void entero(TableColumn<S, Integer> columna, ToIntFunction<S> valor) {
+        Map<S, Valor<Integer>> valores = memoria();
+        columna.setCellValueFactory(datos -> {
+            S fila = datos.getValue();
+            if (fila == null) {
+                return null;
+            }
+            int numero = valor.applyAsInt(fila);
+            Valor<Integer> celda = valores.computeIfAbsent(fila, f -> new Valor<>());
+            if (celda.nuevo || celda.numero != numero) {
+                celda.numero = numero;
+                celda.nuevo = false;
+                celda.set(numero);
+            }
+            return celda;
+        });
+    }
+
+    /**
+     * Valores de las filas dibujadas más recientemente. Las entidades no redefinen
+     * {@code equals}, por lo que cada fila se identifica por su objeto.
+     */
+    private static <S, T> Map<S, Valor<T>> memoria() {
+        return new LinkedHashMap<>(FILAS_EN_MEMORIA * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<S, Valor<T>> mayor) {
+                return size() > FILAS_EN_MEMORIA;
+            }
+        };
+    }
+
+    /**
+     * Valor de una celda junto con el dato del que se obtuvo.
+     */
+    private static final class Valor<T> extends SimpleObjectProperty<T> {
+        boolean nuevo = true;
+        Object dato;
+        long numero;
+    }
+}
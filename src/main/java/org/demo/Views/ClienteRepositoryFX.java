@@ -0,0 +1,147 @@
+package org.demo.Views;
+
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.collections.ObservableList;
+import org.demo.Models.Cliente;
+import org.demo.Repositories.ClienteRepository;
+import org.demo.Repositories.OyenteRepositorio;
+import org.demo.Repositories.Repositorios;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Adaptador de {@link ClienteRepository} para la interfaz gráfica.
+ * Delega todas las operaciones en el repositorio configurado en {@link Repositorios}
+ * y expone sus clientes como una lista observable que se mantiene sincronizada con él.
+ * La lista se llena por páginas a medida que la interfaz las solicita.
+ */
+public class ClienteRepositoryFX implements ClienteRepository {
+    private final ClienteRepository delegado;
+    private final ListaObservableRepositorio<Cliente> clientes;
+
+    private ClienteRepositoryFX(ClienteRepository delegado) {
+        this.delegado = delegado;
+        this.clientes = new ListaObservableRepositorio<>(Cliente::getId, delegado::listarClientesDesde);
+        this.clientes.iniciar(delegado.contarYSuscribir(this.clientes));
+    }
+
+    private static class Contenedor {
+        static final ClienteRepositoryFX INSTANCIA = new ClienteRepositoryFX(Repositorios.clientes());
+    }
+
+    /**
+     * Devuelve la instancia única del adaptador.
+     *
+     * @return instancia única de {@code ClienteRepositoryFX}.
+     */
+    public static ClienteRepositoryFX getInstancia() {
+        return Contenedor.INSTANCIA;
+    }
+
+    /**
+     * Retorna la lista observable de clientes.
+     * Puede ser utilizada para enlazar datos con componentes de la interfaz gráfica.
+     *
+     * @return lista observable de clientes.
+     */
+    public ObservableList<Cliente> getClientes() {
+        return clientes.getElementos();
+    }
+
+    /**
+     * Carga en la lista observable la siguiente página de clientes.
+     * Debe llamarse desde el hilo de JavaFX.
+     *
+     * @return {@code true} si pueden quedar más páginas por cargar.
+     */
+    public boolean cargarSiguientePagina() {
+        return clientes.cargarSiguientePagina();
+    }
+
+    /**
+     * Retorna el total de clientes del repositorio, incluidos los que aún no se han cargado en la lista.
+     *
+     * @return propiedad de solo lectura con el total de clientes.
+     */
+    public ReadOnlyLongProperty totalClientesProperty() {
+        return clientes.totalProperty();
+    }
+
+    @Override
+    public List<Cliente> listarClientes() {
+        return delegado.listarClientes();
+    }
+
+    @Override
+    public List<Cliente> listarClientesDesde(long idAnterior, int limite) {
+        return delegado.listarClientesDesde(idAnterior, limite);
+    }
+
+    @Override
+    public void guardarCliente(Cliente cliente) {
+        delegado.guardarCliente(cliente);
+    }
+
+    @Override
+    public List<Cliente> guardarClientes(List<Cliente> clientes) {
+        return delegado.guardarClientes(clientes);
+    }
+
+    @Override
+    public void eliminarCliente(Cliente cliente) {
+        delegado.eliminarCliente(cliente);
+    }
+
+    @Override
+    public void actualizarCliente(Cliente cliente) {
+        delegado.actualizarCliente(cliente);
+    }
+
+    @Override
+    public boolean existeClienteConDocumento(String documento) {
+        return delegado.existeClienteConDocumento(documento);
+    }
+
+    @Override
+    public boolean existeClienteConCorreo(String correo) {
+        return delegado.existeClienteConCorreo(correo);
+    }
+
+    @Override
+    public boolean existeClienteConTelefono(String telefono) {
+        return delegado.existeClienteConTelefono(telefono);
+    }
+
+    @Override
+    public Set<String> buscarRegistrados(ClaveCliente clave, Collection<String> valores) {
+        return delegado.buscarRegistrados(clave, valores);
+    }
+
+    @Override
+    public Optional<Cliente> buscarClientePorId(long id) {
+        return delegado.buscarClientePorId(id);
+    }
+
+    @Override
+    public int contarClientes() {
+        return delegado.contarClientes();
+    }
+
+    @Override
+    public List<Cliente> suscribir(OyenteRepositorio<Cliente> oyente) {
+        return delegado.suscribir(oyente);
+    }
+
+    @Override
+    public int contarYSuscribir(OyenteRepositorio<Cliente> oyente) {
+        return delegado.contarYSuscribir(oyente);
+    }
+
+    @Override
+    public void cerrar() {
+        delegado.cerrar();
+    }
+}
@@ -0,0 +1,102 @@
+package org.demo.Views;
+
+import javafx.application.Platform;
+import javafx.scene.control.ComboBox;
+import javafx.util.StringConverter;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Convierte un {@link ComboBox} en un selector con búsqueda: en lugar de cargar el catálogo
+ * completo, el combo es editable y sus opciones son el resultado de buscar lo que se escribe.
+ *
+ * <p>Las búsquedas corren en un hilo de fondo compartido y solo se muestra el resultado de la
+ * última; una búsqueda que termina después de otra más reciente se descarta.</p>
+ */
+public final class ComboBusqueda {
+    private static final System.Logger REGISTRO = System.getLogger(ComboBusqueda.class.getName());
+    private static final ExecutorService HILO_BUSQUEDA = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "busqueda-combos");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private ComboBusqueda() {}
+
+    /**
+     * Enlaza el combo con una búsqueda y carga las opciones iniciales buscando el texto vacío.
+     * El valor del combo es el elemento elegido en la lista; un texto escrito que no coincide
+     * con ninguna opción deja el combo sin valor.
+     *
+     * @param combo  combo a enlazar.
+     * @param buscar búsqueda a ejecutar con el texto escrito; se llama fuera del hilo de JavaFX.
+     * @param texto  texto con el que se muestra cada elemento.
+     * @param <T>    tipo de los elementos.
+     */
+    public static <T> void enlazar(ComboBox<T> combo, Function<String, List<T>> buscar, Function<T, String> texto) {
+        AtomicInteger ultimaBusqueda = new AtomicInteger();
+        combo.setEditable(true);
+        combo.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(T elemento) {
+                return elemento == null ? "" : texto.apply(elemento);
+            }
+
+            @Override
+            public T fromString(String escrito) {
+                T actual = combo.getValue();
+                if (actual != null && texto.apply(actual).equals(escrito)) {
+                    return actual;
+                }
+                for (T elemento : combo.getItems()) {
+                    if (texto.apply(elemento).equals(escrito)) {
+                        return elemento;
+                    }
+                }
+                return null;
+            }
+        });
+        combo.getEditor().textProperty().addListener((observable, anterior, escrito) -> {
+            T actual = combo.getValue();
+            // Al elegir una opción el editor muestra su texto; eso no es una búsqueda nueva
+            if (actual != null && texto.apply(actual).equals(escrito)) {
+                return;
+            }
+            buscar(combo, buscar, escrito, ultimaBusqueda);
+        });
+        buscar(combo, buscar, "", ultimaBusqueda);
+    }
+
+    private static <T> void buscar(ComboBox<T> combo, Function<String, List<T>> buscar, String escrito,
+                                   AtomicInteger ultimaBusqueda) {
+        int numero = ultimaBusqueda.incrementAndGet();
+        String consulta = Objects.toString(escrito, "").strip();
+        HILO_BUSQUEDA.execute(() -> {
+            if (numero != ultimaBusqueda.get()) {
+                return;
+            }
+            List<T> encontrados;
+            try {
+                encontrados = buscar.apply(consulta);
+            } catch (RuntimeException e) {
+                // Un fallo de la búsqueda deja las opciones anteriores
+                REGISTRO.log(System.Logger.Level.WARNING, "No se pudo buscar \"" + consulta + "\"", e);
+                return;
+            }
+            Platform.runLater(() -> {
+                if (numero != ultimaBusqueda.get()) {
+                    return;
+                }
+                combo.getItems().setAll(encontrados);
+                if (combo.isFocused() && !encontrados.isEmpty() && !consulta.isEmpty()) {
+                    combo.show();
+                }
+            });
+        });
+    }
+}
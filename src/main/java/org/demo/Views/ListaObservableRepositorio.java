@@ -0,0 +1,166 @@
+package org.demo.Views;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.beans.property.ReadOnlyLongWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.demo.Repositories.OyenteRepositorio;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+/**
+ * Lista observable que refleja el contenido de un repositorio para enlazarlo con la interfaz gráfica.
+ * Las notificaciones que llegan desde otros hilos se aplican en el hilo de JavaFX.
+ *
+ * <p>Los elementos se cargan por páginas ordenadas por id, a medida que la interfaz las pide,
+ * en lugar de copiar todo el repositorio. El total de elementos del repositorio se mantiene
+ * aparte, por lo que no depende de cuántas páginas se hayan cargado.</p>
+ *
+ * <p>Todo el estado se modifica solamente en el hilo de JavaFX.</p>
+ *
+ * @param <T> tipo de entidad del repositorio.
+ */
+class ListaObservableRepositorio<T> implements OyenteRepositorio<T> {
+    static final int TAMANO_PAGINA = 500;
+
+    private final ObservableList<T> elementos;
+    private final ToLongFunction<T> id;
+    private final FuentePaginada<T> fuente;
+    private final Set<Long> idsCargados;
+    private final ReadOnlyLongWrapper total;
+    private long ultimoId;
+    private boolean completa;
+
+    /**
+     * @param id     obtiene el identificador de un elemento.
+     * @param fuente consulta las páginas del repositorio.
+     */
+    ListaObservableRepositorio(ToLongFunction<T> id, FuentePaginada<T> fuente) {
+        this.elementos = FXCollections.observableArrayList();
+        this.id = id;
+        this.fuente = fuente;
+        this.idsCargados = new HashSet<>();
+        this.total = new ReadOnlyLongWrapper();
+        this.ultimoId = Long.MIN_VALUE;
+    }
+
+    /**
+     * Registra el total inicial del repositorio y carga la primera página.
+     *
+     * @param totalInicial cantidad de elementos al momento de suscribirse.
+     */
+    void iniciar(long totalInicial) {
+        // Se suma porque alguna notificación pudo aplicarse antes que este paso
+        enHiloFx(() -> {
+            total.set(total.get() + totalInicial);
+            cargarSiguientePagina();
+        });
+    }
+
+    /**
+     * Carga la siguiente página del repositorio al final de la lista.
+     * Debe llamarse desde el hilo de JavaFX.
+     *
+     * @return {@code true} si pueden quedar más páginas por cargar.
+     */
+    boolean cargarSiguientePagina() {
+        if (completa) {
+            return false;
+        }
+        List<T> pagina = fuente.listarDesde(ultimoId, TAMANO_PAGINA);
+        List<T> nuevos = new ArrayList<>(pagina.size());
+        for (T elemento : pagina) {
+            long idElemento = id.applyAsLong(elemento);
+            ultimoId = Math.max(ultimoId, idElemento);
+            if (idsCargados.add(idElemento)) {
+                nuevos.add(elemento);
+            }
+        }
+        completa = pagina.size() < TAMANO_PAGINA;
+        elementos.addAll(nuevos);
+        return !completa;
+    }
+
+    ObservableList<T> getElementos() {
+        return elementos;
+    }
+
+    ReadOnlyLongProperty totalProperty() {
+        return total.getReadOnlyProperty();
+    }
+
+    @Override
+    public void alAgregar(List<T> agregados) {
+        enHiloFx(() -> {
+            total.set(total.get() + agregados.size());
+            // Un lote grande (una importación) no se copia entero a la lista: se deja para las
+            // páginas siguientes, que la interfaz cargará a medida que las pida
+            boolean agregarNuevos = completa && agregados.size() <= TAMANO_PAGINA;
+            completa = agregarNuevos;
+            List<T> nuevos = new ArrayList<>();
+            for (T elemento : agregados) {
+                long idElemento = id.applyAsLong(elemento);
+                // Los elementos posteriores a la última página llegarán cuando se cargue la siguiente
+                if ((agregarNuevos || idElemento <= ultimoId) && idsCargados.add(idElemento)) {
+                    nuevos.add(elemento);
+                    ultimoId = Math.max(ultimoId, idElemento);
+                }
+            }
+            elementos.addAll(nuevos);
+        });
+    }
+
+    @Override
+    public void alEliminar(T eliminado) {
+        enHiloFx(() -> {
+            total.set(total.get() - 1);
+            long idEliminado = id.applyAsLong(eliminado);
+            if (idsCargados.remove(idEliminado)) {
+                elementos.removeIf(elemento -> id.applyAsLong(elemento) == idEliminado);
+            }
+        });
+    }
+
+    /**
+     * Reemplaza el elemento cargado con el mismo id, para que la tabla muestre los datos nuevos
+     * aunque el repositorio notifique con otra instancia (como hace el de base de datos).
+     */
+    @Override
+    public void alActualizar(T actualizado) {
+        enHiloFx(() -> {
+            long idActualizado = id.applyAsLong(actualizado);
+            if (!idsCargados.contains(idActualizado)) {
+                return;
+            }
+            for (int i = 0; i < elementos.size(); i++) {
+                if (id.applyAsLong(elementos.get(i)) == idActualizado) {
+                    elementos.set(i, actualizado);
+                    return;
+                }
+            }
+        });
+    }
+
+    private static void enHiloFx(Runnable accion) {
+        if (Platform.isFxApplicationThread()) {
+            accion.run();
+        } else {
+            Platform.runLater(accion);
+        }
+    }
+
+    /**
+     * Consulta de una página del repositorio, ordenada por id.
+     *
+     * @param <T> tipo de entidad del repositorio.
+     */
+    @FunctionalInterface
+    interface FuentePaginada<T> {
+        List<T> listarDesde(long idAnterior, int limite);
+    }
+}
@@ -0,0 +1,46 @@
+package org.demo.Views;
+
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+
+/**
+ * Carga páginas adicionales en una tabla cuando el usuario se desplaza cerca del final.
+ */
+public final class PaginacionTabla {
+    private static final double UMBRAL = 0.9;
+
+    private PaginacionTabla() {}
+
+    /**
+     * Enlaza la barra de desplazamiento vertical de la tabla con la carga de la siguiente página.
+     * Como la barra solo existe cuando la tabla tiene skin, el enlace se hace al crearse este.
+     *
+     * @param tabla                 tabla a paginar.
+     * @param cargarSiguientePagina acción que agrega la siguiente página a los elementos de la tabla.
+     */
+    public static void enlazar(TableView<?> tabla, Runnable cargarSiguientePagina) {
+        if (tabla.getSkin() != null) {
+            enlazarBarra(tabla, cargarSiguientePagina);
+        } else {
+            tabla.skinProperty().addListener((obs, skinAnterior, skin) -> {
+                if (skinAnterior == null && skin != null) {
+                    enlazarBarra(tabla, cargarSiguientePagina);
+                }
+            });
+        }
+    }
+
+    private static void enlazarBarra(TableView<?> tabla, Runnable cargarSiguientePagina) {
+        for (Node nodo : tabla.lookupAll(".scroll-bar")) {
+            if (nodo instanceof ScrollBar barra && barra.getOrientation() == Orientation.VERTICAL) {
+                barra.valueProperty().addListener((obs, valorAnterior, valor) -> {
+                    if (valor.doubleValue() >= barra.getMax() * UMBRAL) {
+                        cargarSiguientePagina.run();
+                    }
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package org.demo.Views;
+
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.collections.ObservableList;
+import org.demo.Models.Producto;
+import org.demo.Repositories.OyenteRepositorio;
+import org.demo.Repositories.ProductoRepository;
+import org.demo.Repositories.Repositorios;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Adaptador de {@link ProductoRepository} para la interfaz gráfica.
+ * Delega todas las operaciones en el repositorio configurado en {@link Repositorios}
+ * y expone sus productos como una lista observable que se mantiene sincronizada con él.
+ * La lista se llena por páginas a medida que la interfaz las solicita.
+ */
+public class ProductoRepositoryFX implements ProductoRepository {
+    private final ProductoRepository delegado;
+    private final ListaObservableRepositorio<Producto> productos;
+
+    private ProductoRepositoryFX(ProductoRepository delegado) {
+        this.delegado = delegado;
+        this.productos = new ListaObservableRepositorio<>(Producto::getId, delegado::listarProductosDesde);
+        this.productos.iniciar(delegado.contarYSuscribir(this.productos));
+    }
+
+    private static class Contenedor {
+        static final ProductoRepositoryFX INSTANCIA = new ProductoRepositoryFX(Repositorios.productos());
+    }
+
+    /**
+     * Devuelve la instancia única del adaptador.
+     *
+     * @return instancia única de {@code ProductoRepositoryFX}.
+     */
+    public static ProductoRepositoryFX getInstancia() {
+        return Contenedor.INSTANCIA;
+    }
+
+    /**
+     * Retorna la lista observable de productos.
+     * Puede ser utilizada para enlazar datos con componentes de la interfaz gráfica.
+     *
+     * @return lista observable de productos.
+     */
+    public ObservableList<Producto> getProductos() {
+        return productos.getElementos();
+    }
+
+    /**
+     * Carga en la lista observable la siguiente página de productos.
+     * Debe llamarse desde el hilo de JavaFX.
+     *
+     * @return {@code true} si pueden quedar más páginas por cargar.
+     */
+    public boolean cargarSiguientePagina() {
+        return productos.cargarSiguientePagina();
+    }
+
+    /**
+     * Retorna el total de productos del repositorio, incluidos los que aún no se han cargado en la lista.
+     *
+     * @return propiedad de solo lectura con el total de productos.
+     */
+    public ReadOnlyLongProperty totalProductosProperty() {
+        return productos.totalProperty();
+    }
+
+    @Override
+    public List<Producto> listarProductos() {
+        return delegado.listarProductos();
+    }
+
+    @Override
+    public List<Producto> listarProductosDesde(long idAnterior, int limite) {
+        return delegado.listarProductosDesde(idAnterior, limite);
+    }
+
+    @Override
+    public void guardarProducto(Producto producto) {
+        delegado.guardarProducto(producto);
+    }
+
+    @Override
+    public List<Producto> guardarProductos(List<Producto> productos) {
+        return delegado.guardarProductos(productos);
+    }
+
+    @Override
+    public void eliminarProducto(Producto producto) {
+        delegado.eliminarProducto(producto);
+    }
+
+    @Override
+    public void actualizarProducto(Producto producto) {
+        delegado.actualizarProducto(producto);
+    }
+
+    @Override
+    public void ajustarStock(Producto producto, int diferencia) {
+        delegado.ajustarStock(producto, diferencia);
+    }
+
+    @Override
+    public boolean existeProductoConNombre(String nombre) {
+        return delegado.existeProductoConNombre(nombre);
+    }
+
+    @Override
+    public Set<String> buscarNombresRegistrados(Collection<String> nombres) {
+        return delegado.buscarNombresRegistrados(nombres);
+    }
+
+    @Override
+    public Optional<Producto> buscarProductoPorId(long id) {
+        return delegado.buscarProductoPorId(id);
+    }
+
+    @Override
+    public Optional<Producto> buscarProductoPorNombre(String nombre) {
+        return delegado.buscarProductoPorNombre(nombre);
+    }
+
+    @Override
+    public List<Producto> buscarProductosPorNombre(String texto, int limite) {
+        return delegado.buscarProductosPorNombre(texto, limite);
+    }
+
+    @Override
+    public int contarProductos() {
+        return delegado.contarProductos();
+    }
+
+    @Override
+    public List<Producto> suscribir(OyenteRepositorio<Producto> oyente) {
+        return delegado.suscribir(oyente);
+    }
+
+    @Override
+    public int contarYSuscribir(OyenteRepositorio<Producto> oyente) {
+        return delegado.contarYSuscribir(oyente);
+    }
+
+    @Override
+    public void cerrar() {
+        delegado.cerrar();
+    }
+}
@@ -0,0 +1,143 @@
+package org.demo.Views;
+
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.collections.ObservableList;
+import org.demo.Models.Venta;
+import org.demo.Repositories.OyenteRepositorio;
+import org.demo.Repositories.Repositorios;
+import org.demo.Repositories.VentaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Adaptador de {@link VentaRepository} para la interfaz gráfica.
+ * Delega todas las operaciones en el repositorio configurado en {@link Repositorios}
+ * y expone sus ventas como una lista observable que se mantiene sincronizada con él.
+ * La lista se llena por páginas a medida que la interfaz las solicita.
+ */
+public class VentaRepositoryFX implements VentaRepository {
+    private final VentaRepository delegado;
+    private final ListaObservableRepositorio<Venta> ventas;
+
+    private VentaRepositoryFX(VentaRepository delegado) {
+        this.delegado = delegado;
+        this.ventas = new ListaObservableRepositorio<>(Venta::getId, delegado::listarVentasDesde);
+        this.ventas.iniciar(delegado.contarYSuscribir(this.ventas));
+    }
+
+    private static class Contenedor {
+        static final VentaRepositoryFX INSTANCIA = new VentaRepositoryFX(Repositorios.ventas());
+    }
+
+    private static class Virtuales {
+        static final VentasVirtuales INSTANCIA = crearVentasVirtuales();
+
+        private static VentasVirtuales crearVentasVirtuales() {
+            // El almacén por columnas se suscribe antes, para contar ya las ventas que avisen a la lista
+            VentasVirtuales ventas = new VentasVirtuales(Repositorios.ventasColumnares());
+            Repositorios.ventas().contarYSuscribir(ventas);
+            ventas.iniciar();
+            return ventas;
+        }
+    }
+
+    /**
+     * Devuelve la instancia única del adaptador.
+     *
+     * @return instancia única de {@code VentaRepositoryFX}.
+     */
+    public static VentaRepositoryFX getInstancia() {
+        return Contenedor.INSTANCIA;
+    }
+
+    /**
+     * Retorna la lista observable de ventas.
+     * Puede ser utilizada para enlazar datos con componentes de la interfaz gráfica.
+     *
+     * @return lista observable de ventas.
+     */
+    public ObservableList<Venta> getVentas() {
+        return ventas.getElementos();
+    }
+
+    /**
+     * Retorna todas las ventas como una lista que solo carga las que se muestran, con el filtro
+     * y el orden resueltos en el almacén por columnas. Es la lista indicada para tablas con
+     * millones de ventas.
+     *
+     * @return lista virtual de ventas, compartida por toda la aplicación.
+     */
+    public VentasVirtuales getVentasVirtuales() {
+        return Virtuales.INSTANCIA;
+    }
+
+    /**
+     * Carga en la lista observable la siguiente página de ventas.
+     * Debe llamarse desde el hilo de JavaFX.
+     *
+     * @return {@code true} si pueden quedar más páginas por cargar.
+     */
+    public boolean cargarSiguientePagina() {
+        return ventas.cargarSiguientePagina();
+    }
+
+    /**
+     * Retorna el total de ventas del repositorio, incluidos los que aún no se han cargado en la lista.
+     *
+     * @return propiedad de solo lectura con el total de ventas.
+     */
+    public ReadOnlyLongProperty totalVentasProperty() {
+        return ventas.totalProperty();
+    }
+
+    @Override
+    public List<Venta> listarVentas() {
+        return delegado.listarVentas();
+    }
+
+    @Override
+    public List<Venta> listarVentasDesde(long idAnterior, int limite) {
+        return delegado.listarVentasDesde(idAnterior, limite);
+    }
+
+    @Override
+    public void guardarVenta(Venta venta) {
+        delegado.guardarVenta(venta);
+    }
+
+    @Override
+    public List<Venta> buscarVentasPorCliente(long idCliente) {
+        return delegado.buscarVentasPorCliente(idCliente);
+    }
+
+    @Override
+    public List<Venta> buscarVentasPorProducto(long idProducto) {
+        return delegado.buscarVentasPorProducto(idProducto);
+    }
+
+    @Override
+    public List<Venta> buscarVentasEntre(LocalDateTime desde, LocalDateTime hasta) {
+        return delegado.buscarVentasEntre(desde, hasta);
+    }
+
+    @Override
+    public long contarVentas() {
+        return delegado.contarVentas();
+    }
+
+    @Override
+    public void suscribir(OyenteRepositorio<Venta> oyente) {
+        delegado.suscribir(oyente);
+    }
+
+    @Override
+    public long contarYSuscribir(OyenteRepositorio<Venta> oyente) {
+        return delegado.contarYSuscribir(oyente);
+    }
+
+    @Override
+    public void cerrar() {
+        delegado.cerrar();
+    }
+}
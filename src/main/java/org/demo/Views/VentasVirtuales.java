@@ -0,0 +1,320 @@
+package org.demo.Views;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.collections.ObservableListBase;
+import org.demo.Models.Venta;
+import org.demo.Repositories.OyenteRepositorio;
+import org.demo.Repositories.VentasColumnares.FiltroVentas;
+import org.demo.Repositories.VentasColumnares.Orden;
+import org.demo.Repositories.VentasColumnares.Seleccion;
+import org.demo.Repositories.VentasColumnares;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Lista observable de ventas para tablas con millones de filas, que solo guarda en memoria las
+ * ventas que la interfaz está mostrando.
+ *
+ * <p>La lista no copia las ventas: cada posición se traduce a una fila de {@link VentasColumnares}
+ * y las ventas se reconstruyen por páginas en un hilo aparte, cuando la tabla pide una posición
+ * que aún no está cargada. Mientras tanto esa posición vale {@code null}, y al llegar la página
+ * se avisa como actualización de sus posiciones. Al pedir una página también se cargan la
+ * anterior y la siguiente, y solo se conservan las {@value #PAGINAS_EN_MEMORIA} páginas usadas
+ * más recientemente.</p>
+ *
+ * <p>El filtro y el orden se resuelven en el almacén por columnas con {@link #consultar}, también
+ * en otro hilo, y la lista cambia de una vez cuando termina. Sin filtro y en orden de llegada la
+ * lista solo traduce posiciones, sin guardar nada por fila, y crece con cada venta nueva; con
+ * filtro u orden guarda la posición de cada fila seleccionada (4 bytes por venta) y vuelve a
+ * consultar cuando llega una venta que cumple el filtro. Las consultas escriben en dos
+ * selecciones que se alternan: una es la que se muestra y la otra recibe la consulta siguiente,
+ * de modo que reconsultar no reserva arreglos nuevos por cada venta que llega.</p>
+ *
+ * <p>El estado se modifica solamente en el hilo de JavaFX.</p>
+ */
+public final class VentasVirtuales extends ObservableListBase<Venta> implements OyenteRepositorio<Venta> {
+    static final int TAMANO_PAGINA = 128;
+    static final int PAGINAS_EN_MEMORIA = 64;
+
+    private final VentasColumnares columnas;
+    private final ExecutorService hiloConsultas;
+    private final ExecutorService hiloPaginas;
+    private final Map<Integer, Venta[]> paginas;
+    private final Set<Integer> pendientes;
+    private final ReadOnlyBooleanWrapper consultando;
+    private FiltroVentas filtro;
+    private Orden orden;
+    private boolean descendente;
+    // Posiciones de las filas seleccionadas, o null sin filtro y en orden de llegada
+    private Seleccion seleccion;
+    // Selección donde escriben las consultas; nunca es la que se muestra
+    private Seleccion libre;
+    private int tamano;
+    // Cambia con cada reemplazo de la selección, para descartar las páginas pedidas antes
+    private int version;
+    private int ultimaConsulta;
+    private boolean reconsultar;
+
+    VentasVirtuales(VentasColumnares columnas) {
+        this.columnas = columnas;
+        this.hiloConsultas = hilo("consultas-ventas");
+        this.hiloPaginas = hilo("paginas-ventas");
+        this.paginas = new LinkedHashMap<>(PAGINAS_EN_MEMORIA * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Venta[]> mayor) {
+                return size() > PAGINAS_EN_MEMORIA;
+            }
+        };
+        this.pendientes = new HashSet<>();
+        this.consultando = new ReadOnlyBooleanWrapper();
+        this.filtro = FiltroVentas.todas();
+        this.libre = new Seleccion();
+    }
+
+    /**
+     * Registra las ventas que ya tiene el almacén. Debe llamarse después de suscribir la lista,
+     * porque el almacén es el que cuenta las filas.
+     */
+    void iniciar() {
+        enHiloFx(() -> crecer(columnas.contarFilas()));
+    }
+
+    /**
+     * Cambia el filtro y el orden de la lista. Sin filtro y en orden de llegada (o por id) se
+     * aplica de inmediato; en otro caso se consulta el almacén en otro hilo y la lista cambia
+     * al terminar. Debe llamarse desde el hilo de JavaFX.
+     *
+     * @param filtro      condiciones de las ventas a mostrar.
+     * @param orden       columna por la que se ordena, o {@code null} para el orden de llegada.
+     * @param descendente si se ordena de mayor a menor.
+     */
+    public void consultar(FiltroVentas filtro, Orden orden, boolean descendente) {
+        this.filtro = filtro;
+        this.orden = orden;
+        this.descendente = descendente;
+        reconsultar = false;
+        if (filtro.equals(FiltroVentas.todas()) && (orden == null || orden == Orden.ID)) {
+            ultimaConsulta++;
+            consultando.set(false);
+            reemplazar(null, columnas.contarFilas());
+        } else {
+            lanzarConsulta();
+        }
+    }
+
+    /**
+     * @return propiedad que vale {@code true} mientras se resuelve un filtro u orden.
+     */
+    public ReadOnlyBooleanProperty consultandoProperty() {
+        return consultando.getReadOnlyProperty();
+    }
+
+    /**
+     * Retorna la venta de una posición, o {@code null} si su página aún se está cargando.
+     * Pedir una posición carga su página y las vecinas.
+     */
+    @Override
+    public Venta get(int indice) {
+        if (indice < 0 || indice >= tamano) {
+            throw new IndexOutOfBoundsException("Posición fuera de rango: " + indice);
+        }
+        int numero = indice / TAMANO_PAGINA;
+        Venta[] pagina = paginas.get(numero);
+        int posicion = indice % TAMANO_PAGINA;
+        Venta venta = null;
+        // Una página final cargada antes de que la lista creciera puede quedar corta
+        if (pagina != null && posicion < pagina.length) {
+            venta = pagina[posicion];
+        } else {
+            solicitar(numero);
+        }
+        if (numero > 0 && !paginas.containsKey(numero - 1)) {
+            solicitar(numero - 1);
+        }
+        if ((numero + 1) * TAMANO_PAGINA < tamano && !paginas.containsKey(numero + 1)) {
+            solicitar(numero + 1);
+        }
+        return venta;
+    }
+
+    @Override
+    public int size() {
+        return tamano;
+    }
+
+    @Override
+    public void alAgregar(List<Venta> agregadas) {
+        enHiloFx(() -> {
+            if (seleccion == null) {
+                crecer(columnas.contarFilas());
+            } else if (agregadas.stream().anyMatch(filtro::acepta)) {
+                if (consultando.get()) {
+                    reconsultar = true;
+                } else {
+                    lanzarConsulta();
+                }
+            }
+        });
+    }
+
+    private void lanzarConsulta() {
+        int numero = ++ultimaConsulta;
+        FiltroVentas filtroConsulta = filtro;
+        Orden ordenConsulta = orden;
+        boolean descendenteConsulta = descendente;
+        Seleccion destino = libre;
+        consultando.set(true);
+        // Las consultas corren de a una en el mismo hilo, así que nunca comparten la selección a la vez
+        hiloConsultas.execute(() -> {
+            Seleccion resultado = null;
+            try {
+                columnas.seleccionar(filtroConsulta, ordenConsulta, descendenteConsulta, destino);
+                resultado = destino;
+            } finally {
+                Seleccion terminada = resultado;
+                Platform.runLater(() -> terminarConsulta(numero, terminada));
+            }
+        });
+    }
+
+    private void terminarConsulta(int numero, Seleccion filas) {
+        if (numero != ultimaConsulta) {
+            return;
+        }
+        // Se muestra antes de relanzar, para que la consulta siguiente escriba en la otra selección
+        if (filas != null) {
+            reemplazar(filas, filas.cantidad());
+        }
+        if (reconsultar) {
+            reconsultar = false;
+            lanzarConsulta();
+        } else {
+            consultando.set(false);
+        }
+    }
+
+    /**
+     * Cambia la selección en un solo aviso. Las páginas que estaban cargadas se vuelven a pedir
+     * para la nueva selección: las filas visibles conservan la venta anterior hasta que llega
+     * la nueva, en lugar de quedar vacías.
+     */
+    private void reemplazar(Seleccion filas, int nuevoTamano) {
+        List<Integer> visibles = new ArrayList<>(paginas.keySet());
+        visibles.addAll(pendientes);
+        int anterior = tamano;
+        if (filas != null) {
+            libre = seleccion != null ? seleccion : new Seleccion();
+        }
+        seleccion = filas;
+        tamano = nuevoTamano;
+        version++;
+        paginas.clear();
+        pendientes.clear();
+
+        beginChange();
+        if (nuevoTamano < anterior) {
+            nextRemove(nuevoTamano, Collections.nCopies(anterior - nuevoTamano, null));
+        } else if (nuevoTamano > anterior) {
+            nextAdd(anterior, nuevoTamano);
+        }
+        endChange();
+        for (int numero : visibles) {
+            if (numero * TAMANO_PAGINA < tamano) {
+                solicitar(numero);
+            }
+        }
+    }
+
+    /**
+     * Agrega al final, sin filtro y en orden de llegada, las filas nuevas del almacén.
+     * En orden descendente las filas nuevas van al principio y desplazan a todas las demás.
+     */
+    private void crecer(int total) {
+        if (seleccion != null || total <= tamano) {
+            return;
+        }
+        int anterior = tamano;
+        tamano = total;
+        beginChange();
+        if (descendente) {
+            version++;
+            paginas.clear();
+            pendientes.clear();
+            nextAdd(0, total - anterior);
+        } else {
+            nextAdd(anterior, total);
+        }
+        endChange();
+    }
+
+    private int fila(int indice) {
+        if (seleccion != null) {
+            return seleccion.fila(indice);
+        }
+        return descendente ? tamano - 1 - indice : indice;
+    }
+
+    private void solicitar(int numero) {
+        if (!pendientes.add(numero)) {
+            return;
+        }
+        int inicio = numero * TAMANO_PAGINA;
+        int[] filas = new int[Math.min(TAMANO_PAGINA, tamano - inicio)];
+        for (int i = 0; i < filas.length; i++) {
+            filas[i] = fila(inicio + i);
+        }
+        int versionPedida = version;
+        hiloPaginas.execute(() -> {
+            List<Venta> ventas = null;
+            try {
+                ventas = columnas.materializar(filas);
+            } finally {
+                List<Venta> resultado = ventas;
+                Platform.runLater(() -> recibir(versionPedida, numero, resultado));
+            }
+        });
+    }
+
+    /**
+     * Guarda una página cargada. Si la carga falló la página deja de estar pendiente,
+     * para que se vuelva a pedir la próxima vez que se muestre.
+     */
+    private void recibir(int versionPedida, int numero, List<Venta> ventas) {
+        if (versionPedida != version || !pendientes.remove(numero) || ventas == null) {
+            return;
+        }
+        paginas.put(numero, ventas.toArray(new Venta[0]));
+        int inicio = numero * TAMANO_PAGINA;
+        beginChange();
+        for (int i = 0; i < ventas.size(); i++) {
+            nextUpdate(inicio + i);
+        }
+        endChange();
+    }
+
+    private static ExecutorService hilo(String nombre) {
+        return Executors.newSingleThreadExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, nombre);
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    private static void enHiloFx(Runnable accion) {
+        if (Platform.isFxApplicationThread()) {
+            accion.run();
+        } else {
+            Platform.runLater(accion);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.demo;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Comprueba que el núcleo (modelos, persistencia, repositorios, servicios y utilidades) y la
+ * {@link Consola} no usan JavaFX, para que puedan ejecutarse sin el toolkit. Solo
+ * {@code org.demo.Views}, {@code org.demo.Controllers} y {@link Launcher} pueden hacerlo.
+ */
+class NucleoSinJavaFxTest {
+    private static final Path FUENTES = Path.of("src", "main", "java", "org", "demo");
+    private static final List<String> PAQUETES_NUCLEO =
+            List.of("Models", "Persistence", "Repositories", "Services", "Utils");
+
+    @Test
+    void elNucleoNoImportaJavaFx() throws IOException {
+        assertTrue(Files.isDirectory(FUENTES), "Las pruebas deben ejecutarse desde la raíz del proyecto");
+        List<Path> archivos;
+        try (Stream<Path> paquetes = PAQUETES_NUCLEO.stream().map(FUENTES::resolve)) {
+            archivos = paquetes.flatMap(NucleoSinJavaFxTest::fuentes).collect(Collectors.toList());
+        }
+        archivos.add(FUENTES.resolve("Consola.java"));
+
+        List<String> conJavaFx = archivos.stream()
+                .filter(NucleoSinJavaFxTest::usaJavaFx)
+                .map(Path::toString)
+                .collect(Collectors.toList());
+        assertEquals(List.of(), conJavaFx);
+    }
+
+    private static Stream<Path> fuentes(Path paquete) {
+        try (Stream<Path> archivos = Files.walk(paquete)) {
+            return archivos.filter(archivo -> archivo.toString().endsWith(".java")).collect(Collectors.toList()).stream();
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo leer el paquete: " + paquete, e);
+        }
+    }
+
+    private static boolean usaJavaFx(Path archivo) {
+        try {
+            return Files.readString(archivo).contains("javafx.");
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo leer el archivo: " + archivo, e);
+        }
+    }
+}
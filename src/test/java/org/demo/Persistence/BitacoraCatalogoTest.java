@@ -0,0 +1,98 @@
+package org.demo.Persistence;
+
+import org.demo.Models.Cliente;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BitacoraCatalogoTest {
+
+    @TempDir
+    Path carpeta;
+
+    @Test
+    void reproduceLosCambiosEnOrden() {
+        Path archivo = carpeta.resolve("clientes.bitacora");
+        try (BitacoraCatalogo<Cliente> bitacora = BitacoraCatalogo.abrirClientes(archivo, new Catalogo())) {
+            bitacora.guardar(List.of(cliente(1, "Ana"), cliente(2, "Luis")));
+            bitacora.guardar(List.of(cliente(1, "Ana María")));
+            bitacora.eliminar(2);
+        }
+
+        Catalogo catalogo = new Catalogo();
+        BitacoraCatalogo.abrirClientes(archivo, catalogo).close();
+
+        assertEquals(List.of(1L), new ArrayList<>(catalogo.clientes.keySet()));
+        assertEquals("Ana María", catalogo.clientes.get(1L).getNombre());
+    }
+
+    @Test
+    void unRegistroFinalIncompletoSeDescarta() throws IOException {
+        Path archivo = carpeta.resolve("clientes.bitacora");
+        try (BitacoraCatalogo<Cliente> bitacora = BitacoraCatalogo.abrirClientes(archivo, new Catalogo())) {
+            bitacora.guardar(List.of(cliente(1, "Ana")));
+            bitacora.guardar(List.of(cliente(2, "Luis")));
+        }
+        byte[] completo = Files.readAllBytes(archivo);
+        Files.write(archivo, Arrays.copyOf(completo, completo.length - 3));
+
+        Catalogo catalogo = new Catalogo();
+        try (BitacoraCatalogo<Cliente> bitacora = BitacoraCatalogo.abrirClientes(archivo, catalogo)) {
+            // Lo que se agregue después queda alineado tras el último registro completo
+            bitacora.guardar(List.of(cliente(3, "Eva")));
+        }
+        assertEquals(List.of(1L), new ArrayList<>(catalogo.clientes.keySet()));
+
+        Catalogo reabierto = new Catalogo();
+        BitacoraCatalogo.abrirClientes(archivo, reabierto).close();
+        assertEquals(List.of(1L, 3L), new ArrayList<>(reabierto.clientes.keySet()));
+    }
+
+    @Test
+    void descartarConservaLoRegistradoDespues() {
+        Path archivo = carpeta.resolve("clientes.bitacora");
+        try (BitacoraCatalogo<Cliente> bitacora = BitacoraCatalogo.abrirClientes(archivo, new Catalogo())) {
+            bitacora.guardar(List.of(cliente(1, "Ana")));
+            long enSnapshot = bitacora.posicion();
+            bitacora.guardar(List.of(cliente(2, "Luis")));
+            bitacora.descartarHasta(enSnapshot);
+            bitacora.eliminar(2);
+            bitacora.guardar(List.of(cliente(4, "Sara")));
+        }
+
+        Catalogo catalogo = new Catalogo();
+        BitacoraCatalogo.abrirClientes(archivo, catalogo).close();
+        assertEquals(List.of(4L), new ArrayList<>(catalogo.clientes.keySet()));
+        assertEquals(2, catalogo.ultimoEliminado);
+    }
+
+    private static Cliente cliente(long id, String nombre) {
+        return new Cliente(id, nombre, "doc" + id, "tel" + id, "Armenia", "correo" + id);
+    }
+
+    private static class Catalogo implements BitacoraCatalogo.Reproductor<Cliente> {
+        private final Map<Long, Cliente> clientes = new LinkedHashMap<>();
+        private long ultimoEliminado;
+
+        @Override
+        public void guardado(Cliente cliente) {
+            clientes.put(cliente.getId(), cliente);
+        }
+
+        @Override
+        public void eliminado(long id) {
+            clientes.remove(id);
+            ultimoEliminado = id;
+        }
+    }
+}
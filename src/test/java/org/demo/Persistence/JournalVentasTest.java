@@ -0,0 +1,94 @@
+package org.demo.Persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cierre de la bitácora de ventas mientras otros hilos siguen registrando ventas.
+ */
+class JournalVentasTest {
+    private static final int HILOS = 8;
+
+    @TempDir
+    Path carpeta;
+
+    @Test
+    void ningunRegistroQuedaEsperandoAlCerrar() throws Exception {
+        Path archivo = carpeta.resolve("ventas.journal");
+        JournalVentas journal = JournalVentas.abrir(archivo, registro -> {});
+        AtomicLong ids = new AtomicLong();
+        List<List<CompletableFuture<Void>>> aceptados = new ArrayList<>();
+        CountDownLatch enMarcha = new CountDownLatch(HILOS);
+        List<Thread> hilos = new ArrayList<>();
+        for (int h = 0; h < HILOS; h++) {
+            List<CompletableFuture<Void>> propios = new ArrayList<>();
+            aceptados.add(propios);
+            Thread hilo = new Thread(() -> {
+                enMarcha.countDown();
+                while (true) {
+                    try {
+                        propios.add(journal.agregar(registro(ids.incrementAndGet())));
+                    } catch (IllegalStateException e) {
+                        return;
+                    }
+                }
+            });
+            hilos.add(hilo);
+            hilo.start();
+        }
+        enMarcha.await();
+        Thread.sleep(200);
+        journal.close();
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+
+        long escritos = 0;
+        for (List<CompletableFuture<Void>> propios : aceptados) {
+            for (CompletableFuture<Void> resultado : propios) {
+                // Todo registro aceptado termina, escrito o con error, sin dejar esperando a nadie
+                assertTrue(resultado.isDone(), "Un registro aceptado quedó sin resolver tras el cierre");
+                if (!resultado.isCompletedExceptionally()) {
+                    escritos++;
+                }
+            }
+        }
+        assertTrue(escritos > 0);
+        assertThrows(IllegalStateException.class, () -> journal.agregar(registro(0)));
+
+        // Lo que se confirmó como escrito está en disco
+        AtomicLong reproducidos = new AtomicLong();
+        JournalVentas reabierto = JournalVentas.abrir(archivo, registro -> reproducidos.incrementAndGet());
+        reabierto.close();
+        assertEquals(escritos, reproducidos.get());
+    }
+
+    @Test
+    void agregarYEsperarTerminaTrasElCierre() throws Exception {
+        JournalVentas journal = JournalVentas.abrir(carpeta.resolve("ventas.journal"), registro -> {});
+        journal.agregarYEsperar(registro(1));
+        journal.close();
+
+        CompletableFuture<Void> intento = CompletableFuture.runAsync(() -> journal.agregarYEsperar(registro(2)));
+        Exception error = assertThrows(Exception.class, () -> intento.get(5, TimeUnit.SECONDS));
+        assertTrue(error.getCause() instanceof RuntimeException, () -> "Error inesperado: " + error);
+    }
+
+    private static RegistroVenta registro(long id) {
+        return new RegistroVenta(id, LocalDateTime.of(2025, 1, 1, 12, 0), 1, "Cliente", 2, "Producto",
+                "Categoría", 1, 1_000);
+    }
+}
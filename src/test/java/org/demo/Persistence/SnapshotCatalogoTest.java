@@ -0,0 +1,106 @@
+package org.demo.Persistence;
+
+import org.demo.Models.Cliente;
+import org.demo.Models.Producto;
+import org.demo.Utils.Dinero;
+import org.demo.Utils.GeneradorId;
+import org.demo.Utils.GeneradoresId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotCatalogoTest {
+
+    @TempDir
+    Path carpeta;
+
+    @Test
+    void leeLoQueEscribeSinConsumirIds() {
+        Path archivo = carpeta.resolve("productos.snapshot");
+        SnapshotCatalogo.escribirProductos(archivo, List.of(
+                new Producto(7, "Leche", Dinero.pesos(2000), 4, "Lácteo"),
+                new Producto(9, "Pan", Dinero.pesos(500), 0, null)), Producto::getCantidad);
+
+        GeneradorId original = GeneradoresId.productos();
+        AtomicInteger consumidos = new AtomicInteger();
+        GeneradoresId.setProductos(new GeneradorId() {
+            @Override
+            public long siguienteId() {
+                consumidos.incrementAndGet();
+                return original.siguienteId();
+            }
+
+            @Override
+            public void asegurarMayorQue(long id) {
+                original.asegurarMayorQue(id);
+            }
+        });
+        List<Producto> leidos;
+        try {
+            leidos = SnapshotCatalogo.leerProductos(archivo).productos();
+        } finally {
+            GeneradoresId.setProductos(original);
+        }
+
+        assertEquals(2, leidos.size());
+        assertEquals(7, leidos.get(0).getId());
+        assertEquals("Lácteo", leidos.get(0).getCategoria());
+        assertEquals(9, leidos.get(1).getId());
+        assertEquals(0, consumidos.get());
+    }
+
+    @Test
+    void unSnapshotTruncadoRecurreALaCopiaAnterior() throws IOException {
+        Path archivo = carpeta.resolve("clientes.snapshot");
+        SnapshotCatalogo.escribirClientes(archivo, List.of(
+                new Cliente(1, "Ana", "1", "3", "Armenia", "ana@correo")));
+        SnapshotCatalogo.escribirClientes(archivo, List.of(
+                new Cliente(1, "Ana", "1", "3", "Armenia", "ana@correo"),
+                new Cliente(2, "Luis", "2", "4", "Armenia", "luis@correo")));
+        byte[] completo = Files.readAllBytes(archivo);
+        Files.write(archivo, Arrays.copyOf(completo, completo.length - 5));
+
+        List<Cliente> leidos = SnapshotCatalogo.leerClientes(archivo);
+
+        assertEquals(1, leidos.size());
+        assertEquals("Ana", leidos.get(0).getNombre());
+        assertTrue(Files.exists(carpeta.resolve("clientes.snapshot.corrupto")));
+    }
+
+    @Test
+    void unaCantidadCorruptaSinCopiaAnteriorDevuelveNull() throws IOException {
+        Path archivo = carpeta.resolve("productos.snapshot");
+        SnapshotCatalogo.escribirProductos(archivo, List.of(
+                new Producto(3, "Agua", Dinero.pesos(1500), 2, "Bebida")), Producto::getCantidad);
+        byte[] bytes = Files.readAllBytes(archivo);
+        // La cantidad está justo después de magia, versión y tipo
+        ByteBuffer.wrap(bytes).putInt(Integer.BYTES + Short.BYTES + Byte.BYTES, Integer.MAX_VALUE);
+        Files.write(archivo, bytes);
+
+        assertNull(SnapshotCatalogo.leerProductos(archivo));
+    }
+
+    @Test
+    void unaLongitudDeTextoNegativaNoRompeLaLectura() throws IOException {
+        Path archivo = carpeta.resolve("clientes.snapshot");
+        SnapshotCatalogo.escribirClientes(archivo, List.of(
+                new Cliente(5, "Eva", "", "", "", "")));
+        byte[] bytes = Files.readAllBytes(archivo);
+        int cabecera = Integer.BYTES + Short.BYTES + Byte.BYTES + Integer.BYTES;
+        ByteBuffer.wrap(bytes).putShort(cabecera + Long.BYTES, (short) -1);
+        Files.write(archivo, bytes);
+
+        assertNull(SnapshotCatalogo.leerClientes(archivo));
+    }
+}
@@ -0,0 +1,66 @@
+package org.demo.Repositories;
+
+import org.demo.Models.Cliente;
+import org.demo.Persistence.ConfiguracionDatos;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Actualización de clientes en el repositorio en memoria: el documento y el correo siguen
+ * siendo únicos después de editar un cliente.
+ */
+class ClienteRepositoryMemoriaTest {
+
+    @TempDir
+    Path carpeta;
+
+    private String directorioAnterior;
+
+    @BeforeEach
+    void usarCarpetaTemporal() {
+        directorioAnterior = System.setProperty(ConfiguracionDatos.PROPIEDAD_DIRECTORIO, carpeta.toString());
+    }
+
+    @AfterEach
+    void restaurarDirectorio() {
+        if (directorioAnterior == null) {
+            System.clearProperty(ConfiguracionDatos.PROPIEDAD_DIRECTORIO);
+        } else {
+            System.setProperty(ConfiguracionDatos.PROPIEDAD_DIRECTORIO, directorioAnterior);
+        }
+    }
+
+    @Test
+    void editarConElDocumentoOElCorreoDeOtroClienteSeRechazaSinCambiarNada() {
+        ClienteRepositoryMemoria clientes = new ClienteRepositoryMemoria();
+        Cliente ana = new Cliente("Ana Gómez", "555", "300", "Armenia", "ana@correo");
+        Cliente luis = new Cliente("Luis Pérez", "777", "301", "Pereira", "luis@correo");
+        clientes.guardarCliente(ana);
+        clientes.guardarCliente(luis);
+
+        assertThrows(RuntimeException.class, () -> clientes.actualizarCliente(
+                new Cliente(ana.getId(), "Ana Gómez", " 777 ", "300", "Armenia", "ana@correo")));
+        assertThrows(RuntimeException.class, () -> clientes.actualizarCliente(
+                new Cliente(ana.getId(), "Ana Gómez", "555", "300", "Armenia", "LUIS@correo")));
+        assertEquals("555", ana.getDocumento());
+        assertEquals("ana@correo", ana.getCorreo());
+
+        // Conservar sus propias claves o cambiarlas por unas libres sí se permite
+        clientes.actualizarCliente(new Cliente(ana.getId(), "Ana María Gómez", "555", "300", "Armenia", "ana@correo"));
+        clientes.actualizarCliente(new Cliente(ana.getId(), "Ana María Gómez", "556", "300", "Armenia", "ana@otro"));
+        assertEquals("Ana María Gómez", ana.getNombre());
+        assertFalse(clientes.existeClienteConDocumento("555"));
+        assertTrue(clientes.existeClienteConDocumento("556"));
+        assertTrue(clientes.existeClienteConCorreo("luis@correo"));
+        clientes.cerrar();
+    }
+}
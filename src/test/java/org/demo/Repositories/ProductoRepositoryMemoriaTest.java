@@ -0,0 +1,69 @@
+package org.demo.Repositories;
+
+import org.demo.Models.Producto;
+import org.demo.Persistence.ConfiguracionDatos;
+import org.demo.Utils.Dinero;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Actualización de productos en el repositorio en memoria: el índice por nombre nunca queda
+ * apuntando a otro producto.
+ */
+class ProductoRepositoryMemoriaTest {
+
+    @TempDir
+    Path carpeta;
+
+    private String directorioAnterior;
+
+    @BeforeEach
+    void usarCarpetaTemporal() {
+        directorioAnterior = System.setProperty(ConfiguracionDatos.PROPIEDAD_DIRECTORIO, carpeta.toString());
+    }
+
+    @AfterEach
+    void restaurarDirectorio() {
+        if (directorioAnterior == null) {
+            System.clearProperty(ConfiguracionDatos.PROPIEDAD_DIRECTORIO);
+        } else {
+            System.setProperty(ConfiguracionDatos.PROPIEDAD_DIRECTORIO, directorioAnterior);
+        }
+    }
+
+    @Test
+    void renombrarConElNombreDeOtroProductoSeRechazaSinCambiarNada() {
+        ProductoRepositoryMemoria productos = new ProductoRepositoryMemoria();
+        Producto arepa = new Producto("Arepa", Dinero.pesos(1_000), 10, "Comida");
+        Producto empanada = new Producto("Empanada", Dinero.pesos(1_500), 10, "Comida");
+        productos.guardarProducto(arepa);
+        productos.guardarProducto(empanada);
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> productos.actualizarProducto(
+                new Producto(arepa.getId(), "Empanada", Dinero.pesos(2_000), 10, "Comida")));
+        assertEquals("Producto ya existe", error.getMessage());
+        assertEquals("Arepa", arepa.getNombre());
+        assertEquals(Dinero.pesos(1_000), arepa.getPrecio());
+        assertSame(arepa, productos.buscarProductoPorNombre("Arepa").orElseThrow());
+        assertSame(empanada, productos.buscarProductoPorNombre("Empanada").orElseThrow());
+
+        productos.actualizarProducto(new Producto(arepa.getId(), "Arepa de queso", Dinero.pesos(2_000), 10, "Comida"));
+        assertEquals(Optional.empty(), productos.buscarProductoPorNombre("Arepa"));
+        assertSame(arepa, productos.buscarProductoPorNombre("Arepa de queso").orElseThrow());
+        productos.cerrar();
+
+        ProductoRepositoryMemoria reiniciados = new ProductoRepositoryMemoria();
+        assertEquals("Arepa de queso", reiniciados.buscarProductoPorId(arepa.getId()).orElseThrow().getNombre());
+        assertEquals("Empanada", reiniciados.buscarProductoPorId(empanada.getId()).orElseThrow().getNombre());
+        reiniciados.cerrar();
+    }
+}
@@ -0,0 +1,76 @@
+package org.demo.Repositories;
+
+import org.demo.Models.Cliente;
+import org.demo.Models.Producto;
+import org.demo.Persistence.ConfiguracionDatos;
+import org.demo.Utils.Dinero;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Si la aplicación termina sin escribir los snapshots del catálogo, al reiniciar se recuperan
+ * los clientes y productos de sus bitácoras y el stock se recalcula con las ventas confirmadas.
+ */
+class RecuperacionCatalogoTest {
+
+    @TempDir
+    Path carpeta;
+
+    private String directorioAnterior;
+
+    @BeforeEach
+    void usarCarpetaTemporal() {
+        directorioAnterior = System.setProperty(ConfiguracionDatos.PROPIEDAD_DIRECTORIO, carpeta.toString());
+    }
+
+    @AfterEach
+    void restaurarDirectorio() {
+        if (directorioAnterior == null) {
+            System.clearProperty(ConfiguracionDatos.PROPIEDAD_DIRECTORIO);
+        } else {
+            System.setProperty(ConfiguracionDatos.PROPIEDAD_DIRECTORIO, directorioAnterior);
+        }
+    }
+
+    @Test
+    void sinSnapshotSeRecuperanElClienteYElStock() {
+        ClienteRepositoryMemoria clientes = new ClienteRepositoryMemoria();
+        ProductoRepositoryMemoria productos = new ProductoRepositoryMemoria();
+        VentaRepositoryMemoria ventas = new VentaRepositoryMemoria(clientes, productos);
+
+        Cliente cliente = new Cliente("Ana Gómez", "555", "300", "Armenia", "ana@correo");
+        clientes.guardarCliente(cliente);
+        Producto producto = new Producto("Arepa", Dinero.pesos(1_000), 10, "Comida");
+        productos.guardarProducto(producto);
+        productos.ajustarStock(producto, 5);
+        ventas.registrarVenta(cliente, producto, 4);
+        // Solo se cierra la bitácora de ventas: los catálogos no alcanzan a escribir su snapshot
+        ventas.cerrar();
+
+        ClienteRepositoryMemoria clientesReiniciados = new ClienteRepositoryMemoria();
+        ProductoRepositoryMemoria productosReiniciados = new ProductoRepositoryMemoria();
+        VentaRepositoryMemoria ventasReiniciadas = new VentaRepositoryMemoria(clientesReiniciados, productosReiniciados);
+
+        Producto restaurado = productosReiniciados.buscarProductoPorId(producto.getId()).orElseThrow();
+        assertEquals(11, restaurado.getCantidad());
+        Cliente clienteRestaurado = clientesReiniciados.buscarClientePorId(cliente.getId()).orElseThrow();
+        assertEquals("555", clienteRestaurado.getDocumento());
+        assertEquals("ana@correo", clienteRestaurado.getCorreo());
+        assertSame(clienteRestaurado, ventasReiniciadas.buscarVentasPorCliente(cliente.getId()).get(0).getCliente());
+
+        // Con el snapshot ya escrito, las ventas no se descuentan dos veces
+        ventasReiniciadas.cerrar();
+        productosReiniciados.cerrar();
+        clientesReiniciados.cerrar();
+        ProductoRepositoryMemoria productosTrasSnapshot = new ProductoRepositoryMemoria();
+        assertEquals(11, productosTrasSnapshot.buscarProductoPorId(producto.getId()).orElseThrow().getCantidad());
+        productosTrasSnapshot.cerrar();
+    }
+}
@@ -0,0 +1,90 @@
+package org.demo.Repositories;
+
+import org.demo.Models.Cliente;
+import org.demo.Models.Producto;
+import org.demo.Models.Venta;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Repositorios mínimos para las pruebas que no necesitan bitácoras ni datos de ejemplo.
+ * Implementan solo los métodos que esas pruebas usan; los métodos por defecto de la interfaz
+ * se ejecutan tal cual y cualquier otro lanza {@link UnsupportedOperationException}.
+ */
+public final class RepositoriosPrueba {
+
+    private RepositoriosPrueba() {}
+
+    /**
+     * Repositorio de ventas cuya suscripción entrega las ventas indicadas, en un solo lote.
+     *
+     * @param ventas ventas existentes, en orden de fecha.
+     * @return repositorio de solo lectura.
+     */
+    @SuppressWarnings("unchecked")
+    public static VentaRepository ventasCon(List<Venta> ventas) {
+        return crear(VentaRepository.class, Map.of("suscribir", argumentos -> {
+            if (!ventas.isEmpty()) {
+                ((OyenteRepositorio<Venta>) argumentos[0]).alAgregar(ventas);
+            }
+            return null;
+        }));
+    }
+
+    /**
+     * Repositorio de ventas que entrega cada venta guardada a una acción.
+     * {@code registrarVenta} es el método por defecto de la interfaz.
+     *
+     * @param guardar recibe cada venta guardada; si lanza una excepción, la venta no se guarda.
+     * @return repositorio que solo guarda.
+     */
+    public static VentaRepository ventasQueGuardan(Consumer<Venta> guardar) {
+        return crear(VentaRepository.class, Map.of("guardarVenta", argumentos -> {
+            guardar.accept((Venta) argumentos[0]);
+            return null;
+        }));
+    }
+
+    /**
+     * Repositorio de productos cuya suscripción retorna los productos indicados.
+     *
+     * @param productos productos existentes.
+     * @return repositorio de solo lectura.
+     */
+    public static ProductoRepository productosCon(Producto... productos) {
+        return crear(ProductoRepository.class, Map.of("suscribir", argumentos -> List.of(productos)));
+    }
+
+    /**
+     * Repositorio de clientes cuya suscripción retorna los clientes indicados.
+     *
+     * @param clientes clientes existentes.
+     * @return repositorio de solo lectura.
+     */
+    public static ClienteRepository clientesCon(List<Cliente> clientes) {
+        return crear(ClienteRepository.class, Map.of("suscribir", argumentos -> clientes));
+    }
+
+    private static <T> T crear(Class<T> tipo, Map<String, Metodo> metodos) {
+        InvocationHandler manejador = (proxy, metodo, argumentos) -> {
+            Metodo implementado = metodos.get(metodo.getName());
+            if (implementado != null) {
+                return implementado.invocar(argumentos);
+            }
+            if (metodo.isDefault()) {
+                return InvocationHandler.invokeDefault(proxy, metodo, argumentos);
+            }
+            throw new UnsupportedOperationException(metodo.getName());
+        };
+        return tipo.cast(Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, manejador));
+    }
+
+    @FunctionalInterface
+    private interface Metodo {
+        Object invocar(Object[] argumentos);
+    }
+}
@@ -0,0 +1,138 @@
+package org.demo.Repositories;
+
+import org.demo.Models.Cliente;
+import org.demo.Models.Producto;
+import org.demo.Models.Venta;
+import org.demo.Persistence.BaseDatos;
+import org.demo.Utils.Dinero;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Repositorio de ventas sobre la base de datos: el cierre mientras otros hilos siguen guardando
+ * ventas y la entrega del historial por páginas al suscribirse.
+ */
+class VentaRepositorySqlTest {
+    private static final int HILOS = 8;
+
+    @TempDir
+    Path carpeta;
+
+    @Test
+    void ningunaVentaQuedaEsperandoAlCerrar() throws Exception {
+        try (BaseDatos baseDatos = BaseDatos.abrir(carpeta.resolve("ventas-h2"))) {
+            new ClienteRepositorySql(baseDatos);
+            ProductoRepositorySql productos = new ProductoRepositorySql(baseDatos);
+            VentaRepositorySql ventas = new VentaRepositorySql(baseDatos, productos);
+            long iniciales = ventas.contarVentas();
+
+            Cliente cliente = new Cliente(1, "Ana", "1", "3", "Armenia", "ana@correo");
+            Producto producto = new Producto("Arepa", Dinero.pesos(1_000), 1_000_000, "Comida");
+            productos.guardarProducto(producto);
+            AtomicLong ids = new AtomicLong(1_000_000);
+            AtomicLong guardadas = new AtomicLong();
+            CountDownLatch enMarcha = new CountDownLatch(HILOS);
+            List<Thread> hilos = new ArrayList<>();
+            for (int h = 0; h < HILOS; h++) {
+                Thread hilo = new Thread(() -> {
+                    enMarcha.countDown();
+                    while (true) {
+                        Venta venta = new Venta(ids.incrementAndGet(), cliente, producto, 1, producto.getPrecio(),
+                                LocalDateTime.of(2025, 1, 1, 12, 0));
+                        try {
+                            ventas.guardarVenta(venta);
+                            guardadas.incrementAndGet();
+                        } catch (IllegalStateException e) {
+                            return;
+                        } catch (RuntimeException e) {
+                            // Encolada antes del cierre y no alcanzó a guardarse; el siguiente intento ve el cierre
+                        }
+                    }
+                });
+                hilos.add(hilo);
+                hilo.start();
+            }
+            enMarcha.await();
+            Thread.sleep(200);
+            ventas.cerrar();
+            for (Thread hilo : hilos) {
+                hilo.join(TimeUnit.SECONDS.toMillis(10));
+                assertFalse(hilo.isAlive(), "Una venta quedó esperando tras el cierre");
+            }
+
+            assertTrue(guardadas.get() > 0);
+            assertThrows(IllegalStateException.class, () -> ventas.guardarVenta(new Venta(0, cliente, producto, 1,
+                    producto.getPrecio(), LocalDateTime.of(2025, 1, 1, 12, 0))));
+            assertEquals(iniciales + guardadas.get(), ventas.contarVentas());
+        }
+    }
+
+    @Test
+    void laSuscripcionEntregaElHistorialPorPaginasEnOrdenDeFecha() throws Exception {
+        try (BaseDatos baseDatos = BaseDatos.abrir(carpeta.resolve("ventas-h2"))) {
+            new ClienteRepositorySql(baseDatos);
+            ProductoRepositorySql productos = new ProductoRepositorySql(baseDatos);
+            VentaRepositorySql ventas = new VentaRepositorySql(baseDatos, productos);
+
+            Cliente cliente = new Cliente(1, "Ana", "1", "3", "Armenia", "ana@correo");
+            Producto producto = new Producto("Arepa", Dinero.pesos(1_000), 1_000_000, "Comida");
+            productos.guardarProducto(producto);
+            // Ids y fechas en órdenes distintos, con fechas repetidas, para que la página no pueda cortar por id
+            int porHilo = 600;
+            List<Thread> hilos = new ArrayList<>();
+            for (int h = 0; h < HILOS; h++) {
+                int hilo = h;
+                hilos.add(new Thread(() -> {
+                    for (int i = 0; i < porHilo; i++) {
+                        long id = 1_000_000L + hilo * porHilo + i;
+                        ventas.guardarVenta(new Venta(id, cliente, producto, 1, producto.getPrecio(),
+                                LocalDateTime.of(2025, 1, 1, 0, 0).minusMinutes(id % 997)));
+                    }
+                }));
+            }
+            hilos.forEach(Thread::start);
+            for (Thread hilo : hilos) {
+                hilo.join();
+            }
+
+            List<Integer> paginas = new ArrayList<>();
+            List<Venta> recibidas = new ArrayList<>();
+            ventas.suscribir(new OyenteRepositorio<>() {
+                @Override
+                public void alAgregar(List<Venta> agregadas) {
+                    paginas.add(agregadas.size());
+                    recibidas.addAll(agregadas);
+                }
+            });
+
+            assertTrue(paginas.size() > 1, "El historial debería llegar en varias páginas");
+            assertEquals(ventas.contarVentas(), recibidas.size());
+            for (int i = 1; i < recibidas.size(); i++) {
+                Venta anterior = recibidas.get(i - 1);
+                Venta actual = recibidas.get(i);
+                int orden = anterior.getFecha().compareTo(actual.getFecha());
+                assertTrue(orden < 0 || orden == 0 && anterior.getId() < actual.getId(),
+                        "Ventas fuera de orden en la posición " + i);
+            }
+
+            Venta nueva = new Venta(2_000_000L, cliente, producto, 1, producto.getPrecio(), LocalDateTime.now());
+            ventas.guardarVenta(nueva);
+            assertEquals(nueva, recibidas.get(recibidas.size() - 1));
+            assertEquals(ventas.contarVentas(), recibidas.size());
+            ventas.cerrar();
+        }
+    }
+}
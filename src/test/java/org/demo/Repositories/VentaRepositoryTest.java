@@ -0,0 +1,60 @@
+package org.demo.Repositories;
+
+import org.demo.Models.Cliente;
+import org.demo.Models.Producto;
+import org.demo.Models.Venta;
+import org.demo.Services.InventarioService;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Registro de ventas con {@link VentaRepository#registrarVenta}: el stock solo se descuenta
+ * si la venta se guarda.
+ */
+class VentaRepositoryTest {
+    private final Cliente cliente = new Cliente("Simón Bolívar", "1", "300", "Caracas", "simon@correo.co");
+
+    @Test
+    void confirmaElStockAlGuardarLaVenta() {
+        List<Venta> guardadas = new ArrayList<>();
+        Producto producto = new Producto("Café", 5_000, 10, "Bebida");
+
+        Venta venta = RepositoriosPrueba.ventasQueGuardan(guardadas::add).registrarVenta(cliente, producto, 4);
+
+        assertEquals(List.of(venta), guardadas);
+        assertEquals(6, producto.getCantidad());
+        assertEquals(0, InventarioService.getInstancia().getUnidadesReservadas(producto.getId()));
+    }
+
+    @Test
+    void devuelveElStockSiLaVentaNoSePuedeGuardar() {
+        Producto producto = new Producto("Té", 4_000, 10, "Bebida");
+        VentaRepository repositorio = RepositoriosPrueba.ventasQueGuardan(venta -> {
+            throw new RuntimeException("Disco lleno");
+        });
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> repositorio.registrarVenta(cliente, producto, 4));
+
+        assertEquals("Disco lleno", error.getCause().getMessage());
+        assertEquals(10, producto.getCantidad());
+        assertEquals(0, InventarioService.getInstancia().getUnidadesReservadas(producto.getId()));
+    }
+
+    @Test
+    void informaElStockInsuficienteSinGuardarNada() {
+        List<Venta> guardadas = new ArrayList<>();
+        Producto producto = new Producto("Leche", 2_000, 2, "Lácteo");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> RepositoriosPrueba.ventasQueGuardan(guardadas::add).registrarVenta(cliente, producto, 3));
+
+        assertEquals(List.of(), guardadas);
+        assertEquals(2, producto.getCantidad());
+    }
+}
@@ -0,0 +1,97 @@
+package org.demo.Repositories;
+
+import org.demo.Repositories.VentasColumnares.ClaveGrupo;
+import org.demo.Repositories.VentasColumnares.FiltroVentas;
+import org.demo.Repositories.VentasColumnares.Resumen;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Escalamiento de la agrupación por columnas con fork/join sobre {@value #VENTAS} ventas,
+ * variando la cantidad de hilos desde uno hasta todos los núcleos.
+ *
+ * <p>Se ejecuta con {@code mvn test -Pbenchmark}; conviene darle memoria suficiente a la JVM de
+ * las pruebas (cada venta ocupa 44 bytes en columnas). Para cada clave de agrupación se reportan
+ * la mejor de {@value #REPETICIONES} mediciones, las ventas por segundo y la aceleración respecto
+ * de un hilo, y se comprueba que el resultado no cambie con la cantidad de hilos.</p>
+ */
+@Tag("benchmark")
+class VentasColumnaresBenchmark {
+    private static final int VENTAS = 12_000_000;
+    private static final int CLIENTES = 50_000;
+    private static final int PRODUCTOS = 5_000;
+    private static final int DIAS = 3 * 365;
+    private static final int REPETICIONES = 5;
+
+    @Test
+    void escalamientoDeLaAgrupacion() {
+        VentasColumnares ventas = generar();
+        FiltroVentas filtro = FiltroVentas.todas();
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        System.out.printf("Agrupación de %,d ventas, hasta %d hilos%n", VENTAS, nucleos);
+
+        for (ClaveGrupo clave : ClaveGrupo.values()) {
+            Map<Long, Resumen> esperado = null;
+            double unHilo = 0;
+            for (int hilos : cantidadesDeHilos(nucleos)) {
+                ForkJoinPool grupo = new ForkJoinPool(hilos);
+                try {
+                    Map<Long, Resumen> resultado = ventas.agrupar(filtro, clave, grupo);
+                    long mejor = Long.MAX_VALUE;
+                    for (int i = 0; i < REPETICIONES; i++) {
+                        long inicio = System.nanoTime();
+                        resultado = ventas.agrupar(filtro, clave, grupo);
+                        mejor = Math.min(mejor, System.nanoTime() - inicio);
+                    }
+                    if (esperado == null) {
+                        esperado = resultado;
+                        unHilo = mejor;
+                    } else {
+                        assertEquals(esperado, resultado, "El resultado cambió con " + hilos + " hilos");
+                    }
+                    System.out.printf("  %-8s %2d hilos: %8.1f ms  %7.1f M ventas/s  aceleración %5.2fx%n",
+                            clave, hilos, mejor / 1e6, VENTAS * 1e3 / mejor, unHilo / mejor);
+                } finally {
+                    grupo.shutdown();
+                }
+            }
+        }
+    }
+
+    private static List<Integer> cantidadesDeHilos(int nucleos) {
+        List<Integer> cantidades = new ArrayList<>();
+        for (int hilos = 1; hilos < nucleos; hilos *= 2) {
+            cantidades.add(hilos);
+        }
+        cantidades.add(nucleos);
+        return cantidades;
+    }
+
+    /**
+     * Llena un almacén sin repositorios detrás, con ventas repartidas al azar entre clientes,
+     * productos y días.
+     */
+    private static VentasColumnares generar() {
+        VentasColumnares ventas = VentasColumnares.crear(RepositoriosPrueba.ventasCon(List.of()), null, null);
+        SplittableRandom azar = new SplittableRandom(42);
+        long primerDia = VentasColumnares.marcaTiempo(LocalDate.of(2023, 1, 1).atStartOfDay());
+        // Solo este hilo escribe, por lo que no hace falta el candado de escritura
+        for (int i = 0; i < VENTAS; i++) {
+            long fecha = primerDia + (long) azar.nextInt(DIAS) * VentasColumnares.MILIS_POR_DIA
+                    + azar.nextInt((int) VentasColumnares.MILIS_POR_DIA);
+            int cantidad = 1 + azar.nextInt(5);
+            ventas.agregarFila(i + 1, fecha, 1 + azar.nextInt(CLIENTES), 1 + azar.nextInt(PRODUCTOS),
+                    cantidad, cantidad * (100_000L + azar.nextInt(900_000)));
+        }
+        return ventas;
+    }
+}
@@ -0,0 +1,68 @@
+package org.demo.Repositories;
+
+import org.demo.Repositories.VentasColumnares.FiltroVentas;
+import org.demo.Repositories.VentasColumnares.Orden;
+import org.demo.Repositories.VentasColumnares.Seleccion;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Selección de filas con una misma {@link Seleccion} reutilizada entre consultas: cada consulta
+ * reemplaza el resultado anterior y el orden es estable.
+ */
+class VentasColumnaresTest {
+    private static final int FILAS = 200_000;
+    private static final long PRIMER_DIA = VentasColumnares.marcaTiempo(LocalDate.of(2024, 1, 1).atStartOfDay());
+
+    @Test
+    void unaSeleccionReutilizadaReemplazaElResultadoAnterior() {
+        VentasColumnares ventas = generar();
+        Seleccion seleccion = new Seleccion();
+
+        ventas.seleccionar(FiltroVentas.todas(), Orden.TOTAL, true, seleccion);
+        assertEquals(FILAS, seleccion.cantidad());
+        for (int i = 1; i < seleccion.cantidad(); i++) {
+            long anterior = importe(seleccion.fila(i - 1));
+            long actual = importe(seleccion.fila(i));
+            assertTrue(anterior > actual || (anterior == actual && seleccion.fila(i - 1) > seleccion.fila(i)),
+                    "Orden descendente inestable en la posición " + i);
+        }
+
+        // Una consulta más chica sobre la misma selección no deja filas de la anterior
+        FiltroVentas delCliente = FiltroVentas.todas().delCliente(3);
+        ventas.seleccionar(delCliente, Orden.CANTIDAD, false, seleccion);
+        assertEquals(FILAS / 10, seleccion.cantidad());
+        for (int i = 1; i < seleccion.cantidad(); i++) {
+            int anterior = cantidad(seleccion.fila(i - 1));
+            int actual = cantidad(seleccion.fila(i));
+            assertTrue(anterior < actual || (anterior == actual && seleccion.fila(i - 1) < seleccion.fila(i)),
+                    "Orden ascendente inestable en la posición " + i);
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> seleccion.fila(FILAS / 10));
+
+        ventas.seleccionar(delCliente, null, false, seleccion);
+        assertEquals(List.of(3, 13, 23), List.of(seleccion.fila(0), seleccion.fila(1), seleccion.fila(2)));
+    }
+
+    private static VentasColumnares generar() {
+        VentasColumnares ventas = VentasColumnares.crear(RepositoriosPrueba.ventasCon(List.of()), null, null);
+        for (int i = 0; i < FILAS; i++) {
+            ventas.agregarFila(i + 1, PRIMER_DIA + i, i % 10, i % 7, cantidad(i), importe(i));
+        }
+        return ventas;
+    }
+
+    private static int cantidad(int fila) {
+        return 1 + fila % 5;
+    }
+
+    private static long importe(int fila) {
+        return cantidad(fila) * (1_000L + fila % 997);
+    }
+}
@@ -0,0 +1,100 @@
+package org.demo.Services;
+
+import org.demo.Models.Cliente;
+import org.demo.Models.Producto;
+import org.demo.Models.Venta;
+import org.demo.Repositories.RepositoriosPrueba;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Con ventas de varios años, los días viejos se compactan en meses sin perder lo que se
+ * puede consultar por rangos de fechas ni los clientes por producto.
+ */
+class BocetosVentasTest {
+    private static final LocalDate INICIO = LocalDate.of(2020, 1, 1);
+    private static final int DIAS = 3 * 365;
+    private static final int DIAS_DETALLADOS = 30;
+    private static final int CLIENTES_POR_DIA = 5;
+
+    private final Producto producto = new Producto(1, "Café", 2_000, 0, "Bebida");
+    private final Producto otro = new Producto(2, "Pan", 500, 0, "Panadería");
+
+    @Test
+    void losDiasViejosSeCompactanEnMeses() {
+        BocetosVentas bocetos = BocetosVentas.crear(RepositoriosPrueba.ventasCon(ventas()), configuracion());
+
+        int[] periodos = bocetos.contarPeriodos();
+        assertEquals(DIAS_DETALLADOS, periodos[0]);
+        LocalDate primerDiaDetallado = INICIO.plusDays(DIAS - DIAS_DETALLADOS);
+        // Meses completos antes de la ventana, más el mes en que empieza si no empieza el día 1
+        int meses = (primerDiaDetallado.getYear() - INICIO.getYear()) * 12 + primerDiaDetallado.getMonthValue() - 1
+                + (primerDiaDetallado.getDayOfMonth() > 1 ? 1 : 0);
+        assertEquals(meses, periodos[1]);
+    }
+
+    @Test
+    void losRangosCompactadosSeConsultanPorMes() {
+        BocetosVentas bocetos = BocetosVentas.crear(RepositoriosPrueba.ventasCon(ventas()), configuracion());
+
+        // Enero de 2020 ya está compactado: cualquier día del mes responde por el mes completo
+        long enero = bocetos.clientesDistintosEntre(LocalDate.of(2020, 1, 10), LocalDate.of(2020, 1, 10));
+        assertCerca(31 * CLIENTES_POR_DIA, enero);
+        assertEquals(31L * CLIENTES_POR_DIA * 2, bocetos.unidadesEstimadasEntre(1, INICIO, LocalDate.of(2020, 1, 31)),
+                31L * CLIENTES_POR_DIA * 2 / 50);
+
+        // Los días recientes siguen detallados
+        LocalDate ultimo = INICIO.plusDays(DIAS - 1);
+        assertCerca(CLIENTES_POR_DIA, bocetos.clientesDistintosEntre(ultimo, ultimo));
+    }
+
+    @Test
+    void losClientesPorProductoSeCombinanEntrePeriodos() {
+        BocetosVentas bocetos = BocetosVentas.crear(RepositoriosPrueba.ventasCon(ventas()), configuracion());
+
+        assertCerca(DIAS * CLIENTES_POR_DIA, bocetos.clientesDistintosPorProducto(1));
+        assertCerca(DIAS, bocetos.clientesDistintosPorProducto(2));
+        // Un trimestre ya compactado y una semana detallada
+        assertCerca(91 * CLIENTES_POR_DIA, bocetos.clientesDistintosPorProductoEntre(1,
+                LocalDate.of(2020, 1, 1), LocalDate.of(2020, 3, 31)));
+        LocalDate ultimo = INICIO.plusDays(DIAS - 1);
+        assertCerca(7, bocetos.clientesDistintosPorProductoEntre(2, ultimo.minusDays(6), ultimo));
+    }
+
+    /**
+     * Cada día compran {@value #CLIENTES_POR_DIA} clientes nuevos el producto 1, dos unidades cada uno,
+     * y el primero de ellos compra además el producto 2.
+     */
+    private List<Venta> ventas() {
+        List<Venta> ventas = new ArrayList<>();
+        long id = 1;
+        long idCliente = 1;
+        for (int d = 0; d < DIAS; d++) {
+            LocalDate dia = INICIO.plusDays(d);
+            for (int c = 0; c < CLIENTES_POR_DIA; c++, idCliente++) {
+                Cliente cliente = new Cliente(idCliente, "Cliente " + idCliente, "", "", "", "");
+                ventas.add(new Venta(id++, cliente, producto, 2, producto.getPrecio(), dia.atTime(10, c)));
+                if (c == 0) {
+                    ventas.add(new Venta(id++, cliente, otro, 1, otro.getPrecio(), dia.atTime(11, 0)));
+                }
+            }
+        }
+        return ventas;
+    }
+
+    private static BocetosVentas.Configuracion configuracion() {
+        return new BocetosVentas.Configuracion(12, 12, 0.002, 0.02, 20, DIAS_DETALLADOS);
+    }
+
+    private static void assertCerca(long esperado, long estimado) {
+        // Con precisión 12 el error típico es cercano al 1,6 %; se deja margen de sobra
+        assertTrue(Math.abs(estimado - esperado) <= Math.max(2, esperado / 10),
+                "Se esperaba cerca de " + esperado + " y se estimó " + estimado);
+    }
+}
@@ -0,0 +1,92 @@
+package org.demo.Services;
+
+import org.demo.Models.Cliente;
+import org.demo.Repositories.RepositoriosPrueba;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Tiempo de respuesta de {@link BuscadorClientes} con {@value #CLIENTES} clientes, escribiendo
+ * una consulta letra por letra como en la caja de búsqueda.
+ *
+ * <p>Se ejecuta con {@code mvn test -Pbenchmark}. Los nombres combinan nombres y apellidos
+ * comunes con tildes, por lo que las palabras se repiten entre miles de clientes. Para cada
+ * consulta se reporta la mediana y el peor de {@value #REPETICIONES} búsquedas, después de
+ * {@value #CALENTAMIENTO} de calentamiento.</p>
+ */
+@Tag("benchmark")
+class BuscadorClientesBenchmark {
+    private static final int CLIENTES = 1_000_000;
+    private static final int LIMITE = 20;
+    private static final int CALENTAMIENTO = 20;
+    private static final int REPETICIONES = 30;
+
+    private static final String[] NOMBRES = {"Simón", "José", "María", "Andrés", "Sofía", "Julián", "Lucía",
+            "Martín", "Valentina", "Sebastián", "Camila", "Nicolás", "Isabel", "Tomás", "Mónica", "Raúl",
+            "Verónica", "Óscar", "Ángela", "Iván", "Beatriz", "Héctor", "Inés", "Rubén", "Gonzalo", "Paula",
+            "Esteban", "Natalia", "Jesús", "Adriana"};
+    private static final String[] APELLIDOS = {"Bolívar", "García", "Rodríguez", "Martínez", "Hernández",
+            "López", "González", "Pérez", "Sánchez", "Ramírez", "Torres", "Flórez", "Gómez", "Díaz", "Vásquez",
+            "Jiménez", "Muñoz", "Rojas", "Álvarez", "Castaño", "Ortíz", "Gutiérrez", "Suárez", "Valencia",
+            "Quintero", "Cárdenas", "Restrepo", "Zuluaga", "Ospina", "Montoya", "Arango", "Henao", "Giraldo",
+            "Cardona", "Londoño", "Mejía", "Osorio", "Salazar", "Vélez", "Duque"};
+    private static final String[] DOMINIOS = {"gmail.com", "hotmail.com", "outlook.com", "yahoo.es", "correo.co"};
+
+    private static final String[] CONSULTAS = {"s", "si", "sim", "simo", "simon", "simon b", "simon bo",
+            "simon bol", "simon boli", "simon boliv", "simon bolivar", "simn bolivr", "bolivar simon",
+            "maria", "garcia", "gmail", "1092", "10923", "3001234"};
+
+    @Test
+    void busquedaMientrasSeEscribe() {
+        long inicio = System.nanoTime();
+        BuscadorClientes buscador = BuscadorClientes.crear(RepositoriosPrueba.clientesCon(clientes()));
+        System.out.printf("Índice de %,d clientes construido en %,d ms%n", CLIENTES,
+                (System.nanoTime() - inicio) / 1_000_000);
+
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            for (String consulta : CONSULTAS) {
+                buscador.buscar(consulta, LIMITE);
+            }
+        }
+        for (String consulta : CONSULTAS) {
+            long[] tiempos = new long[REPETICIONES];
+            List<Cliente> encontrados = List.of();
+            for (int i = 0; i < REPETICIONES; i++) {
+                long antes = System.nanoTime();
+                encontrados = buscador.buscar(consulta, LIMITE);
+                tiempos[i] = System.nanoTime() - antes;
+            }
+            Arrays.sort(tiempos);
+            System.out.printf("  %-16s mediana %7.2f ms  peor %7.2f ms  %2d resultados  primero: %s%n",
+                    '"' + consulta + '"', tiempos[REPETICIONES / 2] / 1e6, tiempos[REPETICIONES - 1] / 1e6,
+                    encontrados.size(), encontrados.isEmpty() ? "-" : encontrados.get(0).getNombre());
+            if (consulta.length() >= 2) {
+                assertFalse(encontrados.isEmpty(), "Sin resultados para " + consulta);
+            }
+        }
+    }
+
+    private static List<Cliente> clientes() {
+        SplittableRandom azar = new SplittableRandom(7);
+        List<Cliente> clientes = new ArrayList<>(CLIENTES);
+        for (int i = 0; i < CLIENTES; i++) {
+            String nombre = NOMBRES[azar.nextInt(NOMBRES.length)];
+            String apellido = APELLIDOS[azar.nextInt(APELLIDOS.length)];
+            String segundo = APELLIDOS[azar.nextInt(APELLIDOS.length)];
+            String documento = Long.toString(1_000_000L + azar.nextLong(99_000_000L));
+            String telefono = Long.toString(3_000_000_000L + azar.nextLong(300_000_000L));
+            String correo = nombre.toLowerCase() + "." + apellido.toLowerCase() + i + "@"
+                    + DOMINIOS[azar.nextInt(DOMINIOS.length)];
+            clientes.add(new Cliente(i + 1, nombre + " " + apellido + " " + segundo, documento, telefono,
+                    "Calle " + azar.nextInt(200), correo));
+        }
+        return clientes;
+    }
+}
@@ -0,0 +1,96 @@
+package org.demo.Services;
+
+import org.demo.Models.Cliente;
+import org.demo.Repositories.RepositoriosPrueba;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Búsqueda aproximada de clientes: plegado de tildes y signos, errores de tipeo, palabras a
+ * medio escribir y reindexado al actualizar o eliminar.
+ */
+class BuscadorClientesTest {
+    private final Cliente simon = new Cliente(1, "Simón Bolívar", "1092313", "3142141", "Armenia", "simon@gmail.com");
+    private final Cliente armando = new Cliente(2, "Armando Casas", "10924213", "3144541", "Armenia", "casas@gmail.com");
+    private final Cliente chino = new Cliente(3, "Chino Moreno", "42142132", "31241241", "Armenia", "chino@gmail.com");
+    private final Cliente maria = new Cliente(4, "María Ángela Muñoz", "55512345", "3001234567", "Pereira",
+            "maria.munoz@correo.co");
+
+    @Test
+    void plegarQuitaTildesMayusculasYSignos() {
+        assertEquals(" simon bolivar", texto(BuscadorClientes.plegar("  Simón BOLÍVAR ")));
+        assertEquals(" maria angela munoz", texto(BuscadorClientes.plegar("María Ángela Muñoz")));
+        assertEquals(" maria munoz correo co", texto(BuscadorClientes.plegar("maria.munoz@correo.co")));
+        // Letras de otros alfabetos cuentan como parte de la palabra
+        assertEquals(" _ _", texto(BuscadorClientes.plegar("Ж-Ж")));
+    }
+
+    @Test
+    void encuentraSinTildesNiMayusculas() {
+        BuscadorClientes buscador = crear();
+
+        assertEquals(List.of(simon), buscador.buscar("simon bolivar", 5));
+        assertEquals(List.of(simon), buscador.buscar("SIMÓN", 5));
+        assertEquals(List.of(maria), buscador.buscar("angela munoz", 5));
+    }
+
+    @Test
+    void toleraErroresDeTipeo() {
+        BuscadorClientes buscador = crear();
+
+        assertEquals(simon, buscador.buscar("simn bolivr", 5).get(0));
+        assertEquals(simon, buscador.buscar("bolivra", 5).get(0));
+        assertEquals(chino, buscador.buscar("moremo", 5).get(0));
+    }
+
+    @Test
+    void encuentraPalabrasAMedioEscribir() {
+        BuscadorClientes buscador = crear();
+
+        assertEquals(List.of(simon), buscador.buscar("sim", 5));
+        assertEquals(List.of(armando), buscador.buscar("armando cas", 5));
+        // Documento y teléfono por su comienzo; el más corto primero entre los que empatan
+        assertEquals(List.of(simon, armando), buscador.buscar("1092", 5));
+        assertEquals(List.of(maria), buscador.buscar("300123", 5));
+        assertEquals(3, buscador.buscar("gmail", 5).size());
+        assertEquals(List.of(), buscador.buscar("s", 5));
+        assertEquals(1, buscador.buscar("gmail", 1).size());
+        assertThrows(IllegalArgumentException.class, () -> buscador.buscar("simon", 0));
+    }
+
+    @Test
+    void reindexaAlActualizarYDejaDeEncontrarAlEliminar() {
+        BuscadorClientes buscador = crear();
+
+        // El repositorio avisa con el cliente ya modificado
+        simon.setNombre("Simón José Antonio");
+        simon.setCorreo("libertador@correo.co");
+        buscador.alActualizar(simon);
+        assertEquals(List.of(), buscador.buscar("bolivar", 5));
+        assertEquals(List.of(simon), buscador.buscar("jose antonio", 5));
+        assertEquals(2, buscador.buscar("gmail", 5).size());
+
+        buscador.alEliminar(armando);
+        assertEquals(List.of(), buscador.buscar("armando", 5));
+        assertEquals(List.of(simon), buscador.buscar("1092", 5));
+
+        // La posición liberada se reutiliza sin arrastrar los trigramas del eliminado
+        Cliente nuevo = new Cliente(5, "Policarpa Salavarrieta", "77777777", "3100000000", "Guaduas", "pola@correo.co");
+        buscador.alAgregar(List.of(nuevo));
+        assertEquals(List.of(nuevo), buscador.buscar("policarpa", 5));
+        assertEquals(List.of(), buscador.buscar("casas", 5));
+    }
+
+    private BuscadorClientes crear() {
+        return BuscadorClientes.crear(RepositoriosPrueba.clientesCon(List.of(simon, armando, chino, maria)));
+    }
+
+    private static String texto(byte[] plegado) {
+        return new String(plegado, StandardCharsets.US_ASCII);
+    }
+}
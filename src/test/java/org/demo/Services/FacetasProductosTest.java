@@ -0,0 +1,71 @@
+package org.demo.Services;
+
+import org.demo.Models.Producto;
+import org.demo.Repositories.RepositoriosPrueba;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Las ventas concurrentes de un mismo producto, cerca de los límites entre niveles de stock,
+ * deben dejar el producto en el nivel que corresponde a su cantidad final.
+ */
+class FacetasProductosTest {
+    private static final int HILOS = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+    private static final int OPERACIONES_POR_HILO = 20_000;
+
+    private final InventarioService inventario = InventarioService.getInstancia();
+
+    @Test
+    void elNivelCoincideConElStockTrasVentasConcurrentes() throws InterruptedException {
+        // 12 unidades: las reservas cruzan los límites de MEDIO a BAJO y de BAJO a AGOTADO
+        Producto producto = new Producto("Producto facetado", 1_000, 12, "Prueba");
+        FacetasProductos facetas = FacetasProductos.crear(RepositoriosPrueba.productosCon(producto), inventario);
+
+        for (int ronda = 0; ronda < 5; ronda++) {
+            CountDownLatch salida = new CountDownLatch(1);
+            List<Thread> hilos = new ArrayList<>();
+            for (int h = 0; h < HILOS; h++) {
+                Thread hilo = new Thread(() -> {
+                    ThreadLocalRandom azar = ThreadLocalRandom.current();
+                    try {
+                        salida.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < OPERACIONES_POR_HILO; i++) {
+                        ReservaStock reserva;
+                        try {
+                            reserva = inventario.reservar(producto, 1 + azar.nextInt(3));
+                        } catch (IllegalArgumentException e) {
+                            continue;
+                        }
+                        reserva.liberar();
+                    }
+                });
+                hilo.start();
+                hilos.add(hilo);
+            }
+            salida.countDown();
+            for (Thread hilo : hilos) {
+                hilo.join();
+            }
+
+            assertEquals(12, producto.getCantidad());
+            FacetasProductos.Filtro filtro = new FacetasProductos.Filtro(null, null, FacetasProductos.NivelStock.MEDIO);
+            assertEquals(1, facetas.contar(filtro).total(), "Ronda " + ronda);
+        }
+
+        // Al agotarse, la última venta deja el producto en AGOTADO aunque compita con otras
+        inventario.reservar(producto, 12).confirmar();
+        FacetasProductos.Filtro agotados = new FacetasProductos.Filtro(null, null, FacetasProductos.NivelStock.AGOTADO);
+        assertEquals(1, facetas.contar(agotados).total());
+        assertTrue(facetas.buscar(agotados).contains(producto));
+    }
+}
@@ -0,0 +1,104 @@
+package org.demo.Services;
+
+import org.demo.Models.Producto;
+import org.demo.Persistence.ConfiguracionDatos;
+import org.demo.Repositories.ClienteRepositoryMemoria;
+import org.demo.Repositories.OyenteRepositorio;
+import org.demo.Repositories.ProductoRepositoryMemoria;
+import org.demo.Utils.Dinero;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Importación por lotes: los duplicados se detectan contra el repositorio y contra los lotes
+ * anteriores del mismo archivo, y cada lote se guarda con una sola notificación.
+ */
+class ImportadorCsvTest {
+
+    @TempDir
+    Path carpeta;
+
+    private String directorioAnterior;
+
+    @BeforeEach
+    void usarCarpetaTemporal() {
+        directorioAnterior = System.setProperty(ConfiguracionDatos.PROPIEDAD_DIRECTORIO, carpeta.toString());
+    }
+
+    @AfterEach
+    void restaurarDirectorio() {
+        if (directorioAnterior == null) {
+            System.clearProperty(ConfiguracionDatos.PROPIEDAD_DIRECTORIO);
+        } else {
+            System.setProperty(ConfiguracionDatos.PROPIEDAD_DIRECTORIO, directorioAnterior);
+        }
+    }
+
+    @Test
+    void productosRepetidosEnOtroLoteSeRechazanYCadaLoteNotificaUnaVez() throws IOException {
+        ProductoRepositoryMemoria productos = new ProductoRepositoryMemoria();
+        productos.guardarProducto(new Producto("Registrado", Dinero.pesos(1_000), 1, "Prueba"));
+        List<Integer> notificaciones = new ArrayList<>();
+        productos.contarYSuscribir(new OyenteRepositorio<>() {
+            @Override
+            public void alAgregar(List<Producto> agregados) {
+                notificaciones.add(agregados.size());
+            }
+        });
+
+        List<String> lineas = new ArrayList<>();
+        lineas.add("nombre,precio,cantidad,categoria");
+        int distintos = ImportadorCsv.TAMANO_LOTE + 500;
+        for (int i = 0; i < distintos; i++) {
+            lineas.add("Producto " + i + ",1000,1,Prueba");
+        }
+        lineas.add("Producto 0,1000,1,Prueba");
+        lineas.add("Registrado,1000,1,Prueba");
+        lineas.add("Sin precio,,1,Prueba");
+        Path archivo = carpeta.resolve("productos.csv");
+        Files.write(archivo, lineas);
+
+        ResultadoImportacion resultado = ImportadorCsv.importarProductos(archivo, productos);
+
+        assertEquals(distintos, resultado.getAceptados());
+        List<String> motivos = resultado.getRechazos().stream().map(ResultadoImportacion.Rechazo::motivo).toList();
+        assertEquals(List.of("Producto ya registrado: Producto 0", "Producto ya registrado: Registrado",
+                "Precio inválido: "), motivos);
+        // El encabezado ocupa la línea 1
+        assertEquals(ImportadorCsv.TAMANO_LOTE + 502, resultado.getRechazos().get(0).linea());
+        assertEquals(List.of(ImportadorCsv.TAMANO_LOTE, 500), notificaciones);
+        productos.cerrar();
+    }
+
+    @Test
+    void clientesConClavesRepetidasSeRechazanSinDistinguirMayusculas() throws IOException {
+        ClienteRepositoryMemoria clientes = new ClienteRepositoryMemoria();
+        Path archivo = carpeta.resolve("clientes.csv");
+        Files.write(archivo, List.of(
+                "Ana,1000001,3000000001,Calle 1,ana@correo.com",
+                "Ana bis,1000001,3000000002,Calle 2,ana.bis@correo.com",
+                "Beto,1000002,3000000001,Calle 3,beto@correo.com",
+                "Carla,1000003,3000000003,Calle 4,ANA@correo.com",
+                "Dario,1000004,3000000004,Calle 5,dario@correo.com"));
+        int antes = clientes.contarClientes();
+
+        ResultadoImportacion resultado = ImportadorCsv.importarClientes(archivo, clientes);
+
+        assertEquals(2, resultado.getAceptados());
+        assertEquals(antes + 2, clientes.contarClientes());
+        List<String> motivos = resultado.getRechazos().stream().map(ResultadoImportacion.Rechazo::motivo).toList();
+        assertEquals(List.of("Documento ya registrado: 1000001", "Teléfono ya registrado: 3000000001",
+                "Correo ya registrado: ANA@correo.com"), motivos);
+        clientes.cerrar();
+    }
+}
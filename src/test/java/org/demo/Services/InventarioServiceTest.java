@@ -0,0 +1,161 @@
+package org.demo.Services;
+
+import org.demo.Models.Producto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prueba de esfuerzo del inventario: muchos hilos reservan, confirman y liberan stock de los
+ * mismos productos a la vez, y el stock nunca puede quedar negativo ni perder o ganar unidades.
+ */
+class InventarioServiceTest {
+    private static final int HILOS = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+    private static final int OPERACIONES_POR_HILO = 50_000;
+    private static final int STOCK_INICIAL = 10_000;
+
+    private final InventarioService inventario = InventarioService.getInstancia();
+
+    @Test
+    void elStockNuncaQuedaNegativoYSeConservanLasUnidades() throws InterruptedException {
+        List<Producto> productos = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            productos.add(new Producto("Producto " + i, 1_000, STOCK_INICIAL, "Prueba"));
+        }
+        AtomicLong[] vendidas = new AtomicLong[productos.size()];
+        for (int i = 0; i < vendidas.length; i++) {
+            vendidas[i] = new AtomicLong();
+        }
+        AtomicInteger rechazadas = new AtomicInteger();
+        AtomicBoolean terminado = new AtomicBoolean();
+        AtomicInteger negativos = new AtomicInteger();
+
+        // Observa el stock mientras los hilos lo modifican: ningún valor intermedio puede ser negativo
+        Thread observador = new Thread(() -> {
+            while (!terminado.get()) {
+                for (Producto producto : productos) {
+                    if (producto.getCantidad() < 0) {
+                        negativos.incrementAndGet();
+                    }
+                }
+            }
+        });
+        observador.start();
+
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Thread> hilos = new ArrayList<>();
+        List<Throwable> errores = new ArrayList<>();
+        for (int h = 0; h < HILOS; h++) {
+            Thread hilo = new Thread(() -> {
+                ThreadLocalRandom azar = ThreadLocalRandom.current();
+                try {
+                    salida.await();
+                    for (int i = 0; i < OPERACIONES_POR_HILO; i++) {
+                        int indice = azar.nextInt(productos.size());
+                        ReservaStock reserva;
+                        try {
+                            reserva = inventario.reservar(productos.get(indice), 1 + azar.nextInt(5));
+                        } catch (IllegalArgumentException e) {
+                            rechazadas.incrementAndGet();
+                            continue;
+                        }
+                        // Libera más de lo que confirma, para que el stock suba y baje durante la prueba
+                        if (azar.nextInt(10) < 3) {
+                            reserva.confirmar();
+                            vendidas[indice].addAndGet(reserva.getUnidades());
+                        } else {
+                            reserva.liberar();
+                        }
+                    }
+                } catch (Throwable e) {
+                    synchronized (errores) {
+                        errores.add(e);
+                    }
+                }
+            });
+            hilos.add(hilo);
+            hilo.start();
+        }
+        salida.countDown();
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+        terminado.set(true);
+        observador.join();
+
+        assertTrue(errores.isEmpty(), () -> "Errores en los hilos: " + errores);
+        assertEquals(0, negativos.get(), "El stock se observó negativo");
+        assertTrue(rechazadas.get() > 0, "La prueba debe agotar el stock alguna vez");
+        for (int i = 0; i < productos.size(); i++) {
+            Producto producto = productos.get(i);
+            assertTrue(producto.getCantidad() >= 0);
+            assertEquals(STOCK_INICIAL, producto.getCantidad() + vendidas[i].get(),
+                    "Stock más unidades vendidas de " + producto.getNombre());
+            assertEquals(0, inventario.getUnidadesReservadas(producto.getId()));
+        }
+    }
+
+    @Test
+    void losAjustesNoPisanLasReservasConcurrentes() throws InterruptedException {
+        Producto producto = new Producto("Ajustado", 1_000, STOCK_INICIAL, "Prueba");
+        AtomicLong vendidas = new AtomicLong();
+        CountDownLatch salida = new CountDownLatch(1);
+
+        Thread vendedor = new Thread(() -> {
+            try {
+                salida.await();
+            } catch (InterruptedException e) {
+                return;
+            }
+            for (int i = 0; i < OPERACIONES_POR_HILO; i++) {
+                try {
+                    inventario.reservar(producto, 1).confirmar();
+                    vendidas.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    // Sin stock en este momento; el reabastecimiento lo repone
+                }
+            }
+        });
+        Thread reabastecedor = new Thread(() -> {
+            try {
+                salida.await();
+            } catch (InterruptedException e) {
+                return;
+            }
+            for (int i = 0; i < OPERACIONES_POR_HILO; i++) {
+                inventario.ajustar(producto, 1);
+            }
+        });
+        vendedor.start();
+        reabastecedor.start();
+        salida.countDown();
+        vendedor.join();
+        reabastecedor.join();
+
+        assertEquals(STOCK_INICIAL + OPERACIONES_POR_HILO, producto.getCantidad() + vendidas.get());
+        assertThrows(IllegalArgumentException.class, () -> inventario.ajustar(producto, -producto.getCantidad() - 1));
+    }
+
+    @Test
+    void noSeReservaMasDeLoQueHay() {
+        Producto producto = new Producto("Único", 1_000, 3, "Prueba");
+
+        ReservaStock reserva = inventario.reservar(producto, 3);
+        assertThrows(IllegalArgumentException.class, () -> inventario.reservar(producto, 1));
+        assertEquals(0, producto.getCantidad());
+
+        reserva.liberar();
+        assertEquals(3, producto.getCantidad());
+        assertThrows(IllegalStateException.class, reserva::confirmar);
+    }
+}
@@ -0,0 +1,66 @@
+package org.demo.Services;
+
+import org.demo.Models.Cliente;
+import org.demo.Models.Producto;
+import org.demo.Models.Venta;
+import org.demo.Repositories.RepositoriosPrueba;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Con meses de ventas, los minutos y las horas solo se conservan dentro de su ventana de
+ * retención, mientras que los días y los meses conservan toda la historia.
+ */
+class VentasPorPeriodoTest {
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final int DIAS = 60;
+
+    private final Cliente cliente = new Cliente(1, "Cliente", "", "", "", "");
+    private final Producto producto = new Producto(1, "Café", 2_000, 0, "Bebida");
+    private long id;
+
+    @Test
+    void losMinutosYLasHorasViejosSeDescartanSinPerderLosTotales() {
+        // Una venta cada diez minutos durante 60 días
+        List<Venta> ventas = new ArrayList<>();
+        for (LocalDateTime fecha = INICIO; fecha.isBefore(INICIO.plusDays(DIAS)); fecha = fecha.plusMinutes(10)) {
+            ventas.add(venta(fecha));
+        }
+        VentasPorPeriodo periodos = VentasPorPeriodo.crear(RepositoriosPrueba.ventasCon(ventas));
+        LocalDateTime fin = INICIO.plusDays(DIAS).minusMinutes(1);
+
+        List<VentasPorPeriodo.Periodo> minutos = periodos.consultar(VentasPorPeriodo.Nivel.MINUTO, INICIO, fin);
+        // Siete días de minutos, con margen para la tanda que aún no se descarta
+        assertEquals(7 * 24 * 6, minutos.stream().filter(p -> !p.inicio().isBefore(fin.minusDays(7))).count());
+        assertTrue(minutos.size() < 9 * 24 * 6);
+        assertEquals(DIAS * 24, periodos.consultar(VentasPorPeriodo.Nivel.HORA, INICIO, fin).size());
+        assertEquals(DIAS, periodos.consultar(VentasPorPeriodo.Nivel.DIA, INICIO, fin).size());
+        assertEquals(ventas.size(), periodos.total(VentasPorPeriodo.Nivel.DIA, INICIO, fin).ventas());
+        assertEquals(ventas.size(), periodos.total(VentasPorPeriodo.Nivel.MES, INICIO, fin).ventas());
+    }
+
+    @Test
+    void unaVentaAtrasadaFueraDeLaVentanaSoloSeSumaALosNivelesQueLaConservan() {
+        VentasPorPeriodo periodos = VentasPorPeriodo.crear(RepositoriosPrueba.ventasCon(List.of(
+                venta(INICIO.plusDays(DIAS)))));
+        LocalDateTime atrasada = INICIO.plusMinutes(5);
+
+        periodos.alAgregar(List.of(venta(atrasada), venta(INICIO.plusDays(DIAS - 1))));
+
+        assertEquals(List.of(), periodos.consultar(VentasPorPeriodo.Nivel.MINUTO, atrasada, atrasada));
+        assertEquals(1, periodos.total(VentasPorPeriodo.Nivel.HORA, atrasada, atrasada).ventas());
+        assertEquals(1, periodos.total(VentasPorPeriodo.Nivel.DIA, atrasada, atrasada).ventas());
+        assertEquals(1, periodos.consultar(VentasPorPeriodo.Nivel.MINUTO, INICIO.plusDays(DIAS - 1),
+                INICIO.plusDays(DIAS - 1)).size());
+    }
+
+    private Venta venta(LocalDateTime fecha) {
+        return new Venta(++id, cliente, producto, 1, producto.getPrecio(), fecha);
+    }
+}
@@ -0,0 +1,138 @@
+package org.demo.Utils;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rendimiento de la generación de identificadores con todos los núcleos generando a la vez,
+ * comparado con un contador compartido de un solo {@link AtomicLong}.
+ *
+ * <p>Se ejecuta con {@code mvn test -Pbenchmark}. Cada configuración corre
+ * {@value #MILIS_CALENTAMIENTO} ms de calentamiento y {@value #MILIS_MEDICION} ms de medición,
+ * y se reportan millones de identificadores por segundo en total y por hilo. Además se comprueba
+ * que ningún identificador se repita entre hilos y que cada hilo los reciba en orden creciente.</p>
+ */
+@Tag("benchmark")
+class GeneradorIdTemporalBenchmark {
+    private static final int HILOS = Runtime.getRuntime().availableProcessors();
+    private static final int MILIS_CALENTAMIENTO = 500;
+    private static final int MILIS_MEDICION = 2_000;
+    private static final int IDS_VERIFICADOS_POR_HILO = 1_000_000;
+
+    @Test
+    void rendimientoConTodosLosNucleos() throws InterruptedException {
+        System.out.printf("Generación de ids con %d hilos%n", HILOS);
+        AtomicLong contador = new AtomicLong();
+        GeneradorId compartido = new GeneradorId() {
+            @Override
+            public long siguienteId() {
+                return contador.incrementAndGet();
+            }
+
+            @Override
+            public void asegurarMayorQue(long id) {
+                contador.accumulateAndGet(id, Math::max);
+            }
+        };
+        reportar("AtomicLong compartido", compartido);
+        for (int tamanoBloque : new int[]{1, 64, 1024}) {
+            reportar("GeneradorIdTemporal, bloque " + tamanoBloque, new GeneradorIdTemporal(tamanoBloque));
+        }
+    }
+
+    @Test
+    void idsUnicosYCrecientesPorHilo() throws InterruptedException {
+        GeneradorIdTemporal generador = new GeneradorIdTemporal();
+        long[][] ids = new long[HILOS][IDS_VERIFICADOS_POR_HILO];
+        correr(HILOS, hilo -> {
+            for (int i = 0; i < IDS_VERIFICADOS_POR_HILO; i++) {
+                ids[hilo][i] = generador.siguienteId();
+            }
+        });
+
+        long[] todos = new long[HILOS * IDS_VERIFICADOS_POR_HILO];
+        for (int h = 0; h < HILOS; h++) {
+            for (int i = 1; i < IDS_VERIFICADOS_POR_HILO; i++) {
+                assertTrue(ids[h][i] > ids[h][i - 1], "Ids fuera de orden en el hilo " + h);
+            }
+            System.arraycopy(ids[h], 0, todos, h * IDS_VERIFICADOS_POR_HILO, IDS_VERIFICADOS_POR_HILO);
+        }
+        Arrays.sort(todos);
+        long distintos = Arrays.stream(todos).distinct().count();
+        assertEquals(todos.length, distintos, "Ids repetidos entre hilos");
+    }
+
+    private static void reportar(String nombre, GeneradorId generador) throws InterruptedException {
+        medir(generador, MILIS_CALENTAMIENTO);
+        long ids = medir(generador, MILIS_MEDICION);
+        double millonesPorSegundo = ids / (MILIS_MEDICION * 1_000.0);
+        System.out.printf("  %-34s %8.1f M ids/s  (%6.1f M por hilo)%n",
+                nombre, millonesPorSegundo, millonesPorSegundo / HILOS);
+    }
+
+    /**
+     * @return identificadores generados entre todos los hilos durante el tiempo indicado.
+     */
+    private static long medir(GeneradorId generador, int milis) throws InterruptedException {
+        AtomicBoolean detener = new AtomicBoolean();
+        long[] generados = new long[HILOS];
+        long[] sumidero = new long[HILOS];
+        Thread reloj = new Thread(() -> {
+            try {
+                Thread.sleep(milis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            detener.set(true);
+        });
+        reloj.start();
+        correr(HILOS, hilo -> {
+            long cantidad = 0;
+            long suma = 0;
+            while (!detener.get()) {
+                // Bloques de 1.000 para que leer la bandera no domine la medición
+                for (int i = 0; i < 1_000; i++) {
+                    suma += generador.siguienteId();
+                }
+                cantidad += 1_000;
+            }
+            generados[hilo] = cantidad;
+            sumidero[hilo] = suma;
+        });
+        reloj.join();
+        // Usa la suma para que el compilador no descarte las llamadas
+        assertTrue(Arrays.stream(sumidero).sum() != 0);
+        return Arrays.stream(generados).sum();
+    }
+
+    private static void correr(int hilos, IntConsumer trabajo) throws InterruptedException {
+        CountDownLatch salida = new CountDownLatch(1);
+        Thread[] trabajadores = new Thread[hilos];
+        for (int h = 0; h < hilos; h++) {
+            int hilo = h;
+            trabajadores[h] = new Thread(() -> {
+                try {
+                    salida.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                trabajo.accept(hilo);
+            });
+            trabajadores[h].start();
+        }
+        salida.countDown();
+        for (Thread trabajador : trabajadores) {
+            trabajador.join();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package org.demo.Views;
+
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.cell.PropertyValueFactory;
+import org.demo.Models.Cliente;
+import org.demo.Models.Producto;
+import org.demo.Models.Venta;
+import org.demo.Utils.Dinero;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Memoria asignada y tiempo por cuadro al desplazar la tabla de ventas, con las fábricas de
+ * celdas anteriores ({@link PropertyValueFactory} y un {@code SimpleStringProperty} por celda)
+ * y con {@link CeldasTabla}.
+ *
+ * <p>Se ejecuta con {@code mvn test -Pbenchmark}. Cada cuadro baja {@value #FILAS_POR_CUADRO}
+ * filas y pide a las siete columnas el valor de las {@value #FILAS_VISIBLES} filas visibles, como
+ * hace la tabla al volver a dibujar sus celdas; se recorren las {@value #VENTAS} ventas hacia
+ * abajo y de vuelta hacia arriba. La memoria se mide con los bytes asignados por el hilo.</p>
+ */
+@Tag("benchmark")
+class CeldasTablaBenchmark {
+    private static final int VENTAS = 2_000;
+    private static final int FILAS_VISIBLES = 30;
+    private static final int FILAS_POR_CUADRO = 3;
+    private static final int CALENTAMIENTO = 20;
+    private static final int REPETICIONES = 10;
+
+    private final List<Venta> ventas = ventas();
+
+    @Test
+    void asignacionPorCuadroAlDesplazar() {
+        com.sun.management.ThreadMXBean hilos = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        List<TableColumn<Venta, ?>> antes = columnasAntes();
+        List<TableColumn<Venta, ?>> despues = columnasDespues();
+        assertEquals(textos(antes), textos(despues), "Las dos versiones deben mostrar lo mismo");
+
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            desplazar(antes);
+            desplazar(despues);
+        }
+        System.out.printf("Desplazamiento de %,d ventas, %d filas visibles, %d filas por cuadro%n",
+                VENTAS, FILAS_VISIBLES, FILAS_POR_CUADRO);
+        double[] medidaAntes = medir(hilos, antes);
+        double[] medidaDespues = medir(hilos, despues);
+        System.out.printf("  Antes (PropertyValueFactory y SimpleStringProperty): %8.1f KB  %7.1f µs por cuadro%n",
+                medidaAntes[0] / 1024, medidaAntes[1] / 1e3);
+        System.out.printf("  Después (CeldasTabla):                               %8.1f KB  %7.1f µs por cuadro%n",
+                medidaDespues[0] / 1024, medidaDespues[1] / 1e3);
+        assertTrue(medidaDespues[0] < medidaAntes[0], "CeldasTabla debería asignar menos memoria por cuadro");
+    }
+
+    /**
+     * Mejor de {@value #REPETICIONES} recorridos completos, en bytes asignados y nanosegundos por cuadro.
+     */
+    private double[] medir(com.sun.management.ThreadMXBean hilos, List<TableColumn<Venta, ?>> columnas) {
+        long mejorBytes = Long.MAX_VALUE;
+        long mejorTiempo = Long.MAX_VALUE;
+        int cuadros = 0;
+        for (int i = 0; i < REPETICIONES; i++) {
+            long bytes = hilos.getCurrentThreadAllocatedBytes();
+            long inicio = System.nanoTime();
+            cuadros = desplazar(columnas);
+            mejorTiempo = Math.min(mejorTiempo, System.nanoTime() - inicio);
+            mejorBytes = Math.min(mejorBytes, hilos.getCurrentThreadAllocatedBytes() - bytes);
+        }
+        return new double[]{(double) mejorBytes / cuadros, (double) mejorTiempo / cuadros};
+    }
+
+    /**
+     * Recorre las ventas hacia abajo y de vuelta hacia arriba, y retorna la cantidad de cuadros dibujados.
+     */
+    private int desplazar(List<TableColumn<Venta, ?>> columnas) {
+        int cuadros = 0;
+        int ultimaPrimera = VENTAS - FILAS_VISIBLES;
+        long suma = 0;
+        for (int primera = 0; primera <= ultimaPrimera; primera += FILAS_POR_CUADRO, cuadros++) {
+            suma += dibujar(columnas, primera);
+        }
+        for (int primera = ultimaPrimera; primera >= 0; primera -= FILAS_POR_CUADRO, cuadros++) {
+            suma += dibujar(columnas, primera);
+        }
+        // Evita que el compilador descarte los valores leídos
+        if (suma == 42) {
+            System.out.print("");
+        }
+        return cuadros;
+    }
+
+    private long dibujar(List<TableColumn<Venta, ?>> columnas, int primera) {
+        long suma = 0;
+        for (int fila = primera; fila < primera + FILAS_VISIBLES; fila++) {
+            for (TableColumn<Venta, ?> columna : columnas) {
+                suma += Objects.hashCode(valor(columna, ventas.get(fila)).getValue());
+            }
+        }
+        return suma;
+    }
+
+    private List<String> textos(List<TableColumn<Venta, ?>> columnas) {
+        List<String> textos = new ArrayList<>();
+        for (int fila = 0; fila < FILAS_VISIBLES; fila++) {
+            for (TableColumn<Venta, ?> columna : columnas) {
+                textos.add(String.valueOf(valor(columna, ventas.get(fila)).getValue()));
+            }
+        }
+        return textos;
+    }
+
+    /**
+     * Pide el valor de una celda como lo hace {@link TableColumn#getCellObservableValue(Object)}.
+     */
+    private static <T> ObservableValue<T> valor(TableColumn<Venta, T> columna, Venta venta) {
+        return columna.getCellValueFactory().call(new TableColumn.CellDataFeatures<>(null, columna, venta));
+    }
+
+    /**
+     * Columnas como estaban en la tabla de ventas antes de {@link CeldasTabla}.
+     */
+    private static List<TableColumn<Venta, ?>> columnasAntes() {
+        TableColumn<Venta, Long> id = new TableColumn<>();
+        TableColumn<Venta, String> fecha = new TableColumn<>();
+        TableColumn<Venta, String> cliente = new TableColumn<>();
+        TableColumn<Venta, String> producto = new TableColumn<>();
+        TableColumn<Venta, String> precio = new TableColumn<>();
+        TableColumn<Venta, Integer> cantidad = new TableColumn<>();
+        TableColumn<Venta, String> total = new TableColumn<>();
+        id.setCellValueFactory(new PropertyValueFactory<>("id"));
+        mostrarTexto(fecha, Venta::getFechaFormateada);
+        mostrarTexto(cliente, venta -> venta.getCliente().getNombre());
+        mostrarTexto(producto, venta -> venta.getProducto().getNombre());
+        mostrarTexto(precio, venta -> Dinero.formatear(venta.getPrecioUnitario()));
+        cantidad.setCellValueFactory(new PropertyValueFactory<>("cantidad"));
+        mostrarTexto(total, venta -> Dinero.formatear(venta.getTotal()));
+        return List.of(id, fecha, cliente, producto, precio, cantidad, total);
+    }
+
+    private static void mostrarTexto(TableColumn<Venta, String> columna, Function<Venta, String> texto) {
+        columna.setCellValueFactory(datos -> new SimpleStringProperty(texto.apply(datos.getValue())));
+    }
+
+    /**
+     * Columnas configuradas como en {@code VentasController}.
+     */
+    private static List<TableColumn<Venta, ?>> columnasDespues() {
+        TableColumn<Venta, Long> id = new TableColumn<>();
+        TableColumn<Venta, String> fecha = new TableColumn<>();
+        TableColumn<Venta, String> cliente = new TableColumn<>();
+        TableColumn<Venta, String> producto = new TableColumn<>();
+        TableColumn<Venta, String> precio = new TableColumn<>();
+        TableColumn<Venta, Integer> cantidad = new TableColumn<>();
+        TableColumn<Venta, String> total = new TableColumn<>();
+        CeldasTabla.numero(id, Venta::getId);
+        CeldasTabla.formato(fecha, Venta::getFecha, Venta.FORMATO_FECHA::format);
+        CeldasTabla.valor(cliente, venta -> venta.getCliente().getNombre());
+        CeldasTabla.valor(producto, venta -> venta.getProducto().getNombre());
+        CeldasTabla.formatoNumero(precio, Venta::getPrecioUnitario, Dinero::formatear);
+        CeldasTabla.entero(cantidad, Venta::getCantidad);
+        CeldasTabla.formatoNumero(total, Venta::getTotal, Dinero::formatear);
+        return List.of(id, fecha, cliente, producto, precio, cantidad, total);
+    }
+
+    private static List<Venta> ventas() {
+        List<Venta> ventas = new ArrayList<>();
+        LocalDateTime inicio = LocalDateTime.of(2024, 1, 1, 8, 0);
+        for (int i = 0; i < VENTAS; i++) {
+            Cliente cliente = new Cliente(1 + i % 200, "Cliente " + (1 + i % 200), "", "", "", "");
+            Producto producto = new Producto(1 + i % 50, "Producto " + (1 + i % 50), Dinero.pesos(1_000 + i % 50 * 250),
+                    100, "Prueba");
+            ventas.add(new Venta(i + 1, cliente, producto, 1 + i % 5, producto.getPrecio(), inicio.plusMinutes(17L * i)));
+        }
+        return ventas;
+    }
+}